@@ -56,6 +56,9 @@ public class KieBaseUpdaterANC implements KieBaseUpdater {
         else if (ancMode.filter(AlphaNetworkCompilerOption.LOAD::equals).isPresent()) {
             logger.debug("Loading compiled alpha network from KJar");
             loadFromKJar(ctx.getClassLoader(), ctx.getRete());
+        } // compile it lazily, only for the object types with enough traffic
+        else if (ancMode.filter(AlphaNetworkCompilerOption.TIERED::equals).isPresent()) {
+            new TieredAlphaNetworkCompiler(ctx.getClassLoader(), ctx::enqueueModification).profile(ctx.getRete());
         }
     }
 
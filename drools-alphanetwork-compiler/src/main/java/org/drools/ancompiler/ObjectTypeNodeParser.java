@@ -99,7 +99,9 @@ public class ObjectTypeNodeParser {
     }
 
     private void traversePropagator(ObjectSinkPropagator propagator, NetworkHandler handler) {
-        if (propagator instanceof SingleObjectSinkAdapter) {
+        if (propagator instanceof ProfilingSinkPropagator) {
+            traversePropagator(((ProfilingSinkPropagator) propagator).getDelegate(), handler);
+        } else if (propagator instanceof SingleObjectSinkAdapter) {
             // we know there is only a single child sink for this propagator
             ObjectSink sink = propagator.getSinks()[0];
 
@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.ancompiler;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.drools.base.common.RuleBasePartitionId;
+import org.drools.core.common.BaseNode;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.PropagationContext;
+import org.drools.core.common.ReteEvaluator;
+import org.drools.core.reteoo.ModifyPreviousTuples;
+import org.drools.core.reteoo.ObjectSink;
+import org.drools.core.reteoo.ObjectSinkPropagator;
+import org.drools.core.reteoo.ObjectTypeNode;
+
+/**
+ * Wraps the interpreted sink propagator of an {@link ObjectTypeNode}, counting the propagations going through it.
+ * Once the threshold is reached the node is reported as hot, only once, so that it can be compiled.
+ */
+public class ProfilingSinkPropagator implements ObjectSinkPropagator {
+
+    private final ObjectTypeNode objectTypeNode;
+    private final long threshold;
+    private final Consumer<ProfilingSinkPropagator> onHot;
+
+    private final AtomicBoolean hot = new AtomicBoolean();
+
+    private final LongAdder propagations = new LongAdder();
+
+    private ObjectSinkPropagator delegate;
+
+    public ProfilingSinkPropagator(ObjectTypeNode objectTypeNode, long threshold, Consumer<ProfilingSinkPropagator> onHot) {
+        this.objectTypeNode = objectTypeNode;
+        this.delegate = objectTypeNode.getObjectSinkPropagator();
+        this.threshold = threshold;
+        this.onHot = onHot;
+    }
+
+    public ObjectTypeNode getObjectTypeNode() {
+        return objectTypeNode;
+    }
+
+    public ObjectSinkPropagator getDelegate() {
+        return delegate;
+    }
+
+    public long getPropagations() {
+        return propagations.sum();
+    }
+
+    /**
+     * Restarts the profiling, so that the node is reported as hot again once the threshold is reached.
+     */
+    public void reset() {
+        propagations.reset();
+        hot.set(false);
+    }
+
+    private void profile() {
+        if (hot.get()) {
+            return;
+        }
+        propagations.increment();
+        if (propagations.sum() >= threshold && hot.compareAndSet(false, true)) {
+            onHot.accept(this);
+        }
+    }
+
+    @Override
+    public void propagateAssertObject(InternalFactHandle factHandle, PropagationContext context, ReteEvaluator reteEvaluator) {
+        delegate.propagateAssertObject(factHandle, context, reteEvaluator);
+        profile();
+    }
+
+    @Override
+    public void propagateModifyObject(InternalFactHandle factHandle, ModifyPreviousTuples modifyPreviousTuples, PropagationContext context, ReteEvaluator reteEvaluator) {
+        delegate.propagateModifyObject(factHandle, modifyPreviousTuples, context, reteEvaluator);
+        profile();
+    }
+
+    @Override
+    public void byPassModifyToBetaNode(InternalFactHandle factHandle, ModifyPreviousTuples modifyPreviousTuples, PropagationContext context, ReteEvaluator reteEvaluator) {
+        delegate.byPassModifyToBetaNode(factHandle, modifyPreviousTuples, context, reteEvaluator);
+    }
+
+    @Override
+    public ObjectSinkPropagator addObjectSink(ObjectSink sink, int alphaNodeHashingThreshold, int alphaNodeRangeIndexThreshold) {
+        delegate = delegate.addObjectSink(sink, alphaNodeHashingThreshold, alphaNodeRangeIndexThreshold);
+        return this;
+    }
+
+    @Override
+    public ObjectSinkPropagator removeObjectSink(ObjectSink sink) {
+        delegate = delegate.removeObjectSink(sink);
+        return this;
+    }
+
+    @Override
+    public void changeSinkPartition(ObjectSink sink, RuleBasePartitionId oldPartition, RuleBasePartitionId newPartition, int alphaNodeHashingThreshold, int alphaNodeRangeIndexThreshold) {
+        delegate.changeSinkPartition(sink, oldPartition, newPartition, alphaNodeHashingThreshold, alphaNodeRangeIndexThreshold);
+    }
+
+    @Override
+    public BaseNode getMatchingNode(BaseNode candidate) {
+        return delegate.getMatchingNode(candidate);
+    }
+
+    @Override
+    public ObjectSink[] getSinks() {
+        return delegate.getSinks();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public void doLinkRiaNode(ReteEvaluator reteEvaluator) {
+        delegate.doLinkRiaNode(reteEvaluator);
+    }
+
+    @Override
+    public void doUnlinkRiaNode(ReteEvaluator reteEvaluator) {
+        delegate.doUnlinkRiaNode(reteEvaluator);
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+    }
+}
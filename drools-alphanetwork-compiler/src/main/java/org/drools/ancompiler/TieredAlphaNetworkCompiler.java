@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.ancompiler;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.reteoo.Rete;
+import org.kie.internal.concurrent.ExecutorProviderFactory;
+import org.kie.memorycompiler.KieMemoryCompiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.Collections.singletonMap;
+
+/**
+ * Leaves the alpha network interpreted and profiles the propagations of each {@link ObjectTypeNode},
+ * compiling in background and swapping in a {@link CompiledNetwork} only for the nodes becoming hot.
+ * This avoids compiling the alpha network of object types that never or rarely get inserted.
+ */
+public class TieredAlphaNetworkCompiler {
+
+    public static final String THRESHOLD_PROPERTY_NAME = "drools.alphaNetworkCompiler.tieredThreshold";
+
+    public static final long DEFAULT_THRESHOLD = 10_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(TieredAlphaNetworkCompiler.class);
+
+    private final ClassLoader rootClassLoader;
+    private final long threshold;
+    private final Executor executor;
+    private final Consumer<Runnable> modificationsQueue;
+
+    public TieredAlphaNetworkCompiler(ClassLoader rootClassLoader, Consumer<Runnable> modificationsQueue) {
+        this(rootClassLoader, Long.getLong(THRESHOLD_PROPERTY_NAME, DEFAULT_THRESHOLD), ExecutorProviderFactory.getExecutorProvider().getExecutor(), modificationsQueue);
+    }
+
+    /**
+     * @param modificationsQueue runs the installation of a compiled network as a kbase modification, while no
+     *                           session is propagating
+     */
+    public TieredAlphaNetworkCompiler(ClassLoader rootClassLoader, long threshold, Executor executor, Consumer<Runnable> modificationsQueue) {
+        this.rootClassLoader = rootClassLoader;
+        this.threshold = threshold;
+        this.executor = executor;
+        this.modificationsQueue = modificationsQueue;
+    }
+
+    public void profile(Rete rete) {
+        for (ObjectTypeNode otn : ObjectTypeNodeCompiler.objectTypeNodes(rete)) {
+            if (!(otn.getObjectSinkPropagator() instanceof ProfilingSinkPropagator)) {
+                otn.setObjectSinkPropagator(new ProfilingSinkPropagator(otn, threshold, this::compileInBackground));
+            }
+        }
+    }
+
+    private void compileInBackground(ProfilingSinkPropagator profiled) {
+        executor.execute(() -> compile(profiled));
+    }
+
+    void compile(ProfilingSinkPropagator profiled) {
+        ObjectTypeNode otn = profiled.getObjectTypeNode();
+        if (otn.getObjectSinkPropagator() != profiled) {
+            // the network has been changed in the meanwhile
+            return;
+        }
+
+        // the parser sees through the profiling propagator, so the sources are generated leaving the network untouched
+        CompiledNetworkSources sources;
+        Class<?> compiledClass;
+        try {
+            sources = new ObjectTypeNodeCompiler(otn).generateSource();
+            Map<String, Class<?>> compiledClasses = KieMemoryCompiler.compile(singletonMap(sources.getName(), sources.getSource()), rootClassLoader);
+            compiledClass = compiledClasses.get(sources.getName());
+        } catch (RuntimeException e) {
+            logger.warn("Unable to compile alpha network of " + otn + ", keeping it interpreted", e);
+            return;
+        }
+
+        modificationsQueue.accept(() -> install(profiled, sources, compiledClass));
+    }
+
+    private void install(ProfilingSinkPropagator profiled, CompiledNetworkSources sources, Class<?> compiledClass) {
+        ObjectTypeNode otn = profiled.getObjectTypeNode();
+        if (otn.getObjectSinkPropagator() != profiled) {
+            return;
+        }
+        if (!new ObjectTypeNodeCompiler(otn).generateSource().getSource().equals(sources.getSource())) {
+            // a kbase update changed the network while it was being compiled, it will be compiled again if still hot
+            logger.debug("Alpha network of {} changed while being compiled, discarding it", otn);
+            profiled.reset();
+            return;
+        }
+
+        // the compiled network has to wrap the interpreted one
+        otn.setObjectSinkPropagator(profiled.getDelegate());
+        sources.createInstanceAndSet(compiledClass);
+        logger.debug("Compiled alpha network of {} after {} propagations", otn, profiled.getPropagations());
+    }
+}
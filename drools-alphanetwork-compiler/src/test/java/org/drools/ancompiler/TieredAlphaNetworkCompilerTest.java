@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.ancompiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.base.base.ClassObjectType;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.kiesession.rulebase.InternalKnowledgeBase;
+import org.junit.Test;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieServices;
+import org.kie.api.builder.model.KieModuleModel;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.builder.conf.AlphaNetworkCompilerOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TieredAlphaNetworkCompilerTest extends BaseModelTest {
+
+    public TieredAlphaNetworkCompilerTest(RUN_TYPE testRunType) {
+        super(testRunType);
+    }
+
+    // tiered compilation is configured by each test
+    final static Object[] STANDARD = {
+            RUN_TYPE.STANDARD_FROM_DRL,
+    };
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Object[] params() {
+        return STANDARD;
+    }
+
+    @Test
+    public void testCompileOnlyHotObjectTypes() {
+        String str =
+                "import " + Person.class.getCanonicalName() + ";" +
+                "global java.util.List results;\n" +
+                "rule R1 when\n" +
+                "    $p : Person(name == \"James Bond\")\n" +
+                "then\n" +
+                "    results.add($p);\n" +
+                "end\n" +
+                "rule R2 when\n" +
+                "    $s : String(this == \"Bond\")\n" +
+                "then\n" +
+                "    results.add($s);\n" +
+                "end";
+
+        KieSession ksession = getKieSession(str);
+        final List<Object> results = new ArrayList<>();
+        ksession.setGlobal("results", results);
+
+        InternalKnowledgeBase kbase = (InternalKnowledgeBase) ksession.getKieBase();
+        // compile and install synchronously after 3 propagations
+        new TieredAlphaNetworkCompiler(kbase.getRootClassLoader(), 3, Runnable::run, Runnable::run).profile(kbase.getRete());
+
+        ObjectTypeNode personOtn = objectTypeNode(kbase, Person.class);
+        ObjectTypeNode stringOtn = objectTypeNode(kbase, String.class);
+        assertThat(personOtn.getObjectSinkPropagator()).isInstanceOf(ProfilingSinkPropagator.class);
+
+        ksession.insert("Bond");
+        final Person jamesBond = new Person("James Bond", 40);
+        ksession.insert(jamesBond);
+        ksession.insert(new Person("Mario", 40));
+        assertThat(personOtn.getObjectSinkPropagator()).isInstanceOf(ProfilingSinkPropagator.class);
+
+        ksession.insert(new Person("Luca", 30));
+        assertThat(personOtn.getObjectSinkPropagator()).isInstanceOf(CompiledNetwork.class);
+        assertThat(stringOtn.getObjectSinkPropagator()).isInstanceOf(ProfilingSinkPropagator.class);
+
+        final Person otherBond = new Person("James Bond", 50);
+        ksession.insert(otherBond);
+        ksession.fireAllRules();
+
+        assertThat(results).containsExactlyInAnyOrder("Bond", jamesBond, otherBond);
+    }
+
+    @Test(timeout = 20000L)
+    public void testTieredOptionInstallsCompiledNetworkAfterThreshold() throws InterruptedException {
+        String str =
+                "import " + Person.class.getCanonicalName() + ";" +
+                "global java.util.List results;\n" +
+                "rule R1 when\n" +
+                "    $p : Person(name == \"James Bond\")\n" +
+                "then\n" +
+                "    results.add($p);\n" +
+                "end";
+
+        KieModuleModel model = KieServices.get().newKieModuleModel();
+        model.setConfigurationProperty(AlphaNetworkCompilerOption.PROPERTY_NAME, AlphaNetworkCompilerOption.TIERED.getMode());
+
+        String previousThreshold = System.getProperty(TieredAlphaNetworkCompiler.THRESHOLD_PROPERTY_NAME);
+        System.setProperty(TieredAlphaNetworkCompiler.THRESHOLD_PROPERTY_NAME, "3");
+        KieSession ksession;
+        try {
+            ksession = getKieSession(model, str);
+        } finally {
+            if (previousThreshold == null) {
+                System.clearProperty(TieredAlphaNetworkCompiler.THRESHOLD_PROPERTY_NAME);
+            } else {
+                System.setProperty(TieredAlphaNetworkCompiler.THRESHOLD_PROPERTY_NAME, previousThreshold);
+            }
+        }
+        final List<Object> results = new ArrayList<>();
+        ksession.setGlobal("results", results);
+
+        InternalKnowledgeBase kbase = (InternalKnowledgeBase) ksession.getKieBase();
+        ObjectTypeNode personOtn = objectTypeNode(kbase, Person.class);
+        assertThat(personOtn.getObjectSinkPropagator()).isInstanceOf(ProfilingSinkPropagator.class);
+
+        ksession.insert(new Person("Mario", 40));
+        ksession.insert(new Person("Luca", 30));
+        ksession.insert(new Person("Edson", 35));
+
+        // the network is compiled in background and installed as a kbase modification
+        while (!(personOtn.getObjectSinkPropagator() instanceof CompiledNetwork)) {
+            Thread.sleep(10L);
+        }
+
+        final Person jamesBond = new Person("James Bond", 40);
+        ksession.insert(jamesBond);
+        ksession.fireAllRules();
+
+        assertThat(results).containsExactly(jamesBond);
+    }
+
+    private ObjectTypeNode objectTypeNode(InternalKnowledgeBase kbase, Class<?> type) {
+        return ObjectTypeNodeCompiler.objectTypeNodes(kbase.getRete()).stream()
+                .filter(otn -> ((ClassObjectType) otn.getObjectType()).getClassType() == type)
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+    }
+}
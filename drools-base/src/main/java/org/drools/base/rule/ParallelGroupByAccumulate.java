@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.base.rule;
+
+import org.drools.base.base.ValueResolver;
+import org.drools.base.reteoo.BaseTuple;
+import org.kie.api.runtime.rule.FactHandle;
+
+/**
+ * A group by accumulate whose matches can be accumulated concurrently when they belong to different groups, first
+ * resolving their group with {@link #getGroup} on the firing thread and then accumulating them with
+ * {@link #accumulateInGroup}, possibly on another thread.
+ */
+public interface ParallelGroupByAccumulate {
+
+    /**
+     * Returns the group the given match belongs to, creating it when it doesn't exist yet, without accumulating the match.
+     */
+    Object getGroup(Object workingMemoryContext, Object groupByContext, BaseTuple match, FactHandle handle,
+                    ValueResolver valueResolver);
+
+    /**
+     * Accumulates the given match in a group previously returned by {@link #getGroup}.
+     */
+    Object accumulateInGroup(Object workingMemoryContext, Object group, BaseTuple match, FactHandle handle,
+                             ValueResolver valueResolver);
+}
@@ -0,0 +1,40 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.base.rule;
+
+import org.drools.base.rule.constraint.BetaNodeFieldConstraint;
+import org.drools.base.time.TemporalIndexRange;
+
+/**
+ * A beta constraint between the event matched by its pattern and an event bound in the left tuple,
+ * whose right memory can be kept sorted by event timestamp and probed by time range.
+ */
+public interface TemporalIndexableConstraint extends BetaNodeFieldConstraint {
+
+    /**
+     * @return the range the timestamps of the right event must fall in to possibly match,
+     *         or null if this constraint cannot be used to index the right memory
+     */
+    TemporalIndexRange getTemporalIndexRange();
+
+    /**
+     * @return the declaration of the left event the range is relative to
+     */
+    Declaration getTemporalIndexDeclaration();
+}
@@ -22,8 +22,11 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.drools.base.base.ClassObjectType;
 import org.drools.base.factmodel.ClassDefinition;
@@ -35,6 +38,7 @@ import org.drools.base.base.ObjectType;
 import org.drools.base.util.PropertyReactivityUtil;
 import org.drools.base.util.TimeIntervalParser;
 import org.drools.util.ClassUtils;
+import org.drools.util.bitmask.BitMask;
 import org.kie.api.definition.type.ClassReactive;
 import org.kie.api.definition.type.Expires;
 import org.kie.api.definition.type.Expires.Policy;
@@ -44,6 +48,8 @@ import org.kie.api.io.Resource;
 import org.kie.internal.builder.conf.PropertySpecificOption;
 import org.kie.internal.definition.KnowledgeDefinition;
 
+import static org.drools.base.reteoo.PropertySpecificUtil.calculatePositiveMask;
+
 /**
  * The type declaration class stores all type's metadata
  * declared in source files.
@@ -120,6 +126,7 @@ public class TypeDeclaration
     private boolean                propertyReactive;
     private boolean                javaBased;
     private transient List<String> accessibleProperties;
+    private transient Map<List<String>, BitMask> modificationMasks;
 
     private transient ObjectType   objectType;
     private long                   expirationOffset = NEVER_EXPIRES;
@@ -508,6 +515,26 @@ public class TypeDeclaration
         return accessibleProperties;
     }
 
+    /**
+     * Returns the modification mask of an update of the given properties of this type. Masks are computed once for
+     * each distinct list of properties, and each call returns a copy of the cached one, since bit masks are mutable.
+     */
+    public BitMask getModificationMask(String... modifiedProperties) {
+        Map<List<String>, BitMask> masks = modificationMasks;
+        if (masks == null) {
+            masks = new ConcurrentHashMap<>();
+            modificationMasks = masks;
+        }
+        BitMask mask = masks.get(Arrays.asList(modifiedProperties));
+        if (mask == null) {
+            // the key is copied, so that a later change of the caller's array cannot corrupt the cache
+            List<String> key = Arrays.asList(modifiedProperties.clone());
+            mask = calculatePositiveMask(getTypeClassName(), key, getAccessibleProperties());
+            masks.putIfAbsent(key, mask);
+        }
+        return mask.clone();
+    }
+
     public String toString() {
         return "TypeDeclaration{" +
                 "typeName='" + typeName + '\'' +
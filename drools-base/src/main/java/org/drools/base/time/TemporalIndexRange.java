@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.base.time;
+
+import java.io.Serializable;
+
+/**
+ * Describes a temporal constraint between the event matched by a pattern (right) and an event
+ * bound earlier in the rule (left) as a linear bound on their timestamps:
+ *
+ * lowerBound <= right.rightAnchor - left.leftAnchor <= upperBound
+ *
+ * The bound is only a necessary condition for the constraint to be satisfied, so that it
+ * can be used to restrict the right events that have to be evaluated against a left tuple.
+ */
+public class TemporalIndexRange implements Serializable {
+
+    public enum Anchor {
+        START, END
+    }
+
+    private final Anchor rightAnchor;
+    private final Anchor leftAnchor;
+    private final long lowerBound;
+    private final long upperBound;
+
+    public TemporalIndexRange(Anchor rightAnchor, Anchor leftAnchor, long lowerBound, long upperBound) {
+        this.rightAnchor = rightAnchor;
+        this.leftAnchor = leftAnchor;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+    }
+
+    /**
+     * The range for: right.start - left.end within [initRange, finalRange]
+     */
+    public static TemporalIndexRange after(long initRange, long finalRange) {
+        return new TemporalIndexRange(Anchor.START, Anchor.END, initRange, finalRange);
+    }
+
+    /**
+     * The range for: left.start - right.end within [initRange, finalRange]
+     */
+    public static TemporalIndexRange before(long initRange, long finalRange) {
+        return new TemporalIndexRange(Anchor.END, Anchor.START, negate(finalRange), negate(initRange));
+    }
+
+    private static long negate(long bound) {
+        if (bound == Interval.MIN) {
+            return Interval.MAX;
+        }
+        return bound == Interval.MAX ? Interval.MIN : -bound;
+    }
+
+    public Anchor getRightAnchor() {
+        return rightAnchor;
+    }
+
+    public Anchor getLeftAnchor() {
+        return leftAnchor;
+    }
+
+    public long getLowerBound() {
+        return lowerBound;
+    }
+
+    public long getUpperBound() {
+        return upperBound;
+    }
+
+    @Override
+    public String toString() {
+        return "TemporalIndexRange[right." + rightAnchor + " - left." + leftAnchor + " in [" + lowerBound + ", " + upperBound + "]]";
+    }
+}
@@ -54,14 +54,31 @@ public class BayesAbsorption {
         normalize(trgPotentials);
     }
 
+    /**
+     * Absorbs srcPotentials into trgPotentials, using an index map created with
+     * {@link PotentialMultiplier#createSubsetIndexMap(BayesVariable[], BayesVariable[])}.
+     * oldSrcPotentials is overwritten with the ratios between the new and the old potentials.
+     */
+    public static void absorb(int[] indexMap, double[] oldSrcPotentials, double[] srcPotentials, double[] trgPotentials) {
+        for ( int i = 0, length = srcPotentials.length; i < length; i++ ) {
+            double oldP = oldSrcPotentials[i];
+            oldSrcPotentials[i] = oldP == 0.0 ? 0.0 : srcPotentials[i] / oldP;
+        }
+
+        for ( int i = 0, length = trgPotentials.length; i < length; i++ ) {
+            trgPotentials[i] *= oldSrcPotentials[indexMap[i]];
+        }
+        normalize(trgPotentials);
+    }
+
     public static void normalize(double[] array) {
         double sum = 0.0;
         for ( int i = 0, length = array.length; i < length; i++ ) {
             sum += array[i];
         }
 
-        for ( int i = 0, length = array.length; i < length; i++ ) {
-            if (sum != 0) {
+        if (sum != 0) {
+            for ( int i = 0, length = array.length; i < length; i++ ) {
                 array[i] = array[i]/sum;
             }
         }
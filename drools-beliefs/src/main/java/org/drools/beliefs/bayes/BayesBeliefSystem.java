@@ -125,6 +125,11 @@ public class BayesBeliefSystem<M extends BayesHardEvidence<M>> implements Belief
         }  // else no change
     }
 
+    @Override
+    public void retract(BeliefSet<M> beliefSet, PropagationContext context, InternalMatch internalMatch) {
+        // the retractions are never deferred, the likelihood has already been unset when the belief set became empty
+    }
+
     @Override
     public void stage(PropagationContext context, BeliefSet<M> beliefSet) {
 
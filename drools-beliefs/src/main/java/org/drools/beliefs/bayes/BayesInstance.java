@@ -18,6 +18,7 @@
  */
 package org.drools.beliefs.bayes;
 
+import org.drools.base.common.PartitionsManager;
 import org.drools.beliefs.graph.Graph;
 import org.drools.beliefs.graph.GraphNode;
 import org.drools.util.bitmask.BitMaskUtil;
@@ -34,6 +35,9 @@ import java.util.Map;
 public class BayesInstance<T> {
     private static final SecureRandom randomGenerator = new SecureRandom();
 
+    // minimum number of potentials in the subtrees of a clique, before messages are passed on them in parallel
+    private static final int PARALLEL_SUBTREE_THRESHOLD = 4096;
+
     private Graph<BayesVariable>       graph;
     private JunctionTree               tree;
     private Map<String, BayesVariable> variables;
@@ -46,6 +50,9 @@ public class BayesInstance<T> {
     private SeparatorState[]     separatorStates;
     private BayesVariableState[] varStates;
 
+    private boolean              parallel;
+    private int[]                subtreeSizes;
+
     private GlobalUpdateListener globalUpdateListener;
     private PassMessageListener  passMessageListener;
 
@@ -83,6 +90,18 @@ public class BayesInstance<T> {
             variables.put(var.getName(), var);
             varStates[var.getId()] = var.createState();
         }
+
+        subtreeSizes = new int[cliqueStates.length];
+        initSubtreeSizes(tree.getRoot());
+    }
+
+    private int initSubtreeSizes(JunctionTreeClique clique) {
+        int size = cliqueStates[clique.getId()].getPotentials().length;
+        for ( JunctionTreeSeparator sep : clique.getChildren() ) {
+            size += initSubtreeSizes(sep.getChild());
+        }
+        subtreeSizes[clique.getId()] = size;
+        return size;
     }
 
     public void reset() {
@@ -171,6 +190,19 @@ public class BayesInstance<T> {
         this.passMessageListener = passMessageListener;
     }
 
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * When enabled, a global update from the root passes the messages of independent subtrees in parallel,
+     * as long as they are big enough to be worth it. It is only used when no PassMessageListener is set,
+     * as the listener expects the messages in the sequential order.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     public Map<String, BayesVariable> getVariables() {
         return variables;
     }
@@ -260,8 +292,13 @@ public class BayesInstance<T> {
         if ( globalUpdateListener != null ) {
             globalUpdateListener.beforeGlobalUpdate(cliqueStates[clique.getId()]);
         }
-        collectEvidence( clique );
-        distributeEvidence( clique );
+        if ( passMessageListener == null && clique == tree.getRoot() ) {
+            collectSubtreeEvidence( clique );
+            distributeSubtreeEvidence( clique );
+        } else {
+            collectEvidence( clique );
+            distributeEvidence( clique );
+        }
         if ( globalUpdateListener != null ) {
             globalUpdateListener.afterGlobalUpdate(cliqueStates[clique.getId()]);
         }
@@ -317,6 +354,50 @@ public class BayesInstance<T> {
         }
     }
 
+    /**
+     * Collects the evidence of the subtree of the given clique into it. The subtrees of the children are independent,
+     * so they can be collected in parallel, while the messages into the clique itself are passed sequentially.
+     */
+    private void collectSubtreeEvidence(JunctionTreeClique clique) {
+        List<JunctionTreeSeparator> seps = clique.getChildren();
+        if ( isParallelSubtrees( clique ) ) {
+            PartitionsManager.doOnForkJoinPool( () -> seps.parallelStream().forEach( sep -> collectSubtreeEvidence( sep.getChild() ) ) );
+        } else {
+            for ( JunctionTreeSeparator sep : seps ) {
+                collectSubtreeEvidence( sep.getChild() );
+            }
+        }
+
+        for ( JunctionTreeSeparator sep : seps ) {
+            passMessage( sep.getChild(), sep, clique );
+        }
+    }
+
+    /**
+     * Distributes the evidence of the given clique into its subtree. The clique is only read while passing the messages
+     * to its children, so each child and its subtree can be updated in parallel.
+     */
+    private void distributeSubtreeEvidence(JunctionTreeClique clique) {
+        List<JunctionTreeSeparator> seps = clique.getChildren();
+        if ( isParallelSubtrees( clique ) ) {
+            PartitionsManager.doOnForkJoinPool( () -> seps.parallelStream().forEach( sep -> distributeSubtreeEvidence( clique, sep ) ) );
+        } else {
+            for ( JunctionTreeSeparator sep : seps ) {
+                distributeSubtreeEvidence( clique, sep );
+            }
+        }
+    }
+
+    private void distributeSubtreeEvidence(JunctionTreeClique clique, JunctionTreeSeparator sep) {
+        passMessage( clique, sep, sep.getChild() );
+        distributeSubtreeEvidence( sep.getChild() );
+    }
+
+    private boolean isParallelSubtrees(JunctionTreeClique clique) {
+        return parallel && clique.getChildren().size() > 1 &&
+               subtreeSizes[clique.getId()] - cliqueStates[clique.getId()].getPotentials().length >= PARALLEL_SUBTREE_THRESHOLD;
+    }
+
     public void distributeEvidence(JunctionTreeClique clique) {
         if ( clique.getParentSeparator() != null ) {
             distributeParentEvidence(clique.getParentSeparator().getParent(), clique.getParentSeparator(), clique, clique);
@@ -368,53 +449,29 @@ public class BayesInstance<T> {
      * @param targetClique
      */
     public void passMessage( JunctionTreeClique sourceClique, JunctionTreeSeparator sep, JunctionTreeClique targetClique) {
-        double[] sepPots = separatorStates[sep.getId()].getPotentials();
-        double[] oldSepPots = Arrays.copyOf(sepPots, sepPots.length);
+        SeparatorState separatorState = separatorStates[sep.getId()];
+        double[] sepPots = separatorState.getPotentials();
 
-        BayesVariable[] sepVars = sep.getValues().toArray(new BayesVariable[sep.getValues().size()]);
+        // the scratch buffer is consumed by the absorption, so listeners get their own copy of the old potentials
+        double[] scratchPots = separatorState.getScratchPotentials();
+        System.arraycopy(sepPots, 0, scratchPots, 0, sepPots.length);
+        double[] oldSepPots = passMessageListener != null ? Arrays.copyOf(sepPots, sepPots.length) : scratchPots;
 
         if ( passMessageListener != null ) {
             passMessageListener.beforeProjectAndAbsorb(sourceClique, sep, targetClique, oldSepPots);
         }
 
-        project(sepVars, cliqueStates[sourceClique.getId()], separatorStates[sep.getId()]);
+        BayesProjection.project(cliqueStates[sourceClique.getId()].getPotentials(), sep.getIndexMap(sourceClique), sepPots);
         if ( passMessageListener != null ) {
             passMessageListener.afterProject(sourceClique, sep, targetClique, oldSepPots);
         }
 
-        absorb(sepVars, cliqueStates[targetClique.getId()], separatorStates[sep.getId()], oldSepPots);
+        BayesAbsorption.absorb(sep.getIndexMap(targetClique), scratchPots, sepPots, cliqueStates[targetClique.getId()].getPotentials());
         if ( passMessageListener != null ) {
             passMessageListener.afterAbsorb(sourceClique, sep, targetClique, oldSepPots);
         }
     }
 
-    //private static void project(BayesVariable[] sepVars, JunctionTreeNode node, JunctionTreeSeparator sep) {
-    private static void project(BayesVariable[] sepVars, CliqueState clique, SeparatorState separator) {
-        //JunctionTreeNode node, JunctionTreeSeparator sep
-        BayesVariable[] vars = clique.getJunctionTreeClique().getValues().toArray(new BayesVariable[clique.getJunctionTreeClique().getValues().size()]);
-        int[] sepVarPos = PotentialMultiplier.createSubsetVarPos(vars, sepVars);
-
-        int sepVarNumberOfStates = PotentialMultiplier.createNumberOfStates(sepVars);
-        int[] sepVarMultipliers = PotentialMultiplier.createIndexMultipliers(sepVars, sepVarNumberOfStates);
-
-        BayesProjection p = new BayesProjection(vars, clique.getPotentials(), sepVarPos, sepVarMultipliers, separator.getPotentials());
-        p.project();
-    }
-
-    //private static void absorb(BayesVariable[] sepVars, JunctionTreeNode node, JunctionTreeSeparator sep, double[] oldSepPots ) {
-    private static void absorb(BayesVariable[] sepVars, CliqueState clique, SeparatorState separator, double[] oldSepPots ) {
-        //BayesVariable[] vars = node.getValues().toArray( new BayesVariable[node.getValues().size()] );
-        BayesVariable[] vars = clique.getJunctionTreeClique().getValues().toArray(new BayesVariable[clique.getJunctionTreeClique().getValues().size()]);
-
-        int[] sepVarPos = PotentialMultiplier.createSubsetVarPos(vars, sepVars);
-
-        int sepVarNumberOfStates = PotentialMultiplier.createNumberOfStates(sepVars);
-        int[] sepVarMultipliers = PotentialMultiplier.createIndexMultipliers(sepVars, sepVarNumberOfStates);
-
-        BayesAbsorption p = new BayesAbsorption(sepVarPos, oldSepPots, separator.getPotentials(), sepVarMultipliers, vars, clique.getPotentials());
-        p.absorb();
-    }
-
     public BayesVariableState marginalize(String name) {
         BayesVariable var = this.variables.get(name);
         if ( var == null ) {
@@ -55,6 +55,18 @@ public class BayesProjection {
 
     }
 
+    /**
+     * Projects srcPotentials into trgPotentials, using an index map created with
+     * {@link PotentialMultiplier#createSubsetIndexMap(BayesVariable[], BayesVariable[])}.
+     */
+    public static void project(double[] srcPotentials, int[] indexMap, double[] trgPotentials) {
+        Arrays.fill(trgPotentials, 0);
+        for ( int i = 0, length = srcPotentials.length; i < length; i++ ) {
+            trgPotentials[indexMap[i]] += srcPotentials[i];
+        }
+        BayesAbsorption.normalize(trgPotentials);
+    }
+
     public static void normalize(double[] darray, double sum) {
         for ( int i = 0; i < darray.length; i++ ) {
             darray[i] /= sum;
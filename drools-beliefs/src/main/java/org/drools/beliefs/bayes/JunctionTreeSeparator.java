@@ -33,6 +33,9 @@ public class JunctionTreeSeparator {
     private JunctionTreeClique  child;
     //private double[]            potentials;
 
+    private volatile int[]      parentIndexMap;
+    private volatile int[]      childIndexMap;
+
 
     public JunctionTreeSeparator(int id, JunctionTreeClique parent, JunctionTreeClique child, OpenBitSet bitSet, Graph<BayesVariable> graph) {
         this.id = id;
@@ -80,6 +83,36 @@ public class JunctionTreeSeparator {
         return values;
     }
 
+    /**
+     * Returns, for each potential of the given clique, the index of the separator potential it is projected into
+     * and absorbed from. The maps are computed once and shared by all the BayesInstances of the tree.
+     */
+    public int[] getIndexMap(JunctionTreeClique clique) {
+        if ( clique == parent ) {
+            int[] indexMap = parentIndexMap;
+            if ( indexMap == null ) {
+                indexMap = createIndexMap( parent );
+                parentIndexMap = indexMap;
+            }
+            return indexMap;
+        }
+        if ( clique == child ) {
+            int[] indexMap = childIndexMap;
+            if ( indexMap == null ) {
+                indexMap = createIndexMap( child );
+                childIndexMap = indexMap;
+            }
+            return indexMap;
+        }
+        throw new IllegalArgumentException( "Clique " + clique.getId() + " is not connected to separator " + id );
+    }
+
+    private int[] createIndexMap(JunctionTreeClique clique) {
+        BayesVariable[] cliqueVars = clique.getValues().toArray( new BayesVariable[clique.getValues().size()] );
+        BayesVariable[] sepVars = values.toArray( new BayesVariable[values.size()] );
+        return PotentialMultiplier.createSubsetIndexMap( cliqueVars, sepVars );
+    }
+
     @Override
     public String toString() {
         return "JunctionTreeSeparator{" +
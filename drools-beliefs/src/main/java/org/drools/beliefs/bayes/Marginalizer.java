@@ -18,17 +18,35 @@
  */
 package org.drools.beliefs.bayes;
 
+import java.util.Arrays;
+
 public class Marginalizer {
 
     public Marginalizer(BayesVariable[]  srcVars, double[] srcPotentials, BayesVariable var,
                         double[] varDistribution) {
-        BayesVariable[]  trgVars = new BayesVariable[] { var };
-
-        int[] trgVarPos = PotentialMultiplier.createSubsetVarPos(srcVars, trgVars);
-        int trgVarNumberOfStates = PotentialMultiplier.createNumberOfStates(trgVars);
-        int[] trgVarMultipliers = PotentialMultiplier.createIndexMultipliers(trgVars, trgVarNumberOfStates);
+        int varPos = 0;
+        int stride = 1;
+        for ( int i = srcVars.length - 1; i >= 0; i-- ) {
+            if ( srcVars[i] == var ) {
+                varPos = i;
+                break;
+            }
+            stride *= srcVars[i].getOutcomes().length;
+        }
+        int numberOfOutcomes = srcVars[varPos].getOutcomes().length;
 
-        BayesProjection p = new BayesProjection(srcVars, srcPotentials, trgVarPos, trgVarMultipliers, varDistribution);
-        p.project();
+        // the potentials are laid out as blocks of numberOfOutcomes contiguous runs of stride values,
+        // one run for each outcome of var, so each run can be summed with a plain loop
+        Arrays.fill(varDistribution, 0);
+        for ( int block = 0, length = srcPotentials.length; block < length; block += stride * numberOfOutcomes ) {
+            for ( int j = 0; j < numberOfOutcomes; j++ ) {
+                double sum = 0;
+                for ( int k = block + j * stride, end = k + stride; k < end; k++ ) {
+                    sum += srcPotentials[k];
+                }
+                varDistribution[j] += sum;
+            }
+        }
+        BayesAbsorption.normalize(varDistribution);
     }
 }
@@ -86,6 +86,38 @@ public class PotentialMultiplier {
         return parentVarPos;
     }
 
+    /**
+     * Maps each state index of vars to the state index of subset, which must be ordered as vars.
+     * The map is built with a single odometer walk over the states of vars, adding the stride of the subset
+     * potentials for each var that is part of the subset.
+     */
+    public static int[] createSubsetIndexMap(BayesVariable[] vars, BayesVariable[] subset) {
+        int[] subsetVarPos = createSubsetVarPos(vars, subset);
+        int[] subsetMultipliers = createIndexMultipliers(subset, createNumberOfStates(subset));
+
+        // stride of each var in the subset potentials, 0 for the vars not in the subset
+        int[] strides = new int[vars.length];
+        for ( int i = 0; i < subsetVarPos.length; i++ ) {
+            strides[subsetVarPos[i]] = subsetMultipliers[i];
+        }
+
+        int[] indexMap = new int[createNumberOfStates(vars)];
+        int[] path = new int[vars.length];
+        int subsetIndex = 0;
+        for ( int i = 0; i < indexMap.length; i++ ) {
+            indexMap[i] = subsetIndex;
+            for ( int v = vars.length - 1; v >= 0; v-- ) {
+                subsetIndex += strides[v];
+                if ( ++path[v] < vars[v].getOutcomes().length ) {
+                    break;
+                }
+                subsetIndex -= strides[v] * path[v];
+                path[v] = 0;
+            }
+        }
+        return indexMap;
+    }
+
     public void multiple() {
         varProbabilityTableRow = 0;
         trgPotentialIndex = 0;
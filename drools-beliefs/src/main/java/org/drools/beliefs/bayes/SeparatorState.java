@@ -22,9 +22,13 @@ public class SeparatorState {
     private JunctionTreeSeparator jtSeparator;
     private double[]              potentials;
 
+    // reused while passing a message, to hold the previous potentials and then the absorption ratios
+    private double[]              scratchPotentials;
+
     public SeparatorState(JunctionTreeSeparator jtSeparator, double[] potentials) {
         this.jtSeparator = jtSeparator;
         this.potentials = potentials;
+        this.scratchPotentials = new double[potentials.length];
     }
 
     public JunctionTreeSeparator getJunctionTreeSeparator() {
@@ -35,4 +39,8 @@ public class SeparatorState {
         return potentials;
     }
 
+    public double[] getScratchPotentials() {
+        return scratchPotentials;
+    }
+
 }
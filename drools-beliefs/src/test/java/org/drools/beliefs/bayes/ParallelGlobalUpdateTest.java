@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.beliefs.bayes;
+
+import org.drools.beliefs.graph.Graph;
+import org.drools.beliefs.graph.GraphNode;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.drools.beliefs.bayes.GraphTest.connectChildToParents;
+
+public class ParallelGlobalUpdateTest {
+
+    /**
+     * Creates a network with a root variable and a number of branches hanging from it. Each branch is a chain of
+     * variables, where each variable has the previous width variables of the same chain as parents, so that the
+     * treewidth of the network grows with width.
+     */
+    public static Graph<BayesVariable> createBranchedNetwork(int branches, int length, int width) {
+        Graph<BayesVariable> graph = new BayesNetwork();
+        GraphNode<BayesVariable> root = graph.addNode();
+        root.setContent( new BayesVariable<String>( "root", root.getId(), new String[]{"false", "true"}, new double[][]{{0.3, 0.7}} ) );
+
+        for ( int b = 0; b < branches; b++ ) {
+            GraphNode<BayesVariable>[] chain = new GraphNode[length];
+            for ( int i = 0; i < length; i++ ) {
+                chain[i] = graph.addNode();
+                int numberOfParents = i == 0 ? 1 : Math.min( i, width );
+                GraphNode<BayesVariable>[] parents = new GraphNode[numberOfParents];
+                for ( int p = 0; p < numberOfParents; p++ ) {
+                    parents[p] = i == 0 ? root : chain[i - numberOfParents + p];
+                }
+                connectChildToParents( chain[i], parents );
+
+                double[][] probabilities = new double[1 << numberOfParents][];
+                for ( int row = 0; row < probabilities.length; row++ ) {
+                    double p = 0.05 + ( ( row * 7 + i * 3 + b ) % 19 ) * 0.05;
+                    probabilities[row] = new double[]{p, 1 - p};
+                }
+                chain[i].setContent( new BayesVariable<String>( "b" + b + "_" + i, chain[i].getId(), new String[]{"false", "true"}, probabilities ) );
+            }
+        }
+        return graph;
+    }
+
+    @Test
+    public void testParallelGlobalUpdateMatchesSequential() {
+        JunctionTree tree = new JunctionTreeBuilder( createBranchedNetwork( 4, 12, 8 ) ).build();
+
+        BayesInstance<?> sequential = new BayesInstance<>( tree );
+        // a PassMessageListener forces the original collect and distribute traversal
+        sequential.setPassMessageListener( new PassMessageListener() {
+            @Override
+            public void beforeProjectAndAbsorb(JunctionTreeClique sourceNode, JunctionTreeSeparator sep, JunctionTreeClique targetNode, double[] oldSeparatorPotentials) { }
+
+            @Override
+            public void afterProject(JunctionTreeClique sourceNode, JunctionTreeSeparator sep, JunctionTreeClique targetNode, double[] oldSeparatorPotentials) { }
+
+            @Override
+            public void afterAbsorb(JunctionTreeClique sourceNode, JunctionTreeSeparator sep, JunctionTreeClique targetNode, double[] oldSeparatorPotentials) { }
+        } );
+
+        BayesInstance<?> parallel = new BayesInstance<>( tree );
+        parallel.setParallel( true );
+
+        for ( double[] evidence : new double[][] { {1.0, 0.0}, {0.2, 0.8} } ) {
+            sequential.setLikelyhood( "b0_11", evidence );
+            sequential.setLikelyhood( "b3_5", evidence );
+            sequential.globalUpdate();
+
+            parallel.setLikelyhood( "b0_11", evidence );
+            parallel.setLikelyhood( "b3_5", evidence );
+            parallel.globalUpdate();
+
+            for ( String name : sequential.getVariables().keySet() ) {
+                double[] expected = sequential.marginalize( name ).getDistribution();
+                double[] actual = parallel.marginalize( name ).getDistribution();
+                for ( int i = 0; i < expected.length; i++ ) {
+                    assertThat( actual[i] ).isCloseTo( expected[i], within( 1e-9 ) );
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.beliefs.bayes.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.drools.beliefs.bayes.BayesInstance;
+import org.drools.beliefs.bayes.BayesVariableState;
+import org.drools.beliefs.bayes.JunctionTree;
+import org.drools.beliefs.bayes.JunctionTreeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.drools.beliefs.bayes.ParallelGlobalUpdateTest.createBranchedNetwork;
+
+/**
+ * Measures the latency of a global update, triggered by a change of evidence, on networks of increasing treewidth,
+ * with sequential and parallel message passing.
+ */
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GlobalUpdateBenchmark {
+
+    @Param({"2", "4", "8", "10"})
+    private int width;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private BayesInstance<?> bayesInstance;
+
+    private boolean evidence;
+
+    @Setup(Level.Trial)
+    public void setUpBayesInstance() {
+        JunctionTree tree = new JunctionTreeBuilder( createBranchedNetwork( 4, 12, width ) ).build();
+        bayesInstance = new BayesInstance<>( tree );
+        bayesInstance.setParallel( parallel );
+    }
+
+    @Benchmark
+    public BayesVariableState globalUpdate() {
+        evidence = !evidence;
+        bayesInstance.setLikelyhood( "b0_11", evidence ? new double[]{1.0, 0.0} : new double[]{0.0, 1.0} );
+        bayesInstance.globalUpdate();
+        return bayesInstance.marginalize( "b3_11" );
+    }
+}
@@ -19,6 +19,7 @@
 package org.drools.compiler.kie.builder.impl;
 
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.drools.core.reteoo.Rete;
 import org.kie.api.conf.Option;
@@ -28,13 +29,22 @@ public class KieBaseUpdatersContext {
     private final KieBaseUpdaterOptions options;
     private final Rete rete;
     private final ClassLoader classLoader;
+    private final Consumer<Runnable> modificationsQueue;
 
     public KieBaseUpdatersContext(KieBaseUpdaterOptions options,
                                   Rete rete,
                                   ClassLoader classLoader) {
+        this(options, rete, classLoader, Runnable::run);
+    }
+
+    public KieBaseUpdatersContext(KieBaseUpdaterOptions options,
+                                  Rete rete,
+                                  ClassLoader classLoader,
+                                  Consumer<Runnable> modificationsQueue) {
         this.options = options;
         this.rete = rete;
         this.classLoader = classLoader;
+        this.modificationsQueue = modificationsQueue;
     }
 
     public Optional<Option> getOption(Class<? extends Option> optionClazz) {
@@ -48,4 +58,12 @@ public class KieBaseUpdatersContext {
     public ClassLoader getClassLoader() {
         return classLoader;
     }
+
+    /**
+     * Enqueues a change of the network performed by an updater after the update itself, e.g. from another thread,
+     * so that it is applied while the sessions of the kbase are not propagating.
+     */
+    public void enqueueModification(Runnable modification) {
+        modificationsQueue.accept(modification);
+    }
 }
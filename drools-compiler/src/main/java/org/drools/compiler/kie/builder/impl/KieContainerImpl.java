@@ -294,7 +294,8 @@ public class KieContainerImpl
                         .stream()
                         .map(kbu -> kbu.create(new KieBaseUpdatersContext(kieBaseUpdaterOptions,
                                                                           context.kBase.getRete(),
-                                                                          context.kBase.getRootClassLoader()
+                                                                          context.kBase.getRootClassLoader(),
+                                                                          context.kBase::enqueueModification
                                                                           )))
                         .forEach(compositeUpdater::add);
 
@@ -158,7 +158,8 @@ public class MemoryKieModule extends AbstractKieModule
                     .stream()
                     .map(kbu -> kbu.create(new KieBaseUpdatersContext(kieBaseUpdaterOptions,
                                                                       kBase.getRete(),
-                                                                      kBase.getRootClassLoader()
+                                                                      kBase.getRootClassLoader(),
+                                                                      kBase::enqueueModification
                     )))
                     .forEach(compositeUpdater::add);
 
@@ -21,6 +21,8 @@ package org.drools.core;
 import org.drools.core.time.TimerService;
 import org.drools.core.time.impl.JDKTimerService;
 import org.drools.core.time.impl.PseudoClockScheduler;
+import org.drools.core.time.impl.TimingWheelPseudoClockScheduler;
+import org.drools.core.time.impl.TimingWheelTimerService;
 
 /**
  * This enum represents all engine supported clocks
@@ -41,9 +43,38 @@ public enum ClockType {
         public PseudoClockScheduler createInstance() {
             return new PseudoClockScheduler();
         }
+    },
+
+    /**
+     * A realtime clock keeping the scheduled jobs in a hierarchical timing wheel,
+     * scheduling and cancelling jobs in constant time
+     */
+    REALTIME_WHEEL_CLOCK("realtime-wheel") {
+        public TimingWheelTimerService createInstance() {
+            return new TimingWheelTimerService();
+        }
+    },
+
+    /**
+     * A pseudo clock keeping the scheduled jobs in a hierarchical timing wheel,
+     * scheduling and cancelling jobs in constant time
+     */
+    PSEUDO_WHEEL_CLOCK("pseudo-wheel") {
+        public TimingWheelPseudoClockScheduler createInstance() {
+            return new TimingWheelPseudoClockScheduler();
+        }
+
+        @Override
+        public boolean isPseudo() {
+            return true;
+        }
     };
 
     public abstract TimerService createInstance();
+
+    public boolean isPseudo() {
+        return this == PSEUDO_CLOCK;
+    }
     
     private String string;
     ClockType( String string ) {
@@ -63,10 +94,10 @@ public enum ClockType {
     }
     
     public static ClockType resolveClockType( String id ) {
-        if( PSEUDO_CLOCK.getId().equalsIgnoreCase( id ) ) {
-            return PSEUDO_CLOCK;
-        } else if( REALTIME_CLOCK.getId().equalsIgnoreCase( id ) ) {
-            return REALTIME_CLOCK;
+        for ( ClockType clockType : values() ) {
+            if ( clockType.getId().equalsIgnoreCase( id ) ) {
+                return clockType;
+            }
         }
         throw new IllegalArgumentException( "Illegal enum value '" + id + "' for ClockType" );
     }
@@ -41,6 +41,7 @@ import org.kie.internal.conf.CompositeConfiguration;
 import org.kie.internal.conf.CompositeKeyDepthOption;
 import org.kie.internal.conf.ConsequenceExceptionHandlerOption;
 import org.kie.internal.conf.ConstraintJittingThresholdOption;
+import org.kie.internal.conf.GroupByPartitionsOption;
 import org.kie.internal.conf.IndexLeftBetaMemoryOption;
 import org.kie.internal.conf.IndexPrecedenceOption;
 import org.kie.internal.conf.IndexRightBetaMemoryOption;
@@ -87,6 +88,7 @@ import java.util.Map;
  * drools.alphaNodeRangeIndexThreshold = &lt;1...n&gt;
  * drools.betaNodeRangeIndexEnabled = &lt;true|false&gt;
  * drools.sessionPool = &lt;1...n&gt;
+ * drools.groupBy.partitions = &lt;1...n&gt;
  * drools.compositeKeyDepth = &lt;1..3&gt;
  * drools.indexLeftBetaMemory = &lt;true/false&gt;
  * drools.indexRightBetaMemory = &lt;true/false&gt;
@@ -155,6 +157,8 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
 
     private int sessionPoolSize;
 
+    private int groupByPartitions;
+
     /**
      * A constructor that sets the classloader to be used as the parent classloader
      * of this rule base classloaders, and the properties to be used
@@ -184,6 +188,8 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
 
         setSessionPoolSize(Integer.parseInt(getPropertyValue( SessionsPoolOption.PROPERTY_NAME, "-1")));
 
+        setGroupByPartitions(Integer.parseInt(getPropertyValue( GroupByPartitionsOption.PROPERTY_NAME, "" + GroupByPartitionsOption.DEFAULT_VALUE)));
+
         setCompositeKeyDepth(Integer.parseInt(getPropertyValue(CompositeKeyDepthOption.PROPERTY_NAME, "3")));
 
         setIndexLeftBetaMemory(Boolean.parseBoolean(getPropertyValue(IndexLeftBetaMemoryOption.PROPERTY_NAME, "true")));
@@ -241,6 +247,7 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
         out.writeObject(eventProcessingMode);
         out.writeBoolean(declarativeAgenda);
         out.writeInt(sessionPoolSize);
+        out.writeInt(groupByPartitions);
     }
 
     public void readExternal(ObjectInput in) throws IOException,
@@ -270,6 +277,7 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
         eventProcessingMode = (EventProcessingOption) in.readObject();
         declarativeAgenda = in.readBoolean();
         sessionPoolSize = in.readInt();
+        groupByPartitions = in.readInt();
     }
 
     @SuppressWarnings("unchecked")
@@ -317,6 +325,9 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
             case SessionsPoolOption.PROPERTY_NAME: {
                 return (T) SessionsPoolOption.get(sessionPoolSize);
             }
+            case GroupByPartitionsOption.PROPERTY_NAME: {
+                return (T) GroupByPartitionsOption.get(groupByPartitions);
+            }
             case CompositeKeyDepthOption.PROPERTY_NAME: {
                 return (T) CompositeKeyDepthOption.get(compositeKeyDepth);
             }
@@ -405,6 +416,10 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
                 setSessionPoolSize( ( ( SessionsPoolOption ) option ).getSize());
                 break;
             }
+            case GroupByPartitionsOption.PROPERTY_NAME: {
+                setGroupByPartitions( ( ( GroupByPartitionsOption ) option ).getPartitions());
+                break;
+            }
             case CompositeKeyDepthOption.PROPERTY_NAME: {
                 setCompositeKeyDepth( ( (CompositeKeyDepthOption) option ).getDepth());
                 break;
@@ -476,6 +491,10 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
                 setSessionPoolSize(StringUtils.isEmpty(value) ? -1 : Integer.parseInt(value));
                 break;
             }
+            case GroupByPartitionsOption.PROPERTY_NAME: {
+                setGroupByPartitions(StringUtils.isEmpty(value) ? GroupByPartitionsOption.DEFAULT_VALUE : Integer.parseInt(value));
+                break;
+            }
             case CompositeKeyDepthOption.PROPERTY_NAME: {
                 setCompositeKeyDepth(StringUtils.isEmpty(value) ? 3 : Integer.parseInt(value));
                 break;
@@ -556,6 +575,9 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
             case SessionsPoolOption.PROPERTY_NAME: {
                 return Integer.toString(getSessionPoolSize());
             }
+            case GroupByPartitionsOption.PROPERTY_NAME: {
+                return Integer.toString(getGroupByPartitions());
+            }
             case CompositeKeyDepthOption.PROPERTY_NAME: {
                 return Integer.toString(getCompositeKeyDepth());
             }
@@ -680,6 +702,18 @@ public class RuleBaseConfiguration  extends BaseConfiguration<KieBaseOption, Sin
         this.sessionPoolSize = sessionPoolSize;
     }
 
+    public int getGroupByPartitions() {
+        return this.groupByPartitions;
+    }
+
+    public void setGroupByPartitions(final int groupByPartitions) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        if (groupByPartitions < 1) {
+            throw new IllegalArgumentException("The number of group by partitions must be at least 1, but was " + groupByPartitions);
+        }
+        this.groupByPartitions = groupByPartitions;
+    }
+
     public AssertBehaviour getAssertBehaviour() {
         return this.assertBehaviour;
     }
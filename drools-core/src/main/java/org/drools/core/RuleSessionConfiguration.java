@@ -40,8 +40,13 @@ import org.kie.api.runtime.conf.TimedRuleExecutionFilter;
 import org.kie.api.runtime.conf.TimedRuleExecutionOption;
 import org.kie.internal.conf.CompositeConfiguration;
 import org.kie.internal.conf.InternalPropertiesConfiguration;
+import org.kie.internal.runtime.conf.AgendaQueueOption;
+import org.kie.internal.runtime.conf.BatchedExpirationOption;
+import org.kie.internal.runtime.conf.DeferredJustificationOption;
 import org.kie.internal.runtime.conf.ForceEagerActivationFilter;
 import org.kie.internal.runtime.conf.ForceEagerActivationOption;
+import org.kie.internal.runtime.conf.PropertyReactivityStatsOption;
+import org.kie.internal.runtime.conf.PreallocateSegmentMemoriesOption;
 
 public class RuleSessionConfiguration extends BaseConfiguration<KieSessionOption, SingleValueKieSessionOption, MultiValueKieSessionOption> implements KieSessionConfiguration, InternalPropertiesConfiguration, Externalizable {
 
@@ -55,6 +60,16 @@ public class RuleSessionConfiguration extends BaseConfiguration<KieSessionOption
 
     private boolean                        accumulateNullPropagation;
 
+    private boolean                        preallocateSegmentMemories;
+
+    private boolean                        deferredJustification;
+
+    private AgendaQueueOption              agendaQueue;
+
+    private boolean                        batchedExpiration;
+
+    private boolean                        propertyReactivityStats;
+
     private ForceEagerActivationFilter     forceEagerActivationFilter;
     private TimedRuleExecutionFilter       timedRuleExecutionFilter;
 
@@ -92,6 +107,16 @@ public class RuleSessionConfiguration extends BaseConfiguration<KieSessionOption
 
         setAccumulateNullPropagation(Boolean.parseBoolean(getPropertyValue(AccumulateNullPropagationOption.PROPERTY_NAME, "false")));
 
+        setPreallocateSegmentMemories(Boolean.parseBoolean(getPropertyValue(PreallocateSegmentMemoriesOption.PROPERTY_NAME, "false")));
+
+        setDeferredJustification(Boolean.parseBoolean(getPropertyValue(DeferredJustificationOption.PROPERTY_NAME, "false")));
+
+        setAgendaQueue(AgendaQueueOption.determineAgendaQueue(getPropertyValue(AgendaQueueOption.PROPERTY_NAME, AgendaQueueOption.PRIORITY.getAsString())));
+
+        setBatchedExpiration(Boolean.parseBoolean(getPropertyValue(BatchedExpirationOption.PROPERTY_NAME, "false")));
+
+        setPropertyReactivityStats(Boolean.parseBoolean(getPropertyValue(PropertyReactivityStatsOption.PROPERTY_NAME, "false")));
+
         setForceEagerActivationFilter(ForceEagerActivationOption.resolve( getPropertyValue( ForceEagerActivationOption.PROPERTY_NAME, "false" ) ).getFilter());
 
         setTimedRuleExecutionFilter(TimedRuleExecutionOption.resolve( getPropertyValue( TimedRuleExecutionOption.PROPERTY_NAME, "false" ) ).getFilter());
@@ -128,6 +153,51 @@ public class RuleSessionConfiguration extends BaseConfiguration<KieSessionOption
         return this.accumulateNullPropagation;
     }
 
+    public void setPreallocateSegmentMemories(boolean preallocateSegmentMemories) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.preallocateSegmentMemories = preallocateSegmentMemories;
+    }
+
+    public boolean isPreallocateSegmentMemories() {
+        return this.preallocateSegmentMemories;
+    }
+
+    public void setDeferredJustification(boolean deferredJustification) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.deferredJustification = deferredJustification;
+    }
+
+    public boolean isDeferredJustification() {
+        return this.deferredJustification;
+    }
+
+    public void setAgendaQueue(AgendaQueueOption agendaQueue) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.agendaQueue = agendaQueue;
+    }
+
+    public AgendaQueueOption getAgendaQueue() {
+        return this.agendaQueue;
+    }
+
+    public void setBatchedExpiration(boolean batchedExpiration) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.batchedExpiration = batchedExpiration;
+    }
+
+    public boolean isBatchedExpiration() {
+        return this.batchedExpiration;
+    }
+
+    public void setPropertyReactivityStats(boolean propertyReactivityStats) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.propertyReactivityStats = propertyReactivityStats;
+    }
+
+    public boolean isPropertyReactivityStats() {
+        return this.propertyReactivityStats;
+    }
+
     public void setForceEagerActivationFilter(ForceEagerActivationFilter forceEagerActivationFilter) {
         checkCanChange(); // throws an exception if a change isn't possible;
         this.forceEagerActivationFilter = forceEagerActivationFilter;
@@ -179,6 +249,26 @@ public class RuleSessionConfiguration extends BaseConfiguration<KieSessionOption
                 setAccumulateNullPropagation(((AccumulateNullPropagationOption) option).isAccumulateNullPropagation());
                 break;
             }
+            case PreallocateSegmentMemoriesOption.PROPERTY_NAME: {
+                setPreallocateSegmentMemories(((PreallocateSegmentMemoriesOption) option).isPreallocate());
+                break;
+            }
+            case DeferredJustificationOption.PROPERTY_NAME: {
+                setDeferredJustification(((DeferredJustificationOption) option).isDeferred());
+                break;
+            }
+            case AgendaQueueOption.PROPERTY_NAME: {
+                setAgendaQueue((AgendaQueueOption) option);
+                break;
+            }
+            case BatchedExpirationOption.PROPERTY_NAME: {
+                setBatchedExpiration(((BatchedExpirationOption) option).isBatched());
+                break;
+            }
+            case PropertyReactivityStatsOption.PROPERTY_NAME: {
+                setPropertyReactivityStats(((PropertyReactivityStatsOption) option).isEnabled());
+                break;
+            }
             case ForceEagerActivationOption.PROPERTY_NAME: {
                 setForceEagerActivationFilter(((ForceEagerActivationOption) option).getFilter());
                 break;
@@ -212,6 +302,21 @@ public class RuleSessionConfiguration extends BaseConfiguration<KieSessionOption
             case AccumulateNullPropagationOption.PROPERTY_NAME: {
                 return (T) (isAccumulateNullPropagation() ? AccumulateNullPropagationOption.YES : AccumulateNullPropagationOption.NO);
             }
+            case PreallocateSegmentMemoriesOption.PROPERTY_NAME: {
+                return (T) (isPreallocateSegmentMemories() ? PreallocateSegmentMemoriesOption.YES : PreallocateSegmentMemoriesOption.NO);
+            }
+            case DeferredJustificationOption.PROPERTY_NAME: {
+                return (T) (isDeferredJustification() ? DeferredJustificationOption.YES : DeferredJustificationOption.NO);
+            }
+            case AgendaQueueOption.PROPERTY_NAME: {
+                return (T) getAgendaQueue();
+            }
+            case BatchedExpirationOption.PROPERTY_NAME: {
+                return (T) (isBatchedExpiration() ? BatchedExpirationOption.YES : BatchedExpirationOption.NO);
+            }
+            case PropertyReactivityStatsOption.PROPERTY_NAME: {
+                return (T) (isPropertyReactivityStats() ? PropertyReactivityStatsOption.YES : PropertyReactivityStatsOption.NO);
+            }
             case QueryListenerOption.PROPERTY_NAME: {
                 return (T) getQueryListenerOption();
             }
@@ -247,6 +352,26 @@ public class RuleSessionConfiguration extends BaseConfiguration<KieSessionOption
                 setAccumulateNullPropagation(!StringUtils.isEmpty(value) && Boolean.parseBoolean(value));
                 break;
             }
+            case PreallocateSegmentMemoriesOption.PROPERTY_NAME: {
+                setPreallocateSegmentMemories(!StringUtils.isEmpty(value) && Boolean.parseBoolean(value));
+                break;
+            }
+            case DeferredJustificationOption.PROPERTY_NAME: {
+                setDeferredJustification(!StringUtils.isEmpty(value) && Boolean.parseBoolean(value));
+                break;
+            }
+            case AgendaQueueOption.PROPERTY_NAME: {
+                setAgendaQueue(StringUtils.isEmpty(value) ? AgendaQueueOption.PRIORITY : AgendaQueueOption.determineAgendaQueue(value));
+                break;
+            }
+            case BatchedExpirationOption.PROPERTY_NAME: {
+                setBatchedExpiration(!StringUtils.isEmpty(value) && Boolean.parseBoolean(value));
+                break;
+            }
+            case PropertyReactivityStatsOption.PROPERTY_NAME: {
+                setPropertyReactivityStats(!StringUtils.isEmpty(value) && Boolean.parseBoolean(value));
+                break;
+            }
             case ForceEagerActivationOption.PROPERTY_NAME: {
                 setForceEagerActivationFilter(ForceEagerActivationOption.resolve(StringUtils.isEmpty(value) ? "false" : value).getFilter());
                 break;
@@ -280,6 +405,16 @@ public class RuleSessionConfiguration extends BaseConfiguration<KieSessionOption
                 return Boolean.toString(isThreadSafe());
             } case AccumulateNullPropagationOption.PROPERTY_NAME: {
                 return Boolean.toString(isAccumulateNullPropagation());
+            } case PreallocateSegmentMemoriesOption.PROPERTY_NAME: {
+                return Boolean.toString(isPreallocateSegmentMemories());
+            } case DeferredJustificationOption.PROPERTY_NAME: {
+                return Boolean.toString(isDeferredJustification());
+            } case AgendaQueueOption.PROPERTY_NAME: {
+                return getAgendaQueue().getAsString();
+            } case BatchedExpirationOption.PROPERTY_NAME: {
+                return Boolean.toString(isBatchedExpiration());
+            } case PropertyReactivityStatsOption.PROPERTY_NAME: {
+                return Boolean.toString(isPropertyReactivityStats());
             } case QueryListenerOption.PROPERTY_NAME: {
                 return getQueryListenerOption().getAsString();
             } case BeliefSystemTypeOption.PROPERTY_NAME: {
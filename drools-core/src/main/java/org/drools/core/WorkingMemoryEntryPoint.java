@@ -19,12 +19,18 @@
 package org.drools.core;
 
 
+import java.util.Collection;
+import java.util.Collections;
+
+import org.drools.core.common.DefaultEventHandle;
 import org.drools.core.common.ObjectStore;
 import org.drools.core.common.ObjectTypeConfigurationRegistry;
 import org.drools.core.common.ReteEvaluator;
 import org.drools.base.definitions.rule.impl.RuleImpl;
 import org.drools.core.impl.InternalRuleBase;
 import org.drools.core.reteoo.EntryPointNode;
+import org.drools.core.reteoo.ExpirationQueue;
+import org.drools.core.reteoo.ObjectTypeNode;
 import org.drools.core.reteoo.TerminalNode;
 import org.drools.base.rule.EntryPointId;
 import org.drools.core.rule.consequence.InternalMatch;
@@ -91,6 +97,27 @@ public interface WorkingMemoryEntryPoint extends EntryPoint {
 
     EntryPointNode getEntryPointNode();
 
+    /**
+     * Returns the queue batching the expirations of the events propagated through the given
+     * <code>ObjectTypeNode</code> of this entry point, or null if this entry point doesn't support them.
+     * A null node identifies the events whose concrete type has no node of its own.
+     */
+    default ExpirationQueue getExpirationQueue(ObjectTypeNode node) {
+        return null;
+    }
+
+    /**
+     * Returns the queues of this entry point holding pending expirations.
+     */
+    default Collection<ExpirationQueue> getExpirationQueues() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Cancels the batched expirations of an event that has been deleted.
+     */
+    default void cancelExpirations(DefaultEventHandle handle) { }
+
     default Object getRuleUnit() {
         return null;
     }
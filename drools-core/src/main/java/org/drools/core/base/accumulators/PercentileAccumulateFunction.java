@@ -0,0 +1,260 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.base.accumulators;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>An implementation of an accumulator capable of calculating a percentile of the accumulated values,
+ * using the nearest-rank method, so that the result is always one of the accumulated values.</p>
+ *
+ * <p>Differently from the min and max accumulate functions this implementation supports reverse: the values are
+ * kept in two counted sorted sets, the lower one holding the values up to the percentile and the higher one the
+ * remaining values, so that both the accumulation and the retraction of a value only cost a logarithmic time
+ * instead of requiring a full re-scan of the accumulated values.</p>
+ *
+ * <p>Example, using the executable model API:</p>
+ * <pre>
+ * Variable&lt;Integer&gt; var_$t = declarationOf( Integer.class );
+ * Variable&lt;Integer&gt; var_$p90 = declarationOf( Integer.class );
+ *
+ * rule( "p90" ).build(
+ *         accumulate( pattern( responseVar ).bind( var_$t, r -&gt; r.getTime() ),
+ *                     accFunction( () -&gt; new PercentileAccumulateFunction( 0.9 ), var_$t ).as( var_$p90 ) ),
+ *         ... );
+ * </pre>
+ *
+ * <p>Subclasses with a fixed percentile are available in DRL as sortedMin, sortedMax and median. DRL accumulate
+ * functions only receive the value to be accumulated, so an arbitrary percentile cannot be passed as an argument
+ * from DRL: it has to be used through the executable model as above, or registered in DRL as a subclass fixing the
+ * percentile, with the drools.accumulate.function.&lt;name&gt; property.</p>
+ */
+public class PercentileAccumulateFunction extends AbstractAccumulateFunction<PercentileAccumulateFunction.PercentileData> {
+
+    private double percentile;
+
+    // the percentile as written in decimal, so that the rank of 0.07 of 100 values is exactly 7
+    private transient BigDecimal exactPercentile;
+
+    public PercentileAccumulateFunction() {
+        this( 0.5 );
+    }
+
+    public PercentileAccumulateFunction(double percentile) {
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException( "The percentile must be between 0 and 1, but was " + percentile );
+        }
+        this.percentile = percentile;
+        this.exactPercentile = BigDecimal.valueOf( percentile );
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        percentile = in.readDouble();
+        exactPercentile = BigDecimal.valueOf( percentile );
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeDouble( percentile );
+    }
+
+    public static class PercentileData implements Externalizable {
+        public SortedCounts lower = new SortedCounts();
+        public SortedCounts higher = new SortedCounts();
+
+        public PercentileData() {}
+
+        public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+            lower = (SortedCounts) in.readObject();
+            higher = (SortedCounts) in.readObject();
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeObject( lower );
+            out.writeObject( higher );
+        }
+
+        public int size() {
+            return lower.size + higher.size;
+        }
+
+        @Override
+        public String toString() {
+            return "percentile";
+        }
+    }
+
+    /**
+     * A sorted multiset of values, storing a counter for each distinct value.
+     */
+    public static class SortedCounts implements Serializable {
+        private static final long serialVersionUID = 510l;
+
+        private final TreeMap<Object, int[]> counts = new TreeMap<>();
+        private int size;
+
+        public void add(Object value) {
+            int[] count = counts.get( value );
+            if (count == null) {
+                counts.put( value, new int[] { 1 } );
+            } else {
+                count[0]++;
+            }
+            size++;
+        }
+
+        public void remove(Object value) {
+            int[] count = counts.get( value );
+            if (count == null) {
+                throw new IllegalStateException( "Cannot reverse a value that has not been accumulated: " + value );
+            }
+            if (--count[0] == 0) {
+                counts.remove( value );
+            }
+            size--;
+        }
+
+        public Object first() {
+            return counts.firstKey();
+        }
+
+        public Object last() {
+            return counts.lastKey();
+        }
+
+        public Object pollFirst() {
+            Object first = counts.firstKey();
+            remove( first );
+            return first;
+        }
+
+        public Object pollLast() {
+            Object last = counts.lastKey();
+            remove( last );
+            return last;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public void clear() {
+            counts.clear();
+            size = 0;
+        }
+
+        public Map<Object, int[]> getCounts() {
+            return counts;
+        }
+    }
+
+    public PercentileData createContext() {
+        return new PercentileData();
+    }
+
+    public void init(PercentileData data) {
+        data.lower.clear();
+        data.higher.clear();
+    }
+
+    public void accumulate(PercentileData data,
+                           Object value) {
+        if (value != null) {
+            if (data.lower.isEmpty() || compare( value, data.lower.last() ) <= 0) {
+                data.lower.add( value );
+            } else {
+                data.higher.add( value );
+            }
+            rebalance( data );
+        }
+    }
+
+    public void reverse(PercentileData data,
+                        Object value) {
+        if (value != null) {
+            if (!data.higher.isEmpty() && compare( value, data.higher.first() ) >= 0) {
+                data.higher.remove( value );
+            } else {
+                data.lower.remove( value );
+            }
+            rebalance( data );
+        }
+    }
+
+    private void rebalance(PercentileData data) {
+        int target = lowerSize( data.size() );
+        while (data.lower.size() > target) {
+            data.higher.add( data.lower.pollLast() );
+        }
+        while (data.lower.size() < target) {
+            data.lower.add( data.higher.pollFirst() );
+        }
+    }
+
+    private int lowerSize(int size) {
+        if (size == 0) {
+            return 0;
+        }
+        // nearest-rank: the result is the smallest value having at least the given percentile of values lower or equal than it
+        // computed in decimal, since the product of doubles can be slightly off and round up to the next rank
+        return Math.max( 1, exactPercentile.multiply( BigDecimal.valueOf( size ) ).setScale( 0, RoundingMode.CEILING ).intValue() );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object value1, Object value2) {
+        return ((Comparable) value1).compareTo( value2 );
+    }
+
+    public Object getResult(PercentileData data) {
+        return data.lower.isEmpty() ? null : data.lower.last();
+    }
+
+    public boolean supportsReverse() {
+        return true;
+    }
+
+    public Class<?> getResultType() {
+        return Comparable.class;
+    }
+
+    @Override
+    public boolean equals( Object o ) {
+        return super.equals( o ) && percentile == ((PercentileAccumulateFunction) o).percentile;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Double.hashCode( percentile );
+    }
+}
@@ -26,6 +26,7 @@ import org.drools.core.phreak.RuleAgendaItem;
 import org.drools.core.util.ArrayQueue;
 import org.drools.core.util.Queue;
 import org.drools.core.util.QueueFactory;
+import org.kie.internal.runtime.conf.AgendaQueueOption;
 
 import java.io.IOException;
 import java.util.Collection;
@@ -93,6 +94,8 @@ public class AgendaGroupQueueImpl
         // workingMemory can be null during deserialization
         if (reteEvaluator != null && reteEvaluator.getRuleSessionConfiguration().isDirectFiring()) {
             this.priorityQueue = new ArrayQueue<>();
+        } else if (reteEvaluator != null && reteEvaluator.getRuleSessionConfiguration().getAgendaQueue().isBucketed()) {
+            this.priorityQueue = new SalienceBucketQueue(reteEvaluator.getRuleSessionConfiguration().getAgendaQueue() == AgendaQueueOption.BUCKETED_LIFO);
         } else {
             this.priorityQueue = QueueFactory.createQueue(RuleAgendaConflictResolver.INSTANCE);
         }
@@ -33,6 +33,7 @@ import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 
@@ -59,6 +60,11 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
         }
     }
 
+    @Override
+    public long getLookupVersion() {
+        return isEqualityBehaviour ? equalityMap.getVersion() : -1L;
+    }
+
     @Override
     public void writeExternal(ObjectOutput out) throws IOException {
         out.writeObject(storesMap);
@@ -603,10 +609,14 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
         private Map<Object, InternalFactHandle> facts;
         private Map<Long, InternalFactHandle> factsById;
 
+        // only changed while holding the entry point lock, read by the lookups performed without it
+        private volatile long version;
+
         public FactHandleMap() { }
 
         public FactHandleMap(boolean identity) {
-            facts = identity ? new IdentityHashMap<>() : new HashMap<>();
+            // the equality map can be read without holding the entry point lock, while the identity one is only used under it
+            facts = identity ? new IdentityHashMap<>() : new ConcurrentHashMap<>();
         }
 
         @Override
@@ -628,18 +638,24 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
             if (factsById != null) {
                 factsById.put(fh.getId(), fh);
             }
+            version++;
             return existing;
         }
 
         public InternalFactHandle get(InternalFactHandle fh) {
-            return fh.isDisconnected() ? factsIndexedById().get(fh.getId()) : facts.get(fh.getObject());
+            if (fh.isDisconnected()) {
+                return factsIndexedById().get(fh.getId());
+            }
+            // a ConcurrentHashMap doesn't accept null keys
+            return fh.getObject() != null ? facts.get(fh.getObject()) : null;
         }
 
         public InternalFactHandle remove(InternalFactHandle fh) {
-            InternalFactHandle retrieved = facts.remove(fh.getObject());
+            InternalFactHandle retrieved = fh.getObject() != null ? facts.remove(fh.getObject()) : null;
             if (factsById != null) {
                 factsById.remove(fh.getId());
             }
+            version++;
             return retrieved;
         }
 
@@ -661,9 +677,14 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
             return facts.values();
         }
 
+        public long getVersion() {
+            return version;
+        }
+
         public void clear() {
             facts.clear();
             factsById = null;
+            version++;
         }
     }
 }
@@ -37,6 +37,16 @@ public interface ObjectStore extends KieService {
 
     InternalFactHandle getHandleForObject(Object object);
 
+    /**
+     * Returns a version of the lookup performed by {@link #getHandleForObject(Object)}, changing every time a handle
+     * is added to or removed from this store, or -1 if that lookup can only be performed while holding the entry point
+     * lock. When supported, a lookup done without the lock can be trusted as long as the version read before it is
+     * still the current one once the lock has been acquired.
+     */
+    default long getLookupVersion() {
+        return -1L;
+    }
+
     void updateHandle(InternalFactHandle handle, Object object);
 
     void addHandle(InternalFactHandle handle, Object object);
@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.common;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.drools.util.bitmask.BitMask;
+
+import static org.drools.base.reteoo.PropertySpecificUtil.isAllSetPropertyReactiveMask;
+
+/**
+ * Counts, for a session, the outcome of the property reactivity check performed by a node when a modified fact
+ * reaches it. A re-evaluation is avoided when the modification mask doesn't intersect the properties the node listens
+ * to. A re-evaluation is wasted when it only happens because the modification mask has all its bits set, i.e. when
+ * the modified properties couldn't be determined while building the consequence (or the type is not property reactive),
+ * so that property reactivity had no chance to filter it out.
+ *
+ * It is only collected when the session is created with the drools.propertyReactivityStats option. Otherwise the
+ * session returns the {@link #DISABLED} instance, which records nothing, so that the nodes can record the outcome of
+ * their check without testing if the stats are enabled.
+ */
+public class PropertyReactivityStats {
+
+    public static final PropertyReactivityStats DISABLED = new PropertyReactivityStats() {
+        @Override
+        public void record(BitMask modificationMask, boolean intersects) { }
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    private final LongAdder avoided = new LongAdder();
+    private final LongAdder reEvaluated = new LongAdder();
+    private final LongAdder wasted = new LongAdder();
+
+    public void record(BitMask modificationMask, boolean intersects) {
+        if (!intersects) {
+            avoided.increment();
+            return;
+        }
+        reEvaluated.increment();
+        if (modificationMask.isAllSet() || isAllSetPropertyReactiveMask(modificationMask)) {
+            wasted.increment();
+        }
+    }
+
+    public boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * @return the number of node re-evaluations skipped because the modification mask didn't intersect the node's mask
+     */
+    public long getAvoided() {
+        return avoided.sum();
+    }
+
+    /**
+     * @return the number of node re-evaluations performed because the modification mask intersected the node's mask
+     */
+    public long getReEvaluated() {
+        return reEvaluated.sum();
+    }
+
+    /**
+     * @return the number of the re-evaluations performed with a modification mask having all its bits set
+     */
+    public long getWasted() {
+        return wasted.sum();
+    }
+
+    public void reset() {
+        avoided.reset();
+        reEvaluated.reset();
+        wasted.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "PropertyReactivityStats{avoided=" + getAvoided() + ", reEvaluated=" + getReEvaluated() + ", wasted=" + getWasted() + "}";
+    }
+}
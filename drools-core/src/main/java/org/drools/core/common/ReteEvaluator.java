@@ -151,6 +151,10 @@ public interface ReteEvaluator extends ValueResolver {
         return null;
     }
 
+    default PropertyReactivityStats getPropertyReactivityStats() {
+        return PropertyReactivityStats.DISABLED;
+    }
+
     default void onWorkingMemoryAction(PropagationEntry entry) {
         Consumer<PropagationEntry> listener = getWorkingMemoryActionListener();
         if (listener != null) {
@@ -0,0 +1,302 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.common;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.drools.core.conflict.RuleAgendaConflictResolver;
+import org.drools.core.phreak.RuleAgendaItem;
+import org.drools.core.util.BinaryHeapQueue;
+import org.drools.core.util.Queue;
+
+/**
+ * Agenda group queue keeping one bucket per distinct salience value, ordered by descending salience. Rule bases
+ * normally use only a handful of salience values, so enqueueing and dequeueing a rule costs a lookup among those
+ * few buckets plus a constant time append or removal, instead of the O(log n) heap maintenance over all the rules
+ * on the agenda.
+ *
+ * Rules sharing the same salience are taken in insertion order (FIFO) or reverse insertion order (LIFO). Rules with a
+ * dynamic salience are kept apart in a <code>BinaryHeapQueue</code> ordered by the <code>RuleAgendaConflictResolver</code>,
+ * so their changing saliences don't create short lived buckets.
+ */
+public class SalienceBucketQueue implements Queue<RuleAgendaItem>, Serializable {
+
+    private static final long serialVersionUID = 510l;
+
+    private static final Bucket[] EMPTY_BUCKETS = new Bucket[0];
+
+    private final boolean lifo;
+
+    /** buckets sorted by descending salience, empty buckets are kept as salience values are reused */
+    private Bucket[] buckets = EMPTY_BUCKETS;
+
+    /** all the buckets before this index are empty */
+    private int firstNonEmpty;
+
+    private final BinaryHeapQueue<RuleAgendaItem> dynamicQueue = new BinaryHeapQueue<>(RuleAgendaConflictResolver.INSTANCE);
+
+    private int size;
+
+    public SalienceBucketQueue(boolean lifo) {
+        this.lifo = lifo;
+    }
+
+    public boolean isLifo() {
+        return lifo;
+    }
+
+    public int getBucketsCount() {
+        return buckets.length;
+    }
+
+    @Override
+    public void enqueue(RuleAgendaItem item) {
+        if (isDynamic(item)) {
+            dynamicQueue.enqueue(item);
+        } else {
+            getOrCreateBucket(item.getSalience()).add(item);
+            item.setQueued(true);
+        }
+        size++;
+    }
+
+    @Override
+    public RuleAgendaItem dequeue() {
+        RuleAgendaItem item = peek();
+        if (item != null) {
+            dequeue(item);
+        }
+        return item;
+    }
+
+    @Override
+    public void dequeue(RuleAgendaItem item) {
+        if (!item.isQueued()) {
+            return;
+        }
+        if (isDynamic(item)) {
+            if (dynamicQueue.isEmpty()) {
+                return;
+            }
+            dynamicQueue.dequeue(item);
+        } else {
+            Bucket bucket = findBucket(item);
+            if (bucket == null) {
+                return;
+            }
+            bucket.remove(item.getQueueIndex());
+            item.setQueued(false);
+            item.setQueueIndex(-1);
+        }
+        size--;
+    }
+
+    @Override
+    public RuleAgendaItem peek() {
+        RuleAgendaItem top = peekBuckets();
+        if (dynamicQueue.isEmpty()) {
+            return top;
+        }
+        RuleAgendaItem dynamicTop = dynamicQueue.peek();
+        return top == null || RuleAgendaConflictResolver.doCompare(dynamicTop, top) > 0 ? dynamicTop : top;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        for (Bucket bucket : buckets) {
+            bucket.clear();
+        }
+        dynamicQueue.clear();
+        firstNonEmpty = buckets.length;
+        size = 0;
+    }
+
+    @Override
+    public Collection<RuleAgendaItem> getAll() {
+        List<RuleAgendaItem> all = new ArrayList<>(size);
+        for (int i = firstNonEmpty; i < buckets.length; i++) {
+            buckets[i].collect(all);
+        }
+        all.addAll(dynamicQueue.getAll());
+        return all;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private static boolean isDynamic(RuleAgendaItem item) {
+        return item.getRule().getSalience().isDynamic();
+    }
+
+    private RuleAgendaItem peekBuckets() {
+        int i = firstNonEmpty;
+        while (i < buckets.length && buckets[i].size == 0) {
+            i++;
+        }
+        firstNonEmpty = i;
+        return i < buckets.length ? buckets[i].peek(lifo) : null;
+    }
+
+    private int indexOf(int salience) {
+        int low = 0;
+        int high = buckets.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midSalience = buckets[mid].salience;
+            if (midSalience > salience) {
+                low = mid + 1;
+            } else if (midSalience < salience) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private Bucket getOrCreateBucket(int salience) {
+        int index = indexOf(salience);
+        if (index < 0) {
+            index = -(index + 1);
+            Bucket[] newBuckets = new Bucket[buckets.length + 1];
+            System.arraycopy(buckets, 0, newBuckets, 0, index);
+            System.arraycopy(buckets, index, newBuckets, index + 1, buckets.length - index);
+            newBuckets[index] = new Bucket(salience);
+            buckets = newBuckets;
+            if (firstNonEmpty >= index) {
+                firstNonEmpty++;
+            }
+        }
+        if (index < firstNonEmpty) {
+            firstNonEmpty = index;
+        }
+        return buckets[index];
+    }
+
+    private Bucket findBucket(RuleAgendaItem item) {
+        int index = indexOf(item.getSalience());
+        if (index >= 0 && buckets[index].contains(item)) {
+            return buckets[index];
+        }
+        // the salience of the item has been changed while it was queued
+        for (Bucket bucket : buckets) {
+            if (bucket.contains(item)) {
+                return bucket;
+            }
+        }
+        return null;
+    }
+
+    static final class Bucket implements Serializable {
+
+        private static final long serialVersionUID = 510l;
+
+        private final int salience;
+
+        private RuleAgendaItem[] items = new RuleAgendaItem[8];
+
+        /** items are in the [head, tail) range, removed items leave a null slot */
+        private int head;
+        private int tail;
+
+        private int size;
+
+        Bucket(int salience) {
+            this.salience = salience;
+        }
+
+        void add(RuleAgendaItem item) {
+            if (tail == items.length) {
+                compact();
+            }
+            item.setQueueIndex(tail);
+            items[tail++] = item;
+            size++;
+        }
+
+        boolean contains(RuleAgendaItem item) {
+            int index = item.getQueueIndex();
+            return index >= head && index < tail && items[index] == item;
+        }
+
+        void remove(int index) {
+            items[index] = null;
+            if (--size == 0) {
+                head = 0;
+                tail = 0;
+            }
+        }
+
+        RuleAgendaItem peek(boolean lifo) {
+            if (lifo) {
+                while (items[tail - 1] == null) {
+                    tail--;
+                }
+                return items[tail - 1];
+            }
+            while (items[head] == null) {
+                head++;
+            }
+            return items[head];
+        }
+
+        void collect(List<RuleAgendaItem> all) {
+            for (int i = head; i < tail; i++) {
+                if (items[i] != null) {
+                    all.add(items[i]);
+                }
+            }
+        }
+
+        void clear() {
+            Arrays.fill(items, head, tail, null);
+            head = 0;
+            tail = 0;
+            size = 0;
+        }
+
+        private void compact() {
+            // shift the live items to the start of the array, doubling it only when more than half of it is in use
+            RuleAgendaItem[] target = size > items.length >> 1 ? new RuleAgendaItem[items.length << 1] : items;
+            int writeIndex = 0;
+            for (int i = head; i < tail; i++) {
+                RuleAgendaItem item = items[i];
+                if (item != null) {
+                    items[i] = null;
+                    item.setQueueIndex(writeIndex);
+                    target[writeIndex++] = item;
+                }
+            }
+            items = target;
+            head = 0;
+            tail = writeIndex;
+        }
+    }
+}
@@ -18,6 +18,10 @@
  */
 package org.drools.core.phreak;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
 import org.drools.core.common.BetaConstraints;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.ReteEvaluator;
@@ -180,9 +184,8 @@ public class PhreakAccumulateNode {
                 if (constraints.isAllowedCachedLeft(contextEntry,
                                                     rightTuple.getFactHandleForEvaluation())) {
                     // add a match
-                    addMatch(accNode, accumulate, leftTuple, rightTuple,
-                             null, null, reteEvaluator, am,
-                             accresult, useLeftMemory, true);
+                    addInsertedMatch(accNode, accumulate, leftTuple, rightTuple,
+                                     reteEvaluator, am, accresult, useLeftMemory, true);
                 }
 
                 rightTuple = nextRightTuple;
@@ -252,9 +255,8 @@ public class PhreakAccumulateNode {
                     if ( constraints.isAllowedCachedRight( contextEntry,
                                                            leftTuple ) ) {
                         final BaseAccumulation accctx = (BaseAccumulation) leftTuple.getContextObject();
-                        addMatch( accNode, accumulate, leftTuple, rightTuple,
-                                  null, null, reteEvaluator, am,
-                                  accctx, true, false );
+                        addInsertedMatch( accNode, accumulate, leftTuple, rightTuple,
+                                          reteEvaluator, am, accctx, true, false );
 
                         // right inserts and updates are done first
                         // so any existing leftTuples we know are updates, but only add if not already added
@@ -591,6 +593,11 @@ public class PhreakAccumulateNode {
         TupleMemory rtm = am.getBetaMemory().getRightTupleMemory();
         Accumulate accumulate = accNode.getAccumulate();
 
+        // the left tuples whose result couldn't be reversed: they are re-accumulated only once, after all the deletes
+        // have been processed, so that a batch of deletes, like the events expired by a window, doesn't re-scan the
+        // same matches for each deleted one. Each re-accumulation still scans all the remaining matches of the tuple.
+        Set<LeftTuple> dirtyLeftTuples = null;
+
         for (RightTuple rightTuple = srcRightTuples.getDeleteFirst(); rightTuple != null; ) {
             RightTuple next = rightTuple.getStagedNext();
             if (rightTuple.getMemory() != null) {
@@ -605,8 +612,18 @@ public class PhreakAccumulateNode {
 
                         LeftTuple leftTuple = match.getLeftParent();
                         final BaseAccumulation accctx = (BaseAccumulation) leftTuple.getContextObject();
-                        // FIXME This will be really slow, if it re-accumulates on the same LeftTuple (MDP)
-                        removeMatch(accNode, accumulate, rightTuple, match, reteEvaluator, am, accctx, true);
+                        if (!isReaccumulationDeferrable()) {
+                            removeMatch(accNode, accumulate, rightTuple, match, reteEvaluator, am, accctx, true);
+                        } else if (dirtyLeftTuples != null && dirtyLeftTuples.contains(leftTuple)) {
+                            // it will be re-accumulated anyway, so there is no point in reversing this match
+                            match.unlinkFromLeftParent();
+                            match.unlinkFromRightParent();
+                        } else if (!removeMatch(accNode, accumulate, rightTuple, match, reteEvaluator, am, accctx, false)) {
+                            if (dirtyLeftTuples == null) {
+                                dirtyLeftTuples = Collections.newSetFromMap(new IdentityHashMap<>());
+                            }
+                            dirtyLeftTuples.add(leftTuple);
+                        }
 
                         if (leftTuple.getStagedType() == LeftTuple.NONE) {
                             trgLeftTuples.addUpdate(leftTuple);
@@ -619,6 +636,29 @@ public class PhreakAccumulateNode {
             rightTuple.clearStaged();
             rightTuple = next;
         }
+
+        if (dirtyLeftTuples != null) {
+            for (LeftTuple leftTuple : dirtyLeftTuples) {
+                reaccumulateForLeftTuple(accNode,
+                                         accumulate,
+                                         leftTuple,
+                                         null,
+                                         null,
+                                         reteEvaluator,
+                                         am,
+                                         (BaseAccumulation) leftTuple.getContextObject(),
+                                         true);
+            }
+        }
+    }
+
+    /**
+     * Whether the re-accumulation of a left tuple whose matches couldn't be reversed can be postponed until all the
+     * right deletes of the current evaluation have been processed. It cannot for a group by, where a single removed
+     * match identifies the group that has to be re-accumulated.
+     */
+    protected boolean isReaccumulationDeferrable() {
+        return true;
     }
 
     protected void evaluateResultConstraints(final AccumulateNode accNode,
@@ -705,6 +745,24 @@ public class PhreakAccumulateNode {
         return result;
     }
 
+    /**
+     * Adds a match found while processing the left or right inserts, which are always processed after the deletes
+     * and the updates, so that a subclass can defer its accumulation until the result constraints are evaluated.
+     */
+    void addInsertedMatch(final AccumulateNode accNode,
+                          final Accumulate accumulate,
+                          final LeftTuple leftTuple,
+                          final RightTuple rightTuple,
+                          final ReteEvaluator reteEvaluator,
+                          final AccumulateMemory am,
+                          final BaseAccumulation accctx,
+                          final boolean useLeftMemory,
+                          final boolean leftPropagation) {
+        addMatch(accNode, accumulate, leftTuple, rightTuple,
+                 null, null, reteEvaluator, am,
+                 accctx, useLeftMemory, leftPropagation);
+    }
+
     private void addMatch(final AccumulateNode accNode,
                           final Accumulate accumulate,
                           final LeftTuple leftTuple,
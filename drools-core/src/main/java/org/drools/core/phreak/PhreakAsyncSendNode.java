@@ -18,7 +18,9 @@
  */
 package org.drools.core.phreak;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 import org.drools.core.common.BetaConstraints;
@@ -29,7 +31,6 @@ import org.drools.core.reteoo.AsyncMessage;
 import org.drools.core.reteoo.AsyncMessagesCoordinator;
 import org.drools.core.reteoo.AsyncSendNode;
 import org.drools.core.reteoo.AsyncSendNode.AsyncSendMemory;
-import org.drools.core.reteoo.BetaMemory;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.base.rule.ContextEntry;
 import org.drools.base.rule.constraint.AlphaNodeFieldConstraint;
@@ -60,18 +61,15 @@ public class PhreakAsyncSendNode {
                               ReteEvaluator reteEvaluator,
                               TupleSets<LeftTuple> srcLeftTuples) {
 
-        BetaMemory bm = memory.getBetaMemory();
-        ContextEntry[] context = bm.getContext();
         BetaConstraints betaConstraints = node.getBetaConstraints();
         AlphaNodeFieldConstraint[] alphaConstraints = node.getAlphaConstraints();
         DataProvider dataProvider = node.getDataProvider();
         Class<?> resultClass = node.getResultClass();
 
+        List<LeftTuple> leftTuples = new ArrayList<>();
         for (LeftTuple leftTuple = srcLeftTuples.getInsertFirst(); leftTuple != null; ) {
             LeftTuple next = leftTuple.getStagedNext();
 
-            PropagationContext propagationContext = leftTuple.getPropagationContext();
-
             boolean useLeftMemory = RuleNetworkEvaluator.useLeftMemory(node, leftTuple);
 
             if (useLeftMemory) {
@@ -79,20 +77,27 @@ public class PhreakAsyncSendNode {
                 leftTuple.setContextObject( new LinkedHashMap<>() );
             }
 
-            betaConstraints.updateFromTuple(context, reteEvaluator, leftTuple);
-
-            LeftTuple finalLeftTuple = leftTuple;
-
-            executor().execute( () -> {
-                // TODO context is not thread safe, it needs to be cloned
-                fetchAndSendResults( node, memory, reteEvaluator, context, betaConstraints, alphaConstraints, dataProvider,
-                        resultClass, finalLeftTuple, propagationContext );
-            } );
+            leftTuples.add( leftTuple );
 
             leftTuple.clearStaged();
             leftTuple = next;
         }
-        betaConstraints.resetTuple(context);
+
+        if (leftTuples.isEmpty()) {
+            return;
+        }
+
+        // the whole batch is sent by a single task, using its own context so that it doesn't interfere with the
+        // evaluation of the network of this session going on in the meanwhile
+        executor().execute( () -> {
+            ContextEntry[] context = betaConstraints.createContext();
+            for (LeftTuple leftTuple : leftTuples) {
+                betaConstraints.updateFromTuple(context, reteEvaluator, leftTuple);
+                fetchAndSendResults( node, memory, reteEvaluator, context, betaConstraints, alphaConstraints, dataProvider,
+                        resultClass, leftTuple, leftTuple.getPropagationContext() );
+            }
+            betaConstraints.resetTuple(context);
+        } );
     }
 
     private void fetchAndSendResults(AsyncSendNode node, AsyncSendMemory memory, ReteEvaluator reteEvaluator,
@@ -18,9 +18,15 @@
  */
 package org.drools.core.phreak;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import org.drools.core.common.BetaConstraints;
 import org.drools.core.common.ReteEvaluator;
@@ -35,6 +41,7 @@ import org.drools.core.reteoo.RightTuple;
 import org.drools.core.reteoo.RightTupleImpl;
 import org.drools.core.reteoo.TupleMemory;
 import org.drools.base.rule.ContextEntry;
+import org.drools.base.rule.Declaration;
 import org.drools.base.rule.constraint.AlphaNodeFieldConstraint;
 import org.drools.base.rule.accessor.DataProvider;
 import org.drools.core.common.PropagationContext;
@@ -99,8 +106,7 @@ public class PhreakFromNode {
 
             betaConstraints.updateFromTuple(context, reteEvaluator, leftTuple);
 
-            for (final java.util.Iterator<?> it = dataProvider.getResults(leftTuple, reteEvaluator,
-                                                                          fm.providerContext); it.hasNext(); ) {
+            for (final Iterator<?> it = getResults(dataProvider, fm, leftTuple, reteEvaluator); it.hasNext(); ) {
                 final Object object = it.next();
                 if ( (object == null) || !resultClass.isAssignableFrom( object.getClass() ) ) {
                     continue; // skip anything if it not assignable
@@ -138,6 +144,10 @@ public class PhreakFromNode {
         DataProvider dataProvider = fromNode.getDataProvider();
         Class<?> resultClass = fromNode.getResultClass();
 
+        // the update of a left tuple may have changed what its inputs provide, so the cached results are dropped
+        // upfront: the tuples of this batch sharing the same inputs then evaluate the provider only once
+        evictCachedResults(dataProvider, fm, srcLeftTuples, reteEvaluator);
+
         for (LeftTuple leftTuple = srcLeftTuples.getUpdateFirst(); leftTuple != null; ) {
             LeftTuple next = leftTuple.getStagedNext();
 
@@ -150,7 +160,7 @@ public class PhreakFromNode {
             betaConstraints.updateFromTuple(context, reteEvaluator, leftTuple);
 
             FastIterator<AbstractTuple> rightIt = LinkedList.fastIterator;
-            for (final java.util.Iterator<?> it = dataProvider.getResults(leftTuple, reteEvaluator, fm.providerContext); it.hasNext(); ) {
+            for (final Iterator<?> it = getResults(dataProvider, fm, leftTuple, reteEvaluator); it.hasNext(); ) {
                 final Object object = it.next();
                 if ( (object == null) || !resultClass.isAssignableFrom( object.getClass() ) ) {
                     continue; // skip anything if it not assignable
@@ -190,6 +200,104 @@ public class PhreakFromNode {
         betaConstraints.resetTuple(context);
     }
 
+    private static Iterator<?> getResults(DataProvider dataProvider, FromMemory fm, LeftTuple leftTuple, ReteEvaluator reteEvaluator) {
+        Map<Object, List<Object>> resultCache = fm.getResultCache();
+        if (resultCache == null) {
+            return dataProvider.getResults(leftTuple, reteEvaluator, fm.providerContext);
+        }
+
+        Object key = getResultCacheKey(dataProvider.getRequiredDeclarations(), leftTuple, reteEvaluator);
+        List<Object> results = resultCache.get(key);
+        if (results == null) {
+            results = new ArrayList<>();
+            for (Iterator<?> it = dataProvider.getResults(leftTuple, reteEvaluator, fm.providerContext); it.hasNext(); ) {
+                results.add(it.next());
+            }
+            resultCache.put(key, results);
+        }
+        return results.iterator();
+    }
+
+    private static void evictCachedResults(DataProvider dataProvider, FromMemory fm, TupleSets<LeftTuple> srcLeftTuples, ReteEvaluator reteEvaluator) {
+        Map<Object, List<Object>> resultCache = fm.getResultCache();
+        if (resultCache == null || resultCache.isEmpty()) {
+            return;
+        }
+        for (LeftTuple leftTuple = srcLeftTuples.getUpdateFirst(); leftTuple != null; leftTuple = leftTuple.getStagedNext()) {
+            resultCache.remove(getResultCacheKey(dataProvider.getRequiredDeclarations(), leftTuple, reteEvaluator));
+        }
+    }
+
+    /**
+     * The cached results are keyed on what the provider reads. Immutable values (strings, boxed primitives, enums) are
+     * compared by equality. Any other value is represented by the fact handle it is bound from, or by the instance of
+     * the global, compared by identity: equal but distinct facts never share an entry and a fact modified after its
+     * results have been cached doesn't turn into a stale key, its entry is evicted by the update of its tuples.
+     */
+    private static Object getResultCacheKey(Declaration[] declarations, LeftTuple leftTuple, ReteEvaluator reteEvaluator) {
+        Object[] inputs = new Object[declarations.length];
+        for (int i = 0; i < declarations.length; i++) {
+            Declaration declaration = declarations[i];
+            if (declaration.getExtractor().isGlobal()) {
+                inputs[i] = declaration.getExtractor().getValue(reteEvaluator, declaration.getIdentifier());
+            } else {
+                Object value = declaration.getValue(reteEvaluator, leftTuple);
+                inputs[i] = isImmutable(value) ? value : leftTuple.get(declaration);
+            }
+        }
+        return new ResultCacheKey(inputs);
+    }
+
+    private static boolean isImmutable(Object value) {
+        if (value == null) {
+            return true;
+        }
+        Class<?> type = value.getClass();
+        return type == String.class || type == Integer.class || type == Long.class || type == Double.class ||
+               type == Float.class || type == Short.class || type == Byte.class || type == Character.class ||
+               type == Boolean.class || type == BigDecimal.class || type == BigInteger.class || value instanceof Enum;
+    }
+
+    private static class ResultCacheKey {
+
+        private final Object[] inputs;
+        private final int hashCode;
+
+        private ResultCacheKey(Object[] inputs) {
+            this.inputs = inputs;
+            int hash = 1;
+            for (Object input : inputs) {
+                hash = 31 * hash + (isImmutable(input) ? Objects.hashCode(input) : System.identityHashCode(input));
+            }
+            this.hashCode = hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ResultCacheKey) || hashCode != obj.hashCode()) {
+                return false;
+            }
+            Object[] otherInputs = ((ResultCacheKey) obj).inputs;
+            if (inputs.length != otherInputs.length) {
+                return false;
+            }
+            for (int i = 0; i < inputs.length; i++) {
+                if (inputs[i] != otherInputs[i] && !(isImmutable(inputs[i]) && Objects.equals(inputs[i], otherInputs[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
     public void doLeftDeletes(FromMemory fm,
                               TupleSets<LeftTuple> srcLeftTuples,
                               TupleSets<LeftTuple> trgLeftTuples,
@@ -18,6 +18,10 @@
  */
 package org.drools.core.phreak;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.ReteEvaluator;
 import org.drools.core.common.TupleSets;
 import org.drools.core.reteoo.AccumulateNode;
@@ -28,12 +32,20 @@ import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.LeftTupleSink;
 import org.drools.core.reteoo.RightTuple;
 import org.drools.base.rule.Accumulate;
+import org.drools.base.rule.ParallelGroupByAccumulate;
 import org.drools.core.common.PropagationContext;
 import org.drools.core.util.index.TupleList;
 import org.kie.api.runtime.rule.FactHandle;
 
+import static org.drools.base.common.PartitionsManager.doOnForkJoinPool;
+
 public class PhreakGroupByNode extends PhreakAccumulateNode {
 
+    /**
+     * The minimum number of inserted matches for which the accumulation is partitioned across threads
+     */
+    static final int MIN_PARALLEL_MATCHES = 1024;
+
     @Override
     AccumulateNode.BaseAccumulation initAccumulationContext(AccumulateMemory am, ReteEvaluator reteEvaluator, Accumulate accumulate, LeftTuple leftTuple) {
         GroupByContext accContext = new GroupByContext();
@@ -71,6 +83,8 @@ public class PhreakGroupByNode extends PhreakAccumulateNode {
 
         GroupByContext groupByContext = (GroupByContext)accctx;
 
+        accumulatePendingMatches( accumulate, memory, groupByContext, reteEvaluator );
+
         for (TupleList<AccumulateContextEntry> tupleList = groupByContext.takeToPropagateList(); tupleList != null; tupleList = tupleList.getNext()) {
             AccumulateContextEntry contextEntry = tupleList.getContext();
 
@@ -83,6 +97,11 @@ public class PhreakGroupByNode extends PhreakAccumulateNode {
         }
     }
 
+    @Override
+    protected boolean isReaccumulationDeferrable() {
+        return false;
+    }
+
     @Override
     protected void reaccumulateForLeftTuple(final AccumulateNode accNode,
                                             final Accumulate accumulate,
@@ -144,6 +163,88 @@ public class PhreakGroupByNode extends PhreakAccumulateNode {
         }
     }
 
+    @Override
+    void addInsertedMatch(final AccumulateNode accNode,
+                          final Accumulate accumulate,
+                          final LeftTuple leftTuple,
+                          final RightTuple rightTuple,
+                          final ReteEvaluator reteEvaluator,
+                          final AccumulateMemory am,
+                          final AccumulateNode.BaseAccumulation accctx,
+                          final boolean useLeftMemory,
+                          final boolean leftPropagation) {
+        if (!useLeftMemory || accNode.isRightInputIsRiaNode() || !(accumulate instanceof ParallelGroupByAccumulate) ||
+                !isStatelessAcrossGroups(am.workingMemoryContext) || reteEvaluator.getKnowledgeBase().getRuleBaseConfiguration().getGroupByPartitions() <= 1) {
+            super.addInsertedMatch(accNode, accumulate, leftTuple, rightTuple, reteEvaluator, am, accctx, useLeftMemory, leftPropagation);
+            return;
+        }
+
+        InternalFactHandle handle = (InternalFactHandle) rightTuple.getFactHandle();
+        if (leftPropagation && handle.isExpired()) {
+            return;
+        }
+
+        accctx.setPropagationContext(rightTuple.getPropagationContext());
+
+        // the group is resolved and the match linked to it on this thread, while its accumulation is deferred
+        // until the result constraints are evaluated, when the matches of different groups are accumulated in parallel
+        GroupByContext groupByContext = (GroupByContext) accctx;
+        ((ParallelGroupByAccumulate) accumulate).getGroup(am.workingMemoryContext, groupByContext, leftTuple, handle, reteEvaluator);
+
+        LeftTuple match = accNode.createLeftTuple(leftTuple, rightTuple, null, null, accNode, true);
+        postAccumulate(accNode, groupByContext, match);
+        groupByContext.addPendingMatch(match);
+    }
+
+    private void accumulatePendingMatches(Accumulate accumulate, AccumulateMemory am, GroupByContext groupByContext, ReteEvaluator reteEvaluator) {
+        List<LeftTuple> pendingMatches = groupByContext.takePendingMatches();
+        if (pendingMatches == null) {
+            return;
+        }
+
+        int partitions = reteEvaluator.getKnowledgeBase().getRuleBaseConfiguration().getGroupByPartitions();
+        if (pendingMatches.size() < MIN_PARALLEL_MATCHES) {
+            accumulateMatches(accumulate, am, pendingMatches, reteEvaluator);
+            return;
+        }
+
+        List<List<LeftTuple>> partitionedMatches = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            partitionedMatches.add(new ArrayList<>(pendingMatches.size() / partitions + 1));
+        }
+        for (LeftTuple match : pendingMatches) {
+            // all the matches of the same group go to the same partition, preserving their order
+            TupleList<AccumulateContextEntry> group = match.getMemory();
+            int hash = group.getContext().getKey() == null ? 0 : group.getContext().getKey().hashCode();
+            partitionedMatches.get(Math.floorMod(hash ^ (hash >>> 16), partitions)).add(match);
+        }
+
+        doOnForkJoinPool(() -> partitionedMatches.parallelStream()
+                .forEach(matches -> accumulateMatches(accumulate, am, matches, reteEvaluator)));
+    }
+
+    private static void accumulateMatches(Accumulate accumulate, AccumulateMemory am, List<LeftTuple> matches, ReteEvaluator reteEvaluator) {
+        for (LeftTuple match : matches) {
+            TupleList<AccumulateContextEntry> group = match.getMemory();
+            Object value = ((ParallelGroupByAccumulate) accumulate).accumulateInGroup(am.workingMemoryContext, group, match.getLeftParent(),
+                                                                                      match.getRightParent().getFactHandle(), reteEvaluator);
+            match.setContextObject(value);
+        }
+    }
+
+    private static boolean isStatelessAcrossGroups(Object workingMemoryContext) {
+        // accumulators keeping a working memory context share it among all the groups of the node
+        if (workingMemoryContext instanceof Object[]) {
+            for (Object context : (Object[]) workingMemoryContext) {
+                if (context != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return workingMemoryContext == null;
+    }
+
     void postAccumulate(AccumulateNode accNode, Object accctx, LeftTuple match) {
         ((GroupByContext)accctx).addMatchOnLastTupleList(match);
     }
@@ -29,6 +29,7 @@ import org.drools.core.impl.WorkingMemoryReteExpireAction;
 import org.drools.core.reteoo.ClassObjectTypeConf;
 import org.drools.core.reteoo.CompositePartitionAwareObjectSinkAdapter;
 import org.drools.core.reteoo.EntryPointNode;
+import org.drools.core.reteoo.ExpirationQueue;
 import org.drools.core.reteoo.LeftInputAdapterNode;
 import org.drools.core.reteoo.LeftTupleSource;
 import org.drools.core.reteoo.ModifyPreviousTuples;
@@ -271,8 +272,11 @@ public interface PropagationEntry {
             long nextTimestamp = getNextTimestamp( insertionTime, expirationOffset, eventFactHandle );
 
             WorkingMemoryReteExpireAction action = new WorkingMemoryReteExpireAction((DefaultEventHandle) handle, otn );
+            ExpirationQueue expirationQueue;
             if (nextTimestamp <= reteEvaluator.getTimerService().getCurrentTime()) {
                 reteEvaluator.addPropagation( action );
+            } else if ( (expirationQueue = getExpirationQueue( reteEvaluator, handle, otn )) != null ) {
+                expirationQueue.add( action, nextTimestamp );
             } else {
                 JobContext jobctx = new ObjectTypeNode.ExpireJobContext( action, reteEvaluator );
                 DefaultJobHandle jobHandle = (DefaultJobHandle) reteEvaluator.getTimerService()
@@ -282,6 +286,14 @@ public interface PropagationEntry {
             }
         }
 
+        private static ExpirationQueue getExpirationQueue( ReteEvaluator reteEvaluator, InternalFactHandle handle, ObjectTypeNode otn ) {
+            if ( !reteEvaluator.getRuleSessionConfiguration().isBatchedExpiration() ||
+                 reteEvaluator.getKnowledgeBase().getRuleBaseConfiguration().isParallelEvaluation() ) {
+                return null;
+            }
+            return handle.getEntryPoint( reteEvaluator ).getExpirationQueue( otn );
+        }
+
         private static long getNextTimestamp( long insertionTime, long expirationOffset, DefaultEventHandle eventFactHandle) {
             long effectiveEnd = eventFactHandle.getEndTimestamp() + expirationOffset;
             return Math.max( insertionTime, effectiveEnd >= 0 ? effectiveEnd : Long.MAX_VALUE );
@@ -18,6 +18,10 @@
  */
 package org.drools.core.phreak;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.drools.base.reteoo.NodeTypeEnums;
 import org.drools.base.rule.constraint.QueryNameConstraint;
 import org.drools.core.common.Memory;
@@ -39,6 +43,7 @@ import org.drools.core.reteoo.QueryElementNode;
 import org.drools.core.reteoo.RightInputAdapterNode;
 import org.drools.core.reteoo.SegmentMemory;
 import org.drools.core.reteoo.SegmentMemory.SegmentPrototype;
+import org.drools.core.reteoo.TerminalNode;
 
 import static org.drools.core.phreak.EagerPhreakBuilder.isInsideSubnetwork;
 
@@ -104,6 +109,31 @@ public class RuntimeSegmentUtilities {
         return smem;
     }
 
+    /**
+     * Creates upfront the whole segment memory tree for the paths of the given terminal nodes, instead of waiting
+     * for the first propagation to reach them. The segments are created from the root LeftInputAdapterNode downward,
+     * in the same order the propagation would do, so once the prototypes are cached in the kbase each of them is
+     * restored by copying its prototype rather than by walking the network.
+     */
+    public static void initializeAllSegmentMemories(ReteEvaluator reteEvaluator, Collection<? extends TerminalNode> terminalNodes) {
+        Set<Integer> visitedRoots = new HashSet<>();
+        for (TerminalNode tn : terminalNodes) {
+            LeftTupleNode pathRoot = tn.getPathNodes()[0];
+            if (visitedRoots.add(pathRoot.getId())) {
+                initializeSegmentTree(reteEvaluator, getOrCreateSegmentMemory(pathRoot, reteEvaluator));
+            }
+        }
+    }
+
+    private static void initializeSegmentTree(ReteEvaluator reteEvaluator, SegmentMemory smem) {
+        if (smem.isEmpty() && !NodeTypeEnums.isEndNode(smem.getTipNode())) {
+            createChildSegments(reteEvaluator, smem, smem.getTipNode().getSinkPropagator());
+        }
+        for (SegmentMemory child = smem.getFirst(); child != null; child = child.getNext()) {
+            initializeSegmentTree(reteEvaluator, child);
+        }
+    }
+
     public static SegmentMemory getQuerySegmentMemory(ReteEvaluator reteEvaluator, QueryElementNode queryNode) {
         ObjectTypeNode queryOtn = reteEvaluator.getDefaultEntryPoint().getEntryPointNode().getQueryNode();
         LeftInputAdapterNode liaNode = getQueryLiaNode(queryNode.getQueryElement().getQueryName(), queryOtn);
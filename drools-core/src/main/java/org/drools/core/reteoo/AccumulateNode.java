@@ -18,6 +18,7 @@
  */
 package org.drools.core.reteoo;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -306,6 +307,7 @@ public class AccumulateNode extends BetaNode {
         private Map<Object, TupleList<AccumulateContextEntry> > groupsMap = new HashMap<>();
         private TupleList<AccumulateContextEntry>               lastTupleList;
         private TupleList<AccumulateContextEntry>               toPropagateList;
+        private List<LeftTuple>                                 pendingMatches;
 
         public PropagationContext getPropagationContext() {
             return propagationContext;
@@ -352,6 +354,22 @@ public class AccumulateNode extends BetaNode {
             return list;
         }
 
+        /**
+         * Records a match already added to its group, whose accumulation has been deferred so that it can be done in parallel
+         */
+        public void addPendingMatch(LeftTuple match) {
+            if (pendingMatches == null) {
+                pendingMatches = new ArrayList<>();
+            }
+            pendingMatches.add(match);
+        }
+
+        public List<LeftTuple> takePendingMatches() {
+            List<LeftTuple> matches = pendingMatches;
+            pendingMatches = null;
+            return matches;
+        }
+
         public void addMatchOnLastTupleList(LeftTuple match) {
             lastTupleList.add(match);
             lastTupleList.getContext().setEmpty( false );
@@ -367,6 +385,7 @@ public class AccumulateNode extends BetaNode {
             groupsMap.clear();
             toPropagateList = null;
             lastTupleList = null;
+            pendingMatches = null;
         }
     }
 
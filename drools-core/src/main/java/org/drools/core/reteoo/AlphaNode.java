@@ -128,7 +128,10 @@ public class AlphaNode extends ObjectSource
                              final ModifyPreviousTuples modifyPreviousTuples,
                              final PropagationContext context,
                              final ReteEvaluator reteEvaluator) {
-        if (context.getModificationMask().intersects(inferredMask)) {
+        boolean intersects = context.getModificationMask().intersects(inferredMask);
+        reteEvaluator.getPropertyReactivityStats().record(context.getModificationMask(), intersects);
+
+        if (intersects) {
 
             if (this.constraint.isAllowed(factHandle, reteEvaluator)) {
                 this.sink.propagateModifyObject(factHandle,
@@ -70,10 +70,13 @@ public class AlphaTerminalNode extends LeftInputAdapterNode {
             RuleAgendaItem agendaItem = getRuleAgendaItem( reteEvaluator, activationsManager, rtn, true );
             RuleExecutor executor = agendaItem.getRuleExecutor();
 
+            boolean intersects = context.getModificationMask().intersects( rtn.getLeftInferredMask() );
+            reteEvaluator.getPropertyReactivityStats().record(context.getModificationMask(), intersects);
+
             if ( leftTuple != null && leftTuple.getInputOtnId().equals( otnId ) ) {
                 modifyPreviousTuples.removeLeftTuple(partitionId);
                 leftTuple.reAdd();
-                if ( context.getModificationMask().intersects( rtn.getLeftInferredMask() ) ) {
+                if ( intersects ) {
                     leftTuple.setPropagationContext( context );
                     PhreakRuleTerminalNode.doLeftTupleUpdate( rtn, executor, activationsManager, leftTuple );
                     if (leftTuple instanceof InternalMatch) {
@@ -81,7 +84,7 @@ public class AlphaTerminalNode extends LeftInputAdapterNode {
                     }
                 }
             } else {
-                if ( context.getModificationMask().intersects( rtn.getLeftInferredMask() ) ) {
+                if ( intersects ) {
                     leftTuple = rtn.createLeftTuple( factHandle, true );
                     leftTuple.setPropagationContext( context );
                     PhreakRuleTerminalNode.doLeftTupleInsert( rtn, executor, activationsManager, agendaItem, leftTuple );
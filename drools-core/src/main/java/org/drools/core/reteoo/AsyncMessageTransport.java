@@ -0,0 +1,44 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.reteoo;
+
+import java.util.function.Consumer;
+
+/**
+ * The channel used to deliver the messages produced by the async send nodes to the async receive nodes listening to
+ * the same message id. The receivers are registered by the memories of the receive nodes when a session is created and
+ * deregistered when it is disposed. A receiver only enqueues the message in the inbox of its session, so it can be
+ * invoked from any thread and never evaluates the network of the receiving session.
+ *
+ * A receiver blocks the sending thread while the inbox of its session is full, and throws an
+ * {@link AsyncInboxFullException} when a timeout is configured and expires. Implementations must let this back-pressure
+ * reach the sender, blocking or failing the send, instead of discarding the message.
+ *
+ * An implementation delivering the messages to other processes can be plugged through
+ * {@link AsyncMessagesCoordinator#setTransport(AsyncMessageTransport)} before creating the sessions. By default the
+ * messages are delivered in memory to the sessions of the same JVM.
+ */
+public interface AsyncMessageTransport {
+
+    void send(String messageId, AsyncMessage message);
+
+    void subscribe(String messageId, Consumer<AsyncMessage> receiver);
+
+    void unsubscribe(String messageId, Consumer<AsyncMessage> receiver);
+}
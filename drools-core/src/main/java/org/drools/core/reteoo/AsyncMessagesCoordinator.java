@@ -18,9 +18,7 @@
  */
 package org.drools.core.reteoo;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -37,25 +35,28 @@ public class AsyncMessagesCoordinator {
         return Holder.INSTANCE;
     }
 
-    private final Map<String, List<Consumer<AsyncMessage>>> listeners = new HashMap<>();
+    private volatile AsyncMessageTransport transport = new InMemoryAsyncMessageTransport();
 
-    public void propagate(String messageId, AsyncMessage leftTuple) {
-        listeners.getOrDefault( messageId, Collections.emptyList() ).forEach( c -> c.accept( leftTuple ) );
+    public AsyncMessageTransport getTransport() {
+        return transport;
     }
 
-    synchronized void registerReceiver(String messageId, Consumer<AsyncMessage> receiver) {
-        listeners.computeIfAbsent( messageId, s -> new ArrayList<>() ).add( receiver );
+    /**
+     * Plugs the transport used to deliver the messages. It has to be set before creating the sessions using
+     * async receive nodes, because their receivers are subscribed to the transport in use when they are created.
+     */
+    public void setTransport(AsyncMessageTransport transport) {
+        this.transport = transport;
     }
 
-    synchronized void deregisterReceiver(String messageId, Consumer<AsyncMessage> receiver) {
-        List<Consumer<AsyncMessage>> consumers = listeners.get( messageId );
-        consumers.remove( receiver );
-        if (consumers.isEmpty()) {
-            listeners.remove( messageId );
-        }
+    public void propagate(String messageId, AsyncMessage message) {
+        transport.send( messageId, message );
     }
 
     public Map<String, List<Consumer<AsyncMessage>>> getListeners() {
-        return listeners;
+        AsyncMessageTransport currentTransport = transport;
+        return currentTransport instanceof InMemoryAsyncMessageTransport ?
+                ((InMemoryAsyncMessageTransport) currentTransport).getListeners() :
+                Collections.emptyMap();
     }
 }
@@ -20,6 +20,12 @@ package org.drools.core.reteoo;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 
 import org.drools.base.reteoo.NodeTypeEnums;
@@ -111,20 +117,24 @@ public class AsyncReceiveNode extends LeftTupleSource
         return objectTypeConf;
     }
 
+    /**
+     * Moves all the messages waiting in the inbox of the receive node memory into the session. Only one action at a
+     * time is scheduled for each memory, however many messages are received in the meanwhile.
+     */
     public static class AsyncReceiveAction extends PropagationEntry.AbstractPropagationEntry {
 
         private final AsyncReceiveNode asyncReceiveNode;
-        private final Object object;
 
-        private AsyncReceiveAction( AsyncReceiveNode asyncReceiveNode, Object object ) {
+        private AsyncReceiveAction( AsyncReceiveNode asyncReceiveNode ) {
             this.asyncReceiveNode = asyncReceiveNode;
-            this.object = object;
         }
 
         @Override
         public void internalExecute(final ReteEvaluator reteEvaluator ) {
             AsyncReceiveMemory memory = reteEvaluator.getNodeMemory( asyncReceiveNode );
-            memory.addMessage( object );
+            if ( memory.drainInbox() == 0 ) {
+                return;
+            }
             memory.setNodeDirtyWithoutNotify();
 
             for (final PathMemory pmem : memory.getSegmentMemory().getPathMemories()) {
@@ -275,8 +285,31 @@ public class AsyncReceiveNode extends LeftTupleSource
 
         private static final long serialVersionUID = 510l;
 
+        /**
+         * The maximum number of messages waiting in the inbox of a receive node memory.
+         */
+        public static final int INBOX_CAPACITY = Integer.getInteger( "drools.asyncReceive.inboxCapacity", 10_000 );
+
+        /**
+         * How long the thread delivering a message waits for room in a full inbox before failing with an
+         * {@link AsyncInboxFullException}. With 0, the default, it waits until the receiving session makes room
+         * or is disposed, so that a full inbox slows down the senders.
+         */
+        public static final long INBOX_FULL_TIMEOUT_MILLIS = Long.getLong( "drools.asyncReceive.inboxFullTimeout", 0L );
+
+        private static final long INBOX_FULL_BACKOFF_NANOS = 100_000L;
+
         private final Consumer<AsyncMessage> receiver;
         private final String messageId;
+        private final AsyncMessageTransport transport;
+        private final Runnable drainScheduler;
+        private final int inboxCapacity;
+        private final long inboxFullTimeoutNanos;
+
+        private final Queue<Object> inbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger inboxSize = new AtomicInteger();
+        private final AtomicBoolean drainScheduled = new AtomicBoolean();
+        private volatile boolean disposed;
 
         private final TupleList insertOrUpdateLeftTuples = new TupleList();
         private final List<Object> messages = new ArrayList<>();
@@ -285,9 +318,76 @@ public class AsyncReceiveNode extends LeftTupleSource
         private long nodePosMaskBit;
 
         public AsyncReceiveMemory(AsyncReceiveNode node, ReteEvaluator reteEvaluator) {
-            this.messageId = node.messageId;
-            this.receiver = asyncMessage -> reteEvaluator.addPropagation( new AsyncReceiveAction( node, asyncMessage.getObject() ) );
-            AsyncMessagesCoordinator.get().registerReceiver( node.messageId, receiver );
+            this( node.messageId, () -> reteEvaluator.addPropagation( new AsyncReceiveAction( node ) ),
+                  INBOX_CAPACITY, INBOX_FULL_TIMEOUT_MILLIS );
+        }
+
+        AsyncReceiveMemory(String messageId, Runnable drainScheduler, int inboxCapacity, long inboxFullTimeoutMillis) {
+            this.messageId = messageId;
+            this.drainScheduler = drainScheduler;
+            this.inboxCapacity = inboxCapacity;
+            this.inboxFullTimeoutNanos = TimeUnit.MILLISECONDS.toNanos( inboxFullTimeoutMillis );
+            this.receiver = asyncMessage -> receive( asyncMessage.getObject() );
+            this.transport = AsyncMessagesCoordinator.get().getTransport();
+            transport.subscribe( messageId, receiver );
+        }
+
+        /**
+         * Adds a message to the inbox, scheduling its drain if not already scheduled. When the inbox is full it
+         * blocks the sending thread until the receiving session makes room, failing with an
+         * {@link AsyncInboxFullException} if a timeout is configured and the inbox is still full when it expires.
+         * Returns false only when the session has been disposed.
+         */
+        boolean receive(Object message) {
+            if ( disposed ) {
+                return false;
+            }
+            long deadline = 0;
+            boolean waiting = false;
+            for (int size = inboxSize.get(); size >= inboxCapacity || !inboxSize.compareAndSet( size, size + 1 ); size = inboxSize.get()) {
+                if ( disposed ) {
+                    return false;
+                }
+                if ( size >= inboxCapacity ) {
+                    long now = System.nanoTime();
+                    if ( !waiting ) {
+                        waiting = true;
+                        deadline = now + inboxFullTimeoutNanos;
+                    }
+                    if ( inboxFullTimeoutNanos == 0 ) {
+                        LockSupport.parkNanos( INBOX_FULL_BACKOFF_NANOS );
+                    } else if ( now - deadline >= 0 ) {
+                        throw new AsyncInboxFullException( messageId );
+                    } else {
+                        LockSupport.parkNanos( Math.min( INBOX_FULL_BACKOFF_NANOS, deadline - now ) );
+                    }
+                }
+            }
+            inbox.offer( message );
+            if ( drainScheduled.compareAndSet( false, true ) ) {
+                drainScheduler.run();
+            }
+            return true;
+        }
+
+        public int getInboxSize() {
+            return inboxSize.get();
+        }
+
+        /**
+         * Moves the messages waiting in the inbox to the ones to be propagated by this node and returns their number.
+         * It must be invoked by the thread evaluating the network of the session.
+         */
+        public int drainInbox() {
+            // reset before draining: a message arriving from now on schedules another action, at worst finding nothing
+            drainScheduled.set( false );
+            int drained = 0;
+            for (Object message = inbox.poll(); message != null; message = inbox.poll()) {
+                messages.add( message );
+                drained++;
+            }
+            inboxSize.addAndGet( -drained );
+            return drained;
         }
 
         public void addMessage(Object message) {
@@ -340,10 +440,18 @@ public class AsyncReceiveNode extends LeftTupleSource
 
         public void reset() {
             messages.clear();
+            // the action draining the inbox has been discarded with the rest of the session's propagations
+            drainScheduled.set( false );
+            for (Object message = inbox.poll(); message != null; message = inbox.poll()) {
+                inboxSize.decrementAndGet();
+            }
         }
 
         public void dispose() {
-            AsyncMessagesCoordinator.get().deregisterReceiver( messageId, receiver );
+            disposed = true;
+            transport.unsubscribe( messageId, receiver );
+            inbox.clear();
+            inboxSize.set( 0 );
         }
     }
 }
\ No newline at end of file
@@ -287,10 +287,13 @@ public abstract class BetaNode extends LeftTupleSource
             rightTuple = modifyPreviousTuples.peekRightTuple(partitionId);
         }
 
+        boolean intersects = context.getModificationMask().intersects(getRightInferredMask());
+        reteEvaluator.getPropertyReactivityStats().record(context.getModificationMask(), intersects);
+
         if ( rightTuple != null && rightTuple.getInputOtnId().equals( getRightInputOtnId()) ) {
             modifyPreviousTuples.removeRightTuple(partitionId);
             rightTuple.reAdd();
-            if ( context.getModificationMask().intersects(getRightInferredMask()) ) {
+            if ( intersects ) {
                 // RightTuple previously existed, so continue as modify
                 rightTuple.setPropagationContext( context );  // only update, if the mask intersects
 
@@ -301,7 +304,7 @@ public abstract class BetaNode extends LeftTupleSource
                 reorderRightTuple(reteEvaluator, rightTuple);
             }
         } else {
-            if ( context.getModificationMask().intersects(getRightInferredMask()) ) {
+            if ( intersects ) {
                 // RightTuple does not exist for this node, so create and continue as assert
                 assertObject( factHandle, context, reteEvaluator );
             }
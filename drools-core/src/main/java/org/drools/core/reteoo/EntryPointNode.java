@@ -324,6 +324,9 @@ public class EntryPointNode extends ObjectSource implements ObjectSink {
 
         if (handle.isEvent()) {
             ((DefaultEventHandle) handle).unscheduleAllJobs(reteEvaluator);
+            if (reteEvaluator.getRuleSessionConfiguration().isBatchedExpiration()) {
+                handle.getEntryPoint(reteEvaluator).cancelExpirations((DefaultEventHandle) handle);
+            }
         }
     }
 
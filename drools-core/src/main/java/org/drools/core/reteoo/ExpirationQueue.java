@@ -0,0 +1,268 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.reteoo;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.drools.base.time.JobHandle;
+import org.drools.core.common.DefaultEventHandle;
+import org.drools.core.common.ReteEvaluator;
+import org.drools.core.impl.WorkingMemoryReteExpireAction;
+import org.drools.core.phreak.PropagationEntry;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.impl.PointInTimeTrigger;
+
+/**
+ * Keeps the pending expirations of the events propagated through one {@link ObjectTypeNode} of an entry point,
+ * ordered by expiration time and then by arrival. Instead of one expire job per event, the queue only keeps a
+ * single job scheduled at the time of its head: when it fires all the events that are due at that point in time
+ * are expired together by one {@link ExpireQueueAction}.
+ *
+ * The entry of an event deleted before its expiration is cancelled and lazily purged from the queue, as soon as the
+ * cancelled entries are more than the live ones or when they reach its head.
+ */
+public class ExpirationQueue {
+
+    private static final ExpireQueueJob job = new ExpireQueueJob();
+
+    private static final Comparator<Entry> ENTRY_COMPARATOR = Comparator.comparingLong( Entry::getExpirationTime ).thenComparingLong( Entry::getSequence );
+
+    private final ReteEvaluator reteEvaluator;
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>( 16, ENTRY_COMPARATOR );
+
+    private final Map<DefaultEventHandle, Entry> entries = new IdentityHashMap<>();
+
+    private int cancelled;
+
+    private long sequence;
+
+    private JobHandle jobHandle;
+    private long scheduledTime;
+
+    public ExpirationQueue(ReteEvaluator reteEvaluator) {
+        this.reteEvaluator = reteEvaluator;
+    }
+
+    public synchronized void add(WorkingMemoryReteExpireAction expireAction, long expirationTime) {
+        Entry entry = new Entry( expireAction, expirationTime, sequence++ );
+        queue.add( entry );
+        entries.put( expireAction.getFactHandle(), entry );
+        if ( jobHandle == null || expirationTime < scheduledTime ) {
+            schedule( expirationTime );
+        }
+    }
+
+    /**
+     * Cancels the pending expiration of the given event, if any, because it has been deleted.
+     */
+    public synchronized void remove(DefaultEventHandle handle) {
+        Entry entry = entries.remove( handle );
+        if ( entry == null ) {
+            return;
+        }
+        entry.cancelled = true;
+        cancelled++;
+        if ( cancelled > queue.size() - cancelled ) {
+            queue.removeIf( Entry::isCancelled );
+            cancelled = 0;
+            if ( queue.isEmpty() ) {
+                cancelJob();
+            }
+        }
+    }
+
+    /**
+     * Expires all the events that are due at the current time of the session clock
+     * and schedules the next job for the remaining ones, if any.
+     *
+     * @return the number of expired events
+     */
+    public int expire() {
+        List<WorkingMemoryReteExpireAction> due = pollDue( reteEvaluator.getTimerService().getCurrentTime() );
+        for ( WorkingMemoryReteExpireAction expireAction : due ) {
+            expireAction.execute( reteEvaluator );
+        }
+        return due.size();
+    }
+
+    private synchronized List<WorkingMemoryReteExpireAction> pollDue(long currentTime) {
+        List<WorkingMemoryReteExpireAction> due = new ArrayList<>();
+        Entry head = queue.peek();
+        while ( head != null && ( head.isCancelled() || head.getExpirationTime() <= currentTime ) ) {
+            queue.poll();
+            if ( head.isCancelled() ) {
+                cancelled--;
+            } else {
+                entries.remove( head.getExpireAction().getFactHandle() );
+                if ( head.getExpireAction().getFactHandle().isValid() ) {
+                    due.add( head.getExpireAction() );
+                }
+            }
+            head = queue.peek();
+        }
+        if ( head == null ) {
+            cancelJob();
+        } else if ( jobHandle == null || head.getExpirationTime() != scheduledTime ) {
+            schedule( head.getExpirationTime() );
+        }
+        return due;
+    }
+
+    private void schedule(long expirationTime) {
+        cancelJob();
+        ExpireQueueJobContext jobctx = new ExpireQueueJobContext( this );
+        jobHandle = reteEvaluator.getTimerService().scheduleJob( job, jobctx, PointInTimeTrigger.createPointInTimeTrigger( expirationTime, null ) );
+        jobctx.setJobHandle( jobHandle );
+        scheduledTime = expirationTime;
+    }
+
+    private void cancelJob() {
+        if ( jobHandle != null ) {
+            reteEvaluator.getTimerService().removeJob( jobHandle );
+            jobHandle = null;
+        }
+    }
+
+    synchronized void jobFired(JobHandle firedJob) {
+        if ( jobHandle == firedJob ) {
+            jobHandle = null;
+        }
+    }
+
+    public synchronized int size() {
+        return queue.size() - cancelled;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns a snapshot of the pending expirations, in no particular order.
+     */
+    public synchronized List<Entry> getEntries() {
+        return new ArrayList<>( entries.values() );
+    }
+
+    public synchronized void clear() {
+        cancelJob();
+        queue.clear();
+        entries.clear();
+        cancelled = 0;
+    }
+
+    public ReteEvaluator getReteEvaluator() {
+        return reteEvaluator;
+    }
+
+    public static class Entry {
+        private final WorkingMemoryReteExpireAction expireAction;
+        private final long expirationTime;
+        private final long sequence;
+        private boolean cancelled;
+
+        Entry(WorkingMemoryReteExpireAction expireAction, long expirationTime, long sequence) {
+            this.expireAction = expireAction;
+            this.expirationTime = expirationTime;
+            this.sequence = sequence;
+        }
+
+        public WorkingMemoryReteExpireAction getExpireAction() {
+            return expireAction;
+        }
+
+        public long getExpirationTime() {
+            return expirationTime;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    public static class ExpireQueueJob implements Job, Serializable {
+
+        @Override
+        public void execute(JobContext ctx) {
+            ExpireQueueJobContext context = (ExpireQueueJobContext) ctx;
+            context.getQueue().jobFired( context.getJobHandle() );
+            context.getReteEvaluator().addPropagation( new ExpireQueueAction( context.getQueue() ) );
+        }
+    }
+
+    public static class ExpireQueueJobContext implements JobContext {
+
+        private final transient ExpirationQueue queue;
+        private JobHandle handle;
+
+        public ExpireQueueJobContext(ExpirationQueue queue) {
+            this.queue = queue;
+        }
+
+        public ExpirationQueue getQueue() {
+            return queue;
+        }
+
+        @Override
+        public JobHandle getJobHandle() {
+            return handle;
+        }
+
+        @Override
+        public void setJobHandle(JobHandle jobHandle) {
+            this.handle = jobHandle;
+        }
+
+        @Override
+        public ReteEvaluator getReteEvaluator() {
+            return queue.getReteEvaluator();
+        }
+    }
+
+    public static class ExpireQueueAction extends PropagationEntry.AbstractPropagationEntry {
+
+        private final ExpirationQueue queue;
+
+        public ExpireQueueAction(ExpirationQueue queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void internalExecute(ReteEvaluator reteEvaluator) {
+            queue.expire();
+        }
+
+        @Override
+        public String toString() {
+            return "Expiration of " + queue.size() + " queued events";
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.drools.core.reteoo;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -57,6 +58,12 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
     MemoryFactory<T> {
     private static final long          serialVersionUID = 510l;
 
+    /**
+     * Name of the rule metadata enabling the caching of the results of the data providers of the rule's from nodes,
+     * e.g. <code>@fromCache(10000)</code>. Its value is the maximum number of distinct inputs whose results are cached.
+     */
+    public static final String RESULT_CACHE_METADATA = "fromCache";
+
     protected DataProvider               dataProvider;
     protected AlphaNodeFieldConstraint[] alphaConstraints;
     protected BetaConstraints            betaConstraints;
@@ -68,6 +75,8 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
 
     protected boolean                    tupleMemoryEnabled;
 
+    protected int                        resultCacheSize;
+
     protected transient ObjectTypeConf   objectTypeConf;
 
     public FromNode() {
@@ -108,7 +117,7 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
         if (betaConstraints != null) {
             hash += 41 * betaConstraints.hashCode();
         }
-        return hash;
+        return hash + 43 * resultCacheSize;
     }
 
     @Override
@@ -127,7 +136,8 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
                dataProvider.equals( other.dataProvider ) &&
                Objects.equals(from.getResultPattern(), other.from.getResultPattern() ) &&
                Arrays.equals( alphaConstraints, other.alphaConstraints ) &&
-               betaConstraints.equals( other.betaConstraints );
+               betaConstraints.equals( other.betaConstraints ) &&
+               resultCacheSize == other.resultCacheSize;
     }
 
     public DataProvider getDataProvider() {
@@ -190,6 +200,21 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
         return from.getResultClass();
     }
 
+    public int getResultCacheSize() {
+        return resultCacheSize;
+    }
+
+    /**
+     * Caches the results of the data provider keyed on the fact handles (and global instances) bound to its required declarations, so that left tuples
+     * binding the same inputs evaluate it only once. At most the given number of distinct inputs is retained,
+     * evicting the least recently used one. The cache is not used for reactive from.
+     * Nodes with different cache sizes are never shared, so this has to be set before the node is attached.
+     */
+    public void setResultCacheSize(int resultCacheSize) {
+        this.resultCacheSize = dataProvider.isReactive() ? 0 : resultCacheSize;
+        this.hashcode = calculateHashCode();
+    }
+
     public void networkUpdated(UpdateContext updateContext) {
         this.leftInput.networkUpdated(updateContext);
     }
@@ -240,8 +265,12 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
                                           null,
                                           this.betaConstraints.createContext(),
                                           NodeTypeEnums.FromNode );
-        return (T) new FromMemory( beta,
-                                   this.dataProvider );
+        FromMemory memory = new FromMemory( beta,
+                                            this.dataProvider );
+        if ( resultCacheSize > 0 ) {
+            memory.resultCache = new ResultCache( resultCacheSize );
+        }
+        return (T) memory;
     }
    
 
@@ -307,6 +336,7 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
 
         private final BetaMemory         betaMemory;
         public Object                    providerContext;
+        transient ResultCache            resultCache;
 
         public FromMemory(BetaMemory betaMemory,
                           DataProvider dataProvider) {
@@ -331,9 +361,16 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
             return betaMemory;
         }
 
+        public Map<Object, List<Object>> getResultCache() {
+            return resultCache;
+        }
+
         public void reset() {
             this.betaMemory.reset();
             this.providerContext = dataProvider.createContext();
+            if ( this.resultCache != null ) {
+                this.resultCache.clear();
+            }
         }
 
         @Override
@@ -357,6 +394,21 @@ public class FromNode<T extends FromNode.FromMemory> extends LeftTupleSource
         }
     }
     
+    static class ResultCache extends LinkedHashMap<Object, List<Object>> {
+
+        private final int maxSize;
+
+        ResultCache(int maxSize) {
+            super( 16, 0.75f, true );
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, List<Object>> eldest) {
+            return size() > maxSize;
+        }
+    }
+
     public LeftTuple createLeftTuple(InternalFactHandle factHandle,
                                      boolean leftTupleMemoryEnabled) {
         return new JoinNodeLeftTuple(factHandle, this, leftTupleMemoryEnabled );
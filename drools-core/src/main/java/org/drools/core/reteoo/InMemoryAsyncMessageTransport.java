@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.reteoo;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * The default {@link AsyncMessageTransport}, delivering the messages to the receivers registered in the same JVM.
+ */
+public class InMemoryAsyncMessageTransport implements AsyncMessageTransport {
+
+    private final Map<String, List<Consumer<AsyncMessage>>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public void send(String messageId, AsyncMessage message) {
+        List<Consumer<AsyncMessage>> receivers = listeners.get( messageId );
+        if (receivers != null) {
+            AsyncInboxFullException rejected = null;
+            for (Consumer<AsyncMessage> receiver : receivers) {
+                try {
+                    receiver.accept( message );
+                } catch (AsyncInboxFullException e) {
+                    // the other receivers still get the message, the sender is told about the full inbox afterwards
+                    rejected = e;
+                }
+            }
+            if (rejected != null) {
+                throw rejected;
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(String messageId, Consumer<AsyncMessage> receiver) {
+        // the receiver is added while holding the entry, so that a concurrent unsubscribe cannot drop its list
+        listeners.compute( messageId, (s, receivers) -> {
+            List<Consumer<AsyncMessage>> updated = receivers != null ? receivers : new CopyOnWriteArrayList<>();
+            updated.add( receiver );
+            return updated;
+        } );
+    }
+
+    @Override
+    public void unsubscribe(String messageId, Consumer<AsyncMessage> receiver) {
+        listeners.computeIfPresent( messageId, (s, receivers) -> {
+            receivers.remove( receiver );
+            return receivers.isEmpty() ? null : receivers;
+        } );
+    }
+
+    public Map<String, List<Consumer<AsyncMessage>>> getListeners() {
+        return listeners;
+    }
+}
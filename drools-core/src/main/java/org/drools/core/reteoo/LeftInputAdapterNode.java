@@ -394,18 +394,20 @@ public class LeftInputAdapterNode extends LeftTupleSource
 
         LeftTupleSink sink = getSinkPropagator().getFirstLeftTupleSink();
         BitMask mask = sink.getLeftInferredMask();
+        boolean intersects = context.getModificationMask().intersects( mask );
+        reteEvaluator.getPropertyReactivityStats().record(context.getModificationMask(), intersects);
 
         if ( leftTuple != null && leftTuple.getInputOtnId().equals( otnId ) ) {
             modifyPreviousTuples.removeLeftTuple(partitionId);
             leftTuple.reAdd();
-            if ( context.getModificationMask().intersects( mask) ) {
+            if ( intersects ) {
                 doUpdateObject(leftTuple, context, reteEvaluator, (LeftInputAdapterNode) leftTuple.getTupleSource(), true, lm, lm.getOrCreateSegmentMemory(this, reteEvaluator ) );
                 if (leftTuple instanceof InternalMatch) {
                     ((InternalMatch)leftTuple).setActive(true);
                 }
             }
         } else {
-            if ( context.getModificationMask().intersects( mask) ) {
+            if ( intersects ) {
                 doInsertObject(factHandle, context, this, reteEvaluator, lm, true, true);
             }
 
@@ -29,10 +29,10 @@ public interface TupleMemory {
     }
 
     enum IndexType {
-        NONE, EQUAL, COMPARISON, RANGE;
+        NONE, EQUAL, COMPARISON, RANGE, TEMPORAL;
 
         public boolean isComparison() {
-            return this == COMPARISON || this == RANGE;
+            return this == COMPARISON || this == RANGE || this == TEMPORAL;
         }
     }
 
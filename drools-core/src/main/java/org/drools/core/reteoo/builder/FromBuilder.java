@@ -65,12 +65,31 @@ public class FromBuilder
                                                        from );
 
 
+        // the cache size takes part in the node equality, so it has to be set before looking for a node to share
+        int resultCacheSize = getResultCacheSize( context );
+        if ( resultCacheSize > 0 ) {
+            fromNode.setResultCacheSize( resultCacheSize );
+        }
+
         context.setTupleSource( utils.attachNode( context, fromNode ) );
         context.setAlphaConstraints( null );
         context.setBetaconstraints( null );
         context.popRuleComponent();
     }
 
+    private static int getResultCacheSize(BuildContext context) {
+        Object cacheSize = context.getRule() != null ? context.getRule().getMetaData( FromNode.RESULT_CACHE_METADATA ) : null;
+        if ( cacheSize == null ) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt( cacheSize.toString().trim() );
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException( "Invalid value for @" + FromNode.RESULT_CACHE_METADATA + " in rule " +
+                                                context.getRule().getName() + ": " + cacheSize, e );
+        }
+    }
+
     /**
      * @inheritDoc
      */
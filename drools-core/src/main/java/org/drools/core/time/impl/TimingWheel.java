@@ -0,0 +1,332 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.time.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hashed hierarchical timing wheel. Time is split in ticks and every level of the wheel has 2^BITS slots, each one
+ * covering 2^(BITS * level) ticks, so a timer is placed in the lowest level whose digit is the most significant one
+ * in which its deadline differs from the current tick. Adding and removing a timer are constant time operations; when
+ * the current tick reaches a slot of a higher level its timers are cascaded to the lower levels, so each timer is
+ * moved at most once per level.
+ *
+ * Timers whose deadline is already reached are kept in a due list, in insertion order, and are returned by
+ * {@link #poll(long)} before the wheel is advanced any further. Empty ranges of ticks are skipped a whole slot of the
+ * lowest non empty level at a time, so advancing the wheel over a long period without timers is cheap.
+ *
+ * This class is not thread safe.
+ */
+public class TimingWheel<T> {
+
+    private static final int BITS = 8;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = (Long.SIZE + BITS - 1) / BITS;
+
+    private final Entry<T>[][] heads;
+    private final Entry<T>[][] tails;
+    private final int[] counts = new int[LEVELS];
+
+    private Entry<T> dueHead;
+    private Entry<T> dueTail;
+
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long currentTick) {
+        this.heads = new Entry[LEVELS][SLOTS];
+        this.tails = new Entry[LEVELS][SLOTS];
+        this.currentTick = currentTick;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public Entry<T> add(T value, long deadline) {
+        Entry<T> entry = new Entry<>(value, deadline);
+        place(entry);
+        size++;
+        return entry;
+    }
+
+    public boolean remove(Entry<T> entry) {
+        if (entry.level == Entry.REMOVED) {
+            return false;
+        }
+        unlink(entry);
+        entry.level = Entry.REMOVED;
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns and removes the next timer whose deadline is not after the given tick, advancing the current tick of
+     * the wheel up to that deadline. When there are no more such timers the wheel is moved to the given tick and
+     * null is returned.
+     */
+    public Entry<T> poll(long upToTick) {
+        while (dueHead == null) {
+            if (currentTick >= upToTick) {
+                return null;
+            }
+            if (size == 0) {
+                currentTick = upToTick;
+                return null;
+            }
+            advance(upToTick);
+        }
+        Entry<T> entry = dueHead;
+        unlink(entry);
+        entry.level = Entry.REMOVED;
+        size--;
+        return entry;
+    }
+
+    /**
+     * Returns the earliest deadline among the pending timers, or -1 if there are none
+     */
+    public long nextDeadline() {
+        if (dueHead != null) {
+            long min = Long.MAX_VALUE;
+            for (Entry<T> entry = dueHead; entry != null; entry = entry.next) {
+                min = Math.min(min, entry.deadline);
+            }
+            return min;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (counts[level] == 0) {
+                continue;
+            }
+            // the timers of a level all come before the ones of the upper levels,
+            // and the first non empty slot after the current one holds the earliest of them
+            int current = digit(currentTick, level);
+            for (int i = 1; i <= SLOTS; i++) {
+                Entry<T> entry = heads[level][(current + i) & MASK];
+                if (entry != null) {
+                    long min = Long.MAX_VALUE;
+                    for (; entry != null; entry = entry.next) {
+                        min = Math.min(min, entry.deadline);
+                    }
+                    return min;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Moves the wheel to the given tick, keeping all the pending timers
+     */
+    public void reset(long tick) {
+        List<Entry<T>> entries = drain();
+        currentTick = tick;
+        for (Entry<T> entry : entries) {
+            place(entry);
+        }
+        size = entries.size();
+    }
+
+    /**
+     * Returns all the pending timers, leaving them in the wheel
+     */
+    public List<Entry<T>> entries() {
+        List<Entry<T>> entries = new ArrayList<>(size);
+        for (Entry<T> entry = dueHead; entry != null; entry = entry.next) {
+            entries.add(entry);
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (counts[level] == 0) {
+                continue;
+            }
+            for (int slot = 0; slot < SLOTS; slot++) {
+                for (Entry<T> entry = heads[level][slot]; entry != null; entry = entry.next) {
+                    entries.add(entry);
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Removes and returns all the pending timers
+     */
+    public List<Entry<T>> drain() {
+        List<Entry<T>> entries = new ArrayList<>(size);
+        for (Entry<T> entry = dueHead; entry != null; entry = entry.next) {
+            entries.add(entry);
+        }
+        dueHead = dueTail = null;
+        for (int level = 0; level < LEVELS; level++) {
+            if (counts[level] == 0) {
+                continue;
+            }
+            for (int slot = 0; slot < SLOTS; slot++) {
+                for (Entry<T> entry = heads[level][slot]; entry != null; entry = entry.next) {
+                    entries.add(entry);
+                }
+                heads[level][slot] = tails[level][slot] = null;
+            }
+            counts[level] = 0;
+        }
+        for (Entry<T> entry : entries) {
+            entry.prev = entry.next = null;
+            entry.level = Entry.REMOVED;
+        }
+        size = 0;
+        return entries;
+    }
+
+    private void advance(long upToTick) {
+        int lowest = 0;
+        while (counts[lowest] == 0) {
+            lowest++;
+        }
+        // nothing can expire before the next slot of the lowest non empty level is reached
+        long next = lowest == 0 ? currentTick + 1 : ((currentTick >>> (BITS * lowest)) + 1) << (BITS * lowest);
+        if (next > upToTick || next <= currentTick) {
+            next = upToTick;
+        }
+        long previousTick = currentTick;
+        currentTick = next;
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if (counts[level] > 0 && (previousTick >>> (BITS * level)) != (next >>> (BITS * level))) {
+                cascade(level, digit(next, level));
+            }
+        }
+        if (counts[0] > 0) {
+            cascade(0, digit(next, 0));
+        }
+    }
+
+    private void cascade(int level, int slot) {
+        Entry<T> entry = heads[level][slot];
+        heads[level][slot] = tails[level][slot] = null;
+        while (entry != null) {
+            Entry<T> next = entry.next;
+            entry.prev = entry.next = null;
+            counts[level]--;
+            place(entry);
+            entry = next;
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        if (entry.deadline <= currentTick) {
+            entry.level = Entry.DUE;
+            entry.prev = dueTail;
+            if (dueTail == null) {
+                dueHead = entry;
+            } else {
+                dueTail.next = entry;
+            }
+            dueTail = entry;
+            return;
+        }
+        int level = (63 - Long.numberOfLeadingZeros(entry.deadline ^ currentTick)) / BITS;
+        int slot = digit(entry.deadline, level);
+        entry.level = level;
+        entry.slot = slot;
+        Entry<T> tail = tails[level][slot];
+        entry.prev = tail;
+        if (tail == null) {
+            heads[level][slot] = entry;
+        } else {
+            tail.next = entry;
+        }
+        tails[level][slot] = entry;
+        counts[level]++;
+    }
+
+    private void unlink(Entry<T> entry) {
+        if (entry.level == Entry.DUE) {
+            if (entry.prev == null) {
+                dueHead = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                dueTail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+        } else {
+            int level = entry.level;
+            int slot = entry.slot;
+            if (entry.prev == null) {
+                heads[level][slot] = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tails[level][slot] = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            counts[level]--;
+        }
+        entry.prev = entry.next = null;
+    }
+
+    private static int digit(long tick, int level) {
+        return (int) (tick >>> (BITS * level)) & MASK;
+    }
+
+    public static class Entry<T> {
+
+        private static final int DUE = -1;
+        private static final int REMOVED = -2;
+
+        private final T value;
+        private final long deadline;
+
+        private Entry<T> prev;
+        private Entry<T> next;
+        private int level;
+        private int slot;
+
+        private Entry(T value, long deadline) {
+            this.value = value;
+            this.deadline = deadline;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public boolean isQueued() {
+            return level != REMOVED;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.time.impl;
+
+/**
+ * A job handle keeping a reference to the entry of its job in a {@link TimingWheel}, so that cancelling the job
+ * removes it from the wheel in constant time
+ */
+public class TimingWheelJobHandle extends DefaultJobHandle {
+
+    private static final long serialVersionUID = 510l;
+
+    private transient TimingWheel.Entry<TimerJobInstance> entry;
+
+    public TimingWheelJobHandle(long id) {
+        super( id );
+    }
+
+    void setEntry(TimingWheel.Entry<TimerJobInstance> entry) {
+        this.entry = entry;
+    }
+
+    void removeFrom(TimingWheel<TimerJobInstance> wheel) {
+        if ( entry != null ) {
+            wheel.remove( entry );
+            entry = null;
+        }
+    }
+}
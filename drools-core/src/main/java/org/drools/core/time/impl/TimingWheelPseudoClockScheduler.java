@@ -0,0 +1,187 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.time.impl;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.drools.base.time.JobHandle;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.base.time.Trigger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A PseudoClockScheduler keeping the scheduled jobs in a hierarchical {@link TimingWheel} with a tick of one
+ * millisecond instead of a priority queue, so that scheduling and cancelling a job are constant time operations,
+ * regardless of the number of pending jobs.
+ */
+public class TimingWheelPseudoClockScheduler extends PseudoClockScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger( TimingWheelPseudoClockScheduler.class );
+
+    private final TimingWheel<TimerJobInstance> wheel = new TimingWheel<>( 0 );
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        timer = new AtomicLong( in.readLong() );
+        idCounter = new AtomicLong( in.readLong() );
+        List<TimerJobInstance> jobs = (List<TimerJobInstance>) in.readObject();
+        synchronized (this) {
+            wheel.drain();
+            wheel.reset( timer.get() );
+        }
+        if ( jobs == null ) {
+            return;
+        }
+        for ( TimerJobInstance job : jobs ) {
+            // the job instances are recreated, since the handles don't serialize their wheel entries
+            // and the instances don't serialize their scheduler
+            TimingWheelJobHandle jobHandle = new TimingWheelJobHandle( job.getJobHandle().getId() );
+            TimerJobInstance jobInstance = getTimerJobFactoryManager().createTimerJobInstance( job.getJob(), job.getJobContext(), job.getTrigger(), jobHandle, this );
+            jobHandle.setTimerJobInstance( jobInstance );
+            job.getJobContext().setJobHandle( jobHandle );
+            internalSchedule( jobInstance );
+        }
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        List<TimerJobInstance> jobs = new ArrayList<>();
+        long currentTime;
+        synchronized (this) {
+            currentTime = timer.get();
+            for ( TimingWheel.Entry<TimerJobInstance> entry : wheel.entries() ) {
+                if ( !entry.getValue().getJobHandle().isCancel() ) {
+                    jobs.add( entry.getValue() );
+                }
+            }
+        }
+        out.writeLong( currentTime );
+        out.writeLong( idCounter.get() );
+        out.writeObject( jobs.isEmpty() ? null : jobs );
+    }
+
+    @Override
+    public JobHandle scheduleJob(Job job, JobContext ctx, Trigger trigger) {
+        Date date = trigger.hasNextFireTime();
+        if ( date == null ){
+            return null;
+        }
+
+        TimingWheelJobHandle jobHandle = new TimingWheelJobHandle( idCounter.getAndIncrement() );
+        TimerJobInstance jobInstance = getTimerJobFactoryManager().createTimerJobInstance( job, ctx, trigger, jobHandle, this );
+        jobHandle.setTimerJobInstance( jobInstance );
+        internalSchedule( jobInstance );
+        return jobHandle;
+    }
+
+    @Override
+    public void internalSchedule(TimerJobInstance timerJobInstance) {
+        getTimerJobFactoryManager().addTimerJobInstance(timerJobInstance);
+        Date date = timerJobInstance.getTrigger().hasNextFireTime();
+        synchronized (this) {
+            TimingWheel.Entry<TimerJobInstance> entry = wheel.add( timerJobInstance, date.getTime() );
+            if ( timerJobInstance.getJobHandle() instanceof TimingWheelJobHandle ) {
+                ((TimingWheelJobHandle) timerJobInstance.getJobHandle()).setEntry( entry );
+            }
+        }
+    }
+
+    @Override
+    public synchronized void removeJob(JobHandle jobHandle) {
+        jobHandle.cancel();
+        getTimerJobFactoryManager().removeTimerJobInstance(jobHandle);
+        // jobs scheduled through other handles are discarded lazily when their tick is reached
+        if ( jobHandle instanceof TimingWheelJobHandle ) {
+            ((TimingWheelJobHandle) jobHandle).removeFrom( wheel );
+        }
+    }
+
+    @Override
+    public long advanceTime(long amount, TimeUnit unit) {
+        return runCallBacksAndIncreaseTimer( unit.toMillis( amount ) );
+    }
+
+    @Override
+    public synchronized void setStartupTime(long i) {
+        super.setStartupTime( i );
+        wheel.reset( i );
+    }
+
+    @Override
+    public synchronized void reset() {
+        super.reset();
+        wheel.drain();
+        wheel.reset( 0 );
+    }
+
+    @Override
+    public synchronized long getTimeToNextJob() {
+        long next = wheel.nextDeadline();
+        return next >= 0 ? Math.max( 0, next - this.timer.get() ) : -1;
+    }
+
+    public synchronized int getPendingJobsCount() {
+        return wheel.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized long runCallBacksAndIncreaseTimer( long increase ) {
+        long endTime = this.timer.get() + increase;
+        TimingWheel.Entry<TimerJobInstance> entry;
+        while ( (entry = wheel.poll( endTime )) != null ) {
+            TimerJobInstance item = entry.getValue();
+            if ( item.getJobHandle().isCancel() ) {
+                continue;
+            }
+            Date fireTime = item.getTrigger().hasNextFireTime();
+            if ( fireTime == null ) {
+                continue;
+            }
+            if ( fireTime.getTime() > entry.getDeadline() ) {
+                // the trigger has been moved forward since the job was scheduled
+                internalSchedule( item );
+                continue;
+            }
+            if ( item.getJobHandle() instanceof TimingWheelJobHandle ) {
+                ((TimingWheelJobHandle) item.getJobHandle()).setEntry( null );
+            }
+            try {
+                // set the clock back to the trigger's fire time
+                this.timer.set( fireTime.getTime() );
+                // execute the call
+                ((Callable<Void>) item).call();
+            } catch (Exception e) {
+                logger.error("Exception running callbacks: ", e);
+            }
+        }
+        this.timer.set( endTime );
+        return endTime;
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.time.impl;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.drools.base.time.JobHandle;
+import org.drools.base.time.Trigger;
+import org.drools.core.time.InternalSchedulerService;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.TimerService;
+import org.kie.api.time.SessionClock;
+import org.kie.internal.concurrent.ExecutorProviderFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A realtime TimerService keeping the scheduled jobs in a hierarchical {@link TimingWheel} with a tick of one
+ * millisecond, so that scheduling and cancelling a job are constant time operations regardless of the number
+ * of pending jobs. A single thread sleeps until the earliest deadline and then executes all the jobs that are due,
+ * in the same way the JDKTimerService executes them on the thread of its ScheduledThreadPoolExecutor.
+ */
+public class TimingWheelTimerService implements TimerService, SessionClock, InternalSchedulerService {
+
+    private static final Logger logger = LoggerFactory.getLogger( TimingWheelTimerService.class );
+
+    private final AtomicLong idCounter = new AtomicLong( 0L );
+
+    private final TimingWheel<TimerJobInstance> wheel = new TimingWheel<>( System.currentTimeMillis() );
+
+    protected TimerJobFactoryManager jobFactoryManager = DefaultTimerJobFactoryManager.INSTANCE;
+
+    private ExecutorService executor;
+
+    /** the time the ticker thread is going to wake up at, if it is waiting */
+    private long wakeUpTime = Long.MAX_VALUE;
+
+    private boolean shutdown;
+
+    public void setTimerJobFactoryManager(TimerJobFactoryManager timerJobFactoryManager) {
+        this.jobFactoryManager = timerJobFactoryManager;
+    }
+
+    public TimerJobFactoryManager getTimerJobFactoryManager() {
+        return this.jobFactoryManager;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    public long getCurrentTime() {
+        return System.currentTimeMillis();
+    }
+
+    public synchronized void reset() {
+        wheel.drain();
+        idCounter.set( 0L );
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        shutdown = true;
+        wheel.drain();
+        notifyAll();
+        if ( executor != null ) {
+            executor.shutdownNow();
+        }
+    }
+
+    public JobHandle scheduleJob(Job job, JobContext ctx, Trigger trigger) {
+        Date date = trigger.hasNextFireTime();
+        if (date == null) {
+            return null;
+        }
+
+        TimingWheelJobHandle jobHandle = new TimingWheelJobHandle( idCounter.getAndIncrement() );
+        TimerJobInstance jobInstance = jobFactoryManager.createTimerJobInstance( job, ctx, trigger, jobHandle, this );
+        jobHandle.setTimerJobInstance( jobInstance );
+        internalSchedule( jobInstance );
+        return jobHandle;
+    }
+
+    public void internalSchedule(TimerJobInstance timerJobInstance) {
+        jobFactoryManager.addTimerJobInstance( timerJobInstance );
+        long deadline = timerJobInstance.getTrigger().hasNextFireTime().getTime();
+        synchronized (this) {
+            if ( shutdown ) {
+                return;
+            }
+            addToWheel( timerJobInstance, deadline );
+            if ( executor == null ) {
+                executor = ExecutorProviderFactory.getExecutorProvider().newSingleThreadExecutor();
+                executor.execute( this::runJobs );
+            } else if ( deadline < wakeUpTime ) {
+                notifyAll();
+            }
+        }
+    }
+
+    public synchronized void removeJob(JobHandle jobHandle) {
+        jobHandle.cancel();
+        jobFactoryManager.removeTimerJobInstance( jobHandle );
+        if ( jobHandle instanceof TimingWheelJobHandle ) {
+            ((TimingWheelJobHandle) jobHandle).removeFrom( wheel );
+        }
+    }
+
+    public synchronized long getTimeToNextJob() {
+        long next = wheel.nextDeadline();
+        return next >= 0 ? Math.max( 0, next - System.currentTimeMillis() ) : -1;
+    }
+
+    public Collection<TimerJobInstance> getTimerJobInstances(long id) {
+        return jobFactoryManager.getTimerJobInstances();
+    }
+
+    public synchronized int getPendingJobsCount() {
+        return wheel.size();
+    }
+
+    private void addToWheel(TimerJobInstance timerJobInstance, long deadline) {
+        TimingWheel.Entry<TimerJobInstance> entry = wheel.add( timerJobInstance, deadline );
+        if ( timerJobInstance.getJobHandle() instanceof TimingWheelJobHandle ) {
+            ((TimingWheelJobHandle) timerJobInstance.getJobHandle()).setEntry( entry );
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runJobs() {
+        TimerJobInstance item;
+        while ( (item = nextDueJob()) != null ) {
+            try {
+                ((Callable<Void>) item).call();
+            } catch (Exception e) {
+                logger.error("Exception running timer job: ", e);
+            }
+        }
+    }
+
+    private synchronized TimerJobInstance nextDueJob() {
+        try {
+            while ( !shutdown ) {
+                long now = System.currentTimeMillis();
+                TimingWheel.Entry<TimerJobInstance> entry;
+                while ( (entry = wheel.poll( now )) != null ) {
+                    TimerJobInstance item = entry.getValue();
+                    if ( item.getJobHandle().isCancel() ) {
+                        continue;
+                    }
+                    Date fireTime = item.getTrigger().hasNextFireTime();
+                    if ( fireTime == null ) {
+                        continue;
+                    }
+                    if ( fireTime.getTime() > entry.getDeadline() ) {
+                        // the trigger has been moved forward since the job was scheduled
+                        addToWheel( item, fireTime.getTime() );
+                        continue;
+                    }
+                    if ( item.getJobHandle() instanceof TimingWheelJobHandle ) {
+                        ((TimingWheelJobHandle) item.getJobHandle()).setEntry( null );
+                    }
+                    return item;
+                }
+
+                long next = wheel.nextDeadline();
+                wakeUpTime = next < 0 ? Long.MAX_VALUE : next;
+                wait( next < 0 ? 0 : Math.max( 1, next - now ) );
+                wakeUpTime = Long.MAX_VALUE;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
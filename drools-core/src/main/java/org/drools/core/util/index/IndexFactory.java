@@ -43,6 +43,10 @@ public interface IndexFactory {
     }
 
     private static TupleMemory createRightMemory(RuleBaseConfiguration config, IndexSpec indexSpec) {
+        if ( config.isIndexRightBetaMemory() && indexSpec.getTemporalConstraint() != null ) {
+            return IndexMemory.createTemporalMemory(indexSpec);
+        }
+
         if ( !config.isIndexRightBetaMemory() || !indexSpec.getConstraintType().isIndexable() || indexSpec.getIndexes().length == 0 ) {
             return new TupleList();
         }
@@ -20,6 +20,7 @@ package org.drools.core.util.index;
 
 import java.lang.reflect.InvocationTargetException;
 
+import org.drools.base.rule.TemporalIndexableConstraint;
 import org.drools.core.reteoo.TupleMemory;
 
 import static org.drools.util.Config.getConfig;
@@ -79,7 +80,10 @@ public class IndexMemory {
 
     private static ComparisonMemoryType COMPARISON_MEMORY_TYPE; // did not set this as final, as some tests need to change this
 
+    private static boolean TEMPORAL_INDEX_ENABLED; // did not set this as final, as some tests need to change this
+
     static {
+        TEMPORAL_INDEX_ENABLED = Boolean.parseBoolean(getConfig("org.drools.temporalindex", "true"));
         EQUALITY_MEMORY_TYPE = EqualityMemoryType.get(getConfig("org.drools.equalitymemory", DEFAULT_INDEX));
         COMPARISON_MEMORY_TYPE = ComparisonMemoryType.get(getConfig("org.drools.comparisonmemory", DEFAULT_INDEX));
     }
@@ -102,6 +106,14 @@ public class IndexMemory {
         ComparisonMemoryFactoryHolder.reinit();
     }
 
+    public static boolean isTemporalIndexEnabled() {
+        return TEMPORAL_INDEX_ENABLED;
+    }
+
+    public static void setTemporalIndexEnabled(boolean enabled) {
+        TEMPORAL_INDEX_ENABLED = enabled;
+    }
+
     public static TupleMemory createEqualityMemory(IndexSpec indexSpec, boolean isLeft) {
         return EqualityMemoryFactoryHolder.INSTANCE.createMemory(indexSpec, isLeft);
     }
@@ -110,6 +122,11 @@ public class IndexMemory {
         return ComparisonMemoryFactoryHolder.INSTANCE.createMemory(indexSpec, isLeft);
     }
 
+    public static TupleMemory createTemporalMemory(IndexSpec indexSpec) {
+        TemporalIndexableConstraint constraint = indexSpec.getTemporalConstraint();
+        return new TupleIndexTemporalTree(constraint.getTemporalIndexRange(), constraint.getTemporalIndexDeclaration());
+    }
+
     public interface Factory {
         TupleMemory createMemory(IndexSpec indexSpec, boolean isLeft);
     }
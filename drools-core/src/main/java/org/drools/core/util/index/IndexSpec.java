@@ -18,7 +18,9 @@
  */
 package org.drools.core.util.index;
 
+import org.drools.base.reteoo.NodeTypeEnums;
 import org.drools.base.rule.IndexableConstraint;
+import org.drools.base.rule.TemporalIndexableConstraint;
 import org.drools.base.rule.constraint.BetaNodeFieldConstraint;
 import org.drools.base.util.FieldIndex;
 import org.drools.base.util.index.ConstraintTypeOperator;
@@ -33,6 +35,7 @@ import static org.drools.base.util.index.IndexUtil.isEqualIndexable;
 public class IndexSpec {
     private ConstraintTypeOperator constraintType = ConstraintTypeOperator.UNKNOWN;
     private FieldIndex[] indexes;
+    private TemporalIndexableConstraint temporalConstraint;
 
     IndexSpec(short nodeType, BetaNodeFieldConstraint[] constraints, RuleBaseConfiguration config) {
         init(nodeType, constraints, config);
@@ -50,6 +53,14 @@ public class IndexSpec {
         return indexes[pos];
     }
 
+    /**
+     * @return the temporal constraint to be used to index the right memory when none of the
+     *         constraints is indexable by value, null otherwise
+     */
+    public TemporalIndexableConstraint getTemporalConstraint() {
+        return temporalConstraint;
+    }
+
     private void init(short nodeType, BetaNodeFieldConstraint[] constraints, RuleBaseConfiguration config) {
         int keyDepth = config.getCompositeKeyDepth();
         IndexPrecedenceOption indexPrecedenceOption = config.getIndexPrecedenceOption();
@@ -74,7 +85,23 @@ public class IndexSpec {
         } else if (constraintType.isComparison()) {
             // look for a dual constraint to create a range index
             indexes = new FieldIndex[]{((IndexableConstraint)constraints[firstIndexableConstraint]).getFieldIndex() };
+
+        } else if (IndexMemory.isTemporalIndexEnabled() && canHaveTemporalIndex(nodeType)) {
+            temporalConstraint = findTemporalConstraint(constraints);
+        }
+    }
+
+    private static boolean canHaveTemporalIndex(short nodeType) {
+        return nodeType == NodeTypeEnums.JoinNode || nodeType == NodeTypeEnums.NotNode || nodeType == NodeTypeEnums.ExistsNode;
+    }
+
+    private static TemporalIndexableConstraint findTemporalConstraint(BetaNodeFieldConstraint[] constraints) {
+        for (BetaNodeFieldConstraint constraint : constraints) {
+            if (constraint instanceof TemporalIndexableConstraint && ((TemporalIndexableConstraint) constraint).getTemporalIndexRange() != null) {
+                return (TemporalIndexableConstraint) constraint;
+            }
         }
+        return null;
     }
 
     private int determineTypeWithEqualityPriority(short nodeType, BetaNodeFieldConstraint[] constraints, RuleBaseConfiguration config) {
@@ -0,0 +1,191 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.util.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.base.rule.Declaration;
+import org.drools.base.time.TemporalIndexRange;
+import org.drools.base.time.TemporalIndexRange.Anchor;
+import org.drools.core.common.DefaultEventHandle;
+import org.drools.core.reteoo.AbstractTuple;
+import org.drools.core.reteoo.Tuple;
+import org.drools.core.reteoo.TupleMemory;
+import org.drools.core.util.FastIterator;
+import org.drools.core.util.Iterator;
+import org.drools.core.util.TupleRBTree;
+import org.drools.core.util.TupleRBTree.Boundary;
+import org.drools.core.util.TupleRBTree.Node;
+
+/**
+ * Right memory for temporal constraints, keeping the right tuples sorted by the start timestamp
+ * of their events. A probe from a left tuple only visits the right events whose timestamps can
+ * fall in the range allowed by the constraint, that is then still evaluated on each of them.
+ */
+public class TupleIndexTemporalTree implements TupleMemory {
+
+    private final TemporalIndexRange range;
+    private final Declaration declaration;
+
+    private TupleRBTree<Long> tree = new TupleRBTree<>();
+
+    private int factSize;
+
+    // the longest duration of the stored events, used to bound their start when the range is on their end
+    private long maxDuration;
+
+    // upper bound of the last probe, the iterator returned by fastIterator() stops after it
+    private long probeUpperBound = Long.MAX_VALUE;
+
+    public TupleIndexTemporalTree(TemporalIndexRange range, Declaration declaration) {
+        this.range = range;
+        this.declaration = declaration;
+    }
+
+    public void add(Tuple tuple) {
+        DefaultEventHandle handle = (DefaultEventHandle) tuple.getFactHandle();
+        TupleList list = tree.insert(handle.getStartTimestamp());
+        list.add(tuple);
+        maxDuration = Math.max(maxDuration, handle.getDuration());
+        factSize++;
+    }
+
+    public void remove(Tuple tuple) {
+        TupleList list = tuple.getMemory();
+        list.remove(tuple);
+        if (list.getFirst() == null) {
+            tree.delete(((Node<Long>) list).key);
+        }
+        factSize--;
+    }
+
+    public void removeAdd(Tuple tuple) {
+        remove(tuple);
+        add(tuple);
+    }
+
+    public Tuple getFirst(Tuple leftTuple) {
+        DefaultEventHandle leftHandle = (DefaultEventHandle) leftTuple.get(declaration);
+        long leftTimestamp = range.getLeftAnchor() == Anchor.START ? leftHandle.getStartTimestamp() : leftHandle.getEndTimestamp();
+        long lower = saturatedAdd(leftTimestamp, range.getLowerBound());
+        long upper = saturatedAdd(leftTimestamp, range.getUpperBound());
+        if (range.getRightAnchor() == Anchor.END) {
+            // start = end - duration, with a duration between 0 and the longest stored one
+            lower = saturatedAdd(lower, -maxDuration);
+        }
+        probeUpperBound = upper;
+        if (lower > upper) {
+            return null;
+        }
+        Node<Long> node = tree.findNearestNode(lower, true, Boundary.LOWER);
+        return node == null || node.key > upper ? null : node.getFirst();
+    }
+
+    private static long saturatedAdd(long value, long delta) {
+        long result = value + delta;
+        // overflow only happens when both operands have the same sign and the result has the opposite one
+        if (((value ^ result) & (delta ^ result)) < 0) {
+            return delta < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+        return result;
+    }
+
+    private Tuple getNext(Tuple tuple, long upperBound) {
+        Tuple next = tuple.getNext();
+        if (next != null) {
+            return next;
+        }
+        long key = ((DefaultEventHandle) tuple.getFactHandle()).getStartTimestamp();
+        Node<Long> node = tree.findNearestNode(key, false, Boundary.LOWER);
+        return node == null || node.key > upperBound ? null : node.getFirst();
+    }
+
+    private Tuple getFirstTuple() {
+        Node<Long> node = tree.first();
+        return node == null ? null : node.getFirst();
+    }
+
+    public boolean isIndexed() {
+        return true;
+    }
+
+    public int size() {
+        return factSize;
+    }
+
+    public Iterator<Tuple> iterator() {
+        return new FastIterator.IteratorAdapter(fullFastIterator(), getFirstTuple());
+    }
+
+    public FastIterator<AbstractTuple> fastIterator() {
+        return new TemporalFastIterator();
+    }
+
+    public FastIterator<AbstractTuple> fullFastIterator() {
+        return new FullFastIterator();
+    }
+
+    public FastIterator<AbstractTuple> fullFastIterator(AbstractTuple tuple) {
+        return new FullFastIterator();
+    }
+
+    public Tuple[] toArray() {
+        List<Tuple> result = new ArrayList<>(factSize);
+        for (Tuple tuple = getFirstTuple(); tuple != null; tuple = getNext(tuple, Long.MAX_VALUE)) {
+            result.add(tuple);
+        }
+        return result.toArray(new Tuple[result.size()]);
+    }
+
+    public IndexType getIndexType() {
+        return IndexType.TEMPORAL;
+    }
+
+    public void clear() {
+        tree = new TupleRBTree<>();
+        factSize = 0;
+        maxDuration = 0;
+    }
+
+    public class TemporalFastIterator implements FastIterator<AbstractTuple> {
+        public AbstractTuple next(AbstractTuple tuple) {
+            if (tuple == null) {
+                // iterating from scratch, so not bound to a previous probe
+                probeUpperBound = Long.MAX_VALUE;
+                return (AbstractTuple) getFirstTuple();
+            }
+            return (AbstractTuple) getNext(tuple, probeUpperBound);
+        }
+
+        public boolean isFullIterator() {
+            return false;
+        }
+    }
+
+    public class FullFastIterator implements FastIterator<AbstractTuple> {
+        public AbstractTuple next(AbstractTuple tuple) {
+            return (AbstractTuple) (tuple == null ? getFirstTuple() : getNext(tuple, Long.MAX_VALUE));
+        }
+
+        public boolean isFullIterator() {
+            return true;
+        }
+    }
+}
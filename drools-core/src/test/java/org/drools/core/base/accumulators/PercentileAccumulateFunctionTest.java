@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.base.accumulators;
+
+import org.drools.core.base.accumulators.PercentileAccumulateFunction.PercentileData;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PercentileAccumulateFunctionTest {
+
+    @Test
+    public void testNearestRankIsExact() {
+        // 0.07 * 100, 0.14 * 50 and 0.28 * 25 are all slightly above 7 when computed with doubles
+        assertThat(percentileOfFirstIntegers(0.07, 100)).isEqualTo(7);
+        assertThat(percentileOfFirstIntegers(0.14, 50)).isEqualTo(7);
+        assertThat(percentileOfFirstIntegers(0.28, 25)).isEqualTo(7);
+        assertThat(percentileOfFirstIntegers(0.9, 10)).isEqualTo(9);
+        assertThat(percentileOfFirstIntegers(0.91, 10)).isEqualTo(10);
+    }
+
+    @Test
+    public void testReverse() {
+        PercentileAccumulateFunction function = new PercentileAccumulateFunction(0.07);
+        PercentileData data = function.createContext();
+        function.init(data);
+        for (int i = 1; i <= 101; i++) {
+            function.accumulate(data, i);
+        }
+        assertThat(function.getResult(data)).isEqualTo(8);
+
+        function.reverse(data, 101);
+        assertThat(function.getResult(data)).isEqualTo(7);
+        // the 7th of the 99 values from 2 to 100
+        function.reverse(data, 1);
+        assertThat(function.getResult(data)).isEqualTo(8);
+    }
+
+    private static Object percentileOfFirstIntegers(double percentile, int size) {
+        PercentileAccumulateFunction function = new PercentileAccumulateFunction(percentile);
+        PercentileData data = function.createContext();
+        function.init(data);
+        for (int i = 1; i <= size; i++) {
+            function.accumulate(data, i);
+        }
+        return function.getResult(data);
+    }
+}
@@ -38,6 +38,8 @@ public class ClassAwareObjectStoreTest {
 
     private final ClassAwareObjectStore underTest;
 
+    private final boolean isEqualityBehaviour;
+
     @Test
     public void iterateObjectsReturnsObjectsOfAllTypes() throws Exception {
         String aStringValue = "a string";
@@ -169,6 +171,26 @@ public class ClassAwareObjectStoreTest {
         assertThat(collect(underTest.iterateFactHandles(SuperClass.class))).hasSize(2);
     }
 
+    @Test
+    public void lookupVersionChangesWhenTheEqualityLookupChanges() throws Exception {
+        if (!isEqualityBehaviour) {
+            assertThat(underTest.getLookupVersion()).isEqualTo(-1L);
+            return;
+        }
+
+        long initialVersion = underTest.getLookupVersion();
+        InternalFactHandle handle = handleFor(new BigDecimal("1"));
+        underTest.addHandle(handle, handle.getObject());
+
+        long versionAfterAdd = underTest.getLookupVersion();
+        assertThat(versionAfterAdd).isGreaterThan(initialVersion);
+        assertThat(underTest.getHandleForObject(new BigDecimal("1"))).isSameAs(handle);
+
+        underTest.removeHandle(handle);
+        assertThat(underTest.getLookupVersion()).isGreaterThan(versionAfterAdd);
+        assertThat(underTest.getHandleForObject(new BigDecimal("1"))).isNull();
+    }
+
 
     private void insertObjectWithFactHandle(Object objectToInsert) {
         underTest.addHandle(handleFor(objectToInsert), objectToInsert);
@@ -187,6 +209,7 @@ public class ClassAwareObjectStoreTest {
     }
 
     public ClassAwareObjectStoreTest(boolean isEqualityBehaviour) {
+        this.isEqualityBehaviour = isEqualityBehaviour;
         underTest = new ClassAwareObjectStore(isEqualityBehaviour, new ReentrantLock());
     }
 
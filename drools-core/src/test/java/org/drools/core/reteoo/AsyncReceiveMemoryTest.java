@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.reteoo;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.drools.core.reteoo.AsyncReceiveNode.AsyncReceiveMemory;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AsyncReceiveMemoryTest {
+
+    @Test
+    public void testMessagesAreDrainedInBatches() {
+        AtomicInteger scheduledDrains = new AtomicInteger();
+        AsyncReceiveMemory memory = new AsyncReceiveMemory( "batching", scheduledDrains::incrementAndGet, 10, 0 );
+        try {
+            AsyncMessagesCoordinator.get().propagate( "batching", new AsyncMessage( null, "a" ) );
+            memory.receive( "b" );
+            memory.receive( "c" );
+            assertThat(scheduledDrains.get()).isEqualTo(1);
+            assertThat(memory.getInboxSize()).isEqualTo(3);
+
+            assertThat(memory.drainInbox()).isEqualTo(3);
+            assertThat(memory.getMessages()).containsExactly("a", "b", "c");
+            assertThat(memory.getInboxSize()).isZero();
+
+            // once drained, the next message schedules another drain
+            memory.receive( "d" );
+            assertThat(scheduledDrains.get()).isEqualTo(2);
+        } finally {
+            memory.dispose();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testMessagesFindingTheInboxFullFailTheSender() {
+        AsyncReceiveMemory memory = new AsyncReceiveMemory( "full", () -> { }, 2, 50 );
+        try {
+            assertThat(memory.receive( "a" )).isTrue();
+            assertThat(memory.receive( "b" )).isTrue();
+            assertThatThrownBy(() -> AsyncMessagesCoordinator.get().propagate( "full", new AsyncMessage( null, "c" ) ))
+                    .isInstanceOf(AsyncInboxFullException.class);
+
+            memory.drainInbox();
+            assertThat(memory.receive( "d" )).isTrue();
+            assertThat(memory.drainInbox()).isEqualTo(1);
+            assertThat(memory.getMessages()).containsExactly("a", "b", "d");
+        } finally {
+            memory.dispose();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testFullInboxBlocksTheSenderUntilThereIsRoom() throws Exception {
+        // without a timeout the sender waits as long as it takes
+        AsyncReceiveMemory memory = new AsyncReceiveMemory( "wait", () -> { }, 1, 0 );
+        try {
+            memory.receive( "a" );
+            CountDownLatch waiting = new CountDownLatch( 1 );
+            Thread drainer = new Thread( () -> {
+                try {
+                    waiting.await();
+                    Thread.sleep( 50 );
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                memory.drainInbox();
+            } );
+            drainer.start();
+
+            waiting.countDown();
+            assertThat(memory.receive( "b" )).isTrue();
+            drainer.join();
+            assertThat(memory.drainInbox()).isEqualTo(1);
+            assertThat(memory.getMessages()).containsExactly("a", "b");
+        } finally {
+            memory.dispose();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testFullInboxWaitIsBounded() {
+        AsyncReceiveMemory memory = new AsyncReceiveMemory( "bounded", () -> { }, 1, 50 );
+        try {
+            memory.receive( "a" );
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> memory.receive( "b" )).isInstanceOf(AsyncInboxFullException.class);
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos( 50 ));
+            assertThat(memory.getInboxSize()).isEqualTo(1);
+        } finally {
+            memory.dispose();
+        }
+    }
+
+    @Test
+    public void testResetClearsTheInbox() {
+        AtomicInteger scheduledDrains = new AtomicInteger();
+        AsyncReceiveMemory memory = new AsyncReceiveMemory( "reset", scheduledDrains::incrementAndGet, 2, 0 );
+        try {
+            memory.receive( "a" );
+            memory.receive( "b" );
+            assertThat(scheduledDrains.get()).isEqualTo(1);
+
+            // the scheduled drain is discarded by the reset of the session
+            memory.reset();
+            assertThat(memory.getInboxSize()).isZero();
+
+            assertThat(memory.receive( "c" )).isTrue();
+            assertThat(scheduledDrains.get()).isEqualTo(2);
+            assertThat(memory.drainInbox()).isEqualTo(1);
+            assertThat(memory.getMessages()).containsExactly("c");
+        } finally {
+            memory.dispose();
+        }
+    }
+
+    @Test
+    public void testDisposedMemoryRejectsMessages() {
+        AsyncReceiveMemory memory = new AsyncReceiveMemory( "disposed", () -> { }, 1, 5000 );
+        memory.receive( "a" );
+        memory.dispose();
+        assertThat(memory.receive( "b" )).isFalse();
+        assertThat(memory.getInboxSize()).isZero();
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.reteoo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InMemoryAsyncMessageTransportTest {
+
+    @Test
+    public void testSendToSubscribedReceivers() {
+        InMemoryAsyncMessageTransport transport = new InMemoryAsyncMessageTransport();
+        List<Object> received1 = new ArrayList<>();
+        List<Object> received2 = new ArrayList<>();
+        Consumer<AsyncMessage> receiver1 = m -> received1.add( m.getObject() );
+        Consumer<AsyncMessage> receiver2 = m -> received2.add( m.getObject() );
+
+        transport.subscribe( "id", receiver1 );
+        transport.subscribe( "id", receiver2 );
+        transport.send( "id", new AsyncMessage( null, "a" ) );
+        transport.send( "other", new AsyncMessage( null, "b" ) );
+
+        assertThat(received1).containsExactly("a");
+        assertThat(received2).containsExactly("a");
+
+        transport.unsubscribe( "id", receiver1 );
+        transport.send( "id", new AsyncMessage( null, "c" ) );
+
+        assertThat(received1).containsExactly("a");
+        assertThat(received2).containsExactly("a", "c");
+    }
+
+    @Test
+    public void testUnsubscribeLastReceiverRemovesMessageId() {
+        InMemoryAsyncMessageTransport transport = new InMemoryAsyncMessageTransport();
+        Consumer<AsyncMessage> receiver = m -> { };
+
+        transport.subscribe( "id", receiver );
+        assertThat(transport.getListeners().keySet()).containsExactly("id");
+
+        transport.unsubscribe( "id", receiver );
+        assertThat(transport.getListeners()).isEmpty();
+
+        // unsubscribing an unknown receiver is a no-op
+        transport.unsubscribe( "id", receiver );
+        assertThat(transport.getListeners()).isEmpty();
+    }
+}
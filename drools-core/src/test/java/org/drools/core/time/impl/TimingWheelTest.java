@@ -0,0 +1,253 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.time.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.base.time.JobHandle;
+import org.drools.base.time.Trigger;
+import org.drools.core.ClockType;
+import org.drools.core.SessionConfiguration;
+import org.drools.core.impl.RuleBaseFactory;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.TimerService;
+import org.drools.core.time.impl.JDKTimerServiceTest.DelayedTrigger;
+import org.drools.core.time.impl.JDKTimerServiceTest.HelloWorldJob;
+import org.drools.core.time.impl.JDKTimerServiceTest.HelloWorldJobContext;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testPollReturnsEntriesInDeadlineOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        wheel.add("c", 70_000);
+        wheel.add("a", 10);
+        wheel.add("d", 1L << 40);
+        wheel.add("b", 300);
+
+        assertThat(wheel.size()).isEqualTo(4);
+        assertThat(wheel.nextDeadline()).isEqualTo(10);
+
+        assertThat(pollAll(wheel, 1_000_000)).containsExactly("a", "b", "c");
+        assertThat(wheel.getCurrentTick()).isEqualTo(1_000_000);
+        assertThat(wheel.nextDeadline()).isEqualTo(1L << 40);
+
+        assertThat(pollAll(wheel, Long.MAX_VALUE - 1)).containsExactly("d");
+        assertThat(wheel.isEmpty()).isTrue();
+        assertThat(wheel.nextDeadline()).isEqualTo(-1);
+    }
+
+    @Test
+    public void testPastDeadlinesAreDueImmediately() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000);
+        wheel.add("late", 10);
+        wheel.add("now", 1000);
+
+        assertThat(wheel.nextDeadline()).isEqualTo(10);
+        assertThat(pollAll(wheel, 1000)).containsExactlyInAnyOrder("late", "now");
+    }
+
+    @Test
+    public void testRemove() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        TimingWheel.Entry<String> a = wheel.add("a", 100);
+        TimingWheel.Entry<String> b = wheel.add("b", 100_000);
+        wheel.add("c", 200);
+
+        assertThat(wheel.remove(a)).isTrue();
+        assertThat(wheel.remove(a)).isFalse();
+        assertThat(a.isQueued()).isFalse();
+        assertThat(wheel.remove(b)).isTrue();
+
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.nextDeadline()).isEqualTo(200);
+        assertThat(pollAll(wheel, 1_000_000)).containsExactly("c");
+    }
+
+    @Test
+    public void testDrain() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        TimingWheel.Entry<String> a = wheel.add("a", 5);
+        wheel.add("b", 5_000_000);
+
+        assertThat(wheel.drain()).hasSize(2);
+        assertThat(wheel.isEmpty()).isTrue();
+        assertThat(a.isQueued()).isFalse();
+    }
+
+    @Test
+    public void testPseudoWheelFiresJobsInOrder() {
+        SessionConfiguration config = RuleBaseFactory.newKnowledgeSessionConfiguration().as(SessionConfiguration.KEY);
+        config.setClockType(ClockType.PSEUDO_WHEEL_CLOCK);
+        TimingWheelPseudoClockScheduler scheduler = (TimingWheelPseudoClockScheduler) config.createTimerService();
+
+        List<Long> fired = new ArrayList<>();
+        scheduler.scheduleJob(c -> fired.add(scheduler.getCurrentTime()), new HelloWorldJobContext("a", scheduler), new FixedTrigger(5000));
+        scheduler.scheduleJob(c -> fired.add(scheduler.getCurrentTime()), new HelloWorldJobContext("b", scheduler), new FixedTrigger(100, 200, 300_000));
+        JobHandle cancelled = scheduler.scheduleJob(c -> fired.add(-1L), new HelloWorldJobContext("c", scheduler), new FixedTrigger(150));
+
+        assertThat(scheduler.getPendingJobsCount()).isEqualTo(3);
+        assertThat(scheduler.getTimeToNextJob()).isEqualTo(100);
+
+        scheduler.removeJob(cancelled);
+        assertThat(scheduler.getPendingJobsCount()).isEqualTo(2);
+
+        scheduler.advanceTime(10_000, TimeUnit.MILLISECONDS);
+        assertThat(fired).containsExactly(100L, 200L, 5000L);
+        assertThat(scheduler.getCurrentTime()).isEqualTo(10_000);
+        assertThat(scheduler.getTimeToNextJob()).isEqualTo(290_000);
+
+        scheduler.advanceTime(1, TimeUnit.HOURS);
+        assertThat(fired).containsExactly(100L, 200L, 5000L, 300_000L);
+        assertThat(scheduler.getPendingJobsCount()).isZero();
+        assertThat(scheduler.getTimeToNextJob()).isEqualTo(-1);
+    }
+
+    @Test
+    public void testPseudoWheelReset() {
+        TimingWheelPseudoClockScheduler scheduler = new TimingWheelPseudoClockScheduler();
+        List<Long> fired = new ArrayList<>();
+        JobHandle handle = scheduler.scheduleJob(c -> fired.add(scheduler.getCurrentTime()), new HelloWorldJobContext("a", scheduler), new FixedTrigger(100));
+
+        scheduler.reset();
+        assertThat(scheduler.getCurrentTime()).isZero();
+        assertThat(scheduler.getPendingJobsCount()).isZero();
+
+        // removing a handle from before the reset must be harmless
+        scheduler.removeJob(handle);
+
+        scheduler.scheduleJob(c -> fired.add(scheduler.getCurrentTime()), new HelloWorldJobContext("b", scheduler), new FixedTrigger(50));
+        scheduler.advanceTime(1000, TimeUnit.MILLISECONDS);
+        assertThat(fired).containsExactly(50L);
+    }
+
+    @Test
+    public void testRealtimeWheelRepeatedExecutionJob() throws Exception {
+        SessionConfiguration config = RuleBaseFactory.newKnowledgeSessionConfiguration().as(SessionConfiguration.KEY);
+        config.setClockType(ClockType.REALTIME_WHEEL_CLOCK);
+        TimerService timeService = config.createTimerService();
+        assertThat(timeService).isInstanceOf(TimingWheelTimerService.class);
+
+        Trigger trigger = new DelayedTrigger(new long[] {100, 100, 100});
+        HelloWorldJobContext ctx = new HelloWorldJobContext("hello world", timeService);
+        timeService.scheduleJob(new HelloWorldJob(), ctx, trigger);
+        Thread.sleep(500);
+        timeService.shutdown();
+        assertThat(ctx.getList()).hasSize(3);
+    }
+
+    @Test
+    public void testRealtimeWheelRemoveJob() throws Exception {
+        TimingWheelTimerService timeService = new TimingWheelTimerService();
+        HelloWorldJobContext ctx = new HelloWorldJobContext("hello world", timeService);
+        JobHandle handle = timeService.scheduleJob(new HelloWorldJob(), ctx, new DelayedTrigger(200));
+        timeService.scheduleJob(new HelloWorldJob(), ctx, new DelayedTrigger(100));
+        timeService.removeJob(handle);
+        assertThat(timeService.getPendingJobsCount()).isEqualTo(1);
+        Thread.sleep(500);
+        timeService.shutdown();
+        assertThat(ctx.getList()).hasSize(1);
+    }
+
+    private static List<String> pollAll(TimingWheel<String> wheel, long upToTick) {
+        List<String> result = new ArrayList<>();
+        for (TimingWheel.Entry<String> entry = wheel.poll(upToTick); entry != null; entry = wheel.poll(upToTick)) {
+            result.add(entry.getValue());
+        }
+        return result;
+    }
+
+    @Test
+    public void testPseudoWheelSerialization() throws Exception {
+        TimingWheelPseudoClockScheduler scheduler = new TimingWheelPseudoClockScheduler();
+        RecordingJob.FIRED.clear();
+        scheduler.scheduleJob(new RecordingJob(), new HelloWorldJobContext("a", null), new FixedTrigger(100));
+        scheduler.scheduleJob(new RecordingJob(), new HelloWorldJobContext("b", null), new FixedTrigger(5000, 7000));
+        JobHandle cancelled = scheduler.scheduleJob(new RecordingJob(), new HelloWorldJobContext("c", null), new FixedTrigger(3000));
+        scheduler.removeJob(cancelled);
+
+        scheduler.advanceTime(200, TimeUnit.MILLISECONDS);
+        assertThat(RecordingJob.FIRED).containsExactly("a");
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(baos)) {
+            out.writeObject(scheduler);
+        }
+        TimingWheelPseudoClockScheduler restored;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            restored = (TimingWheelPseudoClockScheduler) in.readObject();
+        }
+
+        assertThat(restored.getCurrentTime()).isEqualTo(200);
+        assertThat(restored.getPendingJobsCount()).isEqualTo(1);
+        assertThat(restored.getTimeToNextJob()).isEqualTo(4800);
+
+        // the ids of the restored jobs are not reused
+        JobHandle newJob = restored.scheduleJob(new RecordingJob(), new HelloWorldJobContext("d", null), new FixedTrigger(6000));
+        assertThat(newJob.getId()).isEqualTo(3);
+
+        restored.advanceTime(10, TimeUnit.SECONDS);
+        assertThat(RecordingJob.FIRED).containsExactly("a", "b", "d", "b");
+        assertThat(restored.getPendingJobsCount()).isZero();
+    }
+
+    public static class RecordingJob implements Job, Serializable {
+        static final List<String> FIRED = new ArrayList<>();
+
+        public void execute(JobContext ctx) {
+            FIRED.add(((HelloWorldJobContext) ctx).getMessage());
+        }
+    }
+
+    public static class FixedTrigger implements Trigger {
+        private final long[] times;
+        private int next;
+
+        public FixedTrigger(long... times) {
+            this.times = times;
+        }
+
+        public Date hasNextFireTime() {
+            return next < times.length ? new Date(times[next]) : null;
+        }
+
+        public Date nextFireTime() {
+            return next < times.length ? new Date(times[next++]) : null;
+        }
+
+        public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException { }
+
+        public void writeExternal(ObjectOutput out) throws IOException { }
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.core.util.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.base.base.ClassObjectType;
+import org.drools.base.rule.Declaration;
+import org.drools.base.rule.Pattern;
+import org.drools.base.time.TemporalIndexRange;
+import org.drools.core.common.DefaultEventHandle;
+import org.drools.core.reteoo.AbstractTuple;
+import org.drools.core.reteoo.JoinNodeLeftTuple;
+import org.drools.core.reteoo.RightTuple;
+import org.drools.core.reteoo.RightTupleImpl;
+import org.drools.core.reteoo.Tuple;
+import org.drools.core.util.FastIterator;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TupleIndexTemporalTreeTest {
+
+    private final Declaration declaration = new Declaration("$l", new Pattern(0, new ClassObjectType(Object.class)));
+
+    private int counter;
+
+    @Test
+    public void testAfterProbe() {
+        // right.start - left.end in [0, 2000]
+        TupleIndexTemporalTree memory = new TupleIndexTemporalTree(TemporalIndexRange.after(0, 2000), declaration);
+        for (int i = 10; i >= 0; i--) {
+            memory.add(rightTuple(i * 1000, 0));
+        }
+        assertThat(memory.size()).isEqualTo(11);
+
+        assertThat(probe(memory, leftTuple(3000, 0))).containsExactly(3000L, 4000L, 5000L);
+        assertThat(probe(memory, leftTuple(2500, 1000))).containsExactly(4000L, 5000L);
+        assertThat(probe(memory, leftTuple(9500, 0))).containsExactly(10000L);
+        assertThat(probe(memory, leftTuple(20000, 0))).isEmpty();
+    }
+
+    @Test
+    public void testBeforeProbeAccountsForDurations() {
+        // left.start - right.end in [0, 1000]
+        TupleIndexTemporalTree memory = new TupleIndexTemporalTree(TemporalIndexRange.before(0, 1000), declaration);
+        memory.add(rightTuple(500, 2000));
+        memory.add(rightTuple(1800, 0));
+        memory.add(rightTuple(2600, 0));
+        memory.add(rightTuple(3500, 0));
+
+        // the events ending in [2000, 3000] are the ones started at 500 and 2600
+        List<Long> candidates = probe(memory, leftTuple(3000, 0));
+        assertThat(candidates).contains(500L, 2600L).doesNotContain(3500L);
+    }
+
+    @Test
+    public void testRemoveAndFullIteration() {
+        TupleIndexTemporalTree memory = new TupleIndexTemporalTree(TemporalIndexRange.after(0, 1000), declaration);
+        RightTuple first = rightTuple(100, 0);
+        RightTuple second = rightTuple(100, 0);
+        RightTuple third = rightTuple(5000, 0);
+        memory.add(first);
+        memory.add(second);
+        memory.add(third);
+
+        assertThat(probe(memory, leftTuple(0, 0))).containsExactly(100L, 100L);
+
+        memory.remove(first);
+        memory.remove(third);
+        assertThat(memory.size()).isEqualTo(1);
+        assertThat(memory.toArray()).containsExactly(second);
+
+        // iterating from scratch is not bound to the last probe
+        memory.add(third);
+        assertThat(probe(memory, leftTuple(0, 0))).containsExactly(100L);
+        FastIterator<AbstractTuple> it = memory.fastIterator();
+        List<Tuple> all = new ArrayList<>();
+        for (AbstractTuple tuple = it.next(null); tuple != null; tuple = it.next(tuple)) {
+            all.add(tuple);
+        }
+        assertThat(all).containsExactly(second, third);
+    }
+
+    private List<Long> probe(TupleIndexTemporalTree memory, Tuple leftTuple) {
+        List<Long> starts = new ArrayList<>();
+        FastIterator<AbstractTuple> it = memory.fastIterator();
+        for (Tuple tuple = memory.getFirst(leftTuple); tuple != null; tuple = it.next((AbstractTuple) tuple)) {
+            starts.add(((DefaultEventHandle) tuple.getFactHandle()).getStartTimestamp());
+        }
+        return starts;
+    }
+
+    private RightTuple rightTuple(long start, long duration) {
+        return new RightTupleImpl(new DefaultEventHandle(counter++, new Object(), counter, start, duration, null));
+    }
+
+    private Tuple leftTuple(long start, long duration) {
+        return new JoinNodeLeftTuple(new DefaultEventHandle(counter++, new Object(), counter, start, duration, null), null, true);
+    }
+}
@@ -0,0 +1,236 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.kiesession.entrypoints;
+
+import java.util.concurrent.Flow;
+
+import org.drools.core.WorkingMemoryEntryPoint;
+import org.drools.core.common.ReteEvaluator;
+import org.drools.core.phreak.PropagationEntry;
+import org.kie.api.runtime.rule.EntryPoint;
+
+/**
+ * A {@link Flow.Subscriber} inserting the received items into an entry point, requesting them according to how many
+ * of the already received items are still waiting in the propagation queue of the session.
+ *
+ * The items are requested in batches of <code>batchSize</code> and inserted as soon as they arrive: the insertions are
+ * only enqueued and propagated into the network by the next fireAllRules, or by the engine thread when the session is
+ * running with fireUntilHalt. After each complete batch a marker is added to the propagation queue: when the engine
+ * reaches it, all the items of that batch have been propagated and new items are requested. In this way the number
+ * of received items not yet propagated, the lag, never exceeds <code>maxLag</code>, and a publisher faster than the
+ * engine is slowed down instead of filling the propagation queue.
+ */
+public class EntryPointSubscriber<T> implements Flow.Subscriber<T>, AutoCloseable {
+
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    public static final int DEFAULT_MAX_LAG = 16 * DEFAULT_BATCH_SIZE;
+
+    private final WorkingMemoryEntryPoint entryPoint;
+    private final ReteEvaluator reteEvaluator;
+    private final int batchSize;
+    private final int maxLag;
+
+    private Flow.Subscription subscription;
+
+    private long requested;
+    private long received;
+    private long propagated;
+    private long peakLag;
+    private int currentBatch;
+
+    private volatile boolean completed;
+    private volatile Throwable error;
+    private boolean cancelled;
+
+    public EntryPointSubscriber(EntryPoint entryPoint) {
+        this( entryPoint, DEFAULT_BATCH_SIZE, DEFAULT_MAX_LAG );
+    }
+
+    public EntryPointSubscriber(EntryPoint entryPoint, int batchSize, int maxLag) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException( "The batch size must be positive, but was " + batchSize );
+        }
+        if (maxLag < batchSize) {
+            throw new IllegalArgumentException( "The max lag (" + maxLag + ") cannot be lower than the batch size (" + batchSize + ")" );
+        }
+        this.entryPoint = (WorkingMemoryEntryPoint) entryPoint;
+        this.reteEvaluator = this.entryPoint.getReteEvaluator();
+        this.batchSize = batchSize;
+        this.maxLag = maxLag;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            if (this.subscription != null || cancelled) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+        }
+        requestMore();
+    }
+
+    @Override
+    public void onNext(T item) {
+        try {
+            entryPoint.insert( item );
+        } catch (Throwable t) {
+            close();
+            error = t;
+            return;
+        }
+        int batch = 0;
+        synchronized (this) {
+            received++;
+            peakLag = Math.max( peakLag, received - propagated );
+            if (++currentBatch == batchSize) {
+                batch = currentBatch;
+                currentBatch = 0;
+            }
+        }
+        if (batch > 0) {
+            reteEvaluator.addPropagation( new BatchPropagated( batch ) );
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        error = throwable;
+        onComplete();
+    }
+
+    @Override
+    public void onComplete() {
+        int batch;
+        synchronized (this) {
+            batch = currentBatch;
+            currentBatch = 0;
+        }
+        if (batch > 0) {
+            reteEvaluator.addPropagation( new BatchPropagated( batch ) );
+        }
+        completed = true;
+    }
+
+    private void requestMore() {
+        long n = 0;
+        Flow.Subscription s;
+        synchronized (this) {
+            s = subscription;
+            if (s == null || cancelled || completed) {
+                return;
+            }
+            // the items requested and not received yet count as lag, as they can arrive at any time
+            while (requested - propagated + batchSize <= maxLag) {
+                requested += batchSize;
+                n += batchSize;
+            }
+        }
+        if (n > 0) {
+            s.request( n );
+        }
+    }
+
+    private void onBatchPropagated(int batch) {
+        synchronized (this) {
+            propagated += batch;
+        }
+        requestMore();
+    }
+
+    /**
+     * Cancels the subscription: no more items are requested, while the ones already received are still propagated.
+     */
+    @Override
+    public void close() {
+        Flow.Subscription s;
+        synchronized (this) {
+            cancelled = true;
+            s = subscription;
+        }
+        if (s != null) {
+            s.cancel();
+        }
+    }
+
+    public synchronized long getReceivedCount() {
+        return received;
+    }
+
+    public synchronized long getPropagatedCount() {
+        return propagated;
+    }
+
+    /**
+     * @return the number of received items that have not been propagated into the network yet
+     */
+    public synchronized long getLag() {
+        return received - propagated;
+    }
+
+    /**
+     * @return the highest lag observed since the subscription
+     */
+    public synchronized long getPeakLag() {
+        return peakLag;
+    }
+
+    /**
+     * @return the number of items requested to the publisher and not received yet
+     */
+    public synchronized long getOutstandingDemand() {
+        return requested - received;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getMaxLag() {
+        return maxLag;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    private class BatchPropagated extends PropagationEntry.AbstractPropagationEntry {
+
+        private final int batch;
+
+        private BatchPropagated(int batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void internalExecute(ReteEvaluator reteEvaluator) {
+            onBatchPropagated( batch );
+        }
+
+        @Override
+        public String toString() {
+            return "Propagation of " + batch + " items from " + entryPoint.getEntryPointId();
+        }
+    }
+}
@@ -41,6 +41,7 @@ import org.drools.core.common.ReteEvaluator;
 import org.drools.core.common.TruthMaintenanceSystemFactory;
 import org.drools.core.impl.InternalRuleBase;
 import org.drools.core.reteoo.EntryPointNode;
+import org.drools.core.reteoo.ExpirationQueue;
 import org.drools.core.reteoo.ObjectTypeConf;
 import org.drools.core.reteoo.ObjectTypeNode;
 import org.drools.core.reteoo.RuntimeComponentFactory;
@@ -60,9 +61,11 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -97,6 +100,8 @@ public class NamedEntryPoint implements InternalWorkingMemoryEntryPoint, Propert
 
     private boolean isEqualityBehaviour = false;
 
+    private final Map<ObjectTypeNode, ExpirationQueue> expirationQueues = new HashMap<>();
+
     protected NamedEntryPoint() {
         lock = null;
         reteEvaluator = null;
@@ -138,8 +143,16 @@ public class NamedEntryPoint implements InternalWorkingMemoryEntryPoint, Propert
         }
     }
 
+    private boolean isLocked() {
+        return lock != null && lock.isLocked();
+    }
+
     public void reset() {
         this.objectStore.clear();
+        // the pending expiration jobs are discarded together with the timer service
+        synchronized (expirationQueues) {
+            expirationQueues.clear();
+        }
         if (TruthMaintenanceSystemFactory.present()) {
             TruthMaintenanceSystemFactory.get().clearTruthMaintenanceSystem(this);
         }
@@ -149,6 +162,29 @@ public class NamedEntryPoint implements InternalWorkingMemoryEntryPoint, Propert
         return this.objectStore;
     }
 
+    @Override
+    public ExpirationQueue getExpirationQueue(ObjectTypeNode node) {
+        synchronized (expirationQueues) {
+            return expirationQueues.computeIfAbsent( node, n -> new ExpirationQueue( reteEvaluator ) );
+        }
+    }
+
+    @Override
+    public Collection<ExpirationQueue> getExpirationQueues() {
+        synchronized (expirationQueues) {
+            return new ArrayList<>( expirationQueues.values() );
+        }
+    }
+
+    @Override
+    public void cancelExpirations(DefaultEventHandle handle) {
+        synchronized (expirationQueues) {
+            for ( ExpirationQueue expirationQueue : expirationQueues.values() ) {
+                expirationQueue.remove( handle );
+            }
+        }
+    }
+
     public EntryPointNode getEntryPointNode() {
         return this.entryPointNode;
     }
@@ -186,6 +222,21 @@ public class NamedEntryPoint implements InternalWorkingMemoryEntryPoint, Propert
 
             ObjectTypeConf typeConf = getObjectTypeConfigurationRegistry().getOrCreateObjectTypeConf( this.entryPoint, object );
 
+            // with equality behaviour the object store can be looked up without the lock: when an equal object is
+            // already there, as it is usual when deduplicating a stream, its handle is returned without locking
+            long lookupVersion = typeConf.isTMSEnabled() || this.reteEvaluator.isSequential() ? -1L : this.objectStore.getLookupVersion();
+            if ( lookupVersion >= 0 ) {
+                InternalFactHandle existingHandle = this.objectStore.getHandleForObject( object );
+                if ( existingHandle != null ) {
+                    // the handle can be returned only if its insertion has been completely propagated, i.e. no thread
+                    // is holding the lock, and if a concurrent logical insertion didn't enable the TMS for this type
+                    if ( !isLocked() && existingHandle.getEqualityKey() == null && !typeConf.isTMSEnabled() ) {
+                        return existingHandle;
+                    }
+                    lookupVersion = -1L;
+                }
+            }
+
             final PropagationContext propagationContext = this.pctxFactory.createPropagationContext(this.reteEvaluator.getNextPropagationIdCounter(),
                     PropagationContext.Type.INSERTION,
                     rule,
@@ -203,8 +254,10 @@ public class NamedEntryPoint implements InternalWorkingMemoryEntryPoint, Propert
             try {
                 lock();
 
-                // check if the object already exists in the WM
-                handle = this.objectStore.getHandleForObject( object );
+                // check if the object already exists in the WM, unless nothing changed since the lookup done without the lock
+                handle = lookupVersion >= 0 && lookupVersion == this.objectStore.getLookupVersion() ?
+                        null :
+                        this.objectStore.getHandleForObject( object );
 
                 if ( typeConf.isTMSEnabled() ) {
                     if ( handle != null && handle.getEqualityKey().getStatus() == EqualityKey.STATED ) {
@@ -269,6 +322,44 @@ public class NamedEntryPoint implements InternalWorkingMemoryEntryPoint, Propert
         this.reteEvaluator.getRuleRuntimeEventSupport().fireObjectInserted(pctx, handle, object, this.reteEvaluator);
     }
 
+    /**
+     * Inserts an event with the given timestamp, instead of the one of its timestamp attribute or the current time
+     * of the session clock. Its expiration is computed from this timestamp, as for any other event.
+     */
+    public FactHandle insertEvent(final Object event,
+                                  final long timestamp) {
+        ObjectTypeConf typeConf = getObjectTypeConfigurationRegistry().getOrCreateObjectTypeConf( this.entryPoint, event );
+        if ( !typeConf.isEvent() ) {
+            throw new IllegalArgumentException( "Cannot insert " + event + " with a timestamp: it is not an event" );
+        }
+
+        try {
+            this.reteEvaluator.startOperation(ReteEvaluator.InternalOperationType.INSERT);
+
+            PropagationContext propagationContext = this.pctxFactory.createPropagationContext(this.reteEvaluator.getNextPropagationIdCounter(),
+                    PropagationContext.Type.INSERTION,
+                    null, null, null, entryPoint);
+            TypeDeclaration type = typeConf.getTypeDeclaration();
+            long duration = type != null && type.getDurationExtractor() != null ?
+                    type.getDurationExtractor().getLongValue( this.reteEvaluator, event ) :
+                    0;
+
+            try {
+                lock();
+                InternalFactHandle handle = this.handleFactory.createEventFactHandle( this.handleFactory.getNextId(), event,
+                                                                                       this.handleFactory.getNextRecency(), this,
+                                                                                       timestamp, duration );
+                propagationContext.setFactHandle(handle);
+                insert( handle, event, null, typeConf, propagationContext );
+                return handle;
+            } finally {
+                unlock();
+            }
+        } finally {
+            this.reteEvaluator.endOperation(ReteEvaluator.InternalOperationType.INSERT);
+        }
+    }
+
     public FactHandle insertAsync(Object object) {
         ObjectTypeConf typeConf = getObjectTypeConfigurationRegistry().getOrCreateObjectTypeConf( this.entryPoint, object );
 
@@ -297,24 +388,17 @@ public class NamedEntryPoint implements InternalWorkingMemoryEntryPoint, Propert
     }
 
     public static BitMask calculateUpdateBitMask(InternalRuleBase ruleBase, Object object, String[] modifiedProperties) {
-        String modifiedTypeName;
-        List<String> accessibleProperties;
-        boolean isPropertyReactive;
-
         if (object instanceof Fact) {
-            accessibleProperties = new ArrayList<>(((Fact) object).getFactTemplate().getFieldNames());
-            modifiedTypeName = ((Fact) object).getFactTemplate().getName();
-            isPropertyReactive = !accessibleProperties.isEmpty();
-        } else {
-            Class<?> modifiedClass = object.getClass();
-            modifiedTypeName = modifiedClass.getName();
-            TypeDeclaration typeDeclaration = ruleBase.getOrCreateExactTypeDeclaration( modifiedClass );
-            isPropertyReactive = typeDeclaration.isPropertyReactive();
-            accessibleProperties = isPropertyReactive ? typeDeclaration.getAccessibleProperties() : null;
+            List<String> accessibleProperties = new ArrayList<>(((Fact) object).getFactTemplate().getFieldNames());
+            return accessibleProperties.isEmpty() ?
+                    AllSetBitMask.get() :
+                    calculatePositiveMask( ((Fact) object).getFactTemplate().getName(), asList(modifiedProperties), accessibleProperties );
         }
 
-        return isPropertyReactive ?
-                calculatePositiveMask( modifiedTypeName, asList(modifiedProperties), accessibleProperties ) :
+        // the mask of a given set of modified properties is resolved once per type and then reused
+        TypeDeclaration typeDeclaration = ruleBase.getOrCreateExactTypeDeclaration( object.getClass() );
+        return typeDeclaration.isPropertyReactive() ?
+                typeDeclaration.getModificationMask( modifiedProperties ) :
                 AllSetBitMask.get();
     }
 
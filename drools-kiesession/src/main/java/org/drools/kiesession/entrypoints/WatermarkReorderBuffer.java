@@ -0,0 +1,207 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.kiesession.entrypoints;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.drools.base.rule.TypeDeclaration;
+import org.drools.core.common.ReteEvaluator;
+import org.drools.core.reteoo.ObjectTypeConf;
+import org.kie.api.runtime.rule.EntryPoint;
+import org.kie.api.time.SessionClock;
+import org.kie.api.time.SessionPseudoClock;
+
+/**
+ * Inserts events into an entry point in timestamp order, even when they are submitted out of order.
+ *
+ * The submitted events are kept in a reorder buffer until the watermark, the time before which no more events are
+ * expected, passes their timestamp. The watermark follows the highest timestamp submitted so far, minus the
+ * configured max out-of-orderness, and can also be advanced explicitly, for instance with the watermarks of the
+ * source stream. When it advances, the buffered events are inserted in timestamp order and, if the session uses a
+ * pseudo clock, the clock is advanced to the timestamp of each event before inserting it and to the watermark at the
+ * end. In this way the sliding windows and the expirations see the events in the same order they happened.
+ *
+ * Every event is inserted with {@link NamedEntryPoint#insertEvent(Object, long)}, so its handle carries the timestamp
+ * it has been submitted with, also when its type doesn't declare a timestamp attribute, and the object type node
+ * computes its expiration from it.
+ *
+ * An event older than the watermark is late: it is still inserted straight away if it's within the allowed lateness,
+ * otherwise it's dropped and handed to the late event handler. The buffer is bounded: when it reaches its capacity the
+ * watermark is forced forward to release its oldest event.
+ *
+ * With a realtime clock the session clock cannot be driven by the watermark, but the events are still inserted in
+ * timestamp order and with their own timestamps.
+ */
+public class WatermarkReorderBuffer {
+
+    private static final Comparator<Pending> PENDING_COMPARATOR = Comparator.comparingLong( (Pending p) -> p.timestamp ).thenComparingLong( p -> p.sequence );
+
+    private final NamedEntryPoint entryPoint;
+    private final ReteEvaluator reteEvaluator;
+    private final long maxOutOfOrderness;
+    private final long allowedLateness;
+    private final int capacity;
+
+    private final PriorityQueue<Pending> buffer = new PriorityQueue<>( PENDING_COMPARATOR );
+
+    private Consumer<Object> lateEventHandler = event -> { };
+
+    private long watermark = Long.MIN_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+    private long sequence;
+
+    private long lateCount;
+    private long droppedCount;
+
+    public WatermarkReorderBuffer(EntryPoint entryPoint, long maxOutOfOrderness, long allowedLateness, int capacity) {
+        if (maxOutOfOrderness < 0 || allowedLateness < 0) {
+            throw new IllegalArgumentException( "The max out-of-orderness and the allowed lateness cannot be negative" );
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException( "The capacity must be positive, but was " + capacity );
+        }
+        this.entryPoint = (NamedEntryPoint) entryPoint;
+        this.reteEvaluator = this.entryPoint.getReteEvaluator();
+        this.maxOutOfOrderness = maxOutOfOrderness;
+        this.allowedLateness = allowedLateness;
+        this.capacity = capacity;
+    }
+
+    public synchronized void setLateEventHandler(Consumer<Object> lateEventHandler) {
+        this.lateEventHandler = lateEventHandler;
+    }
+
+    /**
+     * Submits an event whose type declares its timestamp attribute.
+     */
+    public void insert(Object event) {
+        insert( event, getTimestamp( event ) );
+    }
+
+    /**
+     * Submits an event with the given timestamp, which is also the one of its fact handle once inserted.
+     */
+    public synchronized void insert(Object event, long timestamp) {
+        if (timestamp < watermark) {
+            lateCount++;
+            if (timestamp >= watermark - allowedLateness) {
+                entryPoint.insertEvent( event, timestamp );
+            } else {
+                droppedCount++;
+                lateEventHandler.accept( event );
+            }
+            return;
+        }
+
+        buffer.add( new Pending( event, timestamp, sequence++ ) );
+        maxTimestamp = Math.max( maxTimestamp, timestamp );
+        if (maxTimestamp - maxOutOfOrderness > watermark) {
+            advance( maxTimestamp - maxOutOfOrderness );
+        }
+        while (buffer.size() > capacity) {
+            advance( buffer.peek().timestamp );
+        }
+    }
+
+    /**
+     * Advances the watermark, inserting all the buffered events not newer than it.
+     * A watermark older than the current one is ignored.
+     */
+    public synchronized void advanceWatermark(long newWatermark) {
+        if (newWatermark > watermark) {
+            advance( newWatermark );
+        }
+    }
+
+    /**
+     * Inserts all the buffered events, moving the watermark to the highest timestamp submitted so far.
+     */
+    public synchronized void flush() {
+        advanceWatermark( maxTimestamp );
+    }
+
+    private void advance(long newWatermark) {
+        watermark = newWatermark;
+        while (!buffer.isEmpty() && buffer.peek().timestamp <= newWatermark) {
+            Pending pending = buffer.poll();
+            advanceClock( pending.timestamp );
+            entryPoint.insertEvent( pending.event, pending.timestamp );
+        }
+        advanceClock( newWatermark );
+    }
+
+    private void advanceClock(long time) {
+        SessionClock clock = reteEvaluator.getSessionClock();
+        if (clock instanceof SessionPseudoClock) {
+            long delta = time - clock.getCurrentTime();
+            if (delta > 0) {
+                ((SessionPseudoClock) clock).advanceTime( delta, TimeUnit.MILLISECONDS );
+            }
+        }
+    }
+
+    private long getTimestamp(Object event) {
+        ObjectTypeConf conf = entryPoint.getObjectTypeConfigurationRegistry().getOrCreateObjectTypeConf( entryPoint.getEntryPoint(), event );
+        TypeDeclaration type = conf.isEvent() ? conf.getTypeDeclaration() : null;
+        if (type == null || type.getTimestampExtractor() == null) {
+            throw new IllegalArgumentException( "Cannot find the timestamp of " + event + ": it is not an event with a timestamp attribute" );
+        }
+        return type.getTimestampExtractor().getLongValue( reteEvaluator, event );
+    }
+
+    public synchronized long getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * @return the number of events waiting in the buffer for the watermark to pass them
+     */
+    public synchronized int size() {
+        return buffer.size();
+    }
+
+    /**
+     * @return the number of events submitted after the watermark had already passed their timestamp
+     */
+    public synchronized long getLateCount() {
+        return lateCount;
+    }
+
+    /**
+     * @return the number of late events dropped because they were beyond the allowed lateness
+     */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    private static class Pending {
+        private final Object event;
+        private final long timestamp;
+        private final long sequence;
+
+        private Pending(Object event, long timestamp, long sequence) {
+            this.event = event;
+            this.timestamp = timestamp;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.kiesession.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+import org.drools.kiesession.session.StatefulKnowledgeSessionImpl;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.LiveQuery;
+import org.kie.api.runtime.rule.Row;
+import org.kie.api.runtime.rule.ViewChangedEventListener;
+import org.kie.internal.concurrent.ExecutorProviderFactory;
+
+/**
+ * A live query exposed as a {@link Flow.Publisher} of batches of row changes.
+ *
+ * The rows added, updated and removed while the engine propagates are only recorded, together with the values bound
+ * to the published identifiers, and coalesced per row: a row added and then removed in the same cycle is never
+ * published, while a row updated many times is published once with its last values. The recorded changes are
+ * published as a single batch at the end of each fireAllRules or when {@link #flush()} is invoked, which is needed
+ * for sessions running with fireUntilHalt.
+ *
+ * Batches are delivered to the subscribers on an executor, so a slow subscriber never stalls the engine. A subscriber
+ * receives at most one batch per requested item: while it has no outstanding demand the changes of the following
+ * cycles are coalesced in its pending batch, so the memory used for a lagging subscriber is bounded by the number of
+ * rows of the query. A new subscriber receives the whole content of the query, as of the last flush, as its first batch.
+ */
+public class LiveQueryPublisher implements ViewChangedEventListener, Flow.Publisher<List<LiveQueryPublisher.RowChange>>, AutoCloseable {
+
+    public enum ChangeType {
+        ADDED, UPDATED, REMOVED
+    }
+
+    public static class RowChange {
+
+        private final ChangeType type;
+        private final Row row;
+        private final Map<String, Object> values;
+
+        RowChange(ChangeType type, Row row, Map<String, Object> values) {
+            this.type = type;
+            this.row = row;
+            this.values = values;
+        }
+
+        public ChangeType getType() {
+            return type;
+        }
+
+        /**
+         * @return the row of the live query, to be used only as a key identifying it across batches
+         */
+        public Row getRow() {
+            return row;
+        }
+
+        /**
+         * @return the value bound to the given identifier when the change happened
+         */
+        public Object get(String identifier) {
+            return values.get( identifier );
+        }
+
+        public Map<String, Object> getValues() {
+            return values;
+        }
+
+        private RowChange merge(RowChange next) {
+            switch (type) {
+                case ADDED:
+                    if (next.type == ChangeType.REMOVED) {
+                        return null;
+                    }
+                    return new RowChange( ChangeType.ADDED, next.row, next.values );
+                case REMOVED:
+                    if (next.type == ChangeType.ADDED) {
+                        return new RowChange( ChangeType.UPDATED, next.row, next.values );
+                    }
+                    return next;
+                default:
+                    return next;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return type + " " + values;
+        }
+    }
+
+    private final String[] identifiers;
+    private final Executor executor;
+
+    private final Map<Row, RowChange> changes = new LinkedHashMap<>();
+    private final Map<Row, RowChange> published = new LinkedHashMap<>();
+    private final List<LiveQuerySubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private KieSession ksession;
+    private LiveQuery liveQuery;
+    private final Runnable flusher = this::flush;
+
+    private boolean closed;
+
+    public LiveQueryPublisher(Executor executor, String... identifiers) {
+        this.executor = executor;
+        this.identifiers = identifiers;
+    }
+
+    /**
+     * Opens a live query publishing the values bound to the given identifiers. When the session supports it,
+     * the changes are automatically flushed at the end of each fireAllRules.
+     */
+    public static LiveQueryPublisher open(KieSession ksession, String query, Object[] arguments, String... identifiers) {
+        return open( ksession, query, arguments, ExecutorProviderFactory.getExecutorProvider().getExecutor(), identifiers );
+    }
+
+    public static LiveQueryPublisher open(KieSession ksession, String query, Object[] arguments, Executor executor, String... identifiers) {
+        LiveQueryPublisher publisher = new LiveQueryPublisher( executor, identifiers );
+        publisher.ksession = ksession;
+        publisher.liveQuery = ksession.openLiveQuery( query, arguments, publisher );
+        if (ksession instanceof StatefulKnowledgeSessionImpl) {
+            ((StatefulKnowledgeSessionImpl) ksession).addFireCycleListener( publisher.flusher );
+        }
+        publisher.flush();
+        return publisher;
+    }
+
+    @Override
+    public synchronized void rowInserted(Row row) {
+        record( ChangeType.ADDED, row );
+    }
+
+    @Override
+    public synchronized void rowUpdated(Row row) {
+        record( ChangeType.UPDATED, row );
+    }
+
+    @Override
+    public synchronized void rowDeleted(Row row) {
+        RowChange last = changes.get( row );
+        if (last == null) {
+            last = published.get( row );
+        }
+        // a removed row could no longer be able to resolve its bindings, so it's published with its last known values
+        record( new RowChange( ChangeType.REMOVED, row, last != null ? last.values : Collections.emptyMap() ) );
+    }
+
+    private void record(ChangeType type, Row row) {
+        Map<String, Object> values = new HashMap<>();
+        for (String identifier : identifiers) {
+            values.put( identifier, row.get( identifier ) );
+        }
+        record( new RowChange( type, row, values ) );
+    }
+
+    private void record(RowChange change) {
+        merge( changes, change );
+    }
+
+    private static void merge(Map<Row, RowChange> batch, RowChange change) {
+        RowChange previous = batch.remove( change.row );
+        RowChange merged = previous == null ? change : previous.merge( change );
+        if (merged != null) {
+            batch.put( change.row, merged );
+        }
+    }
+
+    /**
+     * Publishes the changes recorded since the last flush as a single batch.
+     */
+    public synchronized void flush() {
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (RowChange change : changes.values()) {
+            if (change.type == ChangeType.REMOVED) {
+                published.remove( change.row );
+            } else {
+                published.put( change.row, new RowChange( ChangeType.ADDED, change.row, change.values ) );
+            }
+        }
+        List<RowChange> batch = new ArrayList<>( changes.values() );
+        changes.clear();
+        for (LiveQuerySubscription subscription : subscriptions) {
+            subscription.offer( batch );
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(Flow.Subscriber<? super List<RowChange>> subscriber) {
+        LiveQuerySubscription subscription = new LiveQuerySubscription( subscriber );
+        subscriber.onSubscribe( subscription );
+        if (!published.isEmpty()) {
+            subscription.offer( new ArrayList<>( published.values() ) );
+        }
+        if (closed) {
+            subscription.complete();
+        } else {
+            subscriptions.add( subscription );
+        }
+    }
+
+    /**
+     * Closes the live query. The changes recorded so far are still delivered to the subscribers before completing them.
+     */
+    @Override
+    public void close() {
+        if (ksession instanceof StatefulKnowledgeSessionImpl) {
+            ((StatefulKnowledgeSessionImpl) ksession).removeFireCycleListener( flusher );
+        }
+        flush();
+        if (liveQuery != null) {
+            liveQuery.close();
+        }
+        synchronized (this) {
+            // the rows removed by closing the live query are not published
+            changes.clear();
+            closed = true;
+            for (LiveQuerySubscription subscription : subscriptions) {
+                subscription.complete();
+            }
+            subscriptions.clear();
+        }
+    }
+
+    private class LiveQuerySubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super List<RowChange>> subscriber;
+
+        private final Map<Row, RowChange> pending = new LinkedHashMap<>();
+        private long demand;
+        private boolean scheduled;
+        private boolean completed;
+        private boolean terminated;
+
+        private LiveQuerySubscription(Flow.Subscriber<? super List<RowChange>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        private synchronized void offer(List<RowChange> batch) {
+            for (RowChange change : batch) {
+                merge( pending, change );
+            }
+            schedule();
+        }
+
+        private synchronized void complete() {
+            completed = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError( new IllegalArgumentException( "The number of requested batches must be positive, but was " + n ) );
+                return;
+            }
+            synchronized (this) {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                schedule();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                terminated = true;
+                pending.clear();
+            }
+            subscriptions.remove( this );
+        }
+
+        private void schedule() {
+            if (!scheduled && !terminated && ( (demand > 0 && !pending.isEmpty()) || (completed && pending.isEmpty()) )) {
+                scheduled = true;
+                executor.execute( this::drain );
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<RowChange> batch;
+                synchronized (this) {
+                    if (terminated) {
+                        scheduled = false;
+                        return;
+                    }
+                    if (pending.isEmpty()) {
+                        scheduled = false;
+                        if (completed) {
+                            terminated = true;
+                            break;
+                        }
+                        return;
+                    }
+                    if (demand == 0) {
+                        scheduled = false;
+                        return;
+                    }
+                    batch = new ArrayList<>( pending.values() );
+                    pending.clear();
+                    demand--;
+                }
+                try {
+                    subscriber.onNext( batch );
+                } catch (Throwable t) {
+                    cancel();
+                    subscriber.onError( t );
+                    return;
+                }
+            }
+            subscriber.onComplete();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.kiesession.session;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.ReteEvaluator;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.runtime.rule.QueryResults;
+import org.kie.api.runtime.rule.QueryResultsRow;
+import org.kie.internal.concurrent.ExecutorProviderFactory;
+
+/**
+ * A stateful session made of N independent sessions of the same <code>KieBase</code>, each one confined to its own
+ * thread. Every fact is routed to exactly one shard by hashing the partition key extracted from it, so this is only
+ * correct for rule bases whose rules join facts sharing the same partition key, like per customer rules where every
+ * pattern is constrained on the customer of the first one. Facts that have to be visible to all the rules, like
+ * reference data, can be inserted in every shard with {@link #insertInAllShards(Object)}.
+ *
+ * Operations on a single fact are executed on the thread of its shard; fireAllRules and queries run on all the shards
+ * in parallel and their results are merged. Any other operation on a shard session can be performed through
+ * {@link #submit(int, Function)}, which preserves the confinement of the session to its thread.
+ */
+public class ShardedKieSession implements AutoCloseable {
+
+    private final KieSession[] shards;
+    private final ExecutorService[] executors;
+    private final Function<Object, Object> partitionKey;
+
+    private volatile boolean disposed;
+
+    public ShardedKieSession(KieBase kBase, int shardsCount, Function<Object, Object> partitionKey) {
+        this(kBase, null, shardsCount, partitionKey);
+    }
+
+    public ShardedKieSession(KieBase kBase, KieSessionConfiguration conf, int shardsCount, Function<Object, Object> partitionKey) {
+        if (shardsCount < 1) {
+            throw new IllegalArgumentException("The number of shards must be positive: " + shardsCount);
+        }
+        this.partitionKey = partitionKey;
+        this.shards = new KieSession[shardsCount];
+        this.executors = new ExecutorService[shardsCount];
+        for (int i = 0; i < shardsCount; i++) {
+            this.executors[i] = ExecutorProviderFactory.getExecutorProvider().newSingleThreadExecutor();
+            this.shards[i] = await( CompletableFuture.supplyAsync( () -> conf == null ? kBase.newKieSession() : kBase.newKieSession(conf, null), executors[i] ) );
+        }
+    }
+
+    public int getShardsCount() {
+        return shards.length;
+    }
+
+    /**
+     * Returns the index of the shard owning the given fact
+     */
+    public int getShardOf(Object fact) {
+        Object key = partitionKey.apply(fact);
+        if (key == null) {
+            throw new IllegalArgumentException("Missing partition key for fact " + fact);
+        }
+        return Math.floorMod(key.hashCode(), shards.length);
+    }
+
+    /**
+     * Runs the given function on the thread of the given shard
+     */
+    public <T> CompletableFuture<T> submit(int shard, Function<KieSession, T> function) {
+        checkAlive();
+        KieSession session = shards[shard];
+        return CompletableFuture.supplyAsync( () -> function.apply(session), executors[shard] );
+    }
+
+    public CompletableFuture<FactHandle> insertAsync(Object fact) {
+        return submit( getShardOf(fact), session -> session.insert(fact) );
+    }
+
+    public FactHandle insert(Object fact) {
+        return await( insertAsync(fact) );
+    }
+
+    /**
+     * Inserts all the given facts, sending one batch to each shard and waiting for all the batches to be inserted
+     */
+    public void insertAll(Collection<?> facts) {
+        List<List<Object>> batches = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            batches.add(new ArrayList<>());
+        }
+        for (Object fact : facts) {
+            batches.get(getShardOf(fact)).add(fact);
+        }
+        CompletableFuture<?>[] futures = new CompletableFuture[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            List<Object> batch = batches.get(i);
+            futures[i] = submit( i, session -> {
+                batch.forEach(session::insert);
+                return null;
+            } );
+        }
+        await( CompletableFuture.allOf(futures) );
+    }
+
+    /**
+     * Inserts the given fact in every shard, returning the handles of the single shards in shard order
+     */
+    public List<FactHandle> insertInAllShards(Object fact) {
+        return collect( session -> session.insert(fact) );
+    }
+
+    /**
+     * Updates a fact in the shard owning its handle. The partition key of the fact is not supposed to change.
+     */
+    public void update(FactHandle handle, Object fact) {
+        await( submit( getShardOf(handle), session -> {
+            session.update(handle, fact);
+            return null;
+        } ) );
+    }
+
+    public void delete(FactHandle handle) {
+        await( submit( getShardOf(handle), session -> {
+            session.delete(handle);
+            return null;
+        } ) );
+    }
+
+    public void setGlobal(String identifier, Object value) {
+        collect( session -> {
+            session.setGlobal(identifier, value);
+            return null;
+        } );
+    }
+
+    /**
+     * Fires the rules of all the shards in parallel, returning the total number of fired rules
+     */
+    public int fireAllRules() {
+        int fired = 0;
+        for (int count : collect( KieSession::fireAllRules )) {
+            fired += count;
+        }
+        return fired;
+    }
+
+    public long getFactCount() {
+        long count = 0;
+        for (long shardCount : collect( KieSession::getFactCount )) {
+            count += shardCount;
+        }
+        return count;
+    }
+
+    /**
+     * Runs the given query on all the shards in parallel and merges their results. The rows are read on the
+     * threads of the shards and returned as maps from the query identifiers to their values.
+     */
+    public List<Map<String, Object>> getQueryResults(String query, Object... arguments) {
+        List<Map<String, Object>> merged = new ArrayList<>();
+        for (List<Map<String, Object>> rows : collect( session -> readRows( session.getQueryResults(query, arguments) ) )) {
+            merged.addAll(rows);
+        }
+        return merged;
+    }
+
+    private static List<Map<String, Object>> readRows(QueryResults results) {
+        String[] identifiers = results.getIdentifiers();
+        List<Map<String, Object>> rows = new ArrayList<>(results.size());
+        for (QueryResultsRow row : results) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String identifier : identifiers) {
+                values.put(identifier, row.get(identifier));
+            }
+            rows.add(values);
+        }
+        return rows;
+    }
+
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        try {
+            collect( session -> {
+                session.dispose();
+                return null;
+            } );
+        } finally {
+            disposed = true;
+            for (ExecutorService executor : executors) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        dispose();
+    }
+
+    private int getShardOf(FactHandle handle) {
+        ReteEvaluator owner = ((InternalFactHandle) handle).getReteEvaluator();
+        for (int i = 0; i < shards.length; i++) {
+            if (shards[i] == owner) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("The fact handle " + handle + " doesn't belong to any shard");
+    }
+
+    private <T> List<T> collect(Function<KieSession, T> function) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            futures.add( submit(i, function) );
+        }
+        List<T> results = new ArrayList<>(shards.length);
+        for (CompletableFuture<T> future : futures) {
+            results.add( await(future) );
+        }
+        return results;
+    }
+
+    private void checkAlive() {
+        if (disposed) {
+            throw new IllegalStateException("Illegal method call. This session was previously disposed.");
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -54,6 +54,7 @@ import org.drools.core.common.ObjectStoreWrapper;
 import org.drools.core.common.ObjectTypeConfigurationRegistry;
 import org.drools.core.common.PropagationContext;
 import org.drools.core.common.PropagationContextFactory;
+import org.drools.core.common.PropertyReactivityStats;
 import org.drools.core.common.ReteEvaluator;
 import org.drools.core.event.AgendaEventSupport;
 import org.drools.core.event.RuleEventListenerSupport;
@@ -64,6 +65,7 @@ import org.drools.core.management.DroolsManagementAgent;
 import org.drools.core.marshalling.MarshallerReaderContext;
 import org.drools.core.phreak.PropagationEntry;
 import org.drools.core.phreak.RuleAgendaItem;
+import org.drools.core.phreak.RuntimeSegmentUtilities;
 import org.drools.core.reteoo.AsyncReceiveNode;
 import org.drools.core.reteoo.EntryPointNode;
 import org.drools.core.reteoo.LeftInputAdapterNode;
@@ -134,6 +136,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -247,6 +250,8 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
     private boolean tmsEnabled;
 
+    private PropertyReactivityStats propertyReactivityStats;
+
     // ------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------
@@ -342,13 +347,28 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
         this.sequential = conf.isSequential();
 
+        this.propertyReactivityStats = ruleSessionConfig.isPropertyReactivityStats() ?
+                new PropertyReactivityStats() :
+                PropertyReactivityStats.DISABLED;
+
         this.globalResolver = RuntimeComponentFactory.get().createGlobalResolver(this, this.environment);
 
         if (initInitFactHandle) {
+            if (ruleSessionConfig.isPreallocateSegmentMemories()) {
+                preallocateSegmentMemories();
+            }
             this.initialFactHandle = initInitialFact(null);
         }
     }
 
+    private void preallocateSegmentMemories() {
+        List<TerminalNode> terminalNodes = new ArrayList<>();
+        for (TerminalNode[] tns : kBase.getReteooBuilder().getTerminalNodes().values()) {
+            Collections.addAll(terminalNodes, tns);
+        }
+        RuntimeSegmentUtilities.initializeAllSegmentMemories(this, terminalNodes);
+    }
+
     public StatefulKnowledgeSessionImpl setStateless( boolean stateless ) {
         this.stateless = stateless;
         return this;
@@ -826,6 +846,11 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
         return this.ruleSessionConfig;
     }
 
+    @Override
+    public PropertyReactivityStats getPropertyReactivityStats() {
+        return this.propertyReactivityStats;
+    }
+
     @Override public SessionConfiguration getSessionConfiguration() {
         return this.config.as(SessionConfiguration.KEY);
     }
@@ -858,6 +883,8 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
             this.processRuntime = null;
         }
 
+        this.propertyReactivityStats.reset();
+
         this.initialFactHandle = initInitialFact(null);
     }
 
@@ -1078,12 +1105,32 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
         checkAlive();
         try {
             startOperation(InternalOperationType.FIRE);
-            return internalFireAllRules(agendaFilter, fireLimit);
+            int fireCount = internalFireAllRules(agendaFilter, fireLimit);
+            notifyFireCycleListeners();
+            return fireCount;
         } finally {
             endOperation(InternalOperationType.FIRE);
         }
     }
 
+    /**
+     * Registers a callback invoked at the end of each fireAllRules, once all the rules have been fired
+     * and the results of the live queries are consistent with the working memory.
+     */
+    public void addFireCycleListener(Runnable listener) {
+        this.fireCycleListeners.add( listener );
+    }
+
+    public void removeFireCycleListener(Runnable listener) {
+        this.fireCycleListeners.remove( listener );
+    }
+
+    private void notifyFireCycleListeners() {
+        for (Runnable listener : this.fireCycleListeners) {
+            listener.run();
+        }
+    }
+
     private int internalFireAllRules(AgendaFilter agendaFilter, int fireLimit) {
         int fireCount = 0;
         try {
@@ -1526,6 +1573,8 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
     private EndOperationListener endOperationListener;
 
+    private final List<Runnable> fireCycleListeners = new CopyOnWriteArrayList<>();
+
     public void setEndOperationListener(EndOperationListener listener) {
         this.endOperationListener = listener;
     }
@@ -26,10 +26,13 @@ import org.drools.model.codegen.execmodel.domain.Parent;
 import org.drools.model.codegen.execmodel.domain.Person;
 import org.drools.model.functions.accumulate.GroupKey;
 import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.builder.model.KieModuleModel;
 import org.kie.api.runtime.KieSession;
 import org.kie.api.runtime.rule.FactHandle;
 import org.kie.api.runtime.rule.Match;
 import org.kie.internal.event.rule.RuleEventListener;
+import org.kie.internal.conf.GroupByPartitionsOption;
 import org.kie.internal.event.rule.RuleEventManager;
 
 import java.util.ArrayList;
@@ -1567,4 +1570,57 @@ public class GroupByTest extends BaseModelTest {
             assertThat(results.contains(84)).isTrue();
         });
     }
+
+    @Test
+    public void testGroupByWithAccumulationPartitions() {
+        String str =
+                "import " + Person.class.getCanonicalName() + ";" +
+                "import " + Map.class.getCanonicalName() + ";" +
+                "global Map results;\n" +
+                "rule X when\n" +
+                "groupby( $p: Person (); " +
+                "$key : $p.getName(); " +
+                "$sumOfAges : sum($p.getAge()) )" +
+                "then\n" +
+                "  results.put($key, $sumOfAges);\n" +
+                "end";
+
+        KieModuleModel model = KieServices.get().newKieModuleModel();
+        model.setConfigurationProperty(GroupByPartitionsOption.PROPERTY_NAME, "4");
+        KieSession ksession = getKieSession(model, str);
+
+        Map<String, Integer> results = new HashMap<>();
+        ksession.setGlobal( "results", results );
+
+        Map<String, Integer> expected = new HashMap<>();
+        List<FactHandle> handles = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Person person = new Person("P" + (i % 97), i % 13);
+            handles.add(ksession.insert(person));
+            expected.merge(person.getName(), person.getAge(), Integer::sum);
+        }
+        ksession.fireAllRules();
+
+        assertThat(results).isEqualTo(expected);
+        results.clear();
+
+        for (int i = 0; i < 5000; i += 2) {
+            Person person = new Person("P" + (i % 97), i % 13);
+            ksession.delete(handles.get(i));
+            expected.merge(person.getName(), -person.getAge(), Integer::sum);
+        }
+        for (int i = 1; i < 5000; i += 2) {
+            Person person = new Person("P" + (i % 97), i % 13);
+            ksession.update(handles.get(i), new Person(person.getName(), person.getAge() + 1));
+            expected.merge(person.getName(), 1, Integer::sum);
+        }
+        for (int i = 0; i < 2000; i++) {
+            Person person = new Person("Q" + (i % 31), i % 5);
+            ksession.insert(person);
+            expected.merge(person.getName(), person.getAge(), Integer::sum);
+        }
+        ksession.fireAllRules();
+
+        assertThat(results).isEqualTo(expected);
+    }
 }
@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.model.codegen.execmodel.benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.model.codegen.ExecutableModelProject;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.internal.runtime.conf.PreallocateSegmentMemoriesOption;
+import org.kie.internal.utils.KieHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time needed by a freshly created session to fire its first rule, which includes the creation
+ * of the segment and path memories reached by the first inserted facts, with and without preallocating them
+ * at session creation.
+ */
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@Warmup(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FirstFireLatencyBenchmark {
+
+    @Param({"1000"})
+    private int numberOfRules;
+
+    @Param({"true", "false"})
+    private boolean preallocate;
+
+    private KieBase kieBase;
+    private KieSessionConfiguration sessionConfiguration;
+
+    private KieSession kieSession;
+
+    @Setup(Level.Trial)
+    public void setUpKieBase() {
+        StringBuilder drl = new StringBuilder("global java.util.List list;\n");
+        for (int i = 0; i < numberOfRules; i++) {
+            drl.append("rule R").append(i).append(" when\n")
+               .append("    $i : Integer( intValue == ").append(i).append(" )\n")
+               .append("    $s : String( length >= $i )\n")
+               .append("    not Long( intValue == $i )\n")
+               .append("then\n")
+               .append("    list.add($s);\n")
+               .append("end\n");
+        }
+        kieBase = new KieHelper().addContent(drl.toString(), ResourceType.DRL).build(ExecutableModelProject.class);
+
+        sessionConfiguration = KieServices.get().newKieSessionConfiguration();
+        sessionConfiguration.setOption(preallocate ? PreallocateSegmentMemoriesOption.YES : PreallocateSegmentMemoriesOption.NO);
+    }
+
+    @TearDown(Level.Invocation)
+    public void disposeSession() {
+        kieSession.dispose();
+    }
+
+    @Benchmark
+    public int timeToFirstFire() {
+        kieSession = kieBase.newKieSession(sessionConfiguration, null);
+        kieSession.setGlobal("list", new ArrayList<>());
+        kieSession.insert(numberOfRules / 2);
+        kieSession.insert("a string long enough for every rule");
+        return kieSession.fireAllRules();
+    }
+}
@@ -278,7 +278,8 @@ public class CanonicalKieModule implements InternalKieModule {
                 .stream()
                 .map(kbu -> kbu.create(new KieBaseUpdatersContext(new KieBaseUpdaterOptions(options),
                                                               kBase.getRete(),
-                                                              kBase.getRootClassLoader()
+                                                              kBase.getRootClassLoader(),
+                                                              kBase::enqueueModification
                 )))
                 .forEach(compositeUpdater::add);
 
@@ -26,6 +26,7 @@ import org.drools.base.reteoo.BaseTuple;
 import org.drools.base.rule.Declaration;
 import org.drools.base.rule.Pattern;
 import org.drools.base.time.Interval;
+import org.drools.base.time.TemporalIndexRange;
 import org.drools.model.BitMask;
 import org.drools.model.Index;
 import org.drools.model.SingleConstraint;
@@ -273,6 +274,14 @@ public class ConstraintEvaluator {
         throw new UnsupportedOperationException();
     }
 
+    public TemporalIndexRange getTemporalIndexRange() {
+        return null;
+    }
+
+    public Declaration getTemporalIndexDeclaration() {
+        return null;
+    }
+
     protected void setPatternDeclaration( Declaration patternDeclaration ) {
         throw new UnsupportedOperationException();
     }
@@ -33,10 +33,12 @@ import org.drools.base.reteoo.PropertySpecificUtil;
 import org.drools.base.rule.ContextEntry;
 import org.drools.base.rule.Declaration;
 import org.drools.base.rule.Pattern;
+import org.drools.base.rule.TemporalIndexableConstraint;
 import org.drools.base.rule.accessor.FieldValue;
 import org.drools.base.rule.accessor.ReadAccessor;
 import org.drools.base.rule.accessor.TupleValueExtractor;
 import org.drools.base.time.Interval;
+import org.drools.base.time.TemporalIndexRange;
 import org.drools.base.util.FieldIndex;
 import org.drools.base.util.index.ConstraintTypeOperator;
 import org.drools.util.bitmask.BitMask;
@@ -59,7 +61,7 @@ import static org.drools.base.base.ValueType.determineValueType;
 import static org.drools.base.reteoo.PropertySpecificUtil.getEmptyPropertyReactiveMask;
 import static org.drools.modelcompiler.util.EvaluationUtil.adaptBitMask;
 
-public class LambdaConstraint extends AbstractConstraint {
+public class LambdaConstraint extends AbstractConstraint implements TemporalIndexableConstraint {
 
     private final ConstraintEvaluator evaluator;
     private final PredicateInformation predicateInformation;
@@ -177,6 +179,16 @@ public class LambdaConstraint extends AbstractConstraint {
         return evaluator.getInterval();
     }
 
+    @Override
+    public TemporalIndexRange getTemporalIndexRange() {
+        return evaluator.getTemporalIndexRange();
+    }
+
+    @Override
+    public Declaration getTemporalIndexDeclaration() {
+        return evaluator.getTemporalIndexDeclaration();
+    }
+
     @Override
     public boolean isAllowed(FactHandle handle, ValueResolver valueResolver) {
         try {
@@ -23,6 +23,7 @@ import org.drools.base.reteoo.AccumulateContextEntry;
 import org.drools.base.reteoo.BaseTuple;
 import org.drools.base.rule.Accumulate;
 import org.drools.base.rule.Declaration;
+import org.drools.base.rule.ParallelGroupByAccumulate;
 import org.drools.base.rule.accessor.Accumulator;
 import org.drools.core.common.ReteEvaluator;
 import org.drools.core.reteoo.AccumulateNode.GroupByContext;
@@ -38,7 +39,7 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 
 
-public class LambdaGroupByAccumulate extends Accumulate {
+public class LambdaGroupByAccumulate extends Accumulate implements ParallelGroupByAccumulate {
 
     private Accumulate innerAccumulate;
     private Declaration[] groupingDeclarations;
@@ -127,6 +128,22 @@ public class LambdaGroupByAccumulate extends Accumulate {
         return innerAccumulate.accumulate(workingMemoryContext, list.getContext(), match, handle, valueResolver);
     }
 
+    @Override
+    public Object getGroup(Object workingMemoryContext, Object context, BaseTuple match, FactHandle handle, ValueResolver valueResolver) {
+        GroupByContext groupByContext = ( GroupByContext ) context;
+        LeftTuple leftTupleMatch = (LeftTuple) match;
+        TupleList<AccumulateContextEntry> tupleList = groupByContext.getGroup(workingMemoryContext, innerAccumulate,
+                                                                              leftTupleMatch, getKey(leftTupleMatch, handle, (ReteEvaluator) valueResolver), (ReteEvaluator) valueResolver);
+        groupByContext.moveToPropagateTupleList( tupleList );
+        return tupleList;
+    }
+
+    @Override
+    public Object accumulateInGroup(Object workingMemoryContext, Object group, BaseTuple match, FactHandle handle, ValueResolver valueResolver) {
+        TupleList<AccumulateContextEntry> list = (TupleList<AccumulateContextEntry>) group;
+        return innerAccumulate.accumulate(workingMemoryContext, list.getContext(), match, handle, valueResolver);
+    }
+
     @Override
     public boolean tryReverse(Object workingMemoryContext, Object context, BaseTuple leftTuple, FactHandle handle,
                               BaseTuple match, ValueResolver valueResolver) {
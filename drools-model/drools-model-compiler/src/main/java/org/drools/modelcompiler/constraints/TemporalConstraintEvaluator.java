@@ -23,11 +23,14 @@ import org.drools.base.reteoo.BaseTuple;
 import org.drools.base.rule.Declaration;
 import org.drools.base.rule.Pattern;
 import org.drools.base.time.Interval;
+import org.drools.base.time.TemporalIndexRange;
 import org.drools.core.common.DefaultEventHandle;
 import org.drools.model.SingleConstraint;
 import org.drools.model.constraints.FixedTemporalConstraint;
 import org.drools.model.constraints.TemporalConstraint;
 import org.drools.model.functions.Function1;
+import org.drools.model.functions.temporal.AfterPredicate;
+import org.drools.model.functions.temporal.BeforePredicate;
 import org.drools.model.functions.temporal.TemporalPredicate;
 import org.kie.api.runtime.rule.FactHandle;
 
@@ -123,6 +126,48 @@ public class TemporalConstraintEvaluator extends ConstraintEvaluator {
         return interval;
     }
 
+    @Override
+    public TemporalIndexRange getTemporalIndexRange() {
+        TemporalConstraint temporalConstraint = (TemporalConstraint) constraint;
+        TemporalPredicate temporalPredicate = temporalConstraint.getTemporalPredicate();
+        if (temporalPredicate.isNegated() || constraint instanceof FixedTemporalConstraint || declarations.length != 2 ||
+                temporalConstraint.getF1() != null || temporalConstraint.getF2() != null ||
+                getTemporalIndexDeclaration() == null || !isEventDeclaration( declarations[0] ) || !isEventDeclaration( declarations[1] )) {
+            return null;
+        }
+
+        // the event of this pattern is the first operand of the predicate, unless it has been written on its right
+        boolean thisIsFirst = (declarations[0] == patternDeclaration) ^ temporalPredicate.isThisOnRight();
+        if (temporalPredicate instanceof AfterPredicate) {
+            AfterPredicate after = (AfterPredicate) temporalPredicate;
+            return thisIsFirst ?
+                    TemporalIndexRange.after( after.getInitRange(), after.getFinalRange() ) :
+                    TemporalIndexRange.before( after.getInitRange(), after.getFinalRange() );
+        }
+        if (temporalPredicate instanceof BeforePredicate) {
+            BeforePredicate before = (BeforePredicate) temporalPredicate;
+            return thisIsFirst ?
+                    TemporalIndexRange.before( before.getInitRange(), before.getFinalRange() ) :
+                    TemporalIndexRange.after( before.getInitRange(), before.getFinalRange() );
+        }
+        return null;
+    }
+
+    @Override
+    public Declaration getTemporalIndexDeclaration() {
+        if (declarations.length != 2) {
+            return null;
+        }
+        if (declarations[0] == patternDeclaration) {
+            return declarations[1];
+        }
+        return declarations[1] == patternDeclaration ? declarations[0] : null;
+    }
+
+    private static boolean isEventDeclaration( Declaration decl ) {
+        return !(decl.getExtractor() instanceof LambdaReadAccessor) && decl.getPattern() != null && decl.getPattern().getObjectType().isEvent();
+    }
+
     @Override
     protected void setPatternDeclaration( Declaration patternDeclaration ) {
         this.patternDeclaration = patternDeclaration;
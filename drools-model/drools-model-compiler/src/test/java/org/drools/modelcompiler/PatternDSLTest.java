@@ -287,6 +287,47 @@ public class PatternDSLTest {
         assertThat(result.getValue()).isEqualTo("total = 77; average = 38.5");
     }
 
+    @Test
+    public void testReversiblePercentileAccumulate() {
+        Result result = new Result();
+        Variable<Person> person = declarationOf(  Person.class );
+        Variable<Integer> age = declarationOf(  Integer.class );
+        Variable<Integer> resultMax = declarationOf(  Integer.class );
+        Variable<Integer> resultP75 = declarationOf(  Integer.class );
+
+        Rule rule = rule("accumulate")
+                .build(
+                        accumulate( pattern( person ).bind(age, Person::getAge),
+                                accFunction(org.drools.core.base.accumulators.SortedMaxAccumulateFunction::new, age).as(resultMax),
+                                accFunction(() -> new org.drools.core.base.accumulators.PercentileAccumulateFunction(0.75), age).as(resultP75)),
+                        on(resultMax, resultP75)
+                                .execute((max, p75) -> result.setValue( "max = " + max + "; p75 = " + p75 ))
+                );
+
+        Model model = new ModelImpl().addRule( rule );
+        KieBase kieBase = KieBaseBuilder.createKieBaseFromModel( model );
+
+        KieSession ksession = kieBase.newKieSession();
+
+        Person mario = new Person("Mario", 47);
+        FactHandle marioFh = ksession.insert(mario);
+        ksession.insert(new Person("Mark", 37));
+        ksession.insert(new Person("Edson", 35));
+        ksession.insert(new Person("Luca", 32));
+
+        ksession.fireAllRules();
+        assertThat(result.getValue()).isEqualTo("max = 47; p75 = 37");
+
+        mario.setAge(30);
+        ksession.update(marioFh, mario);
+        ksession.fireAllRules();
+        assertThat(result.getValue()).isEqualTo("max = 37; p75 = 35");
+
+        ksession.delete(marioFh);
+        ksession.fireAllRules();
+        assertThat(result.getValue()).isEqualTo("max = 37; p75 = 37");
+    }
+
     @Test
     public void testAccumulateConstant() {
         Result result = new Result();
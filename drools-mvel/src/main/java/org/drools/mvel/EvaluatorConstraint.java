@@ -30,16 +30,19 @@ import org.drools.base.rule.ContextEntry;
 import org.drools.base.rule.Declaration;
 import org.drools.base.rule.IntervalProviderConstraint;
 import org.drools.base.rule.MutableTypeConstraint;
+import org.drools.base.rule.TemporalIndexableConstraint;
 import org.drools.base.rule.accessor.Evaluator;
 import org.drools.base.rule.accessor.FieldValue;
 import org.drools.base.rule.accessor.ReadAccessor;
 import org.drools.base.time.Interval;
+import org.drools.base.time.TemporalIndexRange;
 import org.drools.mvel.evaluators.MvelEvaluator;
+import org.drools.mvel.evaluators.PointInTimeEvaluator;
 import org.drools.mvel.evaluators.VariableRestriction;
 import org.drools.mvel.evaluators.VariableRestriction.VariableContextEntry;
 import org.kie.api.runtime.rule.FactHandle;
 
-public class EvaluatorConstraint extends MutableTypeConstraint implements IntervalProviderConstraint {
+public class EvaluatorConstraint extends MutableTypeConstraint implements IntervalProviderConstraint, TemporalIndexableConstraint {
 
     protected Declaration[] declarations;
     protected Evaluator evaluator;
@@ -129,6 +132,21 @@ public class EvaluatorConstraint extends MutableTypeConstraint implements Interv
         return evaluator;
     }
 
+    public TemporalIndexRange getTemporalIndexRange() {
+        if (isLiteral() || !(evaluator instanceof PointInTimeEvaluator) || !rightReadAccessor.isSelfReference()) {
+            return null;
+        }
+        Declaration declaration = declarations[0];
+        if (!declaration.isPatternDeclaration() || !declaration.getExtractor().isSelfReference() || !declaration.getPattern().getObjectType().isEvent()) {
+            return null;
+        }
+        return ((PointInTimeEvaluator) evaluator).getTemporalIndexRange();
+    }
+
+    public Declaration getTemporalIndexDeclaration() {
+        return declarations[0];
+    }
+
     public FieldValue getField() {
         return field;
     }
@@ -32,6 +32,7 @@ import org.drools.base.util.TimeIntervalParser;
 import org.drools.core.common.DefaultEventHandle;
 import org.drools.base.rule.accessor.Evaluator;
 import org.drools.base.time.Interval;
+import org.drools.base.time.TemporalIndexRange;
 import org.kie.api.runtime.rule.FactHandle;
 
 /**
@@ -238,6 +239,11 @@ public class BeforeEvaluatorDefinition
             return new Interval( init, end );
         }
 
+        @Override
+        protected TemporalIndexRange createTemporalIndexRange() {
+            return TemporalIndexRange.before( this.initRange, this.finalRange );
+        }
+
         @Override
         protected boolean evaluate(long rightTS, long leftTS) {
             long dist = leftTS - rightTS;
@@ -27,6 +27,7 @@ import org.drools.base.base.ValueType;
 import org.drools.drl.parser.impl.Operator;
 import org.drools.base.rule.accessor.FieldValue;
 import org.drools.base.rule.accessor.ReadAccessor;
+import org.drools.base.time.TemporalIndexRange;
 import org.kie.api.runtime.rule.FactHandle;
 
 import static org.drools.base.util.TimeIntervalParser.getTimestampFromDate;
@@ -82,6 +83,15 @@ public abstract class PointInTimeEvaluator extends BaseEvaluator {
 
     protected abstract boolean evaluate(long rightTS, long leftTS);
 
+    /**
+     * @return the range of the right timestamps matching the left ones, or null if it cannot be expressed as a range
+     */
+    public TemporalIndexRange getTemporalIndexRange() {
+        return getOperator().isNegated() ? null : createTemporalIndexRange();
+    }
+
+    protected abstract TemporalIndexRange createTemporalIndexRange();
+
     protected abstract long getLeftTimestamp( FactHandle handle );
 
     protected abstract long getRightTimestamp( FactHandle handle );
@@ -27,6 +27,7 @@ import java.util.stream.Collectors;
 
 import org.drools.core.common.Storage;
 import org.drools.core.phreak.PhreakTimerNode.TimerNodeJob;
+import org.drools.core.reteoo.ExpirationQueue.ExpireQueueJob;
 import org.drools.core.reteoo.ObjectTypeNode.ExpireJob;
 import org.drools.core.time.impl.PseudoClockScheduler;
 import org.drools.core.time.impl.TimerJobInstance;
@@ -68,11 +69,11 @@ public class ReliablePseudoClockScheduler extends PseudoClockScheduler {
     }
 
     /**
-     * ExpireJob and TimerNodeJob are recreated by repropagate, so we don't need to persist
+     * ExpireJob, ExpireQueueJob and TimerNodeJob are recreated by repropagate, so we don't need to persist
      */
     public List<TimerJobInstance> createFilteredInternalQueueForPersistence(PriorityQueue<TimerJobInstance> queue) {
         return queue.stream()
-                    .filter(job -> !(job.getJob() instanceof ExpireJob || job.getJob() instanceof TimerNodeJob))
+                    .filter(job -> !(job.getJob() instanceof ExpireJob || job.getJob() instanceof ExpireQueueJob || job.getJob() instanceof TimerNodeJob))
                     .collect(Collectors.toList());
     }
 }
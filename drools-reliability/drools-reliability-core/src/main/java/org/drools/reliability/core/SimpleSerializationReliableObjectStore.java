@@ -78,7 +78,7 @@ public class SimpleSerializationReliableObjectStore extends IdentityObjectStore
 
         storage.clear();
 
-        if (session.getSessionConfiguration().getClockType() == ClockType.PSEUDO_CLOCK) {
+        if (session.getSessionConfiguration().getClockType().isPseudo()) {
             repropagateWithPseudoClock(session, ep, propagated);
         } else {
             repropagate(session, ep, propagated);
@@ -21,6 +21,7 @@ package org.drools.serialization.protobuf;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.security.InvalidKeyException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
@@ -64,6 +65,14 @@ import org.kie.api.marshalling.ObjectMarshallingStrategy.Context;
 
 public class PersisterHelper extends MarshallingHelper {
 
+    // frame types of a framed session, see ProtobufOutputMarshaller.writeSessionFrames
+    public static final int FRAME_END = 0;
+    public static final int FRAME_SESSION = 1;
+    public static final int FRAME_FACTS = 2;
+    public static final int FRAME_DELETED_FACTS = 3;
+    public static final int FRAME_TAIL = 4;
+    public static final int FRAME_SESSION_PART = 5;
+
     public static WorkingMemoryAction readWorkingMemoryAction( MarshallerReaderContext context) throws IOException {
         int type = context.readShort();
         switch ( type ) {
@@ -151,6 +160,33 @@ public class PersisterHelper extends MarshallingHelper {
     
     public static void writeToStreamWithHeader( MarshallerWriteContext context,
                                                 Message payload ) throws IOException {
+        context.write( createHeader( context, payload, true ).toByteArray() );
+    }
+
+    /**
+     * Writes one frame of a framed session: the frame type followed by a length delimited header
+     * carrying the payload and the strategies used by the objects in it. The used strategies are
+     * reset after each frame, so that every frame can be read on its own.
+     */
+    public static void writeFrameWithHeader( MarshallerWriteContext context,
+                                             int frameType,
+                                             Message payload ) throws IOException {
+        Header _header = createHeader( context, payload, frameType == FRAME_SESSION );
+        context.getUsedStrategies().clear();
+        context.getStrategyContext().clear();
+
+        OutputStream os = (OutputStream) context;
+        os.write( frameType );
+        _header.writeDelimitedTo( os );
+    }
+
+    public static void writeEndFrame( MarshallerWriteContext context ) throws IOException {
+        ((OutputStream) context).write( FRAME_END );
+    }
+
+    private static Header createHeader( MarshallerWriteContext context,
+                                        Message payload,
+                                        boolean withRuntimeDefinedClasses ) throws IOException {
         ProtobufMessages.Header.Builder _header = ProtobufMessages.Header.newBuilder();
         _header.setVersion( ProtobufMessages.Version.newBuilder()
                                             .setVersionMajor( Drools.getMajorVersion() )
@@ -161,7 +197,7 @@ public class PersisterHelper extends MarshallingHelper {
         writeStrategiesIndex( context, _header );
 
         InternalRuleBase kBase = context.getKnowledgeBase();
-        if (kBase != null) {
+        if (kBase != null && withRuntimeDefinedClasses) {
             TraitFactory traitFactory = RuntimeComponentFactory.get().getTraitFactory(kBase);
             if (traitFactory != null) {
                 writeRuntimeDefinedClasses(traitFactory, context, _header);
@@ -172,7 +208,7 @@ public class PersisterHelper extends MarshallingHelper {
         sign( _header, buff );
         _header.setPayload( ByteString.copyFrom( buff ) );
 
-        context.write( _header.build().toByteArray() );
+        return _header.build();
     }
 
     private static void writeRuntimeDefinedClasses( TraitFactory traitFactory, MarshallerWriteContext context, ProtobufMessages.Header.Builder _header) {
@@ -252,6 +288,34 @@ public class PersisterHelper extends MarshallingHelper {
         return loadStrategiesCheckSignature(context, _header);
     }
     
+    /**
+     * Returns the type of the next frame of a framed session, or FRAME_END when there are no more frames.
+     */
+    public static int readFrameType( MarshallerReaderContext context ) throws IOException {
+        int frameType = ((InputStream) context).read();
+        return frameType < 0 ? FRAME_END : frameType;
+    }
+
+    public static ProtobufMessages.Header readFrameHeader( MarshallerReaderContext context, ExtensionRegistry registry ) throws IOException {
+        return ProtobufMessages.Header.parseDelimitedFrom( (InputStream) context, registry );
+    }
+
+    /**
+     * Replaces the strategies of the given context with the ones of the frame and checks its signature.
+     * This has to be done right before reading the objects of the frame.
+     */
+    public static ProtobufMessages.Header loadFrameHeader( MarshallerReaderContext context, ProtobufMessages.Header _header ) throws IOException, ClassNotFoundException {
+        context.getUsedStrategies().clear();
+        context.getStrategyContexts().clear();
+
+        ClassLoader classLoader = context.getClassLoader() != null ? context.getClassLoader() :
+                                  context.getKnowledgeBase() != null ? context.getKnowledgeBase().getRootClassLoader() : null;
+        if ( classLoader instanceof ProjectClassLoader ) {
+            readRuntimeDefinedClasses( _header, (ProjectClassLoader) classLoader );
+        }
+        return loadStrategiesCheckSignature( context, _header );
+    }
+
     /* Method that preloads the source stream into a byte array to bypass the message size limitations in Protobuf unmarshalling.
        (Protobuf does not enforce a message size limit when unmarshalling from a byte array)
     */
@@ -83,6 +83,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -90,6 +91,7 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 /**
  * An input marshaller that uses protobuf. 
@@ -191,11 +193,310 @@ public class ProtobufInputMarshaller {
         return ProtobufMessages.KnowledgeSession.parseFrom( _header.getPayload(), registry );
     }
 
+    /**
+     * Reads a session written by ProtobufOutputMarshaller.writeSessionFrames, one frame at a time,
+     * followed by the given delta snapshots in the order they have been taken. A fact changed or
+     * deleted in a delta is only read from the most recent delta changing it, while the agenda,
+     * node memories and timers are taken from the most recent snapshot.
+     */
+    public static ReadSessionResult readSessionFrames( ProtobufMarshallerReaderContext context,
+                                                       List<ProtobufMarshallerReaderContext> deltaContexts,
+                                                       int id,
+                                                       Environment environment,
+                                                       SessionConfiguration config,
+                                                       KieSessionInitializer initializer) throws IOException, ClassNotFoundException {
+        ExtensionRegistry registry = PersisterHelper.buildRegistry( context, PROCESS_MARSHALLER );
+
+        // deltas only contain what changed since the previous snapshot, so they can be read upfront
+        List<List<SessionFrame>> deltas = new ArrayList<>();
+        Map<Long, Integer> lastChangingDelta = new HashMap<>();
+        for ( ProtobufMarshallerReaderContext deltaContext : deltaContexts ) {
+            List<SessionFrame> frames = new ArrayList<>();
+            for ( SessionFrame frame = readFrame( deltaContext, registry ); frame != null; frame = readFrame( deltaContext, registry ) ) {
+                if ( frame.entryPoint != null ) {
+                    for ( ProtobufMessages.FactHandle _handle : frame.entryPoint.getHandleList() ) {
+                        lastChangingDelta.put( _handle.getId(), deltas.size() );
+                    }
+                }
+                frames.add( frame );
+            }
+            deltas.add( frames );
+        }
+
+        SessionFrame sessionFrame = readFrame( context, registry );
+        if ( sessionFrame == null || sessionFrame.type != PersisterHelper.FRAME_SESSION ) {
+            throw new IllegalStateException( "Unable to unmarshall session, the stream does not start with a session frame" );
+        }
+        List<SessionFrame> sessionParts = new ArrayList<>();
+        SessionFrame tailFrame = readFrame( context, registry );
+        for ( ; tailFrame != null && tailFrame.type == PersisterHelper.FRAME_SESSION_PART; tailFrame = readFrame( context, registry ) ) {
+            sessionParts.add( tailFrame );
+        }
+        if ( !deltas.isEmpty() ) {
+            // the agenda and node memories are always taken from the most recent snapshot
+            List<SessionFrame> lastDelta = deltas.get( deltas.size() - 1 );
+            sessionFrame = lastDelta.get( 0 );
+            sessionParts.clear();
+            for ( SessionFrame frame : lastDelta ) {
+                if ( frame.type == PersisterHelper.FRAME_SESSION_PART ) {
+                    sessionParts.add( frame );
+                }
+            }
+        }
+        PersisterHelper.loadFrameHeader( context, sessionFrame.header );
+        ProtobufMessages.KnowledgeSession _session = sessionFrame.session;
+
+        StatefulKnowledgeSessionImpl session = createAndInitializeSession( context, id, environment, config, _session );
+        if (initializer != null) {
+            initializer.init( session );
+        }
+
+        readSessionHead( _session, session, context );
+        for ( SessionFrame frame : sessionParts ) {
+            readSessionPart( context, frame );
+        }
+
+        List<PropagationContext> pctxs = new ArrayList<>();
+
+        while ( tailFrame != null && tailFrame.type == PersisterHelper.FRAME_FACTS ) {
+            readFactHandlesFrame( context, tailFrame, pctxs, _handle -> !lastChangingDelta.containsKey( _handle.getId() ) );
+            tailFrame = readFrame( context, registry );
+        }
+        for ( int i = 0; i < deltas.size(); i++ ) {
+            final int delta = i;
+            for ( SessionFrame frame : deltas.get( i ) ) {
+                if ( frame.type == PersisterHelper.FRAME_FACTS ) {
+                    readFactHandlesFrame( context, frame, pctxs, _handle -> lastChangingDelta.get( _handle.getId() ) == delta );
+                } else if ( frame.type == PersisterHelper.FRAME_TAIL ) {
+                    tailFrame = frame;
+                }
+            }
+        }
+        if ( tailFrame == null || tailFrame.type != PersisterHelper.FRAME_TAIL ) {
+            throw new IllegalStateException( "Unable to unmarshall session, the stream is truncated" );
+        }
+
+        context.getWorkingMemory().getFactHandleFactory().doRecycleIds( context.getHandles().keySet() );
+
+        PersisterHelper.loadFrameHeader( context, tailFrame.header );
+        ProtobufMessages.KnowledgeSession _tail = tailFrame.session;
+        for ( ProtobufMessages.EntryPoint _ep : _tail.getRuleData().getEntryPointList() ) {
+            WorkingMemoryEntryPoint wmep = context.getWorkingMemory().getEntryPoint(_ep.getEntryPointId());
+            readTruthMaintenanceSystem( session, context, wmep, _ep, pctxs );
+        }
+
+        readSessionTail( _tail, session, session.getAgenda(), context, pctxs );
+
+        return new ReadSessionResult( session, _session );
+    }
+
+    /**
+     * Applies a delta written by ProtobufOutputMarshaller.writeSessionFrames to a live session, previously
+     * restored from an older snapshot of the same session, so that it can be kept as a standby replica and
+     * take over without being restored from scratch. Only the changed facts are propagated, reusing the node
+     * memories already built in the replica, and the matches fired by the original session since the previous
+     * snapshot are discarded instead of being fired again. The replica itself is never expected to fire rules.
+     * The whole delta is read and validated before changing the replica, so a rejected delta leaves it untouched.
+     */
+    public static void applySessionDelta( ProtobufMarshallerReaderContext context,
+                                          StatefulKnowledgeSessionImpl session ) throws IOException, ClassNotFoundException {
+        ExtensionRegistry registry = PersisterHelper.buildRegistry( context, PROCESS_MARSHALLER );
+
+        SessionFrame sessionFrame = readFrame( context, registry );
+        if ( sessionFrame == null || sessionFrame.type != PersisterHelper.FRAME_SESSION ) {
+            throw new IllegalStateException( "Unable to apply delta, the stream does not start with a session frame" );
+        }
+
+        List<SessionFrame> sessionParts = new ArrayList<>();
+        List<SessionFrame> factFrames = new ArrayList<>();
+        SessionFrame tailFrame = readFrame( context, registry );
+        for ( ; tailFrame != null && tailFrame.type != PersisterHelper.FRAME_TAIL; tailFrame = readFrame( context, registry ) ) {
+            if ( tailFrame.type == PersisterHelper.FRAME_SESSION_PART ) {
+                sessionParts.add( tailFrame );
+                continue;
+            }
+            if ( tailFrame.type != PersisterHelper.FRAME_DELETED_FACTS ) {
+                for ( ProtobufMessages.FactHandle _handle : tailFrame.entryPoint.getHandleList() ) {
+                    if ( _handle.getIsJustified() ) {
+                        throw new UnsupportedOperationException( "Unable to apply delta containing logically inserted facts, a full snapshot is required" );
+                    }
+                }
+            }
+            factFrames.add( tailFrame );
+        }
+        if ( tailFrame == null ) {
+            throw new IllegalStateException( "Unable to apply delta, the stream is truncated" );
+        }
+
+        PersisterHelper.loadFrameHeader( context, sessionFrame.header );
+        RuleData _ruleData = sessionFrame.session.getRuleData();
+
+        context.setWorkingMemory( session );
+        InternalAgenda agenda = session.getAgenda();
+        readActivations( context, _ruleData.getAgenda().getMatchList(), _ruleData.getAgenda().getRuleActivationList() );
+        for ( SessionFrame frame : sessionParts ) {
+            PersisterHelper.loadFrameHeader( context, frame.header );
+            ProtobufMessages.Agenda _agenda = frame.session.getRuleData().getAgenda();
+            readActivations( context, _agenda.getMatchList(), _agenda.getRuleActivationList() );
+        }
+        agenda.setActivationsFilter( context.getFilter() );
+
+        for ( EntryPoint ep : session.getEntryPoints() ) {
+            for ( Iterator<InternalFactHandle> it = ((NamedEntryPoint) ep).getObjectStore().iterateFactHandles(); it.hasNext(); ) {
+                InternalFactHandle handle = it.next();
+                context.getHandles().put( handle.getId(), handle );
+            }
+        }
+
+        List<PropagationContext> pctxs = new ArrayList<>();
+        Set<Long> insertedIds = new HashSet<>();
+        for ( SessionFrame frame : factFrames ) {
+            PersisterHelper.loadFrameHeader( context, frame.header );
+            WorkingMemoryEntryPoint wmep = session.getEntryPoint( frame.entryPoint.getEntryPointId() );
+            for ( ProtobufMessages.FactHandle _handle : frame.entryPoint.getHandleList() ) {
+                InternalFactHandle existing = context.getHandles().get( _handle.getId() );
+                if ( frame.type == PersisterHelper.FRAME_DELETED_FACTS ) {
+                    if ( existing != null ) {
+                        wmep.delete( existing );
+                    }
+                } else if ( existing != null ) {
+                    wmep.update( existing, readFactObject( context, _handle ) );
+                    existing.setRecency( _handle.getRecency() );
+                } else {
+                    InternalFactHandle handle = readFactHandle( context, wmep, _handle );
+                    context.getHandles().put( handle.getId(), handle );
+                    insertedIds.add( handle.getId() );
+                    wmep.getObjectStore().addHandle( handle, handle.getObject() );
+                    assertHandleIntoOTN( context, session, handle, pctxs );
+                }
+            }
+        }
+
+        session.getFactHandleFactory().clear( _ruleData.getLastId(), _ruleData.getLastRecency() );
+
+        // the timer nodes reached by the changes have to be evaluated before correlating them with the timers
+        for ( RuleAgendaItem rai : new ArrayList<>( agenda.getAgendaGroupsManager().getActivations() ) ) {
+            rai.getRuleExecutor().evaluateNetworkIfDirty( session );
+        }
+        PersisterHelper.loadFrameHeader( context, tailFrame.header );
+        readDeltaTimers( context, tailFrame.session, insertedIds );
+
+        if ( session.getTimerService() instanceof PseudoClockScheduler ) {
+            PseudoClockScheduler clock = (PseudoClockScheduler) session.getTimerService();
+            long elapsed = sessionFrame.session.getTime() - clock.getCurrentTime();
+            if ( elapsed > 0 ) {
+                clock.advanceTime( elapsed, TimeUnit.MILLISECONDS );
+            }
+        }
+
+        // evaluate the changes and drop the matches already fired by the original session, including
+        // the ones created by a previous delta and still queued
+        for ( RuleAgendaItem rai : new ArrayList<>( agenda.getAgendaGroupsManager().getActivations() ) ) {
+            RuleExecutor ruleExecutor = rai.getRuleExecutor();
+            ruleExecutor.evaluateNetworkIfDirty( session );
+            for ( Tuple tuple : ruleExecutor.getLeftTupleList().toArray() ) {
+                if ( !context.getFilter().accept( (InternalMatch) tuple ) ) {
+                    ruleExecutor.removeLeftTuple( tuple );
+                }
+            }
+            ruleExecutor.removeRuleAgendaItemWhenEmpty( session );
+        }
+        cleanReaderContexts( pctxs );
+
+        agenda.setActivationsFilter( null );
+    }
+
+    /**
+     * The timers of a delta are all the ones pending in the original session. The facts already in the replica
+     * had their expirations scheduled when they were restored or inserted by a previous delta, so only the ones of
+     * the facts inserted by this delta are read. Timer node timers are only matched against the timer nodes reached
+     * by this delta, any other timer node reached without a pending timer in the original session is scheduled anew.
+     */
+    private static void readDeltaTimers( ProtobufMarshallerReaderContext context,
+                                         ProtobufMessages.KnowledgeSession _tail,
+                                         Set<Long> insertedIds ) {
+        if ( _tail.hasTimers() ) {
+            for ( ProtobufMessages.Timers.Timer _timer : _tail.getTimers().getTimerList() ) {
+                if ( _timer.getType() != ProtobufMessages.Timers.TimerType.EXPIRE || insertedIds.contains( _timer.getExpire().getHandleId() ) ) {
+                    readTimer( context, _timer );
+                }
+            }
+        }
+        scheduleLeftOverTimerNodeTimers( context );
+    }
+
+    private static SessionFrame readFrame( ProtobufMarshallerReaderContext context,
+                                           ExtensionRegistry registry ) throws IOException {
+        int type = PersisterHelper.readFrameType( context );
+        if ( type == PersisterHelper.FRAME_END ) {
+            return null;
+        }
+        return new SessionFrame( type, PersisterHelper.readFrameHeader( context, registry ), registry );
+    }
+
+    /**
+     * Reads the matches and node memories that follow the session frame, which have to be known before
+     * the fact handles are read and propagated.
+     */
+    private static void readSessionPart( ProtobufMarshallerReaderContext context,
+                                         SessionFrame frame ) throws IOException, ClassNotFoundException {
+        PersisterHelper.loadFrameHeader( context, frame.header );
+        RuleData _ruleData = frame.session.getRuleData();
+        readActivations( context, _ruleData.getAgenda().getMatchList(), _ruleData.getAgenda().getRuleActivationList() );
+        readNodeMemories( context, _ruleData );
+    }
+
+    private static void readFactHandlesFrame( ProtobufMarshallerReaderContext context,
+                                              SessionFrame frame,
+                                              List<PropagationContext> pctxs,
+                                              Predicate<ProtobufMessages.FactHandle> filter ) throws IOException, ClassNotFoundException {
+        PersisterHelper.loadFrameHeader( context, frame.header );
+        WorkingMemoryEntryPoint wmep = context.getWorkingMemory().getEntryPoint(frame.entryPoint.getEntryPointId());
+        readFactHandles( context, frame.entryPoint, wmep.getObjectStore(), pctxs, filter );
+    }
+
+    private static class SessionFrame {
+        private final int type;
+        private final ProtobufMessages.Header header;
+        private final ProtobufMessages.KnowledgeSession session;
+        private final ProtobufMessages.EntryPoint entryPoint;
+
+        private SessionFrame( int type, ProtobufMessages.Header header, ExtensionRegistry registry ) throws IOException {
+            this.type = type;
+            this.header = header;
+            boolean factsFrame = type == PersisterHelper.FRAME_FACTS || type == PersisterHelper.FRAME_DELETED_FACTS;
+            this.session = factsFrame ? null : ProtobufMessages.KnowledgeSession.parseFrom( header.getPayload(), registry );
+            this.entryPoint = factsFrame ? ProtobufMessages.EntryPoint.parseFrom( header.getPayload(), registry ) : null;
+        }
+    }
+
     public static StatefulKnowledgeSessionImpl readSession( ProtobufMessages.KnowledgeSession _session,
                                                             StatefulKnowledgeSessionImpl session,
                                                             InternalAgenda agenda,
                                                             ProtobufMarshallerReaderContext context) throws IOException,
                                                                                     ClassNotFoundException {
+        readSessionHead( _session, session, context );
+
+        List<PropagationContext> pctxs = new ArrayList<>();
+
+        for ( ProtobufMessages.EntryPoint _ep : _session.getRuleData().getEntryPointList() ) {
+            WorkingMemoryEntryPoint wmep = context.getWorkingMemory().getEntryPoint(_ep.getEntryPointId());
+            readFactHandles( context, _ep, wmep.getObjectStore(), pctxs );
+
+            context.getWorkingMemory().getFactHandleFactory().doRecycleIds( context.getHandles().keySet() );
+
+            readTruthMaintenanceSystem( session, context, wmep, _ep, pctxs );
+
+        }
+
+        readSessionTail( _session, session, agenda, context, pctxs );
+
+        return session;
+    }
+
+    private static void readSessionHead( ProtobufMessages.KnowledgeSession _session,
+                                         StatefulKnowledgeSessionImpl session,
+                                         ProtobufMarshallerReaderContext context) {
         GlobalResolver globalResolver = (GlobalResolver) context.env.get( EnvironmentName.GLOBALS );
         if ( globalResolver != null ) {
             session.setGlobalResolver( globalResolver );
@@ -214,23 +515,18 @@ public class ProtobufInputMarshaller {
         readNodeMemories( context,
                           _session.getRuleData() );
 
-        List<PropagationContext> pctxs = new ArrayList<>();
-
         if ( _session.getRuleData().hasInitialFact() ) {
             session.setInitialFactHandle( session.initInitialFact(context) );
             context.getHandles().put( session.getInitialFactHandle().getId(), session.getInitialFactHandle() );
         }
+    }
 
-        for ( ProtobufMessages.EntryPoint _ep : _session.getRuleData().getEntryPointList() ) {
-            WorkingMemoryEntryPoint wmep = context.getWorkingMemory().getEntryPoint(_ep.getEntryPointId());
-            readFactHandles( context, _ep, wmep.getObjectStore(), pctxs );
-
-            context.getWorkingMemory().getFactHandleFactory().doRecycleIds( context.getHandles().keySet() );
-
-            readTruthMaintenanceSystem( session, context, wmep, _ep, pctxs );
-
-        }
-
+    private static void readSessionTail( ProtobufMessages.KnowledgeSession _session,
+                                         StatefulKnowledgeSessionImpl session,
+                                         InternalAgenda agenda,
+                                         ProtobufMarshallerReaderContext context,
+                                         List<PropagationContext> pctxs) throws IOException,
+                                                                           ClassNotFoundException {
         context.getFilter().evaluateRNEAs( context.getWorkingMemory() );
         cleanReaderContexts( pctxs );
         context.getWorkingMemory().getFactHandleFactory().stopRecycleIds();
@@ -263,6 +559,15 @@ public class ProtobufInputMarshaller {
         }
 
         // need to process any eventual left over timer node timers
+        scheduleLeftOverTimerNodeTimers( context );
+
+        context.getFilter().removeEmptyRNEAs( context.getWorkingMemory() );
+
+        // remove the activations filter
+        agenda.setActivationsFilter( null );
+    }
+
+    private static void scheduleLeftOverTimerNodeTimers( ProtobufMarshallerReaderContext context ) {
         if ( ! context.timerNodeSchedulers.isEmpty() ) {
             for ( Map<TupleKey, Scheduler> schedulers : context.timerNodeSchedulers.values() ) {
                 for ( Scheduler scheduler : schedulers.values() ) {
@@ -271,13 +576,6 @@ public class ProtobufInputMarshaller {
             }
             context.timerNodeSchedulers.clear();
         }
-
-        context.getFilter().removeEmptyRNEAs( context.getWorkingMemory() );
-
-        // remove the activations filter
-        agenda.setActivationsFilter( null );
-
-        return session;
     }
 
     private static void readNodeMemories( ProtobufMarshallerReaderContext context,
@@ -405,12 +703,24 @@ public class ProtobufInputMarshaller {
                                         ObjectStore objectStore,
                                         List<PropagationContext> pctxs) throws IOException,
                                                                           ClassNotFoundException {
+        readFactHandles( context, _ep, objectStore, pctxs, _handle -> true );
+    }
+
+    private static void readFactHandles( ProtobufMarshallerReaderContext context,
+                                         ProtobufMessages.EntryPoint _ep,
+                                         ObjectStore objectStore,
+                                         List<PropagationContext> pctxs,
+                                         Predicate<ProtobufMessages.FactHandle> filter) throws IOException,
+                                                                                          ClassNotFoundException {
         InternalWorkingMemory wm = context.getWorkingMemory();
 
         EntryPoint entryPoint = context.getWorkingMemory().getEntryPoint(_ep.getEntryPointId());
         
         // load the handles
         for ( ProtobufMessages.FactHandle _handle : _ep.getHandleList() ) {
+            if ( !filter.test( _handle ) ) {
+                continue;
+            }
             InternalFactHandle handle = readFactHandle( context, entryPoint, _handle );
 
             context.getHandles().put( handle.getId(), handle );
@@ -463,15 +773,7 @@ public class ProtobufInputMarshaller {
                                                      EntryPoint entryPoint,
                                                      FactHandle _handle) throws IOException,
                                                                        ClassNotFoundException {
-        Object object = null;
-        ObjectMarshallingStrategy strategy = null;
-        if ( _handle.hasStrategyIndex() ) {
-            strategy = context.getUsedStrategies().get( _handle.getStrategyIndex() );
-            object = strategy.unmarshal( context.getStrategyContexts().get( strategy ),
-                                         context,
-                                         _handle.getObject().toByteArray(),
-                                         (context.getKnowledgeBase() == null) ? null : context.getKnowledgeBase().getRootClassLoader() );
-        }
+        Object object = readFactObject( context, _handle );
 
 
         InternalFactHandle handle;
@@ -509,6 +811,19 @@ public class ProtobufInputMarshaller {
         return handle;
     }
 
+    private static Object readFactObject( ProtobufMarshallerReaderContext context,
+                                          FactHandle _handle) throws IOException,
+                                                            ClassNotFoundException {
+        if ( !_handle.hasStrategyIndex() ) {
+            return null;
+        }
+        ObjectMarshallingStrategy strategy = context.getUsedStrategies().get( _handle.getStrategyIndex() );
+        return strategy.unmarshal( context.getStrategyContexts().get( strategy ),
+                                   context,
+                                   _handle.getObject().toByteArray(),
+                                   (context.getKnowledgeBase() == null) ? null : context.getKnowledgeBase().getRootClassLoader() );
+    }
+
     public static void readTruthMaintenanceSystem( StatefulKnowledgeSessionImpl session,
                                                    ProtobufMarshallerReaderContext context,
                                                    EntryPoint wmep,
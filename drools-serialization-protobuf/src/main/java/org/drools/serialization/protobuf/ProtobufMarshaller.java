@@ -21,7 +21,9 @@ package org.drools.serialization.protobuf;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.drools.core.RuleBaseConfiguration;
@@ -125,6 +127,96 @@ public class ProtobufMarshaller
         context.close();
     }
 
+    /**
+     * Writes the session as a sequence of frames of at most frameSize fact handles, matches or node
+     * memories each, without building the whole session in memory. When a change tracker is attached
+     * to the session it is cleared while the session is locked, so that the next delta will be relative
+     * to this snapshot.
+     */
+    public void marshallFrames(final OutputStream stream,
+                               final KieSession ksession,
+                               final int frameSize,
+                               final SessionChangeTracker tracker) throws IOException {
+        ProtobufMarshallerWriteContext context = getMarshallerWriteContext( stream, ksession );
+        ProtobufOutputMarshaller.writeSessionFrames( context, frameSize, tracker, false );
+        context.close();
+    }
+
+    /**
+     * Writes a delta snapshot containing only the facts changed or deleted since the last snapshot
+     * taken with the given tracker, and clears it.
+     */
+    public void marshallDelta(final OutputStream stream,
+                              final KieSession ksession,
+                              final int frameSize,
+                              final SessionChangeTracker tracker) throws IOException {
+        ProtobufMarshallerWriteContext context = getMarshallerWriteContext( stream, ksession );
+        ProtobufOutputMarshaller.writeSessionFrames( context, frameSize, tracker, true );
+        context.close();
+    }
+
+    /**
+     * Reads a session written with marshallFrames, applying the given delta snapshots in the order they have been taken.
+     */
+    public StatefulKnowledgeSession unmarshallFrames(final InputStream stream,
+                                                     final List<InputStream> deltas,
+                                                     KieSessionConfiguration config,
+                                                     Environment environment) throws IOException, ClassNotFoundException {
+        if ( config == null ) {
+            config = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        }
+
+        if ( environment == null ) {
+            environment = KieServices.get().newEnvironment();
+        }
+
+        ProtobufMarshallerReaderContext context = getMarshallerReaderContext(stream, environment);
+        List<ProtobufMarshallerReaderContext> deltaContexts = new ArrayList<>();
+        for ( InputStream delta : deltas ) {
+            deltaContexts.add( getMarshallerReaderContext(delta, environment) );
+        }
+        int id = ((InternalKnowledgeBase) this.kbase).nextWorkingMemoryCounter();
+        ReadSessionResult readSessionResult = ProtobufInputMarshaller.readSessionFrames(context,
+                                                                                        deltaContexts,
+                                                                                        id,
+                                                                                        environment,
+                                                                                        config.as(SessionConfiguration.KEY),
+                                                                                        initializer);
+        context.close();
+        for ( ProtobufMarshallerReaderContext deltaContext : deltaContexts ) {
+            deltaContext.close();
+        }
+        if ( (config.as(SessionConfiguration.KEY)).isKeepReference() ) {
+            ((InternalKnowledgeBase) this.kbase).addStatefulSession(readSessionResult.getSession());
+        }
+        return readSessionResult.getSession();
+    }
+
+    /**
+     * Applies a delta written with marshallDelta to a standby replica of the original session, restored
+     * from one of its previous snapshots, without restoring the replica again.
+     */
+    public void applyDelta(final InputStream delta,
+                           final KieSession replica) throws IOException, ClassNotFoundException {
+        ProtobufMarshallerReaderContext context = getMarshallerReaderContext(delta, replica.getEnvironment());
+        ProtobufInputMarshaller.applySessionDelta(context, (StatefulKnowledgeSessionImpl) replica);
+        context.close();
+    }
+
+    private ProtobufMarshallerWriteContext getMarshallerWriteContext(final OutputStream stream, final KieSession ksession) throws IOException {
+        ((InternalWorkingMemory) ksession).flushPropagations();
+        ProtobufMarshallerWriteContext context = new ProtobufMarshallerWriteContext( stream,
+                                                                                     (InternalKnowledgeBase) kbase,
+                                                                                     (InternalWorkingMemory) ksession,
+                                                                                     RuleBaseNodes.getNodeMap( (InternalKnowledgeBase) kbase),
+                                                                                     this.strategyStore,
+                                                                                     this.marshallingConfig.isMarshallProcessInstances(),
+                                                                                     this.marshallingConfig.isMarshallWorkItems(),
+                                                                                     ksession.getEnvironment() );
+        context.setClockTime( ksession.getSessionClock().getCurrentTime() );
+        return context;
+    }
+
     public MarshallingConfiguration getMarshallingConfiguration() {
         return marshallingConfig;
     }
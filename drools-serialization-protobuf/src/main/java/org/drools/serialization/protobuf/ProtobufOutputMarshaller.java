@@ -34,7 +34,6 @@ import org.drools.core.common.InternalAgendaGroup;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.Memory;
-import org.drools.core.common.NodeMemories;
 import org.drools.core.common.ObjectStore;
 import org.drools.core.common.ObjectTypeConfigurationRegistry;
 import org.drools.core.common.QueryElementFactHandle;
@@ -46,6 +45,7 @@ import org.drools.core.phreak.PropagationEntry;
 import org.drools.core.phreak.RuleAgendaItem;
 import org.drools.core.process.WorkItem;
 import org.drools.core.reteoo.AbstractTuple;
+import org.drools.core.reteoo.ExpirationQueue;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.ObjectTypeConf;
 import org.drools.core.reteoo.ObjectTypeNode;
@@ -86,12 +86,14 @@ import org.kie.api.runtime.rule.EntryPoint;
 
 import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -122,12 +124,7 @@ public class ProtobufOutputMarshaller {
         StatefulKnowledgeSessionImpl wm = (StatefulKnowledgeSessionImpl) context.getWorkingMemory();
 
         try {
-            wm.getLock().lock();
-            for (EntryPoint ep : wm.getEntryPoints()) {
-                if (ep instanceof NamedEntryPoint) {
-                    ((NamedEntryPoint)ep).lock();
-                }
-            }
+            lockSession( wm );
 
             evaluateRuleActivations( wm );
 
@@ -207,15 +204,248 @@ public class ProtobufOutputMarshaller {
 
             return _session.build();
         } finally {
-            for (EntryPoint ep : wm.getEntryPoints()) {
-                if (ep instanceof NamedEntryPoint) {
-                    ((NamedEntryPoint)ep).unlock();
+            unlockSession( wm );
+        }
+    }
+
+    /**
+     * Writes the session as a sequence of bounded size frames instead of a single message, so that
+     * the whole session never needs to be held in memory. The first frame contains the agenda groups
+     * and the entry points, followed by the matches and node memories in frames of at most frameSize
+     * entries, by the fact handles in frames of at most frameSize handles, and by a last frame with
+     * truth maintenance, action queue, process data and timers.
+     *
+     * When delta is true only the fact handles changed or deleted since the given tracker was last
+     * cleared are written, producing a delta that has to be read on top of the previous snapshots.
+     * The tracker is cleared while the session is locked, so that no change can be lost between two
+     * snapshots.
+     */
+    public static void writeSessionFrames( ProtobufMarshallerWriteContext context,
+                                           int frameSize,
+                                           SessionChangeTracker tracker,
+                                           boolean delta ) throws IOException {
+        StatefulKnowledgeSessionImpl wm = (StatefulKnowledgeSessionImpl) context.getWorkingMemory();
+
+        SessionChangeTracker.ChangeSet changes = null;
+        try {
+            lockSession( wm );
+
+            if ( tracker != null ) {
+                changes = tracker.takeChanges();
+            }
+
+            evaluateRuleActivations( wm );
+
+            ProtobufMessages.RuleData.Builder _ruleData = ProtobufMessages.RuleData.newBuilder();
+            _ruleData.setLastId( wm.getFactHandleFactory().getId() );
+            _ruleData.setLastRecency( wm.getFactHandleFactory().getRecency() );
+
+            InternalFactHandle handle = wm.getInitialFactHandle();
+            if ( handle != null ) {
+                _ruleData.setInitialFact( ProtobufMessages.FactHandle.newBuilder()
+                                                  .setType( ProtobufMessages.FactHandle.HandleType.INITIAL_FACT )
+                                                  .setId( handle.getId() )
+                                                  .setRecency( handle.getRecency() )
+                                                  .build() );
+            }
+
+            _ruleData.setAgenda( writeAgendaGroups( wm.getAgenda() ).build() );
+
+            for ( EntryPoint wmep : wm.getEntryPoints() ) {
+                ProtobufMessages.EntryPoint.Builder _epb = ProtobufMessages.EntryPoint.newBuilder();
+                _epb.setEntryPointId( wmep.getEntryPointId() );
+                writeObjectTypeConfiguration( ((WorkingMemoryEntryPoint)wmep).getObjectTypeConfigurationRegistry(), _epb );
+                _ruleData.addEntryPoint( _epb.build() );
+            }
+
+            long time = 0;
+            if ( wm.getTimerService() instanceof PseudoClockScheduler ) {
+                time = context.getClockTime();
+            }
+
+            PersisterHelper.writeFrameWithHeader( context,
+                                                  PersisterHelper.FRAME_SESSION,
+                                                  ProtobufMessages.KnowledgeSession.newBuilder()
+                                                          .setMultithread( false )
+                                                          .setTime( time )
+                                                          .setRuleData( _ruleData.build() )
+                                                          .build() );
+
+            writeAgendaFrames( context, frameSize );
+            writeNodeMemoryFrames( context, frameSize );
+
+            if ( !delta ) {
+                for ( EntryPoint wmep : wm.getEntryPoints() ) {
+                    writeFactHandleFrames( context, wmep.getEntryPointId(), ((NamedEntryPoint) wmep).getObjectStore().iterateFactHandles(), frameSize );
                 }
+            } else {
+                writeChangedFactHandleFrames( context, changes, frameSize );
             }
-            wm.getLock().unlock();
+
+            ProtobufMessages.RuleData.Builder _tailData = ProtobufMessages.RuleData.newBuilder();
+            for ( EntryPoint wmep : wm.getEntryPoints() ) {
+                ProtobufMessages.EntryPoint.Builder _epb = ProtobufMessages.EntryPoint.newBuilder();
+                _epb.setEntryPointId( wmep.getEntryPointId() );
+                writeTruthMaintenanceSystem( context, wmep, _epb );
+                _tailData.addEntryPoint( _epb.build() );
+            }
+
+            writeActionQueue( context, _tailData );
+
+            ProtobufMessages.KnowledgeSession.Builder _tail = ProtobufMessages.KnowledgeSession.newBuilder()
+                    .setRuleData( _tailData.build() );
+
+            if ( processMarshaller != null ) {
+                ProtobufMessages.ProcessData.Builder _pdata = ProtobufMessages.ProcessData.newBuilder();
+                if ( context.isMarshalProcessInstances() ) {
+                    context.setParameterObject( _pdata );
+                    processMarshaller.writeProcessInstances( context );
+                }
+
+                if ( context.isMarshalWorkItems() ) {
+                    context.setParameterObject( _pdata );
+                    processMarshaller.writeWorkItems( context );
+                }
+
+                context.setParameterObject( _pdata );
+                processMarshaller.writeProcessTimers( context );
+
+                _tail.setProcessData( _pdata.build() );
+            }
+
+            ProtobufMessages.Timers _timers = writeTimers( wm.getTimerJobInstances( wm.getIdentifier() ), context );
+            if ( _timers != null ) {
+                _tail.setTimers( _timers );
+            }
+
+            PersisterHelper.writeFrameWithHeader( context, PersisterHelper.FRAME_TAIL, _tail.build() );
+            PersisterHelper.writeEndFrame( context );
+            // flush while still locked, so that a failed write gives the changes back to the tracker
+            ((OutputStream) context).flush();
+        } catch ( IOException | RuntimeException e ) {
+            if ( changes != null ) {
+                tracker.restoreChanges( changes );
+            }
+            throw e;
+        } finally {
+            unlockSession( wm );
         }
     }
 
+    private static void writeAgendaFrames( MarshallerWriteContext context,
+                                           int frameSize ) throws IOException {
+        ProtobufMessages.Agenda.Builder _ab = ProtobufMessages.Agenda.newBuilder();
+        for ( InternalMatch internalMatch : getDormantMatches( context.getWorkingMemory() ) ) {
+            _ab.addMatch( writeActivation( context, internalMatch, true ) );
+            if ( _ab.getMatchCount() == frameSize ) {
+                writeSessionPartFrame( context, ProtobufMessages.RuleData.newBuilder().setAgenda( _ab ) );
+                _ab.clearMatch();
+            }
+        }
+        for ( RuleAgendaItem activation : context.getWorkingMemory().getAgenda().getAgendaGroupsManager().getActivations() ) {
+            _ab.addRuleActivation( writeActivation( context, activation ) );
+            if ( _ab.getMatchCount() + _ab.getRuleActivationCount() == frameSize ) {
+                writeSessionPartFrame( context, ProtobufMessages.RuleData.newBuilder().setAgenda( _ab ) );
+                _ab.clearMatch().clearRuleActivation();
+            }
+        }
+        if ( _ab.getMatchCount() + _ab.getRuleActivationCount() > 0 ) {
+            writeSessionPartFrame( context, ProtobufMessages.RuleData.newBuilder().setAgenda( _ab ) );
+        }
+    }
+
+    private static void writeNodeMemoryFrames( MarshallerWriteContext context,
+                                               int frameSize ) throws IOException {
+        ProtobufMessages.RuleData.Builder _ruleData = ProtobufMessages.RuleData.newBuilder();
+        for ( BaseNode baseNode : context.getSinks().values() ) {
+            ProtobufMessages.NodeMemory _node = writeNodeMemory( context.getWorkingMemory(), baseNode );
+            if ( _node != null ) {
+                _ruleData.addNodeMemory( _node );
+                if ( _ruleData.getNodeMemoryCount() == frameSize ) {
+                    writeSessionPartFrame( context, _ruleData );
+                    _ruleData.clearNodeMemory();
+                }
+            }
+        }
+        if ( _ruleData.getNodeMemoryCount() > 0 ) {
+            writeSessionPartFrame( context, _ruleData );
+        }
+    }
+
+    private static void writeSessionPartFrame( MarshallerWriteContext context,
+                                               ProtobufMessages.RuleData.Builder _ruleData ) throws IOException {
+        PersisterHelper.writeFrameWithHeader( context,
+                                              PersisterHelper.FRAME_SESSION_PART,
+                                              ProtobufMessages.KnowledgeSession.newBuilder()
+                                                      .setRuleData( _ruleData.build() )
+                                                      .build() );
+    }
+
+    private static void writeFactHandleFrames( MarshallerWriteContext context,
+                                               String entryPointId,
+                                               Iterator<InternalFactHandle> handles,
+                                               int frameSize ) throws IOException {
+        ObjectMarshallingStrategyStore objectMarshallingStrategyStore = context.getObjectMarshallingStrategyStore();
+
+        ProtobufMessages.EntryPoint.Builder _epb = ProtobufMessages.EntryPoint.newBuilder().setEntryPointId( entryPointId );
+        while ( handles.hasNext() ) {
+            _epb.addHandle( writeFactHandle( context, objectMarshallingStrategyStore, handles.next() ) );
+            if ( _epb.getHandleCount() == frameSize ) {
+                PersisterHelper.writeFrameWithHeader( context, PersisterHelper.FRAME_FACTS, _epb.build() );
+                _epb.clearHandle();
+            }
+        }
+        if ( _epb.getHandleCount() > 0 ) {
+            PersisterHelper.writeFrameWithHeader( context, PersisterHelper.FRAME_FACTS, _epb.build() );
+        }
+    }
+
+    private static void writeChangedFactHandleFrames( MarshallerWriteContext context,
+                                                      SessionChangeTracker.ChangeSet changes,
+                                                      int frameSize ) throws IOException {
+        Map<String, List<InternalFactHandle>> changedByEntryPoint = new HashMap<>();
+        for ( InternalFactHandle handle : changes.getChangedHandles() ) {
+            changedByEntryPoint.computeIfAbsent( handle.getEntryPointName(), k -> new ArrayList<>() ).add( handle );
+        }
+        for ( Map.Entry<String, List<InternalFactHandle>> entry : changedByEntryPoint.entrySet() ) {
+            writeFactHandleFrames( context, entry.getKey(), entry.getValue().iterator(), frameSize );
+        }
+
+        Map<String, ProtobufMessages.EntryPoint.Builder> deletedByEntryPoint = new HashMap<>();
+        for ( Map.Entry<Long, String> deleted : changes.getDeletedHandles().entrySet() ) {
+            ProtobufMessages.EntryPoint.Builder _epb = deletedByEntryPoint.computeIfAbsent( deleted.getValue(),
+                                                                                            k -> ProtobufMessages.EntryPoint.newBuilder().setEntryPointId( k ) );
+            _epb.addHandle( ProtobufMessages.FactHandle.newBuilder().setId( deleted.getKey() ).build() );
+            if ( _epb.getHandleCount() == frameSize ) {
+                PersisterHelper.writeFrameWithHeader( context, PersisterHelper.FRAME_DELETED_FACTS, _epb.build() );
+                _epb.clearHandle();
+            }
+        }
+        for ( ProtobufMessages.EntryPoint.Builder _epb : deletedByEntryPoint.values() ) {
+            if ( _epb.getHandleCount() > 0 ) {
+                PersisterHelper.writeFrameWithHeader( context, PersisterHelper.FRAME_DELETED_FACTS, _epb.build() );
+            }
+        }
+    }
+
+    private static void lockSession( StatefulKnowledgeSessionImpl wm ) {
+        wm.getLock().lock();
+        for (EntryPoint ep : wm.getEntryPoints()) {
+            if (ep instanceof NamedEntryPoint) {
+                ((NamedEntryPoint)ep).lock();
+            }
+        }
+    }
+
+    private static void unlockSession( StatefulKnowledgeSessionImpl wm ) {
+        for (EntryPoint ep : wm.getEntryPoints()) {
+            if (ep instanceof NamedEntryPoint) {
+                ((NamedEntryPoint)ep).unlock();
+            }
+        }
+        wm.getLock().unlock();
+    }
+
     private static void writeObjectTypeConfiguration( ObjectTypeConfigurationRegistry otcr,
     		                                          ProtobufMessages.EntryPoint.Builder _epb) {
         
@@ -261,6 +491,23 @@ public class ProtobufOutputMarshaller {
         InternalWorkingMemory wm = context.getWorkingMemory();
         InternalAgenda agenda = wm.getAgenda();
 
+        ProtobufMessages.Agenda.Builder _ab = writeAgendaGroups( agenda );
+
+        // serialize all dormant activations
+        for ( InternalMatch internalMatch : getDormantMatches( wm ) ) {
+            _ab.addMatch( writeActivation(context, internalMatch, true));
+        }
+
+        // serialize all network evaluator activations
+        for ( RuleAgendaItem activation : agenda.getAgendaGroupsManager().getActivations() ) {
+            // serialize it
+            _ab.addRuleActivation( writeActivation( context, activation) );
+        }
+
+        _ksb.setAgenda( _ab.build() );
+    }
+
+    private static ProtobufMessages.Agenda.Builder writeAgendaGroups( InternalAgenda agenda ) {
         ProtobufMessages.Agenda.Builder _ab = ProtobufMessages.Agenda.newBuilder();
 
         InternalAgendaGroup[] agendaGroups = agenda.getAgendaGroupsManager().getAgendaGroupsMap().values().toArray( new InternalAgendaGroup[agenda.getAgendaGroupsManager().getAgendaGroupsMap().size()] );
@@ -298,7 +545,10 @@ public class ProtobufOutputMarshaller {
         }
         _ab.setFocusStack( _fsb.build() );
 
-        // serialize all dormant activations
+        return _ab;
+    }
+
+    private static List<InternalMatch> getDormantMatches( InternalWorkingMemory wm ) {
         org.drools.core.util.Iterator it = ActivationIterator.iterator( wm );
         List<InternalMatch> dormant = new ArrayList<>();
         for (InternalMatch item = (InternalMatch) it.next(); item != null; item = (InternalMatch) it.next() ) {
@@ -308,41 +558,33 @@ public class ProtobufOutputMarshaller {
         }
 
         Collections.sort( dormant, ActivationsSorter.INSTANCE );
-        for ( InternalMatch internalMatch : dormant ) {
-            _ab.addMatch( writeActivation(context, internalMatch, true));
-        }
-
-        // serialize all network evaluator activations
-        for ( RuleAgendaItem activation : agenda.getAgendaGroupsManager().getActivations() ) {
-            // serialize it
-            _ab.addRuleActivation( writeActivation( context, activation) );
-        }
-
-        _ksb.setAgenda( _ab.build() );
+        return dormant;
     }
 
     private static void writeNodeMemories( MarshallerWriteContext context,
                                            ProtobufMessages.RuleData.Builder _ksb) throws IOException {
-        InternalWorkingMemory wm = context.getWorkingMemory();
-        NodeMemories memories = wm.getNodeMemories();
         // only some of the node memories require special serialization handling
         // so we iterate over all of them and process only those that require it
         for (BaseNode baseNode : context.getSinks().values()) {
-            Memory memory = memories.peekNodeMemory( baseNode );
-            if ( memory != null ) {
-                ProtobufMessages.NodeMemory _node = null;
-                switch ( memory.getNodeType() ) {
-                    case NodeTypeEnums.QueryElementNode: {
-                        _node = writeQueryElementNodeMemory( baseNode.getId(), memory, wm );
-                        break;
-                    }
-                }
-                if ( _node != null ) {
-                    // not all node memories require serialization
-                    _ksb.addNodeMemory( _node );
+            ProtobufMessages.NodeMemory _node = writeNodeMemory( context.getWorkingMemory(), baseNode );
+            if ( _node != null ) {
+                // not all node memories require serialization
+                _ksb.addNodeMemory( _node );
+            }
+        }
+    }
+
+    private static ProtobufMessages.NodeMemory writeNodeMemory( InternalWorkingMemory wm,
+                                                                BaseNode baseNode ) {
+        Memory memory = wm.getNodeMemories().peekNodeMemory( baseNode );
+        if ( memory != null ) {
+            switch ( memory.getNodeType() ) {
+                case NodeTypeEnums.QueryElementNode: {
+                    return writeQueryElementNodeMemory( baseNode.getId(), memory, wm );
                 }
             }
         }
+        return null;
     }
 
     private static ByteString serializeObject( MarshallerWriteContext context, ObjectMarshallingStrategy strategy, Object object) {
@@ -744,7 +986,8 @@ public class ProtobufOutputMarshaller {
 
     private static ProtobufMessages.Timers writeTimers(Collection<TimerJobInstance> timers,
                                                        MarshallerWriteContext outCtx) {
-        if ( !timers.isEmpty() ) {
+        List<ExpirationQueue> expirationQueues = getExpirationQueues( outCtx.getWorkingMemory() );
+        if ( !timers.isEmpty() || !expirationQueues.isEmpty() ) {
             List<TimerJobInstance> sortedTimers = new ArrayList<>( timers );
             Collections.sort( sortedTimers,
                               new Comparator<TimerJobInstance>() {
@@ -764,17 +1007,53 @@ public class ProtobufOutputMarshaller {
                     !((ObjectTypeNode.ExpireJobContext) jctx).getExpireAction().getFactHandle().isValid()) {                    
                     continue;
                 }
+                if (jctx instanceof ExpirationQueue.ExpireQueueJobContext) {
+                    // the batched expirations are written from their queues, even when no job is pending for them
+                    continue;
+                }
                 TimersOutputMarshaller writer = ( TimersOutputMarshaller ) outCtx.getWriterForClass( jctx.getClass() );
                 Timer _timer = writer.serialize( jctx, outCtx );
                 if ( _timer != null ) {
                     _timers.addTimer( _timer );
                 }
             }
+            for ( ExpirationQueue expirationQueue : expirationQueues ) {
+                writeExpirationQueue( expirationQueue, _timers );
+            }
             return _timers.build();
         }
         return null;
     }
 
+    private static List<ExpirationQueue> getExpirationQueues(InternalWorkingMemory wm) {
+        List<ExpirationQueue> expirationQueues = new ArrayList<>();
+        for ( EntryPoint entryPoint : wm.getEntryPoints() ) {
+            for ( ExpirationQueue expirationQueue : ((WorkingMemoryEntryPoint) entryPoint).getExpirationQueues() ) {
+                if ( !expirationQueue.isEmpty() ) {
+                    expirationQueues.add( expirationQueue );
+                }
+            }
+        }
+        return expirationQueues;
+    }
+
+    /**
+     * A batched expiration is written as one expire timer per pending event, so that it can be read back as usual
+     */
+    private static void writeExpirationQueue(ExpirationQueue queue, ProtobufMessages.Timers.Builder _timers) {
+        for ( ExpirationQueue.Entry entry : queue.getEntries() ) {
+            if ( entry.getExpireAction().getFactHandle().isValid() ) {
+                _timers.addTimer( ProtobufMessages.Timers.Timer.newBuilder()
+                        .setType( ProtobufMessages.Timers.TimerType.EXPIRE )
+                        .setExpire( ProtobufMessages.Timers.ExpireTimer.newBuilder()
+                                .setHandleId( entry.getExpireAction().getFactHandle().getId() )
+                                .setNextFireTimestamp( entry.getExpirationTime() )
+                                .build() )
+                        .build() );
+            }
+        }
+    }
+
     public static ProtobufMessages.Trigger writeTrigger(Trigger trigger, MarshallerWriteContext outCtx) {
         if ( trigger instanceof CronTrigger ) {
             CronTrigger cronTrigger = (CronTrigger) trigger;
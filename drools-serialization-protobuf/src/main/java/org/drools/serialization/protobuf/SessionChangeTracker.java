@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.serialization.protobuf;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.drools.core.common.InternalFactHandle;
+import org.kie.api.event.rule.ObjectDeletedEvent;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.event.rule.ObjectUpdatedEvent;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+import org.kie.api.runtime.KieSession;
+
+/**
+ * Records the fact handles inserted, updated and deleted in a session, so that a delta snapshot
+ * containing only those changes can be written with {@link ProtobufMarshaller#marshallDelta}.
+ *
+ * The changes can be recorded by any thread inserting into the session, while a snapshot atomically
+ * takes them with {@link #takeChanges()} when it has locked the session, replacing them with an empty set.
+ *
+ * Facts modified in place without notifying the session through an update are not tracked.
+ */
+public class SessionChangeTracker implements RuleRuntimeEventListener {
+
+    private ChangeSet changes = new ChangeSet();
+
+    public static SessionChangeTracker attach(KieSession ksession) {
+        SessionChangeTracker tracker = new SessionChangeTracker();
+        ksession.addEventListener( tracker );
+        return tracker;
+    }
+
+    @Override
+    public void objectInserted(ObjectInsertedEvent event) {
+        changed( (InternalFactHandle) event.getFactHandle() );
+    }
+
+    @Override
+    public void objectUpdated(ObjectUpdatedEvent event) {
+        changed( (InternalFactHandle) event.getFactHandle() );
+    }
+
+    @Override
+    public synchronized void objectDeleted(ObjectDeletedEvent event) {
+        changes.deleted( (InternalFactHandle) event.getFactHandle() );
+    }
+
+    private synchronized void changed(InternalFactHandle handle) {
+        changes.changed( handle );
+    }
+
+    public synchronized boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public synchronized void clear() {
+        changes = new ChangeSet();
+    }
+
+    /**
+     * Returns the changes recorded so far, replacing them with an empty set.
+     */
+    synchronized ChangeSet takeChanges() {
+        ChangeSet taken = changes;
+        changes = new ChangeSet();
+        return taken;
+    }
+
+    /**
+     * Puts back changes previously taken, when the snapshot containing them could not be written.
+     * The changes recorded in the meantime are more recent and take precedence.
+     */
+    synchronized void restoreChanges(ChangeSet taken) {
+        taken.merge( changes );
+        changes = taken;
+    }
+
+    static class ChangeSet {
+        private final Map<Long, InternalFactHandle> changedHandles = new LinkedHashMap<>();
+        private final Map<Long, String> deletedHandles = new LinkedHashMap<>();
+
+        private void changed(InternalFactHandle handle) {
+            deletedHandles.remove( handle.getId() );
+            changedHandles.put( handle.getId(), handle );
+        }
+
+        private void deleted(InternalFactHandle handle) {
+            changedHandles.remove( handle.getId() );
+            deletedHandles.put( handle.getId(), handle.getEntryPointName() );
+        }
+
+        private void merge(ChangeSet newer) {
+            for ( InternalFactHandle handle : newer.changedHandles.values() ) {
+                changed( handle );
+            }
+            for ( Map.Entry<Long, String> deleted : newer.deletedHandles.entrySet() ) {
+                changedHandles.remove( deleted.getKey() );
+                deletedHandles.put( deleted.getKey(), deleted.getValue() );
+            }
+        }
+
+        Collection<InternalFactHandle> getChangedHandles() {
+            return changedHandles.values();
+        }
+
+        /**
+         * @return the ids of the deleted fact handles, mapped to the name of their entry point
+         */
+        Map<Long, String> getDeletedHandles() {
+            return deletedHandles;
+        }
+
+        boolean isEmpty() {
+            return changedHandles.isEmpty() && deletedHandles.isEmpty();
+        }
+    }
+}
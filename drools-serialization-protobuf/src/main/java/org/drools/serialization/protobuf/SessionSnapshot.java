@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.serialization.protobuf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.drools.base.common.DroolsObjectInputStream;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.impl.InternalRuleBase;
+import org.drools.core.marshalling.ClassObjectMarshallingStrategyAcceptor;
+import org.drools.core.marshalling.SerializablePlaceholderResolverStrategy;
+import org.drools.serialization.protobuf.marshalling.MarshallingConfigurationImpl;
+import org.kie.api.KieBase;
+import org.kie.api.marshalling.ObjectMarshallingStrategy;
+import org.kie.api.runtime.Environment;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+
+/**
+ * A convenience wrapper to fork a stateful session into any number of independent sessions
+ * starting from the same point in time. This is not a copy-on-write fork of the working memory:
+ * each fork is a plain unmarshalling of the snapshot, so its cost is the one of restoring a session.
+ *
+ * The snapshot is taken once: the session state (fact handles, agenda, timers, truth
+ * maintenance) is written to an in memory buffer together with the serialized fact objects,
+ * through a {@link SerializablePlaceholderResolverStrategy}, and the globals are serialized
+ * in a second buffer. Each fork then rebuilds its own working memory, facts and globals from
+ * those buffers, so a fork never shares a mutable object with the source session or with the
+ * other forks: modifying a fact or a global in place in one of them is not visible anywhere else.
+ * The references among the facts are preserved within each fork.
+ *
+ * For this reason all the facts and globals of the session must be {@link java.io.Serializable}:
+ * taking a snapshot of a session holding any other fact or global fails with an
+ * {@link IllegalArgumentException}.
+ */
+public class SessionSnapshot {
+
+    private final KieBase kbase;
+    private final ProtobufMarshaller marshaller;
+    private final byte[] state;
+    private final byte[] globals;
+
+    private SessionSnapshot(KieBase kbase, ProtobufMarshaller marshaller, byte[] state, byte[] globals) {
+        this.kbase = kbase;
+        this.marshaller = marshaller;
+        this.state = state;
+        this.globals = globals;
+    }
+
+    public static SessionSnapshot of(KieSession ksession) {
+        KieBase kbase = ksession.getKieBase();
+        ObjectMarshallingStrategy serializableStrategy = new SerializablePlaceholderResolverStrategy( ClassObjectMarshallingStrategyAcceptor.DEFAULT );
+        ProtobufMarshaller marshaller = new ProtobufMarshaller( kbase,
+                                                                new MarshallingConfigurationImpl( new ObjectMarshallingStrategy[]{serializableStrategy}, true, true ) );
+
+        ((InternalWorkingMemory) ksession).flushPropagations();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            marshaller.marshall( baos, ksession );
+        } catch (NotSerializableException e) {
+            throw new IllegalArgumentException( "Unable to take a snapshot of session " + ksession.getIdentifier() +
+                                                ": all its facts must be serializable, while " + e.getMessage() + " is not", e );
+        } catch (IOException e) {
+            throw new UncheckedIOException( "Unable to take a snapshot of session " + ksession.getIdentifier(), e );
+        }
+
+        return new SessionSnapshot( kbase, marshaller, baos.toByteArray(), writeGlobals( ksession ) );
+    }
+
+    private static byte[] writeGlobals(KieSession ksession) {
+        Map<String, Object> globals = new HashMap<>();
+        for (String key : ksession.getGlobals().getGlobalKeys()) {
+            globals.put( key, ksession.getGlobal( key ) );
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream( baos )) {
+            out.writeObject( globals );
+        } catch (NotSerializableException e) {
+            throw new IllegalArgumentException( "Unable to take a snapshot of session " + ksession.getIdentifier() +
+                                                ": all its globals must be serializable, while " + e.getMessage() + " is not", e );
+        } catch (IOException e) {
+            throw new UncheckedIOException( "Unable to take a snapshot of the globals of session " + ksession.getIdentifier(), e );
+        }
+        return baos.toByteArray();
+    }
+
+    public KieBase getKieBase() {
+        return kbase;
+    }
+
+    public int getSize() {
+        return state.length + globals.length;
+    }
+
+    public KieSession fork() {
+        return fork( null, null );
+    }
+
+    public KieSession fork(KieSessionConfiguration conf, Environment environment) {
+        KieSession forked;
+        Map<String, Object> forkedGlobals;
+        try {
+            forked = marshaller.unmarshall( new ByteArrayInputStream( state ), conf, environment );
+            forkedGlobals = readGlobals();
+        } catch (IOException e) {
+            throw new UncheckedIOException( "Unable to fork session from snapshot", e );
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException( "Unable to fork session from snapshot", e );
+        }
+        for (Map.Entry<String, Object> global : forkedGlobals.entrySet()) {
+            forked.setGlobal( global.getKey(), global.getValue() );
+        }
+        return forked;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readGlobals() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new DroolsObjectInputStream( new ByteArrayInputStream( globals ), ((InternalRuleBase) kbase).getRootClassLoader() )) {
+            return (Map<String, Object>) in.readObject();
+        }
+    }
+}
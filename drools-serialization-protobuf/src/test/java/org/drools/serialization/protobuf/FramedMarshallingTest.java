@@ -0,0 +1,349 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.serialization.protobuf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.impl.EnvironmentFactory;
+import org.drools.core.impl.RuleBaseFactory;
+import org.drools.core.marshalling.ClassObjectMarshallingStrategyAcceptor;
+import org.drools.mvel.compiler.Person;
+import org.drools.serialization.protobuf.marshalling.JavaSerializableResolverStrategy;
+import org.drools.serialization.protobuf.marshalling.MarshallingConfigurationImpl;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.conf.EventProcessingOption;
+import org.kie.api.io.ResourceType;
+import org.kie.api.marshalling.ObjectMarshallingStrategy;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.time.SessionPseudoClock;
+import org.kie.internal.utils.KieHelper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FramedMarshallingTest {
+
+    private static final String DRL =
+            "import " + Person.class.getCanonicalName() + "\n" +
+            "global java.util.List list\n" +
+            "rule Adult when\n" +
+            "    $p : Person( age >= 18 )\n" +
+            "then\n" +
+            "    list.add( $p.getName() );\n" +
+            "end\n";
+
+    private ProtobufMarshaller createMarshaller(KieBase kbase) {
+        ObjectMarshallingStrategy strategy = new JavaSerializableResolverStrategy( ClassObjectMarshallingStrategyAcceptor.DEFAULT );
+        return new ProtobufMarshaller( kbase, new MarshallingConfigurationImpl( new ObjectMarshallingStrategy[]{ strategy }, true, true ) );
+    }
+
+    @Test
+    public void testFramesRoundTrip() throws Exception {
+        KieBase kbase = new KieHelper().addContent(DRL, ResourceType.DRL).build();
+        KieSession ksession = kbase.newKieSession();
+        ksession.setGlobal("list", new ArrayList<>());
+
+        for (int i = 0; i < 25; i++) {
+            ksession.insert(new Person("P" + i, i));
+        }
+        assertThat(ksession.fireAllRules()).isEqualTo(7);
+
+        ProtobufMarshaller marshaller = createMarshaller(kbase);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        // a frame size smaller than the number of facts, so that they are split over several frames
+        marshaller.marshallFrames(baos, ksession, 10, null);
+        ksession.dispose();
+
+        KieSession restored = marshaller.unmarshallFrames(new ByteArrayInputStream(baos.toByteArray()), Collections.emptyList(), null, EnvironmentFactory.newEnvironment());
+        try {
+            List<String> list = new ArrayList<>();
+            restored.setGlobal("list", list);
+
+            assertThat(restored.getFactCount()).isEqualTo(25);
+            assertThat(restored.fireAllRules()).isZero();
+
+            restored.insert(new Person("Mario", 45));
+            assertThat(restored.fireAllRules()).isEqualTo(1);
+            assertThat(list).containsExactly("Mario");
+        } finally {
+            restored.dispose();
+        }
+    }
+
+    @Test
+    public void testMatchesSplitOverFrames() throws Exception {
+        KieBase kbase = new KieHelper().addContent(DRL, ResourceType.DRL).build();
+        KieSession ksession = kbase.newKieSession();
+        ksession.setGlobal("list", new ArrayList<>());
+
+        for (int i = 0; i < 25; i++) {
+            ksession.insert(new Person("P" + i, i));
+        }
+        assertThat(ksession.fireAllRules()).isEqualTo(7);
+
+        ProtobufMarshaller marshaller = createMarshaller(kbase);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        // the 7 fired matches don't fit in a single frame
+        marshaller.marshallFrames(baos, ksession, 2, null);
+        ksession.dispose();
+
+        KieSession restored = marshaller.unmarshallFrames(new ByteArrayInputStream(baos.toByteArray()), Collections.emptyList(), null, EnvironmentFactory.newEnvironment());
+        try {
+            restored.setGlobal("list", new ArrayList<>());
+            assertThat(restored.getFactCount()).isEqualTo(25);
+            assertThat(restored.fireAllRules()).isZero();
+        } finally {
+            restored.dispose();
+        }
+    }
+
+    @Test
+    public void testFailedDeltaKeepsChanges() throws Exception {
+        KieBase kbase = new KieHelper().addContent(DRL, ResourceType.DRL).build();
+        KieSession ksession = kbase.newKieSession();
+        ksession.setGlobal("list", new ArrayList<>());
+        SessionChangeTracker tracker = SessionChangeTracker.attach(ksession);
+
+        ksession.insert(new Person("Mario", 45));
+        ksession.fireAllRules();
+
+        ProtobufMarshaller marshaller = createMarshaller(kbase);
+        // fails in the middle of the frames, after the stream header has been written
+        OutputStream failing = new OutputStream() {
+            private int written;
+
+            @Override
+            public void write(int b) throws IOException {
+                if (++written > 64) {
+                    throw new IOException("disk full");
+                }
+            }
+        };
+        assertThatThrownBy(() -> marshaller.marshallDelta(failing, ksession, 2, tracker)).isInstanceOf(IOException.class);
+        assertThat(tracker.isEmpty()).isFalse();
+
+        ksession.dispose();
+    }
+
+    @Test
+    public void testDeltaSnapshots() throws Exception {
+        KieBase kbase = new KieHelper().addContent(DRL, ResourceType.DRL).build();
+        KieSession ksession = kbase.newKieSession();
+        ksession.setGlobal("list", new ArrayList<>());
+        SessionChangeTracker tracker = SessionChangeTracker.attach(ksession);
+
+        FactHandle mario = ksession.insert(new Person("Mario", 45));
+        FactHandle sofia = ksession.insert(new Person("Sofia", 12));
+        ksession.insert(new Person("Luca", 30));
+        ksession.fireAllRules();
+
+        ProtobufMarshaller marshaller = createMarshaller(kbase);
+        ByteArrayOutputStream base = new ByteArrayOutputStream();
+        marshaller.marshallFrames(base, ksession, 2, tracker);
+        assertThat(tracker.isEmpty()).isTrue();
+
+        ksession.delete(mario);
+        ksession.update(sofia, new Person("Sofia", 18));
+        ksession.fireAllRules();
+
+        ByteArrayOutputStream delta1 = new ByteArrayOutputStream();
+        marshaller.marshallDelta(delta1, ksession, 2, tracker);
+        assertThat(tracker.isEmpty()).isTrue();
+
+        ksession.insert(new Person("Anna", 50));
+        ksession.update(sofia, new Person("Sofia", 19));
+
+        ByteArrayOutputStream delta2 = new ByteArrayOutputStream();
+        marshaller.marshallDelta(delta2, ksession, 2, tracker);
+        ksession.dispose();
+
+        List<InputStream> deltas = Arrays.asList(new ByteArrayInputStream(delta1.toByteArray()), new ByteArrayInputStream(delta2.toByteArray()));
+        KieSession restored = marshaller.unmarshallFrames(new ByteArrayInputStream(base.toByteArray()), deltas, null, EnvironmentFactory.newEnvironment());
+        try {
+            List<String> list = new ArrayList<>();
+            restored.setGlobal("list", list);
+
+            assertThat(restored.getFactCount()).isEqualTo(3);
+            assertThat(restored.getObjects()).extracting(o -> ((Person) o).getName()).containsExactlyInAnyOrder("Sofia", "Luca", "Anna");
+            assertThat(restored.getObjects()).filteredOn(o -> ((Person) o).getName().equals("Sofia")).extracting(o -> ((Person) o).getAge()).containsExactly(19);
+
+            // only the matches not yet fired when the last delta has been taken are pending
+            assertThat(restored.fireAllRules()).isEqualTo(2);
+            assertThat(list).containsExactlyInAnyOrder("Anna", "Sofia");
+        } finally {
+            restored.dispose();
+        }
+    }
+
+    @Test
+    public void testApplyDeltasToReplica() throws Exception {
+        KieBase kbase = new KieHelper().addContent(DRL, ResourceType.DRL).build();
+        KieSession ksession = kbase.newKieSession();
+        ksession.setGlobal("list", new ArrayList<>());
+        SessionChangeTracker tracker = SessionChangeTracker.attach(ksession);
+
+        FactHandle mario = ksession.insert(new Person("Mario", 45));
+        FactHandle sofia = ksession.insert(new Person("Sofia", 12));
+        ksession.insert(new Person("Luca", 30));
+
+        ProtobufMarshaller marshaller = createMarshaller(kbase);
+        ByteArrayOutputStream base = new ByteArrayOutputStream();
+        marshaller.marshallFrames(base, ksession, 2, tracker);
+
+        KieSession replica = marshaller.unmarshallFrames(new ByteArrayInputStream(base.toByteArray()), Collections.emptyList(), null, EnvironmentFactory.newEnvironment());
+        try {
+            // the matches of Mario and Luca are still pending when the snapshot is taken, and fired afterwards
+            assertThat(ksession.fireAllRules()).isEqualTo(2);
+            ksession.delete(mario);
+            ksession.update(sofia, new Person("Sofia", 18));
+            ksession.insert(new Person("Anna", 50));
+            assertThat(ksession.fireAllRules()).isEqualTo(2);
+            ksession.insert(new Person("Paolo", 60));
+
+            ByteArrayOutputStream delta = new ByteArrayOutputStream();
+            marshaller.marshallDelta(delta, ksession, 2, tracker);
+            marshaller.applyDelta(new ByteArrayInputStream(delta.toByteArray()), replica);
+
+            List<String> list = new ArrayList<>();
+            replica.setGlobal("list", list);
+
+            assertThat(replica.getFactCount()).isEqualTo(4);
+            assertThat(replica.getObjects()).extracting(o -> ((Person) o).getName()).containsExactlyInAnyOrder("Sofia", "Luca", "Anna", "Paolo");
+
+            // only the match not yet fired by the original session is left
+            assertThat(replica.fireAllRules()).isEqualTo(1);
+            assertThat(list).containsExactly("Paolo");
+        } finally {
+            replica.dispose();
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testRejectedDeltaLeavesReplicaUntouched() throws Exception {
+        String drl =
+                "import " + Person.class.getCanonicalName() + "\n" +
+                "rule Adult when\n" +
+                "    $p : Person( age >= 18 )\n" +
+                "then\n" +
+                "    insertLogical( $p.getName() + \" is adult\" );\n" +
+                "end\n";
+        KieBase kbase = new KieHelper().addContent(drl, ResourceType.DRL).build();
+        KieSession ksession = kbase.newKieSession();
+        SessionChangeTracker tracker = SessionChangeTracker.attach(ksession);
+
+        FactHandle sofia = ksession.insert(new Person("Sofia", 12));
+
+        ProtobufMarshaller marshaller = createMarshaller(kbase);
+        ByteArrayOutputStream base = new ByteArrayOutputStream();
+        marshaller.marshallFrames(base, ksession, 2, tracker);
+
+        KieSession replica = marshaller.unmarshallFrames(new ByteArrayInputStream(base.toByteArray()), Collections.emptyList(), null, EnvironmentFactory.newEnvironment());
+        try {
+            // the delete of Sofia and the insert of Anna precede the logically inserted fact in the delta
+            ksession.delete(sofia);
+            ksession.insert(new Person("Anna", 50));
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+
+            ByteArrayOutputStream delta = new ByteArrayOutputStream();
+            marshaller.marshallDelta(delta, ksession, 2, tracker);
+            assertThatThrownBy(() -> marshaller.applyDelta(new ByteArrayInputStream(delta.toByteArray()), replica))
+                    .isInstanceOf(UnsupportedOperationException.class);
+
+            assertThat(replica.getFactCount()).isEqualTo(1);
+            assertThat(replica.getObjects()).extracting(o -> ((Person) o).getName()).containsExactly("Sofia");
+        } finally {
+            replica.dispose();
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testApplyDeltaSchedulesTimersOfInsertedFacts() throws Exception {
+        String drl =
+                "import " + Person.class.getCanonicalName() + "\n" +
+                "global java.util.List list\n" +
+                "declare Person @role( event ) @expires( 10s ) end\n" +
+                "rule Minor timer( int: 5s ) when\n" +
+                "    $p : Person( age < 18 )\n" +
+                "then\n" +
+                "    list.add( $p.getName() );\n" +
+                "end\n";
+        KieBase kbase = new KieHelper().addContent(drl, ResourceType.DRL).build(EventProcessingOption.STREAM);
+        KieSessionConfiguration conf = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setOption(ClockTypeOption.PSEUDO);
+        KieSession ksession = kbase.newKieSession(conf, null);
+        ksession.setGlobal("list", new ArrayList<>());
+        SessionChangeTracker tracker = SessionChangeTracker.attach(ksession);
+
+        ksession.insert(new Person("Mario", 45));
+
+        ProtobufMarshaller marshaller = createMarshaller(kbase);
+        ByteArrayOutputStream base = new ByteArrayOutputStream();
+        marshaller.marshallFrames(base, ksession, 2, tracker);
+
+        KieSession replica = marshaller.unmarshallFrames(new ByteArrayInputStream(base.toByteArray()), Collections.emptyList(), conf, EnvironmentFactory.newEnvironment());
+        try {
+            SessionPseudoClock clock = ksession.getSessionClock();
+            clock.advanceTime(1, TimeUnit.SECONDS);
+            ksession.insert(new Person("Sofia", 12));
+            ksession.insert(new Person("Luca", 30));
+            ksession.fireAllRules();
+
+            ByteArrayOutputStream delta = new ByteArrayOutputStream();
+            marshaller.marshallDelta(delta, ksession, 2, tracker);
+            marshaller.applyDelta(new ByteArrayInputStream(delta.toByteArray()), replica);
+
+            List<String> list = new ArrayList<>();
+            replica.setGlobal("list", list);
+            SessionPseudoClock replicaClock = replica.getSessionClock();
+            assertThat(replicaClock.getCurrentTime()).isEqualTo(1000);
+            assertThat(replica.getFactCount()).isEqualTo(3);
+
+            // the timer of Sofia, scheduled by the original session at 1s, fires at 6s
+            replicaClock.advanceTime(5, TimeUnit.SECONDS);
+            assertThat(replica.fireAllRules()).isEqualTo(1);
+            assertThat(list).containsExactly("Sofia");
+
+            // Mario expires at 10s, Sofia and Luca at 11s
+            replicaClock.advanceTime(4500, TimeUnit.MILLISECONDS);
+            replica.fireAllRules();
+            assertThat(replica.getObjects()).extracting(o -> ((Person) o).getName()).containsExactlyInAnyOrder("Sofia", "Luca");
+            replicaClock.advanceTime(1, TimeUnit.SECONDS);
+            replica.fireAllRules();
+            assertThat(replica.getFactCount()).isZero();
+        } finally {
+            replica.dispose();
+            ksession.dispose();
+        }
+    }
+}
@@ -40,6 +40,7 @@ import org.drools.base.rule.consequence.Consequence;
 import org.drools.base.rule.consequence.ConsequenceContext;
 import org.drools.core.time.impl.DurationTimer;
 import org.drools.core.time.impl.PseudoClockScheduler;
+import org.drools.core.time.impl.TimingWheelPseudoClockScheduler;
 import org.drools.core.util.KeyStoreConstants;
 import org.drools.core.util.KeyStoreHelper;
 import org.drools.kiesession.rulebase.InternalKnowledgeBase;
@@ -2191,6 +2192,65 @@ public class MarshallingTest extends CommonTestMethodBase {
         assertThat(cep.getFactHandles().size()).isEqualTo(1);
     }
 
+    @Test
+    public void testMarshallWithPseudoWheelClock() throws Exception {
+        String str =
+                "package org.domain.test \n" +
+                        "import " + getClass().getCanonicalName() + ".*\n" +
+                        "global java.util.List list\n" +
+                        "declare A\n" +
+                        " @role( event )\n" +
+                        " @expires( 10s )\n" +
+                        "end\n" +
+                        "" +
+                        "rule a1 timer( int: 5s )\n" +
+                        "when\n" +
+                        "   $a : A()\n" +
+                        "then\n" +
+                        "list.add( $a );" +
+                        "end\n";
+
+        KieBaseConfiguration config = RuleBaseFactory.newKnowledgeBaseConfiguration();
+        config.setOption( EventProcessingOption.STREAM );
+
+        KieBase kBase = loadKnowledgeBaseFromString(config, str);
+
+        KieSessionConfiguration ksconf = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        ksconf.setOption( ClockTypeOption.get( ClockType.PSEUDO_WHEEL_CLOCK.getId() ) );
+        ksconf.setOption( TimerJobFactoryOption.get("trackable") );
+        KieSession ksession = kBase.newKieSession( ksconf, null );
+
+        List list = new ArrayList();
+        ksession.setGlobal( "list", list );
+        ksession.insert( new A() );
+        ksession.fireAllRules();
+
+        ksession = marshallStatefulKnowledgeSession( ksession );
+        assertThat((Object) ksession.getSessionClock()).isInstanceOf(TimingWheelPseudoClockScheduler.class);
+
+        PseudoClockScheduler timeService = ksession.getSessionClock();
+        timeService.advanceTime( 3, TimeUnit.SECONDS );
+        ksession.fireAllRules();
+        assertThat(list.size()).isEqualTo(0);
+
+        ksession = marshallStatefulKnowledgeSession( ksession );
+
+        // the timer of the rule fires at 5s
+        timeService = ksession.getSessionClock();
+        timeService.advanceTime( 3, TimeUnit.SECONDS );
+        ksession.fireAllRules();
+        assertThat(list.size()).isEqualTo(1);
+        assertThat(ksession.getFactCount()).isEqualTo(1);
+
+        ksession = marshallStatefulKnowledgeSession( ksession );
+
+        // the event expires at 10s
+        timeService = ksession.getSessionClock();
+        timeService.advanceTime( 5, TimeUnit.SECONDS );
+        ksession.fireAllRules();
+        assertThat(ksession.getFactCount()).isEqualTo(0);
+    }
+
     @Test
     public void testMarshallEntryPointsWithNot() throws Exception {
         String str =
@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.serialization.protobuf;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.drools.mvel.compiler.Person;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.utils.KieHelper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SessionSnapshotTest {
+
+    private static final String DRL =
+            "import " + Person.class.getCanonicalName() + "\n" +
+            "global java.util.List list\n" +
+            "rule Adult when\n" +
+            "    $p : Person( age >= 18 )\n" +
+            "then\n" +
+            "    list.add( $p.getName() );\n" +
+            "end\n";
+
+    @Test
+    public void testForksStartFromBaselineWithTheirOwnFacts() {
+        KieBase kbase = new KieHelper().addContent(DRL, ResourceType.DRL).build();
+        KieSession ksession = kbase.newKieSession();
+        List<String> list = new ArrayList<>();
+        ksession.setGlobal("list", list);
+
+        Person mario = new Person("Mario", 45);
+        ksession.insert(mario);
+        ksession.insert(new Person("Sofia", 12));
+        assertThat(ksession.fireAllRules()).isEqualTo(1);
+        assertThat(list).containsExactly("Mario");
+
+        SessionSnapshot snapshot = SessionSnapshot.of(ksession);
+
+        KieSession fork1 = snapshot.fork();
+        KieSession fork2 = snapshot.fork();
+        try {
+            assertThat(fork1.getFactCount()).isEqualTo(2);
+            assertThat(fork2.getFactCount()).isEqualTo(2);
+
+            // fact objects are copied in each fork
+            Collection<?> forkedObjects = fork1.getObjects();
+            assertThat(forkedObjects).noneMatch(o -> o == mario);
+            assertThat(forkedObjects).anyMatch(o -> o instanceof Person && ((Person) o).getName().equals("Mario"));
+
+            // already fired matches are not fired again
+            assertThat(fork1.fireAllRules()).isZero();
+            assertThat(fork2.fireAllRules()).isZero();
+
+            // globals are carried over to the forks as copies
+            assertThat(fork1.getGlobal("list")).isNotSameAs(list).isEqualTo(list);
+
+            fork1.insert(new Person("Luca", 30));
+            assertThat(fork1.fireAllRules()).isEqualTo(1);
+            assertThat(fork1.getFactCount()).isEqualTo(3);
+
+            // forks are independent from each other and from the source
+            assertThat(fork2.getFactCount()).isEqualTo(2);
+            assertThat(ksession.getFactCount()).isEqualTo(2);
+        } finally {
+            fork1.dispose();
+            fork2.dispose();
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testGlobalsModifiedInForkAreNotVisibleInOtherForks() {
+        KieBase kbase = new KieHelper().addContent(DRL, ResourceType.DRL).build();
+        KieSession ksession = kbase.newKieSession();
+        List<String> list = new ArrayList<>();
+        ksession.setGlobal("list", list);
+        ksession.insert(new Person("Mario", 45));
+        assertThat(ksession.fireAllRules()).isEqualTo(1);
+
+        SessionSnapshot snapshot = SessionSnapshot.of(ksession);
+        KieSession fork1 = snapshot.fork();
+        KieSession fork2 = snapshot.fork();
+        try {
+            fork1.insert(new Person("Luca", 30));
+            assertThat(fork1.fireAllRules()).isEqualTo(1);
+            assertThat((List<String>) fork1.getGlobal("list")).containsExactly("Mario", "Luca");
+
+            // neither the other fork nor the source session see what has been added to the global of fork1
+            assertThat((List<String>) fork2.getGlobal("list")).containsExactly("Mario");
+            assertThat(list).containsExactly("Mario");
+
+            // a fork created afterwards still starts from the globals of the snapshot
+            KieSession fork3 = snapshot.fork();
+            try {
+                assertThat((List<String>) fork3.getGlobal("list")).containsExactly("Mario");
+            } finally {
+                fork3.dispose();
+            }
+        } finally {
+            fork1.dispose();
+            fork2.dispose();
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testFactModifiedInForkIsNotVisibleInOtherForks() {
+        KieBase kbase = new KieHelper().addContent(DRL, ResourceType.DRL).build();
+        KieSession ksession = kbase.newKieSession();
+        ksession.setGlobal("list", new ArrayList<>());
+
+        Person sofia = new Person("Sofia", 12);
+        ksession.insert(sofia);
+        assertThat(ksession.fireAllRules()).isZero();
+
+        SessionSnapshot snapshot = SessionSnapshot.of(ksession);
+        KieSession fork1 = snapshot.fork();
+        KieSession fork2 = snapshot.fork();
+        try {
+            Person forkedSofia = (Person) fork1.getObjects().iterator().next();
+            forkedSofia.setAge(18);
+            fork1.update(fork1.getFactHandle(forkedSofia), forkedSofia);
+            assertThat(fork1.fireAllRules()).isEqualTo(1);
+
+            assertThat(sofia.getAge()).isEqualTo(12);
+            assertThat(((Person) fork2.getObjects().iterator().next()).getAge()).isEqualTo(12);
+            assertThat(fork2.fireAllRules()).isZero();
+        } finally {
+            fork1.dispose();
+            fork2.dispose();
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testNotSerializableGlobalIsRejected() {
+        KieBase kbase = new KieHelper().addContent(DRL, ResourceType.DRL).build();
+        KieSession ksession = kbase.newKieSession();
+        List<Object> list = new ArrayList<>();
+        list.add(new Object());
+        ksession.setGlobal("list", list);
+        try {
+            assertThatThrownBy(() -> SessionSnapshot.of(ksession))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("globals must be serializable");
+        } finally {
+            ksession.dispose();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.compiler.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.testcoverage.common.model.StockTick;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.KieSessionTestConfiguration;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.time.SessionPseudoClock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class AccumulateDeferredReaccumulationTest {
+
+    private static final String DRL =
+            "import " + StockTick.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "declare StockTick @role( event ) @timestamp( time ) end\n" +
+            "rule R when\n" +
+            "    accumulate( StockTick( $price : price ) over window:time( 2s ); $max : max( $price ), $min : min( $price ), $count : count() )\n" +
+            "then\n" +
+            "    list.add( $count + \":\" + $min + \":\" + $max );\n" +
+            "end\n";
+
+    private static final String NO_WINDOW_DRL =
+            "import " + StockTick.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule R when\n" +
+            "    accumulate( StockTick( $price : price ); $max : max( $price ), $min : min( $price ), $count : count() )\n" +
+            "then\n" +
+            "    list.add( $count + \":\" + $min + \":\" + $max );\n" +
+            "end\n";
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public AccumulateDeferredReaccumulationTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseStreamConfigurations(true);
+    }
+
+    @Test(timeout = 10000)
+    public void testWindowSlideExpiringManyExtremes() {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("deferred-reaccumulation-test", kieBaseTestConfiguration, DRL);
+        final KieSession ksession = kbase.newKieSession(KieSessionTestConfiguration.STATEFUL_PSEUDO.getKieSessionConfiguration(), null);
+        try {
+            final List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+            final SessionPseudoClock clock = ksession.getSessionClock();
+
+            // the events expiring together hold both the min and the max, one after the other
+            for (int i = 0; i < 10; i++) {
+                ksession.insert(new StockTick(i, "A", i % 2 == 0 ? 100 - i : i, 0));
+            }
+            clock.advanceTime(1000, TimeUnit.MILLISECONDS);
+            ksession.insert(new StockTick(10, "A", 50, 1000));
+            ksession.insert(new StockTick(11, "A", 60, 1000));
+            ksession.fireAllRules();
+            assertThat(list).containsExactly("12:1.0:100.0");
+
+            list.clear();
+            clock.advanceTime(1500, TimeUnit.MILLISECONDS);
+            ksession.fireAllRules();
+            assertThat(list).containsExactly("2:50.0:60.0");
+
+            list.clear();
+            clock.advanceTime(1000, TimeUnit.MILLISECONDS);
+            ksession.fireAllRules();
+            assertThat(list).containsExactly("0:null:null");
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testBatchOfDeletesRemovingExtremes() {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("deferred-reaccumulation-test", kieBaseTestConfiguration, NO_WINDOW_DRL);
+        final KieSession ksession = kbase.newKieSession();
+        try {
+            final List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+
+            final List<FactHandle> extremes = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                final FactHandle fh = ksession.insert(new StockTick(i, "A", i % 2 == 0 ? 100 - i : i, 0));
+                if (i < 4) {
+                    extremes.add(fh);
+                }
+            }
+            ksession.fireAllRules();
+            assertThat(list).containsExactly("10:1.0:100.0");
+
+            // all these deletes are evaluated together and remove the min and the max more than once
+            list.clear();
+            extremes.forEach(ksession::delete);
+            ksession.fireAllRules();
+            assertThat(list).containsExactly("6:5.0:96.0");
+        } finally {
+            ksession.dispose();
+        }
+    }
+}
@@ -3816,4 +3816,50 @@ public class AccumulateTest {
             kieSession.dispose();
         }
     }
+
+    @Test
+    public void testReversibleSortedMinMaxAndMedian() {
+        final String drl =
+                "import " + Cheese.class.getCanonicalName() + ";\n" +
+                "global java.util.List list;\n" +
+                "rule R when\n" +
+                "  accumulate(\n" +
+                "    Cheese($price : price);\n" +
+                "    $min : sortedMin($price),\n" +
+                "    $max : sortedMax($price),\n" +
+                "    $median : median($price)\n" +
+                "  )\n" +
+                "then\n" +
+                "  list.add($min + \" \" + $max + \" \" + $median);\n" +
+                "end";
+
+        final KieBase kieBase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("accumulate-test", kieBaseTestConfiguration, drl);
+        final KieSession kieSession = kieBase.newKieSession();
+        try {
+            final List<String> list = new ArrayList<>();
+            kieSession.setGlobal("list", list);
+
+            final Cheese stilton = new Cheese("stilton", 10);
+            final FactHandle stiltonFh = kieSession.insert(stilton);
+            final FactHandle brieFh = kieSession.insert(new Cheese("brie", 3));
+            kieSession.insert(new Cheese("cheddar", 8));
+            kieSession.insert(new Cheese("gouda", 5));
+            kieSession.insert(new Cheese("feta", 5));
+            kieSession.fireAllRules();
+            assertThat(list).containsExactly("3 10 5");
+
+            // retracting the current max and min
+            stilton.setPrice(4);
+            kieSession.update(stiltonFh, stilton);
+            kieSession.delete(brieFh);
+            kieSession.fireAllRules();
+            assertThat(list).containsExactly("3 10 5", "4 8 5");
+
+            kieSession.delete(stiltonFh);
+            kieSession.fireAllRules();
+            assertThat(list).containsExactly("3 10 5", "4 8 5", "5 8 5");
+        } finally {
+            kieSession.dispose();
+        }
+    }
 }
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.compiler.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.drools.core.impl.RuleBaseFactory;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.runtime.conf.AgendaQueueOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class AgendaQueueTest {
+
+    private static final String DRL =
+            "global java.util.List list\n" +
+            "rule R10 salience 10 when\n" +
+            "  String()\n" +
+            "then\n" +
+            "  list.add( 10 );\n" +
+            "end\n" +
+            "rule R5a salience 5 when\n" +
+            "  String()\n" +
+            "then\n" +
+            "  list.add( 5 );\n" +
+            "end\n" +
+            "rule R5b salience 5 when\n" +
+            "  String()\n" +
+            "then\n" +
+            "  list.add( 5 );\n" +
+            "end\n" +
+            "rule R0 when\n" +
+            "  String()\n" +
+            "then\n" +
+            "  list.add( 0 );\n" +
+            "end\n" +
+            "rule RDynamic salience $i when\n" +
+            "  $i : Integer()\n" +
+            "then\n" +
+            "  list.add( $i );\n" +
+            "end\n";
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public AgendaQueueTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseCloudConfigurations(true);
+    }
+
+    private KieSession newKieSession(AgendaQueueOption agendaQueue, List<Integer> list) {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("agenda-queue-test", kieBaseTestConfiguration, DRL);
+        final KieSessionConfiguration conf = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setOption(agendaQueue);
+        final KieSession ksession = kbase.newKieSession(conf, null);
+        ksession.setGlobal("list", list);
+        return ksession;
+    }
+
+    @Test
+    public void testPriorityQueue() {
+        checkSalienceOrder(AgendaQueueOption.PRIORITY);
+    }
+
+    @Test
+    public void testBucketedFifoQueue() {
+        checkSalienceOrder(AgendaQueueOption.BUCKETED_FIFO);
+    }
+
+    @Test
+    public void testBucketedLifoQueue() {
+        checkSalienceOrder(AgendaQueueOption.BUCKETED_LIFO);
+    }
+
+    private void checkSalienceOrder(AgendaQueueOption agendaQueue) {
+        final List<Integer> list = new ArrayList<>();
+        final KieSession ksession = newKieSession(agendaQueue, list);
+        try {
+            ksession.insert("test");
+            ksession.insert(7);
+            final FactHandle negative = ksession.insert(-3);
+            ksession.insert(12);
+
+            assertThat(ksession.fireAllRules()).isEqualTo(7);
+            assertThat(list).containsExactly(12, 10, 7, 5, 5, 0, -3);
+
+            // the rules are queued and removed again with the same saliences, reusing the existing buckets
+            list.clear();
+            ksession.update(ksession.getFactHandle("test"), "test");
+            ksession.update(negative, 6);
+            ksession.insert(5);
+
+            assertThat(ksession.fireAllRules()).isEqualTo(6);
+            assertThat(list).containsExactly(10, 6, 5, 5, 5, 0);
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testAgendaQueueConfiguration() {
+        final KieSessionConfiguration conf = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        assertThat(conf.getOption(AgendaQueueOption.KEY)).isEqualTo(AgendaQueueOption.PRIORITY);
+
+        conf.setProperty(AgendaQueueOption.PROPERTY_NAME, "bucketed-lifo");
+        assertThat(conf.getOption(AgendaQueueOption.KEY)).isEqualTo(AgendaQueueOption.BUCKETED_LIFO);
+        assertThat(conf.getProperty(AgendaQueueOption.PROPERTY_NAME)).isEqualTo("bucketed-lifo");
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.compiler.integrationtests;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.impl.RuleBaseFactory;
+import org.drools.core.reteoo.ExpirationQueue;
+import org.drools.testcoverage.common.model.StockTickEvent;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.SerializationHelper;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.time.SessionPseudoClock;
+import org.kie.internal.runtime.conf.BatchedExpirationOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class BatchedExpirationTest {
+
+    private static final String DRL =
+            "import " + StockTickEvent.class.getCanonicalName() + ";\n" +
+            "declare StockTickEvent @expires( 10s ) end\n" +
+            "rule R when\n" +
+            "    StockTickEvent( company == \"ACME\" )\n" +
+            "then\n" +
+            "end\n";
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public BatchedExpirationTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseStreamConfigurations(true);
+    }
+
+    private KieSession newKieSession(boolean batched) {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("batched-expiration-test", kieBaseTestConfiguration, DRL);
+        final KieSessionConfiguration conf = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setOption(ClockTypeOption.PSEUDO);
+        conf.setOption(batched ? BatchedExpirationOption.YES : BatchedExpirationOption.NO);
+        return kbase.newKieSession(conf, null);
+    }
+
+    private int countQueuedExpirations(KieSession ksession) {
+        final InternalWorkingMemory wm = (InternalWorkingMemory) ksession;
+        return wm.getEntryPoint("DEFAULT").getExpirationQueues().stream().mapToInt(ExpirationQueue::size).sum();
+    }
+
+    private int countTimerJobs(KieSession ksession) {
+        final InternalWorkingMemory wm = (InternalWorkingMemory) ksession;
+        return wm.getTimerService().getTimerJobInstances(wm.getIdentifier()).size();
+    }
+
+    @Test(timeout = 10000)
+    public void testEventsExpireWithOneJob() {
+        final KieSession ksession = newKieSession(true);
+        try {
+            final SessionPseudoClock clock = ksession.getSessionClock();
+            for (int i = 0; i < 1000; i++) {
+                ksession.insert(new StockTickEvent(i, "ACME", 10, 0));
+                clock.advanceTime(1, TimeUnit.MILLISECONDS);
+            }
+            assertThat(ksession.fireAllRules()).isEqualTo(1000);
+            assertThat(countTimerJobs(ksession)).isEqualTo(1);
+
+            clock.advanceTime(1, TimeUnit.HOURS);
+            ksession.fireAllRules();
+
+            assertThat(ksession.getFactCount()).isZero();
+            assertThat(countTimerJobs(ksession)).isZero();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testEventsExpireInTimeOrder() {
+        final KieSession ksession = newKieSession(true);
+        try {
+            final SessionPseudoClock clock = ksession.getSessionClock();
+            ksession.insert(new StockTickEvent(1, "ACME", 10, 0));
+            clock.advanceTime(5, TimeUnit.SECONDS);
+            ksession.insert(new StockTickEvent(2, "ACME", 10, 0));
+            ksession.insert(new StockTickEvent(3, "ACME", 10, 0));
+            ksession.fireAllRules();
+
+            clock.advanceTime(6, TimeUnit.SECONDS);
+            ksession.fireAllRules();
+            assertThat(ksession.getFactCount()).isEqualTo(2);
+
+            clock.advanceTime(5, TimeUnit.SECONDS);
+            ksession.fireAllRules();
+            assertThat(ksession.getFactCount()).isZero();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testDeletedEventsAreRemovedFromTheQueue() {
+        final KieSession ksession = newKieSession(true);
+        try {
+            final SessionPseudoClock clock = ksession.getSessionClock();
+            final FactHandle deleted = ksession.insert(new StockTickEvent(1, "ACME", 10, 0));
+            ksession.insert(new StockTickEvent(2, "ACME", 10, 0));
+            ksession.fireAllRules();
+
+            assertThat(countQueuedExpirations(ksession)).isEqualTo(2);
+            ksession.delete(deleted);
+            assertThat(ksession.getFactCount()).isEqualTo(1);
+            assertThat(countQueuedExpirations(ksession)).isEqualTo(1);
+
+            clock.advanceTime(11, TimeUnit.SECONDS);
+            ksession.fireAllRules();
+            assertThat(ksession.getFactCount()).isZero();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testQueuedExpirationsSurviveSerialization() throws Exception {
+        KieSession ksession = newKieSession(true);
+        try {
+            ksession.insert(new StockTickEvent(1, "ACME", 10, 0));
+            ((SessionPseudoClock) ksession.getSessionClock()).advanceTime(5, TimeUnit.SECONDS);
+            ksession.insert(new StockTickEvent(2, "ACME", 10, 0));
+            final FactHandle deleted = ksession.insert(new StockTickEvent(3, "ACME", 10, 0));
+            ksession.fireAllRules();
+            ksession.delete(deleted);
+
+            ksession = SerializationHelper.getSerialisedStatefulKnowledgeSession(ksession, true);
+            assertThat(ksession.getFactCount()).isEqualTo(2);
+
+            final SessionPseudoClock clock = ksession.getSessionClock();
+            clock.advanceTime(6, TimeUnit.SECONDS);
+            ksession.fireAllRules();
+            assertThat(ksession.getFactCount()).isEqualTo(1);
+
+            clock.advanceTime(5, TimeUnit.SECONDS);
+            ksession.fireAllRules();
+            assertThat(ksession.getFactCount()).isZero();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testOneJobPerEventWhenNotBatched() {
+        final KieSession ksession = newKieSession(false);
+        try {
+            for (int i = 0; i < 10; i++) {
+                ksession.insert(new StockTickEvent(i, "ACME", 10, 0));
+            }
+            ksession.fireAllRules();
+            assertThat(countTimerJobs(ksession)).isEqualTo(10);
+        } finally {
+            ksession.dispose();
+        }
+    }
+}
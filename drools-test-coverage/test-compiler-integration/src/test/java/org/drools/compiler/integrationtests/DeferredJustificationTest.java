@@ -0,0 +1,163 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.compiler.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.drools.core.common.ReteEvaluator;
+import org.drools.core.common.TruthMaintenanceSystemFactory;
+import org.drools.core.impl.RuleBaseFactory;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.drools.tms.DeferredJustifications;
+import org.drools.tms.TruthMaintenanceSystemImpl;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.runtime.conf.DeferredJustificationOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class DeferredJustificationTest {
+
+    private static final String DRL =
+            "global java.util.List list\n" +
+            "rule Derive when\n" +
+            "  $i : Integer()\n" +
+            "then\n" +
+            "  insertLogical( \"n\" + ($i % 10) );\n" +
+            "end\n" +
+            "rule OnDerived when\n" +
+            "  $s : String()\n" +
+            "then\n" +
+            "  list.add( $s );\n" +
+            "end\n";
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public DeferredJustificationTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseCloudConfigurations(true);
+    }
+
+    private KieSession newKieSession(boolean deferred, List<String> list) {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("deferred-justification-test", kieBaseTestConfiguration, DRL);
+        final KieSessionConfiguration conf = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setOption(deferred ? DeferredJustificationOption.YES : DeferredJustificationOption.NO);
+        final KieSession ksession = kbase.newKieSession(conf, null);
+        ksession.setGlobal("list", list);
+        return ksession;
+    }
+
+    private DeferredJustifications getDeferredJustifications(KieSession ksession) {
+        return ((TruthMaintenanceSystemImpl) TruthMaintenanceSystemFactory.get().getOrCreateTruthMaintenanceSystem((ReteEvaluator) ksession)).getDeferredJustifications();
+    }
+
+    @Test
+    public void testJustificationReplacedInSameCycle() {
+        final List<String> list = new ArrayList<>();
+        final KieSession ksession = newKieSession(true, list);
+        try {
+            final FactHandle first = ksession.insert(10);
+            ksession.fireAllRules();
+            assertThat(list).containsExactly("n0");
+            final FactHandle derived = ksession.getFactHandle("n0");
+
+            // the only justification of n0 is replaced by a new one, so its retraction is deferred and then cancelled
+            ksession.delete(first);
+            final FactHandle second = ksession.insert(20);
+            ksession.fireAllRules();
+
+            assertThat(list).containsExactly("n0");
+            assertThat(ksession.getFactHandle("n0")).isSameAs(derived);
+
+            final DeferredJustifications deferredJustifications = getDeferredJustifications(ksession);
+            assertThat(deferredJustifications.getDeferredCount()).isEqualTo(1);
+            assertThat(deferredJustifications.getAppliedCount()).isZero();
+
+            ksession.delete(second);
+            ksession.fireAllRules();
+
+            assertThat(ksession.getObjects(o -> o instanceof String)).isEmpty();
+            assertThat(deferredJustifications.getDeferredCount()).isEqualTo(2);
+            assertThat(deferredJustifications.getAppliedCount()).isEqualTo(1);
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testJustificationReplacedInSameCycleWithoutDeferral() {
+        final List<String> list = new ArrayList<>();
+        final KieSession ksession = newKieSession(false, list);
+        try {
+            final FactHandle first = ksession.insert(10);
+            ksession.fireAllRules();
+
+            ksession.delete(first);
+            ksession.insert(20);
+            ksession.fireAllRules();
+
+            // n0 has been retracted and inserted again
+            assertThat(list).containsExactly("n0", "n0");
+            assertThat(getDeferredJustifications(ksession)).isNull();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testCascadingRetractionsAreAppliedOncePerKey() {
+        final List<String> list = new ArrayList<>();
+        final KieSession ksession = newKieSession(true, list);
+        try {
+            final List<FactHandle> handles = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                handles.add(ksession.insert(i));
+            }
+            ksession.fireAllRules();
+            assertThat(list).hasSize(10);
+            assertThat(ksession.getObjects(o -> o instanceof String)).hasSize(10);
+
+            for (FactHandle handle : handles) {
+                ksession.delete(handle);
+            }
+            ksession.fireAllRules();
+
+            assertThat(ksession.getObjects(o -> o instanceof String)).isEmpty();
+            final DeferredJustifications deferredJustifications = getDeferredJustifications(ksession);
+            assertThat(deferredJustifications.getAppliedCount()).isEqualTo(10);
+            assertThat(deferredJustifications.hasPendingRetractions()).isFalse();
+        } finally {
+            ksession.dispose();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.compiler.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import org.drools.kiesession.entrypoints.EntryPointSubscriber;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class EntryPointSubscriberTest {
+
+    private static final String DRL =
+            "global java.util.List list\n" +
+            "rule R when\n" +
+            "    $i : Integer( intValue % 100 == 0 ) from entry-point \"stream\"\n" +
+            "then\n" +
+            "    list.add( $i );\n" +
+            "end\n";
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public EntryPointSubscriberTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseCloudConfigurations(true);
+    }
+
+    private KieSession newKieSession(List<Integer> list) {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("entry-point-subscriber-test", kieBaseTestConfiguration, DRL);
+        final KieSession ksession = kbase.newKieSession();
+        ksession.setGlobal("list", list);
+        return ksession;
+    }
+
+    @Test(timeout = 10000)
+    public void testDemandFollowsPropagations() {
+        final List<Integer> list = new ArrayList<>();
+        final KieSession ksession = newKieSession(list);
+        try {
+            final EntryPointSubscriber<Integer> subscriber = new EntryPointSubscriber<>(ksession.getEntryPoint("stream"), 10, 50);
+            final RangePublisher publisher = new RangePublisher(1000);
+            publisher.subscribe(subscriber);
+
+            // without firing nothing is propagated, so the publisher is never asked for more than the max lag
+            assertThat(subscriber.getReceivedCount()).isEqualTo(50);
+            assertThat(subscriber.getLag()).isEqualTo(50);
+            assertThat(subscriber.getOutstandingDemand()).isZero();
+            assertThat(publisher.requested).isEqualTo(50);
+
+            for (int i = 0; i < 100 && !(subscriber.isCompleted() && subscriber.getLag() == 0); i++) {
+                ksession.fireAllRules();
+            }
+
+            assertThat(subscriber.isCompleted()).isTrue();
+            assertThat(subscriber.getError()).isNull();
+            assertThat(subscriber.getReceivedCount()).isEqualTo(1000);
+            assertThat(subscriber.getPropagatedCount()).isEqualTo(1000);
+            assertThat(subscriber.getPeakLag()).isLessThanOrEqualTo(50);
+            assertThat(ksession.getEntryPoint("stream").getFactCount()).isEqualTo(1000);
+            assertThat(list).hasSize(10);
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testCloseStopsRequesting() {
+        final List<Integer> list = new ArrayList<>();
+        final KieSession ksession = newKieSession(list);
+        try {
+            final EntryPointSubscriber<Integer> subscriber = new EntryPointSubscriber<>(ksession.getEntryPoint("stream"), 10, 20);
+            final RangePublisher publisher = new RangePublisher(1000);
+            publisher.subscribe(subscriber);
+            assertThat(subscriber.getReceivedCount()).isEqualTo(20);
+
+            subscriber.close();
+            ksession.fireAllRules();
+
+            assertThat(publisher.cancelled).isTrue();
+            assertThat(subscriber.getReceivedCount()).isEqualTo(20);
+            assertThat(subscriber.getLag()).isZero();
+            assertThat(ksession.getEntryPoint("stream").getFactCount()).isEqualTo(20);
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    /**
+     * Synchronously publishes the integers from 0 to count - 1, honouring the demand.
+     */
+    private static class RangePublisher implements Flow.Publisher<Integer>, Flow.Subscription {
+
+        private final int count;
+        private Flow.Subscriber<? super Integer> subscriber;
+        private int next;
+        private long demand;
+        private long requested;
+        private boolean emitting;
+        private boolean cancelled;
+
+        private RangePublisher(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super Integer> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void request(long n) {
+            requested += n;
+            demand += n;
+            if (emitting) {
+                return;
+            }
+            emitting = true;
+            while (demand > 0 && next < count && !cancelled) {
+                demand--;
+                subscriber.onNext(next++);
+            }
+            emitting = false;
+            if (next == count && !cancelled) {
+                cancelled = true;
+                subscriber.onComplete();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
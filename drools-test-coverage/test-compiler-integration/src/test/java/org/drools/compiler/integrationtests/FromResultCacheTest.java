@@ -0,0 +1,302 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.compiler.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class FromResultCacheTest {
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public FromResultCacheTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseCloudConfigurations(true);
+    }
+
+    private static String getDrl(String ruleMetadata) {
+        return "import " + Item.class.getCanonicalName() + "\n" +
+               "import " + ReferenceData.class.getCanonicalName() + "\n" +
+               "global ReferenceData referenceData\n" +
+               "global java.util.List results\n" +
+               "rule R " + ruleMetadata + " when\n" +
+               "  $i : Item( $code : code )\n" +
+               "  $d : String() from referenceData.get( $code )\n" +
+               "then\n" +
+               "  results.add( $i.getName() + \":\" + $d );\n" +
+               "end\n";
+    }
+
+    @Test
+    public void testResultsAreCachedPerInput() {
+        final ReferenceData referenceData = new ReferenceData();
+        final List<String> results = new ArrayList<>();
+        final KieSession kieSession = newKieSession( "@fromCache(100)", referenceData, results );
+        try {
+            for (int i = 0; i < 30; i++) {
+                kieSession.insert( new Item( "item" + i, "code" + (i % 3) ) );
+            }
+            assertThat(kieSession.fireAllRules()).isEqualTo(30);
+            assertThat(results).hasSize(30).contains( "item4:description of code1" );
+            assertThat(referenceData.getInvocations()).isEqualTo(3);
+        } finally {
+            kieSession.dispose();
+        }
+    }
+
+    @Test
+    public void testWithoutCache() {
+        final ReferenceData referenceData = new ReferenceData();
+        final List<String> results = new ArrayList<>();
+        final KieSession kieSession = newKieSession( "", referenceData, results );
+        try {
+            for (int i = 0; i < 30; i++) {
+                kieSession.insert( new Item( "item" + i, "code" + (i % 3) ) );
+            }
+            assertThat(kieSession.fireAllRules()).isEqualTo(30);
+            assertThat(referenceData.getInvocations()).isEqualTo(30);
+        } finally {
+            kieSession.dispose();
+        }
+    }
+
+    @Test
+    public void testEvictionOfLeastRecentlyUsedInput() {
+        final ReferenceData referenceData = new ReferenceData();
+        final List<String> results = new ArrayList<>();
+        final KieSession kieSession = newKieSession( "@fromCache(2)", referenceData, results );
+        try {
+            kieSession.insert( new Item( "item1", "code1" ) );
+            kieSession.insert( new Item( "item2", "code2" ) );
+            kieSession.insert( new Item( "item3", "code3" ) );
+            kieSession.fireAllRules();
+            assertThat(referenceData.getInvocations()).isEqualTo(3);
+
+            kieSession.insert( new Item( "item4", "code3" ) );
+            kieSession.fireAllRules();
+            assertThat(referenceData.getInvocations()).isEqualTo(3);
+
+            // code1 has been evicted
+            kieSession.insert( new Item( "item5", "code1" ) );
+            kieSession.fireAllRules();
+            assertThat(referenceData.getInvocations()).isEqualTo(4);
+            assertThat(results).hasSize(5);
+        } finally {
+            kieSession.dispose();
+        }
+    }
+
+    @Test
+    public void testCachedResultsAreRefreshedOnModify() {
+        final ReferenceData referenceData = new ReferenceData();
+        final List<String> results = new ArrayList<>();
+        final KieSession kieSession = newKieSession( "@fromCache(100)", referenceData, results );
+        try {
+            final Item item1 = new Item( "item1", "code1" );
+            final FactHandle fh1 = kieSession.insert( item1 );
+            kieSession.fireAllRules();
+            assertThat(results).containsExactly( "item1:description of code1" );
+
+            referenceData.put( "code1", "new description of code1" );
+            kieSession.update( fh1, item1 );
+            kieSession.fireAllRules();
+            assertThat(results).containsExactly( "item1:description of code1", "item1:new description of code1" );
+            assertThat(referenceData.getInvocations()).isEqualTo(2);
+
+            // the refreshed results are used by the other tuples binding the same input
+            kieSession.insert( new Item( "item2", "code1" ) );
+            kieSession.fireAllRules();
+            assertThat(results).contains( "item2:new description of code1" );
+            assertThat(referenceData.getInvocations()).isEqualTo(2);
+        } finally {
+            kieSession.dispose();
+        }
+    }
+
+    @Test
+    public void testEqualButDistinctFactsDoNotShareResults() {
+        final String drl =
+                "import " + Item.class.getCanonicalName() + "\n" +
+                "import " + ReferenceData.class.getCanonicalName() + "\n" +
+                "global ReferenceData referenceData\n" +
+                "global java.util.List results\n" +
+                "rule R @fromCache(100) when\n" +
+                "  $i : Item()\n" +
+                "  $d : String() from referenceData.describe( $i )\n" +
+                "then\n" +
+                "  results.add( $i.getName() + \":\" + $d );\n" +
+                "end\n";
+
+        final ReferenceData referenceData = new ReferenceData();
+        final List<String> results = new ArrayList<>();
+        final KieSession kieSession = newKieSessionFromDrl( drl, referenceData, results );
+        try {
+            final Item item1 = new Item( "item", "code1" );
+            final Item item2 = new Item( "item", "code1" );
+            assertThat(item1).isEqualTo(item2);
+
+            final FactHandle fh1 = kieSession.insert( item1 );
+            kieSession.insert( item2 );
+            kieSession.fireAllRules();
+            assertThat(referenceData.getInvocations()).isEqualTo(2);
+
+            // the results cached for the handle of item1 are not reused once item1 has been modified
+            results.clear();
+            item1.setCode( "code2" );
+            kieSession.update( fh1, item1 );
+            kieSession.fireAllRules();
+            assertThat(results).containsExactly( "item:description of code2" );
+            assertThat(referenceData.getInvocations()).isEqualTo(3);
+        } finally {
+            kieSession.dispose();
+        }
+    }
+
+    @Test
+    public void testCachedNodeIsNotSharedWithUncachedRule() {
+        final String drl =
+                "import " + Item.class.getCanonicalName() + "\n" +
+                "import " + ReferenceData.class.getCanonicalName() + "\n" +
+                "global ReferenceData referenceData\n" +
+                "global java.util.List results\n" +
+                "rule Cached @fromCache(100) when\n" +
+                "  $i : Item( $code : code )\n" +
+                "  $d : String() from referenceData.get( $code )\n" +
+                "then\n" +
+                "  results.add( \"cached:\" + $i.getName() );\n" +
+                "end\n" +
+                "rule Uncached when\n" +
+                "  $i : Item( $code : code )\n" +
+                "  $d : String() from referenceData.get( $code )\n" +
+                "then\n" +
+                "  results.add( \"uncached:\" + $i.getName() );\n" +
+                "end\n";
+
+        final ReferenceData referenceData = new ReferenceData();
+        final List<String> results = new ArrayList<>();
+        final KieSession kieSession = newKieSessionFromDrl( drl, referenceData, results );
+        try {
+            for (int i = 0; i < 3; i++) {
+                kieSession.insert( new Item( "item" + i, "code" ) );
+            }
+            assertThat(kieSession.fireAllRules()).isEqualTo(6);
+            // one evaluation for the cached rule, one per item for the uncached one
+            assertThat(referenceData.getInvocations()).isEqualTo(4);
+        } finally {
+            kieSession.dispose();
+        }
+    }
+
+    private KieSession newKieSession(final String ruleMetadata, final ReferenceData referenceData, final List<String> results) {
+        return newKieSessionFromDrl( getDrl(ruleMetadata), referenceData, results );
+    }
+
+    private KieSession newKieSessionFromDrl(final String drl, final ReferenceData referenceData, final List<String> results) {
+        final KieBase kieBase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("from-result-cache-test", kieBaseTestConfiguration, drl);
+        final KieSession kieSession = kieBase.newKieSession();
+        kieSession.setGlobal( "referenceData", referenceData );
+        kieSession.setGlobal( "results", results );
+        return kieSession;
+    }
+
+    public static class ReferenceData {
+
+        private final Map<String, String> descriptions = new HashMap<>();
+        private int invocations;
+
+        public List<String> get(final String code) {
+            invocations++;
+            return Collections.singletonList( descriptions.getOrDefault( code, "description of " + code ) );
+        }
+
+        public List<String> describe(final Item item) {
+            return get( item.getCode() );
+        }
+
+        public void put(final String code, final String description) {
+            descriptions.put( code, description );
+        }
+
+        public int getInvocations() {
+            return invocations;
+        }
+    }
+
+    public static class Item {
+
+        private final String name;
+        private String code;
+
+        public Item(final String name, final String code) {
+            this.name = name;
+            this.code = code;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(final String code) {
+            this.code = code;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Item)) {
+                return false;
+            }
+            final Item item = (Item) o;
+            return name.equals( item.name ) && Objects.equals( code, item.code );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash( name, code );
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.compiler.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.impl.InternalRuleBase;
+import org.drools.core.reteoo.PathMemory;
+import org.drools.core.reteoo.SegmentMemory;
+import org.drools.core.reteoo.TerminalNode;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.internal.runtime.conf.PreallocateSegmentMemoriesOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class PreallocateSegmentMemoriesTest {
+
+    private static final String DRL =
+            "package org.drools.compiler.integrationtests;\n" +
+            "global java.util.List list;\n" +
+            "rule R1 when\n" +
+            "    $i : Integer()\n" +
+            "    $s : String( length == $i )\n" +
+            "then\n" +
+            "    list.add(\"R1:\" + $s);\n" +
+            "end\n" +
+            "rule R2 when\n" +
+            "    $i : Integer()\n" +
+            "    $s : String( length == $i )\n" +
+            "    not Long()\n" +
+            "then\n" +
+            "    list.add(\"R2:\" + $s);\n" +
+            "end\n" +
+            "rule R3 when\n" +
+            "    $i : Integer()\n" +
+            "    exists( String( length > $i ) and Long() )\n" +
+            "then\n" +
+            "    list.add(\"R3:\" + $i);\n" +
+            "end\n" +
+            "rule R4 when\n" +
+            "    not Short()\n" +
+            "then\n" +
+            "    list.add(\"R4\");\n" +
+            "end\n" +
+            "query strings( int $l )\n" +
+            "    String( length == $l )\n" +
+            "end\n";
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public PreallocateSegmentMemoriesTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseCloudConfigurations(true);
+    }
+
+    @Test
+    public void testAllSegmentsAreCreatedWithTheSession() {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("preallocate-test", kieBaseTestConfiguration, DRL);
+
+        // create and fire a session in default mode first, so that the prototypes get cached also in lazy mode
+        assertThat(fireWithPreallocation(kbase, false)).containsExactlyInAnyOrderElementsOf(fireWithPreallocation(kbase, true));
+
+        final KieSession ksession = kbase.newKieSession(preallocateConfiguration(true), null);
+        try {
+            for (TerminalNode[] tns : ((InternalRuleBase) kbase).getReteooBuilder().getTerminalNodes().values()) {
+                for (TerminalNode tn : tns) {
+                    PathMemory pmem = (PathMemory) ((InternalWorkingMemory) ksession).getNodeMemories().peekNodeMemory(tn);
+                    assertThat(pmem).as("path memory of " + tn).isNotNull();
+                    for (SegmentMemory smem : pmem.getSegmentMemories()) {
+                        assertThat(smem).as("segment memory of " + tn).isNotNull();
+                    }
+                }
+            }
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testSameResultsWithAndWithoutPreallocation() {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("preallocate-test", kieBaseTestConfiguration, DRL);
+
+        final List<String> preallocated = fireWithPreallocation(kbase, true);
+        assertThat(preallocated).containsExactlyInAnyOrder("R1:ab", "R3:2", "R4");
+        assertThat(fireWithPreallocation(kbase, false)).containsExactlyInAnyOrderElementsOf(preallocated);
+    }
+
+    private static List<String> fireWithPreallocation(KieBase kbase, boolean preallocate) {
+        final KieSession ksession = kbase.newKieSession(preallocateConfiguration(preallocate), null);
+        try {
+            final List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+            ksession.insert(2);
+            ksession.insert("ab");
+            ksession.insert("abc");
+            ksession.insert(1L);
+            ksession.fireAllRules();
+
+            assertThat(ksession.getQueryResults("strings", 3).size()).isEqualTo(1);
+            return list;
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    private static KieSessionConfiguration preallocateConfiguration(boolean preallocate) {
+        final KieSessionConfiguration conf = KieServices.get().newKieSessionConfiguration();
+        conf.setOption(preallocate ? PreallocateSegmentMemoriesOption.YES : PreallocateSegmentMemoriesOption.NO);
+        return conf;
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.compiler.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.drools.base.rule.TypeDeclaration;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.PropertyReactivityStats;
+import org.drools.core.impl.InternalRuleBase;
+import org.drools.core.impl.RuleBaseFactory;
+import org.drools.testcoverage.common.model.Person;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.drools.util.bitmask.BitMask;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.runtime.conf.PropertyReactivityStatsOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class PropertyReactivityStatsTest {
+
+    private static final String DRL =
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule Name when\n" +
+            "    $p : Person( name == \"Mario\" )\n" +
+            "then\n" +
+            "    modify($p) { setAge(40) };\n" +
+            "end\n" +
+            "rule Age when\n" +
+            "    Person( age > 30 )\n" +
+            "then\n" +
+            "    list.add(\"Age\");\n" +
+            "end\n";
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public PropertyReactivityStatsTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseCloudConfigurations(true);
+    }
+
+    private KieSession newKieSession(boolean stats) {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("property-reactivity-stats-test", kieBaseTestConfiguration, DRL);
+        final KieSessionConfiguration conf = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setOption(stats ? PropertyReactivityStatsOption.YES : PropertyReactivityStatsOption.NO);
+        return kbase.newKieSession(conf, null);
+    }
+
+    @Test
+    public void testStatsAreDisabledByDefault() {
+        final KieSession ksession = newKieSession(false);
+        try {
+            final PropertyReactivityStats stats = ((InternalWorkingMemory) ksession).getPropertyReactivityStats();
+            assertThat(stats).isSameAs(PropertyReactivityStats.DISABLED);
+            assertThat(stats.isEnabled()).isFalse();
+
+            ksession.setGlobal("list", new ArrayList<>());
+            ksession.insert(new Person("Mario", 20));
+            assertThat(ksession.fireAllRules()).isEqualTo(2);
+            assertThat(stats.getAvoided()).isZero();
+            assertThat(stats.getReEvaluated()).isZero();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testAvoidedAndWastedReEvaluations() {
+        final KieSession ksession = newKieSession(true);
+        try {
+            final List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+            final PropertyReactivityStats stats = ((InternalWorkingMemory) ksession).getPropertyReactivityStats();
+            assertThat(stats.isEnabled()).isTrue();
+
+            final Person mario = new Person("Mario", 20);
+            final FactHandle fh = ksession.insert(mario);
+            assertThat(ksession.fireAllRules()).isEqualTo(2);
+            assertThat(list).containsExactly("Age");
+
+            // the modify of the age is not propagated to the constraint on the name
+            assertThat(stats.getAvoided()).isPositive();
+            assertThat(stats.getReEvaluated()).isPositive();
+            assertThat(stats.getWasted()).isZero();
+
+            // an update without modified properties re-evaluates everything
+            stats.reset();
+            ksession.update(fh, mario);
+            ksession.fireAllRules();
+            assertThat(stats.getWasted()).isPositive();
+
+            // the mask of an update by property names is computed once and only touches the listening nodes
+            stats.reset();
+            ksession.update(fh, mario, "name");
+            ksession.fireAllRules();
+            assertThat(stats.getAvoided()).isPositive();
+            assertThat(stats.getWasted()).isZero();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testCachedModificationMaskIsNotShared() {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("property-reactivity-stats-test", kieBaseTestConfiguration, DRL);
+        final TypeDeclaration typeDeclaration = ((InternalRuleBase) kbase).getOrCreateExactTypeDeclaration(Person.class);
+
+        final BitMask nameMask = typeDeclaration.getModificationMask("name");
+        final BitMask expected = nameMask.clone();
+
+        // changing a returned mask must not corrupt the one of the next update of the same properties
+        nameMask.setAll(typeDeclaration.getModificationMask("age"));
+        assertThat(typeDeclaration.getModificationMask("name")).isEqualTo(expected);
+        assertThat(typeDeclaration.getModificationMask("name")).isNotSameAs(typeDeclaration.getModificationMask("name"));
+    }
+}
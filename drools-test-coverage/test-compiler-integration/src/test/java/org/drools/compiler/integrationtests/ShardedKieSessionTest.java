@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.compiler.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.drools.kiesession.session.ShardedKieSession;
+import org.drools.testcoverage.common.model.Cheese;
+import org.drools.testcoverage.common.model.Person;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.runtime.rule.Variable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(Parameterized.class)
+public class ShardedKieSessionTest {
+
+    private static final String DRL =
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "import " + Cheese.class.getCanonicalName() + ";\n" +
+            "global java.util.List list\n" +
+            "query likedCheese( String $name )\n" +
+            "  Person( $name := name, $likes : likes )\n" +
+            "  $cheese : Cheese( type == $likes )\n" +
+            "end\n" +
+            "rule R when\n" +
+            "  $p : Person( $likes : likes )\n" +
+            "  Cheese( type == $likes )\n" +
+            "then\n" +
+            "  list.add( $p.getName() );\n" +
+            "end\n";
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public ShardedKieSessionTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseCloudConfigurations(true);
+    }
+
+    private static Object cheeseType(Object fact) {
+        return fact instanceof Person ? ((Person) fact).getLikes() : ((Cheese) fact).getType();
+    }
+
+    @Test
+    public void testFactsRoutedByPartitionKey() {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("sharded-session-test", kieBaseTestConfiguration, DRL);
+        final List<String> list = Collections.synchronizedList(new ArrayList<>());
+
+        try (ShardedKieSession ksession = new ShardedKieSession(kbase, 4, ShardedKieSessionTest::cheeseType)) {
+            ksession.setGlobal("list", list);
+
+            final List<Object> facts = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                facts.add(new Cheese("cheese" + i, i));
+                facts.add(new Person("person" + i, "cheese" + i));
+            }
+            ksession.insertAll(facts);
+            assertThat(ksession.getFactCount()).isEqualTo(40);
+
+            assertThat(ksession.fireAllRules()).isEqualTo(20);
+            assertThat(list).hasSize(20);
+
+            final List<Map<String, Object>> rows = ksession.getQueryResults("likedCheese", "person7");
+            assertThat(rows).hasSize(1);
+            assertThat(((Cheese) rows.get(0).get("$cheese")).getPrice()).isEqualTo(7);
+
+            final List<Map<String, Object>> allRows = ksession.getQueryResults("likedCheese", Variable.v);
+            assertThat(allRows.stream().map(row -> row.get("$name")).collect(Collectors.toSet())).hasSize(20);
+
+            // a new person is routed to the shard of the cheese it likes
+            list.clear();
+            final Person person = new Person("other", "cheese3");
+            final FactHandle handle = ksession.insert(person);
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+            assertThat(list).containsExactly("other");
+
+            person.setAge(30);
+            ksession.update(handle, person);
+            assertThat(ksession.getFactCount()).isEqualTo(41);
+
+            ksession.delete(handle);
+            assertThat(ksession.getFactCount()).isEqualTo(40);
+        }
+    }
+
+    @Test
+    public void testFactsInAllShards() {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("sharded-session-test", kieBaseTestConfiguration, DRL);
+        final List<String> list = Collections.synchronizedList(new ArrayList<>());
+
+        try (ShardedKieSession ksession = new ShardedKieSession(kbase, 3, ShardedKieSessionTest::cheeseType)) {
+            ksession.setGlobal("list", list);
+
+            // the same cheese is visible to all the persons, whatever their shard
+            assertThat(ksession.insertInAllShards(new Cheese("stilton", 10))).hasSize(3);
+            for (int i = 0; i < 9; i++) {
+                final Person person = new Person("person" + i, "stilton");
+                ksession.submit(i % 3, session -> session.insert(person)).join();
+            }
+
+            assertThat(ksession.fireAllRules()).isEqualTo(9);
+            assertThat(list).hasSize(9);
+        }
+    }
+
+    @Test
+    public void testMissingPartitionKey() {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("sharded-session-test", kieBaseTestConfiguration, DRL);
+
+        try (ShardedKieSession ksession = new ShardedKieSession(kbase, 2, ShardedKieSessionTest::cheeseType)) {
+            assertThatThrownBy(() -> ksession.insert(new Person("nobody")))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
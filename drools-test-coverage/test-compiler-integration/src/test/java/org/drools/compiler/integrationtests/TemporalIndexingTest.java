@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.compiler.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.ancompiler.CompiledNetwork;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.reteoo.AlphaNode;
+import org.drools.core.reteoo.BetaMemory;
+import org.drools.core.reteoo.JoinNode;
+import org.drools.core.reteoo.ObjectSink;
+import org.drools.core.reteoo.ObjectSinkPropagator;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.util.index.TupleIndexTemporalTree;
+import org.drools.testcoverage.common.model.StockTickEvent;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.KieSessionTestConfiguration;
+import org.drools.testcoverage.common.util.KieUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.time.SessionPseudoClock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class TemporalIndexingTest {
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public TemporalIndexingTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseStreamConfigurations(true);
+    }
+
+    @Test(timeout = 10000)
+    public void testAfterUsesTemporalIndex() {
+        final String drl =
+                "import " + StockTickEvent.class.getCanonicalName() + ";\n" +
+                "global java.util.List list;\n" +
+                "rule R when\n" +
+                "    $a : StockTickEvent( company == \"A\" )\n" +
+                "    $b : StockTickEvent( company == \"B\", this after[1s, 10s] $a )\n" +
+                "then\n" +
+                "    list.add( $a.getSeq() + \"-\" + $b.getSeq() );\n" +
+                "end\n";
+
+        final List<String> list = runTicks(drl);
+        // A1 at 0s, A4 at 3s, B2 at 5s, B3 at 12s: B3 is too late for A1
+        assertThat(list).containsExactlyInAnyOrder("1-2", "4-2", "4-3");
+    }
+
+    @Test(timeout = 10000)
+    public void testBeforeUsesTemporalIndex() {
+        final String drl =
+                "import " + StockTickEvent.class.getCanonicalName() + ";\n" +
+                "global java.util.List list;\n" +
+                "rule R when\n" +
+                "    $b : StockTickEvent( company == \"B\" )\n" +
+                "    $a : StockTickEvent( company == \"A\", this before[1s, 4s] $b )\n" +
+                "then\n" +
+                "    list.add( $a.getSeq() + \"-\" + $b.getSeq() );\n" +
+                "end\n";
+
+        final List<String> list = runTicks(drl);
+        // only A4 at 3s happens between 1s and 4s before a B event
+        assertThat(list).containsExactly("4-2");
+    }
+
+    private List<String> runTicks(final String drl) {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("temporal-indexing-test", kieBaseTestConfiguration, drl);
+        final KieSession ksession = kbase.newKieSession(KieSessionTestConfiguration.STATEFUL_PSEUDO.getKieSessionConfiguration(), null);
+        try {
+            final List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+            final SessionPseudoClock clock = ksession.getSessionClock();
+
+            ksession.insert(new StockTickEvent(1, "A", 10, 0));
+            clock.advanceTime(3, TimeUnit.SECONDS);
+            ksession.insert(new StockTickEvent(4, "A", 10, 0));
+            clock.advanceTime(2, TimeUnit.SECONDS);
+            ksession.insert(new StockTickEvent(2, "B", 10, 0));
+            clock.advanceTime(7, TimeUnit.SECONDS);
+            ksession.insert(new StockTickEvent(3, "B", 10, 0));
+            ksession.fireAllRules();
+
+            assertTemporalIndexed(kbase, (InternalWorkingMemory) ksession);
+            return list;
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    private void assertTemporalIndexed(final KieBase kbase, final InternalWorkingMemory wm) {
+        final ObjectTypeNode otn = KieUtil.getObjectTypeNode(kbase, StockTickEvent.class);
+        assertThat(otn).isNotNull();
+
+        ObjectSinkPropagator objectSinkPropagator = otn.getObjectSinkPropagator();
+        if (this.kieBaseTestConfiguration.useAlphaNetworkCompiler()) {
+            objectSinkPropagator = ((CompiledNetwork) objectSinkPropagator).getOriginalSinkPropagator();
+        }
+
+        final JoinNode join = findJoinNode(objectSinkPropagator);
+        assertThat(join).isNotNull();
+        final BetaMemory bm = (BetaMemory) wm.getNodeMemory(join);
+        assertThat(bm.getRightTupleMemory()).isInstanceOf(TupleIndexTemporalTree.class);
+    }
+
+    private JoinNode findJoinNode(final ObjectSinkPropagator propagator) {
+        for (ObjectSink sink : propagator.getSinks()) {
+            if (sink instanceof JoinNode) {
+                return (JoinNode) sink;
+            }
+            if (sink instanceof AlphaNode) {
+                final JoinNode join = findJoinNode(((AlphaNode) sink).getObjectSinkPropagator());
+                if (join != null) {
+                    return join;
+                }
+            }
+        }
+        return null;
+    }
+}
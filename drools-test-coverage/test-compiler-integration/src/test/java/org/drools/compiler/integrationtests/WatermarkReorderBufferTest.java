@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.compiler.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.drools.kiesession.entrypoints.WatermarkReorderBuffer;
+import org.drools.testcoverage.common.model.StockTick;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.KieSessionTestConfiguration;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.event.rule.DefaultRuleRuntimeEventListener;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.EventHandle;
+import org.kie.api.time.SessionPseudoClock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class WatermarkReorderBufferTest {
+
+    private static final String DRL =
+            "import " + StockTick.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "declare StockTick @role( event ) @timestamp( time ) end\n" +
+            "rule R when\n" +
+            "    accumulate( StockTick() over window:time( 2s ); $count : count(); $count > 1 )\n" +
+            "then\n" +
+            "    list.add( $count );\n" +
+            "end\n";
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public WatermarkReorderBufferTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseStreamConfigurations(true);
+    }
+
+    private KieSession newKieSession(List<Long> inserted) {
+        final KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("watermark-test", kieBaseTestConfiguration, DRL);
+        final KieSession ksession = kbase.newKieSession(KieSessionTestConfiguration.STATEFUL_PSEUDO.getKieSessionConfiguration(), null);
+        ksession.setGlobal("list", new ArrayList<>());
+        ksession.addEventListener(new DefaultRuleRuntimeEventListener() {
+            @Override
+            public void objectInserted(ObjectInsertedEvent event) {
+                inserted.add(((StockTick) event.getObject()).getTime());
+            }
+        });
+        return ksession;
+    }
+
+    @Test(timeout = 10000)
+    public void testEventsAreInsertedInTimestampOrder() {
+        final List<Long> inserted = new ArrayList<>();
+        final KieSession ksession = newKieSession(inserted);
+        try {
+            final WatermarkReorderBuffer buffer = new WatermarkReorderBuffer(ksession.getEntryPoint("DEFAULT"), 1500, 0, 100);
+            final SessionPseudoClock clock = ksession.getSessionClock();
+
+            buffer.insert(new StockTick(1, "A", 10, 1000));
+            assertThat(inserted).isEmpty();
+
+            buffer.insert(new StockTick(2, "A", 10, 3000));
+            assertThat(inserted).containsExactly(1000L);
+            assertThat(buffer.getWatermark()).isEqualTo(1500);
+            assertThat(clock.getCurrentTime()).isEqualTo(1500);
+
+            buffer.insert(new StockTick(3, "A", 10, 2000));
+            assertThat(buffer.size()).isEqualTo(2);
+
+            buffer.flush();
+            assertThat(inserted).containsExactly(1000L, 2000L, 3000L);
+            assertThat(clock.getCurrentTime()).isEqualTo(3000);
+            assertThat(buffer.getLateCount()).isZero();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testLateEvents() {
+        final List<Long> inserted = new ArrayList<>();
+        final KieSession ksession = newKieSession(inserted);
+        try {
+            final WatermarkReorderBuffer buffer = new WatermarkReorderBuffer(ksession.getEntryPoint("DEFAULT"), 0, 1000, 100);
+            final List<Object> dropped = new ArrayList<>();
+            buffer.setLateEventHandler(dropped::add);
+
+            buffer.insert(new StockTick(1, "A", 10, 3000));
+            assertThat(buffer.getWatermark()).isEqualTo(3000);
+
+            buffer.insert(new StockTick(2, "A", 10, 2500));
+            final StockTick tooLate = new StockTick(3, "A", 10, 1000);
+            buffer.insert(tooLate);
+
+            assertThat(inserted).containsExactly(3000L, 2500L);
+            assertThat(dropped).containsExactly(tooLate);
+            assertThat(buffer.getLateCount()).isEqualTo(2);
+            assertThat(buffer.getDroppedCount()).isEqualTo(1);
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testFullBufferReleasesOldestEvent() {
+        final List<Long> inserted = new ArrayList<>();
+        final KieSession ksession = newKieSession(inserted);
+        try {
+            final WatermarkReorderBuffer buffer = new WatermarkReorderBuffer(ksession.getEntryPoint("DEFAULT"), 60000, 0, 2);
+
+            buffer.insert(new StockTick(1, "A", 10, 2000));
+            buffer.insert(new StockTick(2, "A", 10, 1000));
+            assertThat(inserted).isEmpty();
+
+            buffer.insert(new StockTick(3, "A", 10, 1500));
+            assertThat(inserted).containsExactly(1000L);
+            assertThat(buffer.getWatermark()).isEqualTo(1000);
+            assertThat(buffer.size()).isEqualTo(2);
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testWindowSeesReorderedEvents() {
+        final List<Long> inserted = new ArrayList<>();
+        final KieSession ksession = newKieSession(inserted);
+        try {
+            final List<Long> counts = new ArrayList<>();
+            ksession.setGlobal("list", counts);
+            final WatermarkReorderBuffer buffer = new WatermarkReorderBuffer(ksession.getEntryPoint("DEFAULT"), 5000, 0, 100);
+
+            // 1000 and 1500 fall in the same 2s window, 5000 doesn't
+            buffer.insert(new StockTick(1, "A", 10, 5000));
+            buffer.insert(new StockTick(2, "A", 10, 1500));
+            buffer.insert(new StockTick(3, "A", 10, 1000));
+            buffer.advanceWatermark(1500);
+            ksession.fireAllRules();
+            assertThat(counts).containsExactly(2L);
+
+            buffer.flush();
+            ksession.fireAllRules();
+            assertThat(counts).containsExactly(2L);
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testExplicitTimestampIsCarriedOnTheHandle() {
+        final List<Long> inserted = new ArrayList<>();
+        final KieSession ksession = newKieSession(inserted);
+        try {
+            final WatermarkReorderBuffer buffer = new WatermarkReorderBuffer(ksession.getEntryPoint("DEFAULT"), 0, 1000, 100);
+
+            final StockTick first = new StockTick(1, "A", 10, 0);
+            final StockTick late = new StockTick(2, "A", 10, 0);
+            buffer.insert(first, 3000);
+            buffer.insert(late, 2500);
+
+            assertThat(((EventHandle) ksession.getFactHandle(first)).getStartTimestamp()).isEqualTo(3000);
+            assertThat(((EventHandle) ksession.getFactHandle(late)).getStartTimestamp()).isEqualTo(2500);
+        } finally {
+            ksession.dispose();
+        }
+    }
+}
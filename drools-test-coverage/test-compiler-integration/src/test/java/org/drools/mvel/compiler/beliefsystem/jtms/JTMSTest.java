@@ -26,6 +26,8 @@ import java.util.List;
 import org.drools.core.BeliefSystemType;
 import org.drools.core.RuleSessionConfiguration;
 import org.drools.core.common.EqualityKey;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.ReteEvaluator;
 import org.drools.core.common.TruthMaintenanceSystem;
 import org.drools.core.common.TruthMaintenanceSystemFactory;
 import org.drools.core.impl.RuleBaseFactory;
@@ -36,6 +38,7 @@ import org.drools.mvel.compiler.Person;
 import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
 import org.drools.testcoverage.common.util.KieBaseUtil;
 import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.drools.tms.DeferredJustifications;
 import org.drools.tms.TruthMaintenanceSystemEqualityKey;
 import org.drools.tms.TruthMaintenanceSystemImpl;
 import org.drools.tms.beliefsystem.jtms.JTMSBeliefSystem;
@@ -70,6 +73,10 @@ public class JTMSTest {
     }
 
     protected KieSession getSessionFromString( String drlString) {
+        return getSessionFromString( drlString, false );
+    }
+
+    protected KieSession getSessionFromString( String drlString, boolean deferredJustification ) {
         KieBase kBase;
 
         try {
@@ -81,6 +88,7 @@ public class JTMSTest {
 
         KieSessionConfiguration ksConf = RuleBaseFactory.newKnowledgeSessionConfiguration();
         ksConf.as(RuleSessionConfiguration.KEY).setBeliefSystemType(BeliefSystemType.JTMS);
+        ksConf.as(RuleSessionConfiguration.KEY).setDeferredJustification(deferredJustification);
         KieSession kSession = kBase.newKieSession( ksConf, null );
         return kSession;
     }
@@ -687,4 +695,110 @@ public class JTMSTest {
         assertThat(session.fireAllRules()).isEqualTo(0);
     }
 
+    private static final String DEFERRED_DRL =
+            "package org.drools.tms.test; \n" +
+            "global java.util.List list; \n" +
+            "rule Derive when \n" +
+            "    $i : Integer() \n" +
+            "then \n" +
+            "    insertLogical( \"n\" + (Math.abs($i) % 10), $i < 0 ? \"neg\" : \"pos\" ); \n" +
+            "end \n" +
+            "rule OnPositive when \n" +
+            "    $s : String() \n" +
+            "then \n" +
+            "    list.add( \"+\" + $s ); \n" +
+            "end \n" +
+            "rule OnNegative when \n" +
+            "    $s : String( _.neg ) \n" +
+            "then \n" +
+            "    list.add( \"-\" + $s ); \n" +
+            "end \n";
+
+    private InternalFactHandle getLogicalFactHandle(KieSession kSession, Object object) {
+        EqualityKey key = TruthMaintenanceSystemFactory.get().getOrCreateTruthMaintenanceSystem((ReteEvaluator) kSession).get( object );
+        return key != null ? key.getLogicalFactHandle() : null;
+    }
+
+    private DeferredJustifications getDeferredJustifications(KieSession kSession) {
+        return ((TruthMaintenanceSystemImpl) TruthMaintenanceSystemFactory.get().getOrCreateTruthMaintenanceSystem((ReteEvaluator) kSession)).getDeferredJustifications();
+    }
+
+    @Test
+    public void testDeferredPositiveJustificationReusesHandle() {
+        checkDeferredJustificationReusesHandle( 10, 20, "+n0" );
+    }
+
+    @Test
+    public void testDeferredNegativeJustificationReusesHandle() {
+        checkDeferredJustificationReusesHandle( -10, -20, "-n0" );
+    }
+
+    private void checkDeferredJustificationReusesHandle(int first, int second, String expected) {
+        KieSession kSession = getSessionFromString( DEFERRED_DRL, true );
+        try {
+            List list = new ArrayList();
+            kSession.setGlobal( "list", list );
+
+            FactHandle fhFirst = kSession.insert( first );
+            kSession.fireAllRules();
+            assertThat(list).containsExactly(expected);
+            InternalFactHandle derived = getLogicalFactHandle( kSession, "n0" );
+
+            // the only justification of n0 is retracted and n0 is justified again with the same polarity in the same rule evaluation
+            kSession.delete( fhFirst );
+            FactHandle fhSecond = kSession.insert( second );
+            kSession.fireAllRules();
+
+            assertThat(list).containsExactly(expected);
+            assertThat(getLogicalFactHandle( kSession, "n0" )).isSameAs(derived);
+            assertThat(derived.isNegated()).isEqualTo(first < 0);
+
+            DeferredJustifications deferredJustifications = getDeferredJustifications( kSession );
+            assertThat(deferredJustifications.getDeferredCount()).isEqualTo(1);
+            assertThat(deferredJustifications.getAppliedCount()).isZero();
+
+            kSession.delete( fhSecond );
+            kSession.fireAllRules();
+
+            assertThat(getLogicalFactHandle( kSession, "n0" )).isNull();
+            assertThat(kSession.getObjects(o -> o instanceof String)).isEmpty();
+            assertThat(getNegativeObjects(kSession)).isEmpty();
+            assertThat(deferredJustifications.getAppliedCount()).isEqualTo(1);
+        } finally {
+            kSession.dispose();
+        }
+    }
+
+    @Test
+    public void testDeferredJustificationWithOppositePolarityIsResolvedFirst() {
+        KieSession kSession = getSessionFromString( DEFERRED_DRL, true );
+        try {
+            List list = new ArrayList();
+            kSession.setGlobal( "list", list );
+
+            FactHandle fhFirst = kSession.insert( 10 );
+            kSession.fireAllRules();
+            assertThat(list).containsExactly("+n0");
+            InternalFactHandle derived = getLogicalFactHandle( kSession, "n0" );
+
+            // n0 is justified again with the opposite polarity, so its pending retraction is applied before the new insertion
+            kSession.delete( fhFirst );
+            kSession.insert( -20 );
+            kSession.fireAllRules();
+
+            assertThat(list).containsExactly("+n0", "-n0");
+            InternalFactHandle negated = getLogicalFactHandle( kSession, "n0" );
+            assertThat(negated).isNotSameAs(derived);
+            assertThat(negated.isNegated()).isTrue();
+            assertThat(kSession.getObjects(o -> o instanceof String)).isEmpty();
+            assertThat(getNegativeObjects(kSession)).containsExactly("n0");
+
+            DeferredJustifications deferredJustifications = getDeferredJustifications( kSession );
+            assertThat(deferredJustifications.getDeferredCount()).isEqualTo(1);
+            assertThat(deferredJustifications.getAppliedCount()).isEqualTo(1);
+            assertThat(deferredJustifications.hasPendingRetractions()).isFalse();
+        } finally {
+            kSession.dispose();
+        }
+    }
 }
@@ -26,6 +26,7 @@ import org.kie.api.runtime.conf.AccumulateNullPropagationOption;
 import org.kie.api.runtime.conf.BeliefSystemTypeOption;
 import org.kie.api.runtime.KieSessionConfiguration;
 import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.internal.runtime.conf.PreallocateSegmentMemoriesOption;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -104,4 +105,22 @@ public class KnowledgeSessionConfigurationTest {
         // checking the string based getProperty() method
         assertThat(config.getProperty(AccumulateNullPropagationOption.PROPERTY_NAME)).isEqualTo("false");
     }
+
+    @Test
+    public void testPreallocateSegmentMemories() {
+        // false by default
+        assertThat(config.getOption(PreallocateSegmentMemoriesOption.KEY)).isEqualTo(PreallocateSegmentMemoriesOption.NO);
+        assertThat(config.getProperty(PreallocateSegmentMemoriesOption.PROPERTY_NAME)).isEqualTo("false");
+
+        config.setOption(PreallocateSegmentMemoriesOption.YES);
+
+        assertThat(config.getOption(PreallocateSegmentMemoriesOption.KEY)).isEqualTo(PreallocateSegmentMemoriesOption.YES);
+        assertThat(config.getProperty(PreallocateSegmentMemoriesOption.PROPERTY_NAME)).isEqualTo("true");
+
+        // setting the options using the string based setProperty() method
+        config.setProperty(PreallocateSegmentMemoriesOption.PROPERTY_NAME, "false");
+
+        assertThat(config.getOption(PreallocateSegmentMemoriesOption.KEY)).isEqualTo(PreallocateSegmentMemoriesOption.NO);
+        assertThat(config.getProperty(PreallocateSegmentMemoriesOption.PROPERTY_NAME)).isEqualTo("false");
+    }
 }
@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.mvel.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import org.drools.kiesession.query.LiveQueryPublisher;
+import org.drools.kiesession.query.LiveQueryPublisher.ChangeType;
+import org.drools.kiesession.query.LiveQueryPublisher.RowChange;
+import org.drools.mvel.compiler.Cheese;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.KieBaseUtil;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class LiveQueryPublisherTest {
+
+    private final KieBaseTestConfiguration kieBaseTestConfiguration;
+
+    public LiveQueryPublisherTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        this.kieBaseTestConfiguration = kieBaseTestConfiguration;
+    }
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseCloudConfigurations(true);
+    }
+
+    private static final String DRL =
+            "package org.drools.test\n" +
+            "import " + Cheese.class.getCanonicalName() + "\n" +
+            "query expensiveCheeses()\n" +
+            "    $cheese : Cheese( price > 5 )\n" +
+            "end\n";
+
+    @Test
+    public void testBatchesAreCoalescedPerFireCycle() {
+        KieSession ksession = newKieSession();
+        try {
+            Cheese stilton = new Cheese( "stilton", 10 );
+            FactHandle stiltonFh = ksession.insert( stilton );
+            ksession.insert( new Cheese( "brie", 8 ) );
+            ksession.insert( new Cheese( "cheddar", 2 ) );
+
+            LiveQueryPublisher publisher = LiveQueryPublisher.open( ksession, "expensiveCheeses", new Object[0], Runnable::run, "$cheese" );
+            BatchSubscriber subscriber = new BatchSubscriber( Long.MAX_VALUE );
+            publisher.subscribe( subscriber );
+
+            assertThat(subscriber.batches).hasSize( 1 );
+            assertThat(subscriber.batches.get( 0 )).hasSize( 2 ).allMatch( change -> change.getType() == ChangeType.ADDED );
+
+            Cheese gouda = new Cheese( "gouda", 12 );
+            ksession.insert( gouda );
+            stilton.setPrice( 3 );
+            ksession.update( stiltonFh, stilton );
+            FactHandle transientFh = ksession.insert( new Cheese( "feta", 20 ) );
+            ksession.delete( transientFh );
+            ksession.fireAllRules();
+
+            assertThat(subscriber.batches).hasSize( 2 );
+            List<RowChange> batch = subscriber.batches.get( 1 );
+            assertThat(batch).hasSize( 2 );
+            assertThat(batch).anyMatch( change -> change.getType() == ChangeType.ADDED && change.get( "$cheese" ) == gouda );
+            assertThat(batch).anyMatch( change -> change.getType() == ChangeType.REMOVED && change.get( "$cheese" ) == stilton );
+
+            // a cycle without changes of the query doesn't publish anything
+            ksession.insert( new Cheese( "emmental", 1 ) );
+            ksession.fireAllRules();
+            assertThat(subscriber.batches).hasSize( 2 );
+
+            publisher.close();
+            assertThat(subscriber.completed).isTrue();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testChangesAreCoalescedWhileSubscriberHasNoDemand() {
+        KieSession ksession = newKieSession();
+        try {
+            ksession.insert( new Cheese( "stilton", 10 ) );
+
+            LiveQueryPublisher publisher = LiveQueryPublisher.open( ksession, "expensiveCheeses", new Object[0], Runnable::run, "$cheese" );
+            BatchSubscriber subscriber = new BatchSubscriber( 1 );
+            publisher.subscribe( subscriber );
+            assertThat(subscriber.batches).hasSize( 1 );
+
+            Cheese brie = new Cheese( "brie", 8 );
+            FactHandle brieFh = ksession.insert( brie );
+            ksession.fireAllRules();
+            brie.setPrice( 9 );
+            ksession.update( brieFh, brie );
+            ksession.fireAllRules();
+            FactHandle fetaFh = ksession.insert( new Cheese( "feta", 20 ) );
+            ksession.fireAllRules();
+            ksession.delete( fetaFh );
+            ksession.fireAllRules();
+
+            // nothing is delivered without demand
+            assertThat(subscriber.batches).hasSize( 1 );
+
+            subscriber.subscription.request( 1 );
+            assertThat(subscriber.batches).hasSize( 2 );
+            List<RowChange> batch = subscriber.batches.get( 1 );
+            assertThat(batch).hasSize( 1 );
+            assertThat(batch.get( 0 ).getType()).isEqualTo( ChangeType.ADDED );
+            assertThat(batch.get( 0 ).get( "$cheese" )).isSameAs( brie );
+
+            // a late subscriber receives the current content of the query
+            BatchSubscriber lateSubscriber = new BatchSubscriber( 1 );
+            publisher.subscribe( lateSubscriber );
+            assertThat(lateSubscriber.batches).hasSize( 1 );
+            assertThat(lateSubscriber.batches.get( 0 )).hasSize( 2 );
+
+            publisher.close();
+            assertThat(subscriber.completed).isTrue();
+            assertThat(lateSubscriber.completed).isTrue();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    private KieSession newKieSession() {
+        KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("live-query-publisher-test", kieBaseTestConfiguration, DRL);
+        return kbase.newKieSession();
+    }
+
+    private static class BatchSubscriber implements Flow.Subscriber<List<RowChange>> {
+
+        private final long initialRequest;
+        private final List<List<RowChange>> batches = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private boolean completed;
+
+        private BatchSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request( initialRequest );
+        }
+
+        @Override
+        public void onNext(List<RowChange> batch) {
+            batches.add( batch );
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            throw new AssertionError( throwable );
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.mvel.integrationtests.concurrency;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.drools.core.common.EqualityKey;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.testcoverage.common.util.KieBaseTestConfiguration;
+import org.drools.testcoverage.common.util.TestParametersUtil;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class EqualityInsertionsParallelTest extends AbstractConcurrentTest {
+
+    @Parameterized.Parameters(name = "KieBase type={0}")
+    public static Collection<Object[]> getParameters() {
+        return TestParametersUtil.getKieBaseCloudConfigurations(true, true);
+    }
+
+    public EqualityInsertionsParallelTest(final KieBaseTestConfiguration kieBaseTestConfiguration) {
+        super(false, false, false, false, kieBaseTestConfiguration);
+    }
+
+    @Test(timeout = 40000)
+    public void testConcurrentDuplicateInsertsShareTheHandle() throws InterruptedException {
+        final int threadCount = 20;
+        final int distinctFacts = 10;
+        final int insertsPerThread = 1000;
+
+        final String drl = "global java.util.concurrent.atomic.AtomicInteger counter;\n" +
+                "rule R when\n" +
+                "    String()\n" +
+                "then\n" +
+                "    counter.incrementAndGet();\n" +
+                "end";
+
+        final KieSession kieSession = getKieBase(drl).newKieSession();
+        final AtomicInteger counter = new AtomicInteger();
+        kieSession.setGlobal("counter", counter);
+
+        final ConcurrentHashMap<String, FactHandle> handles = new ConcurrentHashMap<>();
+        final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+        try {
+            parallelTest(threadCount, i -> {
+                try {
+                    barrier.await();
+                    for (int j = 0; j < insertsPerThread; j++) {
+                        // a new but equal instance at each insert
+                        final String fact = new String("fact_" + (j % distinctFacts));
+                        final FactHandle handle = kieSession.insert(fact);
+                        final FactHandle previous = handles.putIfAbsent(fact, handle);
+                        if (previous != null && previous != handle) {
+                            return false;
+                        }
+                    }
+                    return true;
+                } catch (final Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+
+            assertThat(kieSession.getFactCount()).isEqualTo(distinctFacts);
+            kieSession.fireAllRules();
+            assertThat(counter.get()).isEqualTo(distinctFacts);
+        } finally {
+            kieSession.dispose();
+        }
+    }
+
+    @Test(timeout = 40000)
+    public void testConcurrentStatedInsertOfJustifiedFact() throws InterruptedException {
+        final int threadCount = 10;
+        final int insertsPerThread = 1000;
+
+        final String drl = "rule R when\n" +
+                "    Integer()\n" +
+                "then\n" +
+                "    insertLogical(\"justified\");\n" +
+                "end";
+
+        final KieSession kieSession = getKieBase(drl).newKieSession();
+        final FactHandle integerHandle = kieSession.insert(1);
+
+        final List<FactHandle> statedHandles = new ArrayList<>();
+        final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+        try {
+            parallelTest(threadCount, i -> {
+                try {
+                    barrier.await();
+                    if (i == 0) {
+                        // the logical insertion enables the TMS while the other threads are inserting
+                        kieSession.fireAllRules();
+                        return true;
+                    }
+                    FactHandle handle = null;
+                    for (int j = 0; j < insertsPerThread; j++) {
+                        handle = kieSession.insert(new String("justified"));
+                    }
+                    synchronized (statedHandles) {
+                        statedHandles.add(handle);
+                    }
+                    return true;
+                } catch (final Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+
+            final InternalFactHandle handle = (InternalFactHandle) kieSession.getFactHandle("justified");
+            assertThat(statedHandles).containsOnly(handle);
+            assertThat(handle.getEqualityKey().getStatus()).isEqualTo(EqualityKey.STATED);
+
+            // the fact has been stated, so it survives the retraction of its justification
+            kieSession.delete(integerHandle);
+            kieSession.fireAllRules();
+            assertThat(kieSession.getObjects()).containsExactly("justified");
+        } finally {
+            kieSession.dispose();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.drools.tms;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.core.common.PropagationContext;
+import org.drools.core.common.ReteEvaluator;
+import org.drools.core.phreak.PropagationEntry;
+import org.drools.core.rule.consequence.InternalMatch;
+import org.drools.tms.beliefsystem.BeliefSet;
+
+/**
+ * Accumulates the retractions of the belief sets that lost their last justification during a propagation cycle.
+ * They are resolved in a single pass, once per EqualityKey, by a PropagationEntry scheduled with the first deferred
+ * retraction of the cycle, so they are applied before any further propagation is flushed. A belief set that is
+ * justified again in the meanwhile doesn't need to be removed from the network and its EqualityKey is kept.
+ */
+public class DeferredJustifications {
+
+    private final ReteEvaluator reteEvaluator;
+
+    private List<PendingRetraction> pendingRetractions = new ArrayList<>();
+
+    private long deferredCount;
+    private long appliedCount;
+
+    public DeferredJustifications(ReteEvaluator reteEvaluator) {
+        this.reteEvaluator = reteEvaluator;
+    }
+
+    public void deferRetraction(BeliefSet beliefSet, PropagationContext context, InternalMatch internalMatch) {
+        deferredCount++;
+        TruthMaintenanceSystemEqualityKey key = (TruthMaintenanceSystemEqualityKey) beliefSet.getFactHandle().getEqualityKey();
+        PendingRetraction retraction = key.getPendingRetraction();
+        if ( retraction != null ) {
+            // already pending in this cycle, only remember the most recent cause
+            retraction.context = context;
+            retraction.internalMatch = internalMatch;
+            return;
+        }
+
+        retraction = new PendingRetraction( key, beliefSet, context, internalMatch );
+        key.setPendingRetraction( retraction );
+        pendingRetractions.add( retraction );
+        if ( pendingRetractions.size() == 1 ) {
+            reteEvaluator.addPropagation( new ResolveDeferredRetractions( this ) );
+        }
+    }
+
+    /**
+     * Cancels the pending retraction of a belief set that has been justified again.
+     * Returns true if there was a pending retraction, meaning that the fact handle is still in the network.
+     */
+    public boolean cancelRetraction(BeliefSet beliefSet) {
+        TruthMaintenanceSystemEqualityKey key = (TruthMaintenanceSystemEqualityKey) beliefSet.getFactHandle().getEqualityKey();
+        PendingRetraction retraction = key != null ? key.getPendingRetraction() : null;
+        if ( retraction == null ) {
+            return false;
+        }
+        retraction.cancelled = true;
+        key.setPendingRetraction( null );
+        return true;
+    }
+
+    /**
+     * Applies the pending retraction of the given key, if any, ahead of the others.
+     */
+    public void resolve(TruthMaintenanceSystemEqualityKey key) {
+        PendingRetraction retraction = key.getPendingRetraction();
+        if ( retraction != null ) {
+            retraction.cancelled = true;
+            apply( retraction );
+        }
+    }
+
+    public void resolve() {
+        List<PendingRetraction> retractions = pendingRetractions;
+        pendingRetractions = new ArrayList<>();
+        for ( PendingRetraction retraction : retractions ) {
+            if ( !retraction.cancelled ) {
+                apply( retraction );
+            }
+        }
+    }
+
+    private void apply(PendingRetraction retraction) {
+        TruthMaintenanceSystemEqualityKey key = retraction.key;
+        key.setPendingRetraction( null );
+        BeliefSet beliefSet = retraction.beliefSet;
+        if ( beliefSet.isEmpty() && key.getBeliefSet() == beliefSet && beliefSet.getFactHandle().getEqualityKey() == key ) {
+            appliedCount++;
+            beliefSet.getBeliefSystem().retract( beliefSet, retraction.context, retraction.internalMatch );
+        }
+    }
+
+    public boolean hasPendingRetractions() {
+        return !pendingRetractions.isEmpty();
+    }
+
+    /**
+     * Returns the number of retractions that have been deferred, including the ones later cancelled or merged
+     * with another retraction of the same EqualityKey.
+     */
+    public long getDeferredCount() {
+        return deferredCount;
+    }
+
+    /**
+     * Returns the number of retractions that have been actually applied.
+     */
+    public long getAppliedCount() {
+        return appliedCount;
+    }
+
+    public static class PendingRetraction {
+        private final TruthMaintenanceSystemEqualityKey key;
+        private final BeliefSet beliefSet;
+        private PropagationContext context;
+        private InternalMatch internalMatch;
+        private boolean cancelled;
+
+        private PendingRetraction(TruthMaintenanceSystemEqualityKey key, BeliefSet beliefSet, PropagationContext context, InternalMatch internalMatch) {
+            this.key = key;
+            this.beliefSet = beliefSet;
+            this.context = context;
+            this.internalMatch = internalMatch;
+        }
+    }
+
+    static class ResolveDeferredRetractions extends PropagationEntry.AbstractPropagationEntry {
+
+        private final DeferredJustifications deferredJustifications;
+
+        ResolveDeferredRetractions(DeferredJustifications deferredJustifications) {
+            this.deferredJustifications = deferredJustifications;
+        }
+
+        @Override
+        public void internalExecute(ReteEvaluator reteEvaluator) {
+            deferredJustifications.resolve();
+        }
+
+        @Override
+        public String toString() {
+            return "ResolveDeferredRetractions";
+        }
+    }
+}
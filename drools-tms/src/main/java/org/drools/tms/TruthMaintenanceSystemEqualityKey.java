@@ -33,6 +33,8 @@ public class TruthMaintenanceSystemEqualityKey extends EqualityKey {
 
     private BeliefSet beliefSet;
 
+    private DeferredJustifications.PendingRetraction pendingRetraction;
+
     public TruthMaintenanceSystemEqualityKey() {
     }
 
@@ -70,4 +72,12 @@ public class TruthMaintenanceSystemEqualityKey extends EqualityKey {
     public void setBeliefSet(BeliefSet beliefSet) {
         this.beliefSet = beliefSet;
     }
+
+    public DeferredJustifications.PendingRetraction getPendingRetraction() {
+        return pendingRetraction;
+    }
+
+    public void setPendingRetraction(DeferredJustifications.PendingRetraction pendingRetraction) {
+        this.pendingRetraction = pendingRetraction;
+    }
 }
@@ -57,6 +57,8 @@ public class TruthMaintenanceSystemImpl implements TruthMaintenanceSystem {
 
     private final AssertBehaviour assertBehaviour;
 
+    private final DeferredJustifications deferredJustifications;
+
     public TruthMaintenanceSystemImpl(InternalWorkingMemoryEntryPoint ep) {
         this.ep = ep;
 
@@ -66,6 +68,9 @@ public class TruthMaintenanceSystemImpl implements TruthMaintenanceSystem {
 
         this.equalityKeyMap = new CustomKeyTransformerHashMap<>(EqualityKeyPlaceholder::transformEqualityKey);
 
+        this.deferredJustifications = ep.getReteEvaluator().getRuleSessionConfiguration().isDeferredJustification() ?
+                new DeferredJustifications(ep.getReteEvaluator()) : null;
+
         this.defaultBeliefSystem = BeliefSystemFactory.createBeliefSystem(ep.getReteEvaluator().getRuleSessionConfiguration().getBeliefSystemType(), ep, this);
     }
 
@@ -122,6 +127,13 @@ public class TruthMaintenanceSystemImpl implements TruthMaintenanceSystem {
         // get the key for other "equal" objects, returns null if none exist
         EqualityKey key = get(object);
 
+        if ( key != null && ((TruthMaintenanceSystemEqualityKey) key).getPendingRetraction() != null &&
+             !isDeferredRetractionReusable( ((TruthMaintenanceSystemEqualityKey) key).getBeliefSet(), tmsValue ) ) {
+            // the belief system cannot justify again with this value a fact whose retraction is pending, so apply it first
+            deferredJustifications.resolve( (TruthMaintenanceSystemEqualityKey) key );
+            key = get(object);
+        }
+
         InternalFactHandle fh;
         if ( key == null ) {
             // no EqualityKey exits, so we construct one. We know it can only be justified.
@@ -143,6 +155,10 @@ public class TruthMaintenanceSystemImpl implements TruthMaintenanceSystem {
         return addLogicalDependency(fh, object, tmsValue, (TruthMaintenanceSystemInternalMatch) internalMatch, typeConf, false);
     }
 
+    private boolean isDeferredRetractionReusable(BeliefSet beliefSet, Object tmsValue) {
+        return beliefSet.getBeliefSystem().isDeferredRetractionReusable( beliefSet, tmsValue );
+    }
+
     @Override
     public void delete(FactHandle fh) {
         if ( fh == null ) {
@@ -248,6 +264,13 @@ public class TruthMaintenanceSystemImpl implements TruthMaintenanceSystem {
         return defaultBeliefSystem;
     }
 
+    /**
+     * Returns the retractions deferred in the current propagation cycle, or null if deferred justification is disabled.
+     */
+    public DeferredJustifications getDeferredJustifications() {
+        return deferredJustifications;
+    }
+
     /**
      * TMS will be automatically enabled when the first logical insert happens.
      *
@@ -43,6 +43,20 @@ public interface BeliefSystem<M extends ModedAssertion<M>> {
     
     void delete(M mode, RuleImpl rule, InternalMatch internalMatch, Object payload, BeliefSet<M> beliefSet, PropagationContext context);
 
+    /**
+     * Removes the fact handle of a belief set without justifications from the network and clears its EqualityKey.
+     * Used to apply the retractions deferred by {@link org.drools.tms.DeferredJustifications}.
+     */
+    void retract(BeliefSet<M> beliefSet, PropagationContext context, InternalMatch internalMatch);
+
+    /**
+     * Returns true if a belief set whose retraction has been deferred can be justified again with the given value while
+     * still in the network. Otherwise the deferred retraction is applied before the new justification is added.
+     */
+    default boolean isDeferredRetractionReusable(BeliefSet<M> beliefSet, Object value) {
+        return false;
+    }
+
     BeliefSet newBeliefSet(InternalFactHandle fh);
     
     LogicalDependency newLogicalDependency(TruthMaintenanceSystemInternalMatch<M> activation, BeliefSet<M> beliefSet, Object object, Object value);
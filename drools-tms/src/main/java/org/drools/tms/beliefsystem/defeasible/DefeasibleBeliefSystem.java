@@ -49,6 +49,12 @@ public class DefeasibleBeliefSystem<M extends DefeasibleMode<M>> extends JTMSBel
         return super.insert( mode, rule, activation, payload, beliefSet, context, typeConf );
     }
 
+    @Override
+    public boolean isDeferredRetractionReusable(BeliefSet<M> beliefSet, Object value) {
+        // the defeasible status of a belief set is not only decided by the polarity of its justifications
+        return false;
+    }
+
     public LogicalDependency<M> newLogicalDependency(TruthMaintenanceSystemInternalMatch<M> activation, BeliefSet<M> beliefSet, Object object, Object value) {
         M mode = asMode( value );
         DefeasibleLogicalDependency<M> dep = new DefeasibleLogicalDependency(activation, beliefSet, object, mode);
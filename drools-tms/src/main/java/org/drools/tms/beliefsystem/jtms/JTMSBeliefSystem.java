@@ -20,7 +20,9 @@ package org.drools.tms.beliefsystem.jtms;
 
 import org.drools.core.WorkingMemoryEntryPoint;
 import org.drools.core.rule.consequence.InternalMatch;
+import org.drools.tms.DeferredJustifications;
 import org.drools.tms.TruthMaintenanceSystemEqualityKey;
+import org.drools.tms.TruthMaintenanceSystemImpl;
 import org.drools.tms.beliefsystem.BeliefSet;
 import org.drools.core.common.EqualityKey;
 import org.drools.core.common.InternalFactHandle;
@@ -48,11 +50,13 @@ public class JTMSBeliefSystem<M extends JTMSMode<M>>
 
     private   TruthMaintenanceSystem tms;
     protected InternalWorkingMemoryEntryPoint        ep;
+    private   DeferredJustifications deferredJustifications;
 
     public JTMSBeliefSystem(InternalWorkingMemoryEntryPoint ep,
                             TruthMaintenanceSystem tms) {
         this.ep = ep;
         this.tms = tms;
+        this.deferredJustifications = tms instanceof TruthMaintenanceSystemImpl ? ((TruthMaintenanceSystemImpl) tms).getDeferredJustifications() : null;
     }
 
     public TruthMaintenanceSystem getTruthMaintenanceSystem() {
@@ -73,6 +77,11 @@ public class JTMSBeliefSystem<M extends JTMSMode<M>>
 
         jtmsBeliefSet.add( mode );
 
+        if ( wasEmpty && deferredJustifications != null && deferredJustifications.cancelRetraction( beliefSet ) ) {
+            // the fact whose retraction has been deferred is still in the network with the same polarity, see isDeferredRetractionReusable
+            return beliefSet;
+        }
+
         if ( !wasEmpty && wasDecided && fh.isNegated() != beliefSet.isNegated() ) {
             // if it was decided, first remove it and re-add it. So it's in the correct map
             ep.getObjectStore().removeHandle(fh);
@@ -131,6 +140,12 @@ public class JTMSBeliefSystem<M extends JTMSMode<M>>
 
         beliefSet.remove( mode );
 
+        if ( deferredJustifications != null && beliefSet.isEmpty() && fh.getEqualityKey().getStatus() == EqualityKey.JUSTIFIED ) {
+            // the fact stays in the network and in the object store with its current polarity until the retraction is applied
+            deferredJustifications.deferRetraction( beliefSet, context, internalMatch );
+            return;
+        }
+
         if ( wasDecided && fh.isNegated() != beliefSet.isNegated() ) {
             // if it was decided, first remove it and re-add it. So it's in the correct map
             ep.getObjectStore().removeHandle(fh);
@@ -223,6 +238,48 @@ public class JTMSBeliefSystem<M extends JTMSMode<M>>
         return false;
     }
 
+    @Override
+    public void retract(BeliefSet<M> beliefSet, PropagationContext context, InternalMatch internalMatch) {
+        InternalFactHandle fh = beliefSet.getFactHandle();
+        EqualityKey key = fh.getEqualityKey();
+
+        if ( fh.isNegated() ) {
+            // the polarity has been kept while the retraction was pending, reset it as a direct retraction does
+            ep.getObjectStore().removeHandle(fh);
+            fh.setNegated( false );
+            ep.getObjectStore().addHandle(fh, fh.getObject() );
+        }
+
+        if ( key.getStatus() == EqualityKey.JUSTIFIED ) {
+            ep.delete(fh, fh.getObject(), getObjectTypeConf(beliefSet), context.getRuleOrigin(),
+                      internalMatch != null ? internalMatch.getTuple().getTupleSink() : null);
+        }
+
+        key.setLogicalFactHandle( null );
+        ((TruthMaintenanceSystemEqualityKey)key).setBeliefSet(null);
+
+        if ( key.getStatus() == EqualityKey.JUSTIFIED ) {
+            tms.remove( key );
+        }
+    }
+
+    @Override
+    public boolean isDeferredRetractionReusable(BeliefSet<M> beliefSet, Object value) {
+        // a deferred retraction leaves the fact in the network with its last polarity, so only a justification with the
+        // same polarity can reuse it, while a justification of the opposite one has to insert it again
+        return beliefSet.getFactHandle().isNegated() == isNegative( value );
+    }
+
+    private static boolean isNegative(Object value) {
+        if ( value instanceof JTMSMode ) {
+            return MODE.NEGATIVE.getId().equals( ((JTMSMode) value).getValue() );
+        }
+        if ( value instanceof MODE ) {
+            return value == MODE.NEGATIVE;
+        }
+        return value != null && !MODE.POSITIVE.getId().equals( value );
+    }
+
     public void stage(PropagationContext context,
                       BeliefSet<M> beliefSet) {
         InternalFactHandle bfh = beliefSet.getFactHandle();
@@ -25,6 +25,7 @@ import org.drools.core.common.EqualityKey;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.InternalWorkingMemoryEntryPoint;
 import org.drools.kiesession.entrypoints.NamedEntryPoint;
+import org.drools.tms.DeferredJustifications;
 import org.drools.core.common.ObjectTypeConfigurationRegistry;
 import org.drools.core.common.TruthMaintenanceSystem;
 import org.drools.base.definitions.rule.impl.RuleImpl;
@@ -33,6 +34,7 @@ import org.drools.core.rule.consequence.InternalMatch;
 import org.drools.core.common.PropagationContext;
 import org.drools.tms.LogicalDependency;
 import org.drools.tms.SimpleMode;
+import org.drools.tms.TruthMaintenanceSystemImpl;
 import org.drools.tms.agenda.TruthMaintenanceSystemInternalMatch;
 import org.drools.tms.beliefsystem.BeliefSystem;
 
@@ -47,12 +49,14 @@ public class SimpleBeliefSystem
         BeliefSystem<SimpleMode> {
     private InternalWorkingMemoryEntryPoint        ep;
     private TruthMaintenanceSystem tms;
+    private DeferredJustifications deferredJustifications;
 
     public SimpleBeliefSystem(InternalWorkingMemoryEntryPoint ep,
                               TruthMaintenanceSystem tms) {
         super();
         this.ep = ep;
         this.tms = tms;
+        this.deferredJustifications = tms instanceof TruthMaintenanceSystemImpl ? ((TruthMaintenanceSystemImpl) tms).getDeferredJustifications() : null;
     }
 
     public TruthMaintenanceSystem getTruthMaintenanceSystem() {
@@ -73,7 +77,7 @@ public class SimpleBeliefSystem
         beliefSet.add( node.getMode() );
 
         InternalFactHandle bfh = beliefSet.getFactHandle();
-        if ( empty && bfh.getEqualityKey().getStatus() == EqualityKey.JUSTIFIED ) {
+        if ( empty && !isRetractionPending( beliefSet ) && bfh.getEqualityKey().getStatus() == EqualityKey.JUSTIFIED ) {
             ep.insert( bfh,
                        bfh.getObject(),
                        node.getJustifier().getRule(),
@@ -95,7 +99,7 @@ public class SimpleBeliefSystem
         beliefSet.add( mode );
 
         InternalFactHandle bfh = beliefSet.getFactHandle();
-        if ( empty && bfh.getEqualityKey().getStatus() == EqualityKey.JUSTIFIED ) {
+        if ( empty && !isRetractionPending( beliefSet ) && bfh.getEqualityKey().getStatus() == EqualityKey.JUSTIFIED ) {
             ep.insert( bfh,
                        bfh.getObject(),
                        rule,
@@ -105,6 +109,11 @@ public class SimpleBeliefSystem
         return beliefSet;
     }
 
+    private boolean isRetractionPending(BeliefSet<SimpleMode> beliefSet) {
+        // a justified fact whose retraction has been deferred is still in the network, so it doesn't need to be inserted again
+        return deferredJustifications != null && deferredJustifications.cancelRetraction( beliefSet );
+    }
+
     public void read(LogicalDependency<SimpleMode> node,
                      BeliefSet<SimpleMode> beliefSet,
                      PropagationContext context,
@@ -126,6 +135,11 @@ public class SimpleBeliefSystem
 
         InternalFactHandle bfh = beliefSet.getFactHandle();
 
+        if ( deferredJustifications != null && beliefSet.isEmpty() && bfh.getEqualityKey() != null && bfh.getEqualityKey().getStatus() == EqualityKey.JUSTIFIED ) {
+            deferredJustifications.deferRetraction( beliefSet, context, internalMatch );
+            return;
+        }
+
         if ( beliefSet.isEmpty() && bfh.getEqualityKey() != null && bfh.getEqualityKey().getStatus() == EqualityKey.JUSTIFIED ) {
             ep.immediateDelete(bfh, bfh.getObject(), getObjectTypeConf(beliefSet), context.getRuleOrigin(),
                                internalMatch != null ? internalMatch.getTuple().getTupleSink() : null);
@@ -150,6 +164,29 @@ public class SimpleBeliefSystem
         }
     }
 
+    @Override
+    public void retract(BeliefSet<SimpleMode> beliefSet, PropagationContext context, InternalMatch internalMatch) {
+        InternalFactHandle bfh = beliefSet.getFactHandle();
+        EqualityKey key = bfh.getEqualityKey();
+
+        if ( key.getStatus() == EqualityKey.JUSTIFIED ) {
+            ep.immediateDelete(bfh, bfh.getObject(), getObjectTypeConf(beliefSet), context.getRuleOrigin(),
+                               internalMatch != null ? internalMatch.getTuple().getTupleSink() : null);
+        }
+
+        key.setLogicalFactHandle( null );
+        ((TruthMaintenanceSystemEqualityKey)key).setBeliefSet( null );
+
+        if ( key.getStatus() == EqualityKey.JUSTIFIED ) {
+            tms.remove( key );
+        }
+    }
+
+    @Override
+    public boolean isDeferredRetractionReusable(BeliefSet<SimpleMode> beliefSet, Object value) {
+        return true;
+    }
+
     public void stage(PropagationContext context,
                       BeliefSet<SimpleMode> beliefSet) {
         InternalFactHandle bfh = beliefSet.getFactHandle();
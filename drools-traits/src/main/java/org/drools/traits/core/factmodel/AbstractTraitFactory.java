@@ -29,6 +29,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.BitSet;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 import org.drools.core.impl.InternalRuleBase;
@@ -66,6 +67,11 @@ public abstract class AbstractTraitFactory<T extends Thing<K>, K extends Traitab
 
     protected Map<Class, Class<? extends CoreWrapper<?>>> wrapperCache = new HashMap<>();
 
+    /**
+     * The constructors of the factoryCache, indexed by core and trait class to avoid building the string key on each don
+     */
+    private transient Map<Class<?>, Map<Class<?>, Constructor>> constructorsByClass;
+
     private final static TraitClassBuilderFactory traitClassBuilderFactory = new TraitClassBuilderFactory();
 
     public AbstractTraitFactory() {
@@ -123,13 +129,18 @@ public abstract class AbstractTraitFactory<T extends Thing<K>, K extends Traitab
             return (T) core.getTrait(traitName);
         }
 
-        String key = getKey(core.getClass(), trait);
-
         Constructor<T> konst;
         synchronized (this) {
-            konst = factoryCache.get(key);
+            konst = getCachedConstructor(core.getClass(), trait);
             if (konst == null) {
-                konst = cacheConstructor(key, core, trait);
+                String key = getKey(core.getClass(), trait);
+                konst = factoryCache.get(key);
+                if (konst == null) {
+                    konst = cacheConstructor(key, core, trait);
+                }
+                if (konst != null) {
+                    constructorsByClass.computeIfAbsent(core.getClass(), k -> new IdentityHashMap<>()).put(trait, konst);
+                }
             }
         }
 
@@ -154,6 +165,15 @@ public abstract class AbstractTraitFactory<T extends Thing<K>, K extends Traitab
         throw new LogicalTypeInconsistencyException("Could not apply trait " + trait + " to object " + core, trait, core.getClass());
     }
 
+    private Constructor<T> getCachedConstructor(Class<?> coreKlass, Class<?> trait) {
+        if (constructorsByClass == null) {
+            constructorsByClass = new IdentityHashMap<>();
+            return null;
+        }
+        Map<Class<?>, Constructor> constructors = constructorsByClass.get(coreKlass);
+        return constructors != null ? constructors.get(trait) : null;
+    }
+
     protected Constructor<T> cacheConstructor(String key, K core, Class<?> trait) {
         Class<T> proxyClass = buildProxyClass(core, trait);
         if (proxyClass == null) {
@@ -99,7 +99,11 @@ public class StandaloneTest {
         assertThat(foo instanceof Thing).isTrue();
     }
 
-
-
-
+    @Test
+    public void testProxyClassesArePerFactory() throws LogicalTypeInconsistencyException {
+        // each factory defines its proxies in its own class loader, so that they can be resolved by name through it
+        IStudent student1 = (IStudent) createStandaloneTraitFactory().don( new Entity( "x" ), IStudent.class );
+        IStudent student2 = (IStudent) createStandaloneTraitFactory().don( new Entity( "y" ), IStudent.class );
+        assertThat(student2.getClass()).isNotSameAs(student1.getClass());
+    }
 }
@@ -23,11 +23,13 @@ import org.kie.api.conf.OptionKey;
 /**
  * An Enum for AlphaNetworkCompilerOption option.
  *
- * drools.alphaNetworkCompiler = &lt;disabled|inmemory|load&gt;
+ * drools.alphaNetworkCompiler = &lt;disabled|inmemory|load|tiered&gt;
  *
  * Disabled: Do not generate compiled alpha network
  * InMemory: Generate compiled alpha network after creation of the kiebase and compile it in-memory
  * Load    : Assume compiled alpha network is already compiled in the kjar, load it from the classpath
+ * Tiered  : Start with the interpreted alpha network and compile it in-memory, in background, only for the
+ *           object types receiving more propagations than drools.alphaNetworkCompiler.tieredThreshold
  *
  * DEFAULT = disabled
  */
@@ -35,7 +37,8 @@ public enum AlphaNetworkCompilerOption implements SingleValueRuleBuilderOption {
 
     DISABLED("disabled"),
     INMEMORY("inmemory"),
-    LOAD("load");
+    LOAD("load"),
+    TIERED("tiered");
 
     public static final String PROPERTY_NAME = "drools.alphaNetworkCompiler";
 
@@ -65,6 +68,8 @@ public enum AlphaNetworkCompilerOption implements SingleValueRuleBuilderOption {
             return DISABLED;
         } else if ( LOAD.getMode().equalsIgnoreCase(mode ) ) {
             return LOAD;
+        } else if ( TIERED.getMode().equalsIgnoreCase(mode ) ) {
+            return TIERED;
         }
         throw new IllegalArgumentException( "Illegal enum value '" + mode + "' for AlphaNetworkCompilerOption" );
     }
@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.internal.conf;
+
+import org.kie.api.conf.OptionKey;
+import org.kie.api.conf.SingleValueRuleBaseOption;
+
+/**
+ * A class for the configuration of the number of partitions used by group by nodes to accumulate the
+ * groups in parallel. Groups are assigned to a partition by the hash of their key and each partition is
+ * accumulated on a different thread. The default value of 1 accumulates all the groups on the firing thread.
+ */
+public class GroupByPartitionsOption implements SingleValueRuleBaseOption {
+    private static final long serialVersionUID = 510l;
+
+    /**
+     * The property name
+     */
+    public static final String PROPERTY_NAME = "drools.groupBy.partitions";
+
+    public static OptionKey<GroupByPartitionsOption> KEY = new OptionKey<>(TYPE, PROPERTY_NAME);
+
+    /**
+     * The default value for this option
+     */
+    public static final int DEFAULT_VALUE = 1;
+
+    /**
+     * number of partitions
+     */
+    private final int partitions;
+
+    /**
+     * Private constructor to enforce the use of the factory method
+     * @param partitions
+     */
+    private GroupByPartitionsOption( int partitions ) {
+        this.partitions = partitions;
+    }
+
+    /**
+     * This is a factory method for this group by partitions configuration.
+     * The factory method is a best practice for the case where the
+     * actual object construction is changed in the future.
+     *
+     * @param partitions the number of partitions used to accumulate the groups
+     *
+     * @return the actual type safe group by partitions configuration.
+     */
+    public static GroupByPartitionsOption get( int partitions ) {
+        return new GroupByPartitionsOption( partitions );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    /**
+     * Returns the number of partitions used to accumulate the groups
+     *
+     * @return
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + partitions;
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if ( this == obj ) { return true; }
+        if ( obj == null ) { return false; }
+        if ( getClass() != obj.getClass() ) { return false; }
+        GroupByPartitionsOption other = (GroupByPartitionsOption) obj;
+        if ( partitions != other.partitions ) {
+            return false;
+        }
+        return true;
+    }
+
+}
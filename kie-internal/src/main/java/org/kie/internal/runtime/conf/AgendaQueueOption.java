@@ -0,0 +1,81 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.internal.runtime.conf;
+
+import org.kie.api.conf.OptionKey;
+import org.kie.api.runtime.conf.SingleValueRuleRuntimeOption;
+
+/**
+ * An option to define the queue used by each agenda group to order the rules having pending matches.
+ *
+ * PRIORITY keeps the rules in a priority queue sorted by salience, rule load order and terminal node id.
+ * BUCKETED_FIFO and BUCKETED_LIFO keep one bucket per distinct salience value, so adding and removing a rule
+ * doesn't depend on the number of rules on the agenda. Rules with the same salience are taken from their bucket in
+ * insertion (FIFO) or reverse insertion (LIFO) order instead of load order. Rules with a dynamic salience are
+ * still kept in a priority queue, compared with the head of the highest non empty bucket.
+ *
+ * drools.agenda.queue = &lt;priority|bucketed-fifo|bucketed-lifo&gt;
+ *
+ * DEFAULT = priority
+ */
+public enum AgendaQueueOption implements SingleValueRuleRuntimeOption {
+
+    PRIORITY("priority"),
+    BUCKETED_FIFO("bucketed-fifo"),
+    BUCKETED_LIFO("bucketed-lifo");
+
+    private static final long serialVersionUID = 510l;
+
+    /**
+     * The property name for the agenda queue configuration
+     */
+    public static final String PROPERTY_NAME = "drools.agenda.queue";
+
+    public static OptionKey<AgendaQueueOption> KEY = new OptionKey<>(TYPE, PROPERTY_NAME);
+
+    private final String string;
+
+    AgendaQueueOption( final String string ) {
+        this.string = string;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public String getAsString() {
+        return string;
+    }
+
+    public boolean isBucketed() {
+        return this != PRIORITY;
+    }
+
+    public static AgendaQueueOption determineAgendaQueue(String value) {
+        for (AgendaQueueOption option : values()) {
+            if (option.string.equalsIgnoreCase(value)) {
+                return option;
+            }
+        }
+        throw new IllegalArgumentException( "Illegal enum value '" + value + "' for AgendaQueueOption" );
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.internal.runtime.conf;
+
+import org.kie.api.conf.OptionKey;
+import org.kie.api.runtime.conf.SingleValueRuleRuntimeOption;
+
+/**
+ * An option to define if the expiration of events should be batched. When enabled, the events propagated through
+ * the same object type node of an entry point are kept in a single queue ordered by expiration time, and one job
+ * per queue expires all the events that are due at once, instead of scheduling one expire job for each event.
+ * This option is ignored when the kbase uses parallel evaluation.
+ *
+ * drools.batchedExpiration = &lt;true|false&gt;
+ *
+ * DEFAULT = false
+ */
+public enum BatchedExpirationOption implements SingleValueRuleRuntimeOption {
+
+    YES(true),
+    NO(false);
+
+    private static final long serialVersionUID = 510l;
+
+    /**
+     * The property name for the batched expiration configuration
+     */
+    public static final String PROPERTY_NAME = "drools.batchedExpiration";
+
+    public static OptionKey<BatchedExpirationOption> KEY = new OptionKey<>(TYPE, PROPERTY_NAME);
+
+    private final boolean batched;
+
+    /**
+     * Private constructor to enforce the use of the factory method
+     * @param batched
+     */
+    BatchedExpirationOption( final boolean batched ) {
+        this.batched = batched;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isBatched() {
+        return batched;
+    }
+
+}
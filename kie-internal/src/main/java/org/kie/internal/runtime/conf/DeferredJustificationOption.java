@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.internal.runtime.conf;
+
+import org.kie.api.conf.OptionKey;
+import org.kie.api.runtime.conf.SingleValueRuleRuntimeOption;
+
+/**
+ * An option to define if the truth maintenance system should defer the retraction of logically inserted facts
+ * that lost their last justification. When enabled, the retractions happening during one propagation cycle are
+ * accumulated and resolved in a single pass, once per equality key, before the next propagations are flushed.
+ * A fact that is justified again before that point keeps its fact handle and it is never removed from the network.
+ *
+ * drools.tms.deferredJustification = &lt;true|false&gt;
+ *
+ * DEFAULT = false
+ */
+public enum DeferredJustificationOption implements SingleValueRuleRuntimeOption {
+
+    YES(true),
+    NO(false);
+
+    private static final long serialVersionUID = 510l;
+
+    /**
+     * The property name for the deferred justification configuration
+     */
+    public static final String PROPERTY_NAME = "drools.tms.deferredJustification";
+
+    public static OptionKey<DeferredJustificationOption> KEY = new OptionKey<>(TYPE, PROPERTY_NAME);
+
+    private final boolean deferred;
+
+    /**
+     * Private constructor to enforce the use of the factory method
+     * @param deferred
+     */
+    DeferredJustificationOption( final boolean deferred ) {
+        this.deferred = deferred;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isDeferred() {
+        return deferred;
+    }
+
+}
@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.internal.runtime.conf;
+
+import org.kie.api.conf.OptionKey;
+import org.kie.api.runtime.conf.SingleValueRuleRuntimeOption;
+
+/**
+ * An option to define if the KieSession should create all its segment and path memories when it is created,
+ * instead of lazily when the first fact reaches each rule. Enabling this moves the cost of initializing the
+ * network memories from the first insertions to the session creation, which makes the latency of the first
+ * rule firings more predictable for short lived sessions.
+ *
+ * drools.preallocateSegmentMemories = &lt;true|false&gt;
+ *
+ * DEFAULT = false
+ */
+public enum PreallocateSegmentMemoriesOption implements SingleValueRuleRuntimeOption {
+
+    YES(true),
+    NO(false);
+
+    private static final long serialVersionUID = 510l;
+
+    /**
+     * The property name for the segment memories preallocation configuration
+     */
+    public static final String PROPERTY_NAME = "drools.preallocateSegmentMemories";
+
+    public static OptionKey<PreallocateSegmentMemoriesOption> KEY = new OptionKey<>(TYPE, PROPERTY_NAME);
+
+    private final boolean preallocate;
+
+    /**
+     * Private constructor to enforce the use of the factory method
+     * @param preallocate
+     */
+    PreallocateSegmentMemoriesOption( final boolean preallocate ) {
+        this.preallocate = preallocate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isPreallocate() {
+        return preallocate;
+    }
+
+}
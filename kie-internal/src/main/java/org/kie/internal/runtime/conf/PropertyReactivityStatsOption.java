@@ -0,0 +1,68 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.kie.internal.runtime.conf;
+
+import org.kie.api.conf.OptionKey;
+import org.kie.api.runtime.conf.SingleValueRuleRuntimeOption;
+
+/**
+ * An option to define if the session should count how many node re-evaluations caused by modifications were
+ * avoided by property reactivity and how many were performed with a modification mask having all its bits set,
+ * i.e. re-evaluations that property reactivity had no chance to filter.
+ *
+ * drools.propertyReactivityStats = &lt;true|false&gt;
+ *
+ * DEFAULT = false
+ */
+public enum PropertyReactivityStatsOption implements SingleValueRuleRuntimeOption {
+
+    YES(true),
+    NO(false);
+
+    private static final long serialVersionUID = 510l;
+
+    /**
+     * The property name for the property reactivity statistics configuration
+     */
+    public static final String PROPERTY_NAME = "drools.propertyReactivityStats";
+
+    public static OptionKey<PropertyReactivityStatsOption> KEY = new OptionKey<>(TYPE, PROPERTY_NAME);
+
+    private final boolean enabled;
+
+    /**
+     * Private constructor to enforce the use of the factory method
+     * @param enabled
+     */
+    PropertyReactivityStatsOption( final boolean enabled ) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+}